@@ -0,0 +1,27 @@
+package de.unileipzig.dbs.pprl.service.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for bulk writes of records, record pairs and clusters.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "pprl.bulk")
+@Data
+public class MongoBulkConfig {
+
+  public static final int DEFAULT_BATCH_SIZE = 1000;
+
+  /**
+   * Maximum number of documents sent in one unordered bulk write.
+   */
+  private int batchSize = DEFAULT_BATCH_SIZE;
+
+  /**
+   * Write concern of bulk writes, e.g. ACKNOWLEDGED, W1, JOURNALED, MAJORITY or UNACKNOWLEDGED.
+   * The write concern of the MongoDB client is used if not set.
+   */
+  private String writeConcern;
+}
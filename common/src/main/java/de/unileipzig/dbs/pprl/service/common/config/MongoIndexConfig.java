@@ -0,0 +1,25 @@
+package de.unileipzig.dbs.pprl.service.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the MongoDB indexes of records, record pairs and clusters.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "pprl.indexes")
+@Data
+public class MongoIndexConfig {
+
+  /**
+   * Create the declared indexes of existing collections at startup, also if auto index creation is disabled.
+   */
+  private boolean createOnStartup = true;
+
+  /**
+   * Record the queries on the indexed collections that are executed as collection scans with the database profiler
+   * and log them after each linkage phase. Not available on mongos or without the profile privilege.
+   */
+  private boolean checkUsage = true;
+}
@@ -0,0 +1,28 @@
+package de.unileipzig.dbs.pprl.service.common.config;
+
+import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoRecord;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for storing record attributes in MongoDB.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "pprl.records")
+@Data
+public class MongoRecordConfig {
+
+  public static final MongoRecord.AttributeStorage DEFAULT_ATTRIBUTE_STORAGE = MongoRecord.AttributeStorage.STRING;
+
+  /**
+   * Form in which attributes of new records are written. Stored records keep their form until they are
+   * migrated. Both forms are always read.
+   */
+  private MongoRecord.AttributeStorage attributeStorage = DEFAULT_ATTRIBUTE_STORAGE;
+
+  /**
+   * Rewrite the attributes of all stored records in {@link #attributeStorage} form at startup.
+   */
+  private boolean migrateAttributes = false;
+}
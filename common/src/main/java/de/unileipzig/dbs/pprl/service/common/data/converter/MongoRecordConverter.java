@@ -1,12 +1,26 @@
 package de.unileipzig.dbs.pprl.service.common.data.converter;
 
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.service.common.config.MongoRecordConfig;
 import de.unileipzig.dbs.pprl.service.common.data.dto.RecordDto;
 import de.unileipzig.dbs.pprl.service.common.data.dto.RecordIdDto;
 import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoRecord;
 
 public class MongoRecordConverter extends AbstractRecordConverter<RecordDto> {
 
+  /**
+   * Form in which the attributes of converted records are written
+   */
+  private final MongoRecord.AttributeStorage attributeStorage;
+
+  public MongoRecordConverter() {
+    this(MongoRecordConfig.DEFAULT_ATTRIBUTE_STORAGE);
+  }
+
+  public MongoRecordConverter(MongoRecord.AttributeStorage attributeStorage) {
+    this.attributeStorage = attributeStorage;
+  }
+
   @Override
   public Record toRecord(RecordDto dto) {
     MongoRecord record = emptyRecord(dto.getDatasetId(), dto.getId());
@@ -43,7 +57,9 @@ public class MongoRecordConverter extends AbstractRecordConverter<RecordDto> {
   }
 
   private MongoRecord emptyRecord(long datasetId, RecordIdDto idDto) {
-    return new MongoRecord(datasetId, toRecordId(idDto));
+    MongoRecord record = new MongoRecord(datasetId, toRecordId(idDto));
+    record.setAttributeStorage(attributeStorage);
+    return record;
   }
 
 }
@@ -0,0 +1,39 @@
+package de.unileipzig.dbs.pprl.service.common.data.mongo;
+
+import de.unileipzig.dbs.pprl.core.common.model.api.BlockingKey;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Set;
+
+/**
+ * Blocking keys of a single record within a project. The index on the blocking keys serves as inverted index from
+ * blocking keys to records.
+ */
+@Data
+@NoArgsConstructor
+@Document
+@CompoundIndex(name = "project_record", def = "{'projectId': 1, 'recordId': 1}", unique = true)
+public class MongoBlockingPosting {
+
+  @Id
+  private ObjectId objectId;
+
+  private ObjectId projectId;
+
+  private String recordId;
+
+  @Indexed
+  private Set<BlockingKey> blockingKeys;
+
+  public MongoBlockingPosting(ObjectId projectId, String recordId, Set<BlockingKey> blockingKeys) {
+    this.projectId = projectId;
+    this.recordId = recordId;
+    this.blockingKeys = blockingKeys;
+  }
+}
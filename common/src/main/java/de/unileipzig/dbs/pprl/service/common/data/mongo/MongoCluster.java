@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.Singular;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DocumentReference;
@@ -20,12 +21,12 @@ import java.util.Set;
 @Data
 @Builder
 @Document
+@CompoundIndex(name = "project_blocking_keys", def = "{'projectId': 1, 'blockingKeys': 1}")
 public class MongoCluster implements RecordCluster {
 
   @Id
   private ObjectId objectId;
 
-  @Indexed
   private ObjectId projectId;
 
   @Singular
@@ -69,9 +70,13 @@ public class MongoCluster implements RecordCluster {
     return new ArrayList<>(records);
   }
 
+  /**
+   * The first record is not cached as representative, since it may be a projection without attributes
+   * that must not be embedded when the cluster is saved. The records themselves are stored by reference.
+   */
   public MongoRecord getRepresentative() {
     if (representative == null) {
-      representative = records.iterator().next();
+      return records.iterator().next();
     }
     return representative;
   }
@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.Singular;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Map;
@@ -23,6 +24,7 @@ public class MongoDataset {
 
   private String datasetName;
 
+  @Indexed
   private Long plaintextDatasetId;
 
   private EncodingIdDto encodingIdDto;
@@ -18,13 +18,17 @@ package de.unileipzig.dbs.pprl.service.common.data.mongo;
 
 import de.unileipzig.dbs.pprl.core.common.factories.AttributeFactory;
 import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
+import de.unileipzig.dbs.pprl.core.common.model.api.ListAttribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordId;
+import de.unileipzig.dbs.pprl.core.common.model.impl.AttributeLight;
+import de.unileipzig.dbs.pprl.core.common.model.impl.ListAttributeLight;
 import de.unileipzig.dbs.pprl.core.common.model.impl.RecordIdMap;
 import de.unileipzig.dbs.pprl.core.common.serialization.AttributeSerializationType;
 import de.unileipzig.dbs.pprl.core.common.serialization.SerializationUtils;
 import de.unileipzig.dbs.pprl.service.common.data.dto.EncodingIdDto;
+import org.bson.types.Binary;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
@@ -41,12 +45,30 @@ import java.util.stream.Collectors;
 
 /**
  * Implementation of a {@link Record} for MongoDB.
+ * Attributes are stored either as "ordinal###value" strings or, in {@link AttributeStorage#BINARY} mode,
+ * as BSON binaries containing {@link AttributeLight#getRawBytes()}. Both forms are read.
  */
 @Document
 public class MongoRecord implements Record {
 
   public static final String SEPARATOR = "###";
 
+  public static final String FIELD_STRING_ATTRIBUTES = "stringAttributes";
+
+  public static final String FIELD_BINARY_ATTRIBUTES = "binaryAttributes";
+
+  /**
+   * BSON binary subtype (user defined range) of a single attribute
+   */
+  public static final byte BINARY_SUBTYPE_ATTRIBUTE = (byte) 0x80;
+
+  /**
+   * BSON binary subtype (user defined range) of a list attribute
+   */
+  public static final byte BINARY_SUBTYPE_LIST_ATTRIBUTE = (byte) 0x81;
+
+  public enum AttributeStorage {STRING, BINARY}
+
   @Id
   private ObjectId objectId;
 
@@ -61,6 +83,8 @@ public class MongoRecord implements Record {
 
   private Map<String, String> stringAttributes = new HashMap<>();
 
+  private Map<String, Binary> binaryAttributes = new HashMap<>();
+
   /**
    * Identifier of the record
    */
@@ -72,6 +96,15 @@ public class MongoRecord implements Record {
   @Transient
   private Map<String, Attribute> attributes;
 
+  /**
+   * Form in which attributes are written, set by the
+   * {@link de.unileipzig.dbs.pprl.service.common.data.converter.MongoRecordConverter} from the
+   * {@link de.unileipzig.dbs.pprl.service.common.config.MongoRecordConfig}. If not set, a record keeps the form
+   * it was stored in.
+   */
+  @Transient
+  private AttributeStorage attributeStorage;
+
   public MongoRecord(long datasetId, RecordId recordId) {
     this();
     this.datasetId = datasetId;
@@ -107,9 +140,22 @@ public class MongoRecord implements Record {
 
   private MongoRecord() {
     this.stringAttributes = new HashMap<>();
+    this.binaryAttributes = new HashMap<>();
     this.attributes = new HashMap<>();
   }
 
+  public AttributeStorage getAttributeStorage() {
+    if (attributeStorage != null) {
+      return attributeStorage;
+    }
+    return stringAttributes.isEmpty() && !getBinaryAttributes().isEmpty() ?
+      AttributeStorage.BINARY : AttributeStorage.STRING;
+  }
+
+  public void setAttributeStorage(AttributeStorage attributeStorage) {
+    this.attributeStorage = attributeStorage;
+  }
+
   public long getDatasetId() {
     return datasetId;
   }
@@ -169,6 +215,12 @@ public class MongoRecord implements Record {
     if (attributes.containsKey(name)) {
       return Optional.ofNullable(attributes.get(name));
     }
+    Binary binary = getBinaryAttributes().get(name);
+    if (binary != null) {
+      Attribute attribute = fromBinary(binary);
+      attributes.put(name, attribute);
+      return Optional.of(attribute);
+    }
     if (stringAttributes.containsKey(name)) {
       Attribute attribute = deserialize(stringAttributes.get(name));
       attributes.put(name, attribute);
@@ -180,7 +232,13 @@ public class MongoRecord implements Record {
   @Override
   public Record setAttribute(String name, Attribute attribute) {
     attributes.put(name, attribute);
-    stringAttributes.put(name, serialize(attribute));
+    if (getAttributeStorage() == AttributeStorage.BINARY) {
+      getBinaryAttributes().put(name, toBinary(attribute));
+      stringAttributes.remove(name);
+    } else {
+      stringAttributes.put(name, serialize(attribute));
+      getBinaryAttributes().remove(name);
+    }
     return this;
   }
 
@@ -188,11 +246,17 @@ public class MongoRecord implements Record {
   public Record removeAttribute(String name) {
     attributes.remove(name);
     stringAttributes.remove(name);
+    getBinaryAttributes().remove(name);
     return this;
   }
 
   @Override
   public Map<String, Attribute> getAttributes() {
+    for (Map.Entry<String, Binary> entry : getBinaryAttributes().entrySet()) {
+      if (!attributes.containsKey(entry.getKey())) {
+        attributes.put(entry.getKey(), fromBinary(entry.getValue()));
+      }
+    }
     for (String name : stringAttributes.keySet()) {
       if (!attributes.containsKey(name)) {
         attributes.put(name, deserialize(stringAttributes.get(name)));
@@ -201,12 +265,47 @@ public class MongoRecord implements Record {
     return attributes;
   }
 
+  /**
+   * Rewrites all stored attributes in the given form, which is also used for attributes set afterwards.
+   *
+   * @param storage target form
+   * @return true if the stored attributes have changed
+   */
+  public boolean convertAttributes(AttributeStorage storage) {
+    attributeStorage = storage;
+    boolean convert = storage == AttributeStorage.BINARY ?
+      !stringAttributes.isEmpty() : !getBinaryAttributes().isEmpty();
+    if (!convert) {
+      return false;
+    }
+    Map<String, Attribute> allAttributes = new HashMap<>(getAttributes());
+    stringAttributes = new HashMap<>();
+    binaryAttributes = new HashMap<>();
+    allAttributes.forEach((name, attribute) -> {
+      if (storage == AttributeStorage.BINARY) {
+        binaryAttributes.put(name, toBinary(attribute));
+      } else {
+        stringAttributes.put(name, serialize(attribute));
+      }
+    });
+    return true;
+  }
+
+  private Map<String, Binary> getBinaryAttributes() {
+    if (binaryAttributes == null) {
+      binaryAttributes = new HashMap<>();
+    }
+    return binaryAttributes;
+  }
+
   @Override
   public MongoRecord duplicate() {
     MongoRecord mongoRecord = new MongoRecord(this.datasetId, this.recordId.duplicate(),
       this.stringAttributes.entrySet().stream()
         .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))
     );
+    mongoRecord.binaryAttributes = new HashMap<>(getBinaryAttributes());
+    mongoRecord.attributeStorage = attributeStorage;
     mongoRecord.setEncodingId(new EncodingIdDto(encodingId.getMethod(), encodingId.getProject()));
     return mongoRecord;
   }
@@ -231,6 +330,28 @@ public class MongoRecord implements Record {
       );
   }
 
+  /**
+   * Store the attribute as BSON binary containing its type byte and value bytes, see
+   * {@link AttributeLight#getRawBytes()}.
+   *
+   * @param attribute attribute
+   * @return binary representation
+   */
+  public static Binary toBinary(Attribute attribute) {
+    AttributeLight light = attribute instanceof AttributeLight ?
+      (AttributeLight) attribute : (AttributeLight) AttributeFactory.getAttribute(attribute.getObject());
+    byte subtype = light instanceof ListAttribute ? BINARY_SUBTYPE_LIST_ATTRIBUTE : BINARY_SUBTYPE_ATTRIBUTE;
+    return new Binary(subtype, light.getRawBytes());
+  }
+
+  public static Attribute fromBinary(Binary binary) {
+    return switch (binary.getType()) {
+      case BINARY_SUBTYPE_ATTRIBUTE -> AttributeLight.fromRawBytes(binary.getData());
+      case BINARY_SUBTYPE_LIST_ATTRIBUTE -> ListAttributeLight.fromRawBytes(binary.getData());
+      default -> throw new RuntimeException("Unsupported binary attribute subtype: " + binary.getType());
+    };
+  }
+
   public static Attribute deserialize(String attributeString) {
     String[] split = attributeString.split(SEPARATOR);
     String attributeValue = split.length == 1 ? "" : split[1];
@@ -257,6 +378,9 @@ public class MongoRecord implements Record {
     if (!Objects.equals(stringAttributes, that.stringAttributes)) {
       return false;
     }
+    if (!Objects.equals(getBinaryAttributes(), that.getBinaryAttributes())) {
+      return false;
+    }
     return recordId.equals(that.recordId);
   }
 
@@ -264,6 +388,7 @@ public class MongoRecord implements Record {
   public int hashCode() {
     int result = (int) (datasetId ^ (datasetId >>> 32));
     result = 31 * result + (stringAttributes != null ? stringAttributes.hashCode() : 0);
+    result = 31 * result + getBinaryAttributes().hashCode();
     result = 31 * result + recordId.hashCode();
     return result;
   }
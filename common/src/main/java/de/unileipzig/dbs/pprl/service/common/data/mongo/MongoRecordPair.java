@@ -7,6 +7,8 @@ import de.unileipzig.dbs.pprl.core.common.model.impl.AbstractRecordPair;
 import de.unileipzig.dbs.pprl.core.common.model.impl.MatchGrade;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -18,12 +20,20 @@ import java.util.Set;
 import static de.unileipzig.dbs.pprl.core.matcher.model.api.LinkageProcessDataSet.ACTIVE;
 
 @Document
+@CompoundIndex(name = "project_class_similarity", def = "{'projectId': 1, 'classification': 1, 'similarity': -1}")
+@CompoundIndex(name = "project_pair", def = "{'projectId': 1, 'pairId': 1}")
+@CompoundIndex(name = "project_properties", def = "{'projectId': 1, 'properties': 1}")
 public class MongoRecordPair extends AbstractRecordPair {
 
+  public static final String FIELD_TAGS = "tags";
+
+  public static final String FIELD_PROPERTIES = "properties";
+
+  public static final String FIELD_CLASSIFICATION = "classification";
+
   @Id
   private ObjectId _id;
 
-  @Indexed
   private ObjectId projectId;
 
   @Indexed
@@ -36,6 +46,18 @@ public class MongoRecordPair extends AbstractRecordPair {
 
   private MongoRecord rightRecord;
 
+  /**
+   * Classification before a reclassification, not persisted
+   */
+  @Transient
+  private MatchGrade previousClassification;
+
+  /**
+   * Whether the active state or the removal tags were reset before a reclassification, not persisted
+   */
+  @Transient
+  private boolean reactivated;
+
   public MongoRecordPair(MongoRecord leftRecord, MongoRecord rightRecord) {
     super();
     this.leftRecord = leftRecord;
@@ -68,6 +90,22 @@ public class MongoRecordPair extends AbstractRecordPair {
     this._id = _id;
   }
 
+  public MatchGrade getPreviousClassification() {
+    return previousClassification;
+  }
+
+  public void setPreviousClassification(MatchGrade previousClassification) {
+    this.previousClassification = previousClassification;
+  }
+
+  public boolean isReactivated() {
+    return reactivated;
+  }
+
+  public void setReactivated(boolean reactivated) {
+    this.reactivated = reactivated;
+  }
+
   public Set<String> getProperties() {
     if (properties == null) {
       return new HashSet<>();
@@ -15,6 +15,7 @@ import org.bson.types.ObjectId;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -86,6 +87,11 @@ public class DatabaseBlockedDataSet implements BlockedDataSet {
     return datasetMongoService.getRecordsByBlockingKey(projectId, bk);
   }
 
+  @Override
+  public Map<BlockingKey, Collection<Record>> getRecordsPerBlockingKey(Collection<BlockingKey> bks) {
+    return datasetMongoService.getRecordsPerBlockingKey(projectId, bks);
+  }
+
   @Override
   public Collection<Record> getRecordsByBlockingKeys(Collection<BlockingKey> bks) {
     return datasetMongoService.getRecordsByBlockingKeys(projectId, bks);
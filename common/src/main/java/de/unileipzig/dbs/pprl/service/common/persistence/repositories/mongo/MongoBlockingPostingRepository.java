@@ -0,0 +1,17 @@
+package de.unileipzig.dbs.pprl.service.common.persistence.repositories.mongo;
+
+import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoBlockingPosting;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Collection;
+
+public interface MongoBlockingPostingRepository extends MongoRepository<MongoBlockingPosting, ObjectId> {
+
+  Collection<MongoBlockingPosting> findByProjectIdAndRecordIdIn(ObjectId projectId, Collection<String> recordIds);
+
+  long countByProjectId(ObjectId projectId);
+
+  void deleteByProjectId(ObjectId projectId);
+
+}
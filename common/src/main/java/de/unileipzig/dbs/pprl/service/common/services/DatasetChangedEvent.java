@@ -0,0 +1,10 @@
+package de.unileipzig.dbs.pprl.service.common.services;
+
+/**
+ * Published by {@link DatasetMongoService} when records of a dataset have been added or deleted,
+ * so that in-memory state derived from the dataset can be dropped.
+ *
+ * @param datasetId id of the changed dataset
+ */
+public record DatasetChangedEvent(long datasetId) {
+}
@@ -5,6 +5,7 @@ import de.unileipzig.dbs.pprl.core.common.model.impl.PersonalAttributeType;
 import de.unileipzig.dbs.pprl.core.common.preprocessing.DateSplitter;
 import de.unileipzig.dbs.pprl.core.matcher.classification.Classifier;
 import de.unileipzig.dbs.pprl.core.matcher.model.api.LinkageProcessDataSet;
+import de.unileipzig.dbs.pprl.service.common.config.MongoRecordConfig;
 import de.unileipzig.dbs.pprl.service.common.config.PreprocessingConfig;
 import de.unileipzig.dbs.pprl.service.common.data.converter.DatasetConverter;
 import de.unileipzig.dbs.pprl.service.common.data.converter.MongoRecordConverter;
@@ -37,15 +38,17 @@ public class DatasetDtoService {
 
   private final DatasetMongoService datasetService;
 
-  private final MongoRecordConverter mongoRecordConverter = new MongoRecordConverter();
+  private final MongoRecordConverter mongoRecordConverter;
 
   private final MongoTemplate mongoTemplate;
 
   private final PreprocessingConfig preprocessingConfig;
 
   public DatasetDtoService(
-          DatasetMongoService datasetService, MongoTemplate mongoTemplate, PreprocessingConfig preprocessingConfig) {
+          DatasetMongoService datasetService, MongoTemplate mongoTemplate, PreprocessingConfig preprocessingConfig,
+          MongoRecordConfig recordConfig) {
     this.datasetService = datasetService;
+    this.mongoRecordConverter = new MongoRecordConverter(recordConfig.getAttributeStorage());
     this.mongoTemplate = mongoTemplate;
     this.preprocessingConfig = preprocessingConfig;
   }
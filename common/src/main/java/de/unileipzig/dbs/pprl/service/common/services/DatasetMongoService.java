@@ -3,28 +3,38 @@ package de.unileipzig.dbs.pprl.service.common.services;
 import de.unileipzig.dbs.pprl.core.common.model.api.BlockingKey;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordId;
+import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoBlockingPosting;
 import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoCluster;
 import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoDataset;
 import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoGroundTruth;
 import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoRecord;
 import de.unileipzig.dbs.pprl.service.common.dataset.DatabaseBlockedDataSet;
+import de.unileipzig.dbs.pprl.service.common.persistence.repositories.mongo.MongoBlockingPostingRepository;
 import de.unileipzig.dbs.pprl.service.common.persistence.repositories.mongo.MongoClusterRepository;
 import de.unileipzig.dbs.pprl.service.common.persistence.repositories.mongo.MongoDatasetRepository;
 import de.unileipzig.dbs.pprl.service.common.persistence.repositories.mongo.MongoGroundTruthRepository;
 import de.unileipzig.dbs.pprl.service.common.persistence.repositories.mongo.MongoRecordRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
+import org.bson.Document;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for accessing datasets
@@ -33,6 +43,11 @@ import java.util.stream.Collectors;
 @Service
 public class DatasetMongoService {
 
+  /**
+   * Offset for auto generated dataset ids
+   */
+  public static final long AUTO_DATASET_ID_OFFSET = 10000;
+
   private final MongoTemplate mongoTemplate;
 
   private final MongoDatasetRepository datasetRepository;
@@ -43,20 +58,31 @@ public class DatasetMongoService {
 
   private final MongoGroundTruthRepository groundTruthRepository;
 
+  private final MongoBlockingPostingRepository blockingPostingRepository;
+
   private final DatasetIdService datasetIdService;
 
+  private final MongoBulkWriter bulkWriter;
+
+  private final ApplicationEventPublisher eventPublisher;
+
   public DatasetMongoService(
           MongoTemplate mongoTemplate,
           MongoDatasetRepository datasetRepository,
           MongoRecordRepository recordRepository,
           MongoClusterRepository clusterRepository,
-          MongoGroundTruthRepository groundTruthRepository, DatasetIdService datasetIdService) {
+          MongoGroundTruthRepository groundTruthRepository,
+          MongoBlockingPostingRepository blockingPostingRepository, DatasetIdService datasetIdService,
+          MongoBulkWriter bulkWriter, ApplicationEventPublisher eventPublisher) {
     this.mongoTemplate = mongoTemplate;
     this.datasetRepository = datasetRepository;
     this.recordRepository = recordRepository;
     this.clusterRepository = clusterRepository;
     this.groundTruthRepository = groundTruthRepository;
+    this.blockingPostingRepository = blockingPostingRepository;
     this.datasetIdService = datasetIdService;
+    this.bulkWriter = bulkWriter;
+    this.eventPublisher = eventPublisher;
   }
 
   public DatabaseBlockedDataSet getBlockedDataSet(long datasetId) {
@@ -69,12 +95,14 @@ public class DatasetMongoService {
     checkIfDatasetDoesNotExist(datasetId, true);
     record.setDatasetId(datasetId);
     recordRepository.save(record);
+    eventPublisher.publishEvent(new DatasetChangedEvent(datasetId));
   }
 
   public void addRecords(long datasetId, Collection<MongoRecord> records) {
     checkIfDatasetDoesNotExist(datasetId, true);
     records.forEach(r -> r.setDatasetId(datasetId));
-    recordRepository.saveAll(records);
+    bulkWriter.saveAll(MongoRecord.class, records);
+    eventPublisher.publishEvent(new DatasetChangedEvent(datasetId));
   }
 
   public void addGroundTruth(MongoGroundTruth groundTruth) {
@@ -109,6 +137,7 @@ public class DatasetMongoService {
   public void deleteDataset(long datasetId) {
     Optional<MongoDataset> byDatasetId = datasetRepository.findByDatasetId(datasetId);
     byDatasetId.ifPresent(datasetRepository::delete);
+    eventPublisher.publishEvent(new DatasetChangedEvent(datasetId));
   }
 
   public boolean checkIfDatasetDoesNotExist(long datasetId, boolean throwException) {
@@ -124,17 +153,31 @@ public class DatasetMongoService {
 
   public MongoDataset addDataset(MongoDataset dataset) {
     if (dataset.getDatasetId() == null || dataset.getDatasetId() == 0) {
-      Set<Long> existingIds = getDatasets(Optional.empty()).stream()
-              .map(MongoDataset::getDatasetId)
-              .collect(Collectors.toCollection(TreeSet::new));
+      dataset.setDatasetId(getFreeDatasetId());
+    }
+    return datasetRepository.save(dataset);
+  }
 
-      long newId = 10000;    // Offset for auto generated dataset id
-      while (existingIds.contains(newId)) {
-        newId++;
+  /**
+   * Get the smallest unused dataset id from {@link #AUTO_DATASET_ID_OFFSET}. Only the ids are read in order,
+   * which is covered by the id index.
+   */
+  private long getFreeDatasetId() {
+    Query query = new Query(Criteria.where("_id").gte(AUTO_DATASET_ID_OFFSET)).with(Sort.by("_id"));
+    query.fields().include("_id");
+    long newId = AUTO_DATASET_ID_OFFSET;
+    try (Stream<Document> ids =
+           mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(MongoDataset.class))) {
+      Iterator<Document> iterator = ids.iterator();
+      while (iterator.hasNext()) {
+        long id = ((Number) iterator.next().get("_id")).longValue();
+        if (id > newId) {
+          break;
+        }
+        newId = id + 1;
       }
-      dataset.setDatasetId(newId);
     }
-    return datasetRepository.save(dataset);
+    return newId;
   }
 
   public Optional<MongoDataset> getDataset(long datasetId) {
@@ -156,7 +199,7 @@ public class DatasetMongoService {
 
   public void addClusters(ObjectId projectId, Collection<MongoCluster> clusters) {
     clusters.forEach(c -> c.setProjectId(projectId));
-    clusterRepository.saveAll(clusters);
+    bulkWriter.saveAll(MongoCluster.class, clusters);
   }
 
   public Collection<MongoCluster> getClusters(ObjectId projectId) {
@@ -189,6 +232,27 @@ public class DatasetMongoService {
     return getRepresentatives(getClustersByBlockingKeys(projectId, bks));
   }
 
+  /**
+   * Get the records of several blocking keys with a single query.
+   *
+   * @param projectId project id
+   * @param bks       blocking keys, not empty
+   * @return records by blocking key, keys without records are not contained
+   */
+  public Map<BlockingKey, Collection<Record>> getRecordsPerBlockingKey(ObjectId projectId,
+          Collection<BlockingKey> bks) {
+    Set<BlockingKey> requested = new HashSet<>(bks);
+    Map<BlockingKey, Collection<Record>> records = new HashMap<>();
+    for (MongoCluster cluster : clusterRepository.findByProjectIdAndBlockingKeysContaining(projectId, requested)) {
+      for (BlockingKey bk : cluster.getBlockingKeys()) {
+        if (requested.contains(bk)) {
+          records.computeIfAbsent(bk, k -> new ArrayList<>()).add(cluster.getRepresentative());
+        }
+      }
+    }
+    return records;
+  }
+
   public Collection<MongoCluster> getClustersByBlockingKeys(ObjectId projectId, Collection<BlockingKey> bks) {
     if (bks.isEmpty()) {
       Collection<MongoCluster> allRecords = clusterRepository.findByProjectId(projectId);
@@ -200,6 +264,37 @@ public class DatasetMongoService {
     return foundCluster;
   }
 
+  /**
+   * Get the persisted blocking keys of records.
+   *
+   * @param projectId project id
+   * @param uniqueIds unique ids of the records
+   * @return blocking keys by unique record id, records without persisted keys are not contained
+   */
+  public Map<String, Collection<BlockingKey>> getBlockingKeys(ObjectId projectId, Collection<String> uniqueIds) {
+    return blockingPostingRepository.findByProjectIdAndRecordIdIn(projectId, uniqueIds).stream()
+            .collect(Collectors.toMap(MongoBlockingPosting::getRecordId, MongoBlockingPosting::getBlockingKeys));
+  }
+
+  /**
+   * Persist the blocking keys of records in bulk. Keys of records that already have persisted keys are not
+   * replaced and have to be removed first.
+   *
+   * @param projectId    project id
+   * @param blockingKeys blocking keys by unique record id
+   */
+  public void addBlockingKeys(ObjectId projectId, Map<String, Collection<BlockingKey>> blockingKeys) {
+    List<MongoBlockingPosting> postings = blockingKeys.entrySet().stream()
+            .map(e -> new MongoBlockingPosting(projectId, e.getKey(), new HashSet<>(e.getValue())))
+            .collect(Collectors.toList());
+    log.debug("Persisting blocking keys of {} records", postings.size());
+    bulkWriter.saveAll(MongoBlockingPosting.class, postings);
+  }
+
+  public void deleteBlockingKeys(ObjectId projectId) {
+    blockingPostingRepository.deleteByProjectId(projectId);
+  }
+
   private static List<Record> getRepresentatives(Collection<MongoCluster> foundCluster) {
     return foundCluster.stream().map(MongoCluster::getRepresentative).collect(Collectors.toList());
   }
@@ -210,5 +305,6 @@ public class DatasetMongoService {
 
   public void deleteAll(long datasetId) {
     recordRepository.deleteAllByDatasetId(datasetId);
+    eventPublisher.publishEvent(new DatasetChangedEvent(datasetId));
   }
 }
@@ -0,0 +1,161 @@
+package de.unileipzig.dbs.pprl.service.common.services;
+
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import de.unileipzig.dbs.pprl.service.common.config.MongoBulkConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes collections of entities in unordered bulk operations instead of one request per document.
+ * Entities without id get a new id and are inserted, entities with id replace the stored document
+ * or are inserted if it does not exist, like {@code save} of the repositories.
+ */
+@Slf4j
+@Service
+public class MongoBulkWriter {
+
+  private static final ReplaceOptions UPSERT = new ReplaceOptions().upsert(true);
+
+  private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+  private final MongoTemplate mongoTemplate;
+
+  private final int batchSize;
+
+  private final WriteConcern writeConcern;
+
+  public MongoBulkWriter(MongoTemplate mongoTemplate, MongoBulkConfig config) {
+    this.mongoTemplate = mongoTemplate;
+    this.batchSize = Math.max(1, config.getBatchSize());
+    this.writeConcern = getWriteConcern(config.getWriteConcern());
+  }
+
+  static WriteConcern getWriteConcern(String name) {
+    if (name == null || name.isBlank()) {
+      return null;
+    }
+    final WriteConcern writeConcern = WriteConcern.valueOf(name.trim());
+    if (writeConcern == null) {
+      throw new IllegalArgumentException("Unknown write concern: " + name);
+    }
+    return writeConcern;
+  }
+
+  /**
+   * Inserts or replaces the entities in batches of the configured size.
+   *
+   * @param type     entity type
+   * @param entities entities to write, ids are assigned to new entities
+   * @param <T>      entity type
+   */
+  public <T> void saveAll(Class<T> type, Collection<? extends T> entities) {
+    writeAll(type, entities, (converter, persistentEntity, entity) ->
+      toWriteModel(converter, persistentEntity, entity));
+  }
+
+  /**
+   * Sets the given fields of the stored documents to the values of the entities, other fields are not changed.
+   * This allows writing back entities that were read with a projection.
+   *
+   * @param type     entity type
+   * @param entities stored entities
+   * @param fields   names of the fields to set
+   * @param <T>      entity type
+   */
+  public <T> void updateAll(Class<T> type, Collection<? extends T> entities, Collection<String> fields) {
+    writeAll(type, entities, (converter, persistentEntity, entity) ->
+      toUpdateModel(converter, persistentEntity, entity, fields));
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  private <T> void writeAll(Class<T> type, Collection<? extends T> entities, WriteModelFactory factory) {
+    if (entities.isEmpty()) {
+      return;
+    }
+    final MongoConverter converter = mongoTemplate.getConverter();
+    final MongoPersistentEntity<?> persistentEntity =
+      converter.getMappingContext().getRequiredPersistentEntity(type);
+    MongoCollection<Document> collection = mongoTemplate.getCollection(persistentEntity.getCollection());
+    if (writeConcern != null) {
+      collection = collection.withWriteConcern(writeConcern);
+    }
+
+    final List<WriteModel<Document>> batch = new ArrayList<>(Math.min(batchSize, entities.size()));
+    for (T entity : entities) {
+      batch.add(factory.create(converter, persistentEntity, entity));
+      if (batch.size() >= batchSize) {
+        write(collection, batch);
+      }
+    }
+    write(collection, batch);
+    log.debug("Wrote {} documents to {}", entities.size(), persistentEntity.getCollection());
+  }
+
+  private static void write(MongoCollection<Document> collection, List<WriteModel<Document>> batch) {
+    if (!batch.isEmpty()) {
+      collection.bulkWrite(batch, UNORDERED);
+      batch.clear();
+    }
+  }
+
+  static <T> WriteModel<Document> toWriteModel(
+    MongoConverter converter, MongoPersistentEntity<?> persistentEntity, T entity) {
+    final MongoPersistentProperty idProperty = persistentEntity.getRequiredIdProperty();
+    final PersistentPropertyAccessor<T> accessor = persistentEntity.getPropertyAccessor(entity);
+    final boolean isNew = accessor.getProperty(idProperty) == null;
+    if (isNew && idProperty.getType().equals(ObjectId.class)) {
+      accessor.setProperty(idProperty, new ObjectId());
+    }
+
+    final Document document = new Document();
+    converter.write(entity, document);
+    if (isNew) {
+      return new InsertOneModel<>(document);
+    }
+    return new ReplaceOneModel<>(new Document("_id", document.get("_id")), document, UPSERT);
+  }
+
+  static <T> WriteModel<Document> toUpdateModel(
+    MongoConverter converter, MongoPersistentEntity<?> persistentEntity, T entity, Collection<String> fields) {
+    final Object id = persistentEntity.getPropertyAccessor(entity)
+      .getProperty(persistentEntity.getRequiredIdProperty());
+    if (id == null) {
+      throw new IllegalArgumentException("Cannot update " + persistentEntity.getName() + " without id");
+    }
+
+    final Document document = new Document();
+    converter.write(entity, document);
+    final Document values = new Document();
+    for (String field : fields) {
+      values.put(field, document.get(field));
+    }
+    return new UpdateOneModel<>(new Document("_id", document.get("_id")), new Document("$set", values));
+  }
+
+  @FunctionalInterface
+  private interface WriteModelFactory {
+
+    WriteModel<Document> create(MongoConverter converter, MongoPersistentEntity<?> persistentEntity, Object entity);
+  }
+}
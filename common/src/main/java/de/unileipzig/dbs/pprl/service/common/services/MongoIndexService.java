@@ -0,0 +1,170 @@
+package de.unileipzig.dbs.pprl.service.common.services;
+
+import de.unileipzig.dbs.pprl.service.common.config.MongoIndexConfig;
+import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoBlockingPosting;
+import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoCluster;
+import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoDataset;
+import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoRecord;
+import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoRecordPair;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Creates the declared indexes of the frequently queried collections and reports the queries on them that were
+ * executed as collection scan.
+ */
+@Slf4j
+@Service
+public class MongoIndexService {
+
+  public static final List<Class<?>> INDEXED_TYPES = List.of(
+    MongoCluster.class, MongoRecordPair.class, MongoRecord.class, MongoDataset.class, MongoBlockingPosting.class);
+
+  /**
+   * Compound indexes of the records collection. They are not declared on {@link MongoRecord}, because records are
+   * also embedded in record pairs and clusters, where annotations would create the same indexes for every path.
+   */
+  static final List<Index> RECORD_INDEXES = List.of(
+    new Index().on("datasetId", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named("dataset_object_id"),
+    new Index().on("datasetId", Sort.Direction.ASC).on("recordId.ids.SOURCE_ID", Sort.Direction.ASC)
+      .on("recordId.ids.LOCAL_ID", Sort.Direction.ASC).named("dataset_source_local")
+  );
+
+  /**
+   * Maximum number of recorded collection scans that are logged per check
+   */
+  public static final int MAX_REPORTED_SCANS = 100;
+
+  static final String PROFILE_COLLECTION = "system.profile";
+
+  private final MongoTemplate mongoTemplate;
+
+  private final MongoIndexConfig config;
+
+  /**
+   * Time of the last check, only collection scans recorded afterwards are reported. Null if profiling is off.
+   */
+  private Date checkedUntil;
+
+  public MongoIndexService(MongoTemplate mongoTemplate, MongoIndexConfig config) {
+    this.mongoTemplate = mongoTemplate;
+    this.config = config;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onStartup() {
+    if (config.isCreateOnStartup()) {
+      createIndexes();
+    }
+    if (config.isCheckUsage()) {
+      startProfiling();
+    }
+  }
+
+  /**
+   * Creates the indexes declared on {@link #INDEXED_TYPES} and the {@link #RECORD_INDEXES} for the collections
+   * that already exist. Existing indexes are not changed.
+   */
+  public void createIndexes() {
+    final IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+    for (Class<?> type : INDEXED_TYPES) {
+      if (!mongoTemplate.collectionExists(type)) {
+        continue;
+      }
+      final IndexOperations indexOperations = mongoTemplate.indexOps(type);
+      final List<IndexDefinition> indexes = new ArrayList<>();
+      resolver.resolveIndexFor(type).forEach(indexes::add);
+      if (type == MongoRecord.class) {
+        indexes.addAll(RECORD_INDEXES);
+      }
+      for (IndexDefinition index : indexes) {
+        try {
+          indexOperations.createIndex(index);
+        } catch (RuntimeException e) {
+          log.warn("Could not create index {} on {}: {}", index.getIndexKeys(),
+            mongoTemplate.getCollectionName(type), e.getMessage());
+        }
+      }
+    }
+    log.info("Ensured the indexes of {}", INDEXED_TYPES.stream().map(Class::getSimpleName).toList());
+  }
+
+  /**
+   * Enables the database profiler for operations that are executed as collection scan. Only those operations are
+   * recorded, so the overhead for indexed queries is negligible. The profiler is not available on mongos and
+   * requires the profile privilege, collection scans are not reported in that case.
+   */
+  public synchronized void startProfiling() {
+    try {
+      mongoTemplate.getDb().runCommand(new Document("profile", 1)
+        .append("filter", new Document("planSummary", "COLLSCAN")));
+      checkedUntil = new Date();
+      log.info("Recording collection scans with the database profiler");
+    } catch (RuntimeException e) {
+      log.warn("Could not enable the database profiler, collection scans are not reported: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Logs the collection scans on the collections of {@link #INDEXED_TYPES} that the profiler recorded since the
+   * last check, e.g. after a linkage phase. At most {@link #MAX_REPORTED_SCANS} are reported per check.
+   *
+   * @return descriptions of the recorded collection scans
+   */
+  public synchronized List<String> checkIndexUsage() {
+    final List<String> collectionScans = new ArrayList<>();
+    if (checkedUntil == null) {
+      return collectionScans;
+    }
+    final List<String> namespaces = INDEXED_TYPES.stream()
+      .map(type -> mongoTemplate.getDb().getName() + "." + mongoTemplate.getCollectionName(type))
+      .toList();
+    final Document filter = new Document("ts", new Document("$gt", checkedUntil))
+      .append("ns", new Document("$in", namespaces))
+      .append("planSummary", "COLLSCAN");
+    try {
+      for (Document entry : mongoTemplate.getCollection(PROFILE_COLLECTION).find(filter)
+        .sort(new Document("ts", 1)).limit(MAX_REPORTED_SCANS)) {
+        final String description = describeCollectionScan(entry);
+        log.warn("Query runs as collection scan: {}", description);
+        collectionScans.add(description);
+        if (entry.get("ts") instanceof Date ts) {
+          checkedUntil = ts;
+        }
+      }
+    } catch (RuntimeException e) {
+      log.warn("Could not read the recorded collection scans: {}", e.getMessage());
+    }
+    if (collectionScans.isEmpty()) {
+      log.debug("No collection scans recorded since the last check");
+    }
+    return collectionScans;
+  }
+
+  /**
+   * @param entry document of the profiler
+   * @return operation, namespace and filter of the profiled operation
+   */
+  static String describeCollectionScan(Document entry) {
+    Object query = null;
+    if (entry.get("command") instanceof Document command) {
+      query = command.containsKey("filter") ? command.get("filter") :
+        command.containsKey("q") ? command.get("q") : command;
+    }
+    return entry.get("op") + " on " + entry.get("ns") + ": " +
+      (query instanceof Document document ? document.toJson() : String.valueOf(query));
+  }
+}
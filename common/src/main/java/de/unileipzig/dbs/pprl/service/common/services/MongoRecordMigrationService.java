@@ -0,0 +1,91 @@
+package de.unileipzig.dbs.pprl.service.common.services;
+
+import de.unileipzig.dbs.pprl.service.common.config.MongoRecordConfig;
+import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Converts the stored attributes of existing records between the string and the binary form
+ * (see {@link MongoRecord.AttributeStorage}).
+ */
+@Slf4j
+@Service
+public class MongoRecordMigrationService {
+
+  public static final int BATCH_SIZE = 1000;
+
+  private final MongoTemplate mongoTemplate;
+
+  private final MongoRecordConfig config;
+
+  public MongoRecordMigrationService(MongoTemplate mongoTemplate, MongoRecordConfig config) {
+    this.mongoTemplate = mongoTemplate;
+    this.config = config;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void migrateOnStartup() {
+    if (config.isMigrateAttributes()) {
+      migrateAttributes(config.getAttributeStorage());
+    }
+  }
+
+  /**
+   * Rewrites the attributes of all records that still contain attributes in the other form.
+   * Records are streamed and replaced in unordered bulk operations of {@link #BATCH_SIZE} records.
+   *
+   * @param storage target form
+   * @return number of converted records
+   */
+  public long migrateAttributes(MongoRecord.AttributeStorage storage) {
+    final String sourceField = storage == MongoRecord.AttributeStorage.BINARY ?
+      MongoRecord.FIELD_STRING_ATTRIBUTES : MongoRecord.FIELD_BINARY_ATTRIBUTES;
+    final Query query = new Query(Criteria.where(sourceField).exists(true).ne(new Document()));
+    log.info("Converting record attributes to {} form", storage);
+
+    long converted = 0;
+    final List<MongoRecord> batch = new ArrayList<>(BATCH_SIZE);
+    try (Stream<MongoRecord> records = mongoTemplate.stream(query, MongoRecord.class)) {
+      Iterator<MongoRecord> iterator = records.iterator();
+      while (iterator.hasNext()) {
+        MongoRecord record = iterator.next();
+        if (record.convertAttributes(storage)) {
+          batch.add(record);
+        }
+        if (batch.size() >= BATCH_SIZE) {
+          converted += replace(batch);
+          log.info("Converted {} records", converted);
+        }
+      }
+    }
+    converted += replace(batch);
+    log.info("Converted the attributes of {} records to {} form", converted, storage);
+    return converted;
+  }
+
+  private int replace(List<MongoRecord> batch) {
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    final BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MongoRecord.class);
+    for (MongoRecord record : batch) {
+      bulk.replaceOne(Query.query(Criteria.where("_id").is(record.getObjectId())), record);
+    }
+    final int count = bulk.execute().getModifiedCount();
+    batch.clear();
+    return count;
+  }
+}
@@ -0,0 +1,41 @@
+package de.unileipzig.dbs.pprl.service.common.data.mongo;
+
+import de.unileipzig.dbs.pprl.core.common.factories.RecordIdFactory;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoClusterTest {
+
+  @Test
+  void recordsAreStoredByReference() {
+    MongoMappingContext mappingContext = new MongoMappingContext();
+    MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    converter.afterPropertiesSet();
+
+    // Record as read with a projection, i.e. without attributes
+    MongoRecord record = new MongoRecord(1, RecordIdFactory.get("123"));
+    ObjectId recordId = new ObjectId();
+    MongoPersistentEntity<?> recordEntity = mappingContext.getRequiredPersistentEntity(MongoRecord.class);
+    recordEntity.getPropertyAccessor(record).setProperty(recordEntity.getRequiredIdProperty(), recordId);
+
+    MongoCluster cluster = new MongoCluster(new ArrayList<>(List.of(record)), new HashSet<>());
+    assertSame(record, cluster.getRepresentative());
+
+    Document document = new Document();
+    converter.write(cluster, document);
+
+    assertFalse(document.containsKey("representative"));
+    assertEquals(List.of(recordId), document.get("records"));
+  }
+}
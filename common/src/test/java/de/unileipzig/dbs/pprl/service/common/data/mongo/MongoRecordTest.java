@@ -1,8 +1,17 @@
 package de.unileipzig.dbs.pprl.service.common.data.mongo;
 
+import de.unileipzig.dbs.pprl.core.common.BitSetUtils;
 import de.unileipzig.dbs.pprl.core.common.factories.AttributeFactory;
 import de.unileipzig.dbs.pprl.core.common.factories.RecordIdFactory;
+import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+import de.unileipzig.dbs.pprl.core.common.model.api.ListAttribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
+import de.unileipzig.dbs.pprl.service.common.data.converter.AttributeConverter;
+import de.unileipzig.dbs.pprl.service.common.data.converter.MongoRecordConverter;
+import de.unileipzig.dbs.pprl.service.common.data.dto.EncodingIdDto;
+import de.unileipzig.dbs.pprl.service.common.data.dto.RecordDto;
+import de.unileipzig.dbs.pprl.service.common.data.dto.RecordIdDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -36,4 +45,50 @@ class MongoRecordTest {
       assertEquals(0, record.getAttributeNames().size());
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  void binaryAttributeStorage() {
+    BitVector bv = BitSetVector.fromBitSet(BitSetUtils.generateRandomBitSet(1000, 300), 1000);
+    MongoRecord record = new MongoRecord(1, RecordIdFactory.get("123"));
+    record.setAttributeStorage(MongoRecord.AttributeStorage.BINARY);
+    record.setEncodingId(new EncodingIdDto("method", "project"));
+    record.setAttribute("BF", AttributeFactory.getAttribute(bv));
+    record.setAttribute("LIST", AttributeFactory.getAttribute(List.of("a", "b")));
+    MongoRecord copy = record.duplicate();
+    assertEquals(MongoRecord.AttributeStorage.BINARY, copy.getAttributeStorage());
+    assertEquals(bv, copy.getAttribute("BF").get().getAs(BitVector.class));
+    assertEquals(List.of("a", "b"), ((ListAttribute) copy.getAttribute("LIST").get()).getListAs(String.class));
+    assertFalse(record.convertAttributes(MongoRecord.AttributeStorage.BINARY));
+    assertEquals(MongoRecord.AttributeStorage.STRING,
+      new MongoRecord(1, RecordIdFactory.get("124")).getAttributeStorage());
+  }
+
+  @Test
+  void converterSetsAttributeStorage() {
+    RecordDto dto = RecordDto.builder()
+      .id(RecordIdDto.builder().local("123").build())
+      .datasetId(1L)
+      .attribute("NAME", AttributeConverter.toDto(AttributeFactory.getAttribute("peter")))
+      .build();
+    MongoRecord binary =
+      (MongoRecord) new MongoRecordConverter(MongoRecord.AttributeStorage.BINARY).toRecord(dto);
+    assertEquals(MongoRecord.AttributeStorage.BINARY, binary.getAttributeStorage());
+    assertFalse(binary.convertAttributes(MongoRecord.AttributeStorage.BINARY));
+    MongoRecord string = (MongoRecord) new MongoRecordConverter().toRecord(dto);
+    assertEquals(MongoRecord.AttributeStorage.STRING, string.getAttributeStorage());
+    assertTrue(string.convertAttributes(MongoRecord.AttributeStorage.BINARY));
+  }
+
+  @Test
+  void convertAttributes() {
+    MongoRecord record = (MongoRecord) initRecord();
+    record.setEncodingId(new EncodingIdDto("method", "project"));
+    MongoRecord stringRecord = record.duplicate();
+    assertTrue(record.convertAttributes(MongoRecord.AttributeStorage.BINARY));
+    assertFalse(record.convertAttributes(MongoRecord.AttributeStorage.BINARY));
+    assertNotEquals(stringRecord, record);
+    assertEquals("Müller", record.duplicate().getAttribute("LN").get().getAs(String.class));
+    assertTrue(record.convertAttributes(MongoRecord.AttributeStorage.STRING));
+    assertEquals(stringRecord, record);
+  }
+}
@@ -0,0 +1,94 @@
+package de.unileipzig.dbs.pprl.service.common.services;
+
+import com.mongodb.WriteConcern;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoCluster;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoBulkWriterTest {
+
+  private MappingMongoConverter converter;
+
+  private MongoPersistentEntity<?> entity;
+
+  @BeforeEach
+  void setUp() {
+    MongoMappingContext mappingContext = new MongoMappingContext();
+    converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    converter.afterPropertiesSet();
+    entity = mappingContext.getRequiredPersistentEntity(MongoCluster.class);
+  }
+
+  @Test
+  void newEntityIsInsertedWithAssignedId() {
+    MongoCluster cluster = new MongoCluster(new ArrayList<>(), new HashSet<>());
+    assertNull(cluster.getObjectId());
+
+    WriteModel<Document> model = MongoBulkWriter.toWriteModel(converter, entity, cluster);
+
+    assertInstanceOf(InsertOneModel.class, model);
+    assertNotNull(cluster.getObjectId());
+    assertEquals(cluster.getObjectId(), ((InsertOneModel<Document>) model).getDocument().get("_id"));
+  }
+
+  @Test
+  void storedEntityIsReplaced() {
+    MongoCluster cluster = new MongoCluster(new ArrayList<>(), new HashSet<>());
+    MongoBulkWriter.toWriteModel(converter, entity, cluster);
+    ObjectId id = cluster.getObjectId();
+
+    WriteModel<Document> model = MongoBulkWriter.toWriteModel(converter, entity, cluster);
+
+    assertInstanceOf(ReplaceOneModel.class, model);
+    ReplaceOneModel<Document> replace = (ReplaceOneModel<Document>) model;
+    assertEquals(id, cluster.getObjectId());
+    assertEquals(new Document("_id", id), replace.getFilter());
+    assertTrue(replace.getReplaceOptions().isUpsert());
+  }
+
+  @Test
+  void updateSetsOnlyGivenFields() {
+    MongoCluster cluster = new MongoCluster(new ArrayList<>(), new HashSet<>());
+    cluster.setProjectId(new ObjectId());
+    MongoBulkWriter.toWriteModel(converter, entity, cluster);
+
+    WriteModel<Document> model = MongoBulkWriter.toUpdateModel(converter, entity, cluster, List.of("projectId"));
+
+    assertInstanceOf(UpdateOneModel.class, model);
+    UpdateOneModel<Document> update = (UpdateOneModel<Document>) model;
+    assertEquals(new Document("_id", cluster.getObjectId()), update.getFilter());
+    assertEquals(new Document("$set", new Document("projectId", cluster.getProjectId())), update.getUpdate());
+  }
+
+  @Test
+  void updateRequiresId() {
+    MongoCluster cluster = new MongoCluster(new ArrayList<>(), new HashSet<>());
+    assertThrows(IllegalArgumentException.class,
+      () -> MongoBulkWriter.toUpdateModel(converter, entity, cluster, List.of("projectId")));
+  }
+
+  @Test
+  void writeConcern() {
+    assertNull(MongoBulkWriter.getWriteConcern(null));
+    assertNull(MongoBulkWriter.getWriteConcern(" "));
+    assertEquals(WriteConcern.W1, MongoBulkWriter.getWriteConcern("w1"));
+    assertEquals(WriteConcern.UNACKNOWLEDGED, MongoBulkWriter.getWriteConcern("UNACKNOWLEDGED"));
+    assertThrows(IllegalArgumentException.class, () -> MongoBulkWriter.getWriteConcern("FAST"));
+  }
+}
@@ -0,0 +1,46 @@
+package de.unileipzig.dbs.pprl.service.common.services;
+
+import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoCluster;
+import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoRecordPair;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoIndexServiceTest {
+
+  @Test
+  void describeCollectionScan() {
+    Document find = new Document("op", "query").append("ns", "pprllu.mongoRecordPair")
+      .append("command", new Document("find", "mongoRecordPair").append("filter", new Document("pairId", "a")))
+      .append("planSummary", "COLLSCAN");
+    assertEquals("query on pprllu.mongoRecordPair: {\"pairId\": \"a\"}",
+      MongoIndexService.describeCollectionScan(find));
+
+    Document update = new Document("op", "update").append("ns", "pprllu.mongoCluster")
+      .append("command", new Document("q", new Document("projectId", 1)).append("u", new Document()));
+    assertEquals("update on pprllu.mongoCluster: {\"projectId\": 1}", MongoIndexService.describeCollectionScan(update));
+
+    assertEquals("query on pprllu.mongoRecord: null",
+      MongoIndexService.describeCollectionScan(new Document("op", "query").append("ns", "pprllu.mongoRecord")));
+  }
+
+  @Test
+  void recordIndexesAreNotEmbedded() {
+    IndexResolver resolver = IndexResolver.create(new MongoMappingContext());
+    for (Class<?> type : List.of(MongoRecordPair.class, MongoCluster.class)) {
+      for (IndexDefinition index : resolver.resolveIndexFor(type)) {
+        Document keys = index.getIndexKeys();
+        assertFalse(keys.size() > 1 && keys.keySet().stream().anyMatch(key -> key.contains("recordId.ids")),
+          "Embedded record index " + keys.toJson());
+        assertFalse(keys.size() == 1 && keys.containsKey("projectId"), "Redundant index " + keys.toJson());
+      }
+    }
+    assertEquals(2, MongoIndexService.RECORD_INDEXES.size());
+  }
+}
@@ -0,0 +1,37 @@
+package de.unileipzig.dbs.pprl.service.dataowner.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for encoding multiple records per request and for the encoder warm-up at startup.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "pprl.encoding")
+@Data
+public class EncodingConfig {
+
+  public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+  public static final int DEFAULT_PARALLELISM = 0;
+
+  public static final boolean DEFAULT_WARM_UP = true;
+
+  /**
+   * Number of records encoded by one task. Requests with at most this many records are encoded sequentially.
+   */
+  private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+  /**
+   * Number of threads shared by all batch encoding requests.
+   * 1 disables parallel encoding, values smaller than 1 use all available processors.
+   */
+  private int parallelism = DEFAULT_PARALLELISM;
+
+  /**
+   * Initialize the encoders of all projects with a registered keystore when the application has started.
+   */
+  private boolean warmUp = DEFAULT_WARM_UP;
+
+}
@@ -3,7 +3,8 @@ package de.unileipzig.dbs.pprl.service.dataowner.services;
 import de.unileipzig.dbs.pprl.core.common.factories.AttributeFactory;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordId;
-import de.unileipzig.dbs.pprl.core.encoder.KeyManager;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContext;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContextAware;
 import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyExtractor;
 import de.unileipzig.dbs.pprl.core.encoder.record.RecordEncoder;
 import de.unileipzig.dbs.pprl.service.common.data.converter.AbstractRecordConverter;
@@ -14,15 +15,23 @@ import de.unileipzig.dbs.pprl.service.common.data.dto.RecordIdDto;
 import de.unileipzig.dbs.pprl.service.common.services.MetricsService;
 import de.unileipzig.dbs.pprl.service.dataowner.data.dto.MultiRecordEncodingRequestDto;
 import de.unileipzig.dbs.pprl.service.dataowner.data.dto.EncodingRequestDto;
+import de.unileipzig.dbs.pprl.service.dataowner.config.EncodingConfig;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.security.KeyStore;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @Slf4j
@@ -30,7 +39,11 @@ public class EncoderService {
 
   public static final String LOCAL_ID_DUMMY = "DUMMY";
 
-  private Map<EncodingIdDto, RecordEncoder> encoder = new HashMap<>();
+  /**
+   * Encoders by id. Each encoder is deserialized once, concurrent requests for an encoder that is
+   * not yet initialized wait for the first request instead of parsing the config themselves.
+   */
+  private final Map<EncodingIdDto, CompletableFuture<RecordEncoder>> encoder = new ConcurrentHashMap<>();
 
   private final AbstractRecordConverter<RecordDto> dtoInConverter = new RecordConverter();
 
@@ -40,83 +53,176 @@ public class EncoderService {
 
   private final SecretManagerService secretManagerService;
 
+  private final int chunkSize;
+
+  private final ExecutorService encodingExecutor;
+
   public EncoderService(EncoderProviderService encoderProviderService,
-    SecretManagerService secretManagerService) {
+    SecretManagerService secretManagerService, EncodingConfig encodingConfig) {
     this.encoderProviderService = encoderProviderService;
     this.secretManagerService = secretManagerService;
+    this.chunkSize = Math.max(1, encodingConfig.getChunkSize());
+    int parallelism = encodingConfig.getParallelism() < 1 ?
+      Runtime.getRuntime().availableProcessors() : encodingConfig.getParallelism();
+    this.encodingExecutor = parallelism == 1 ? null : Executors.newFixedThreadPool(parallelism);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (encodingExecutor != null) {
+      encodingExecutor.shutdownNow();
+    }
   }
 
   public RecordDto encode(EncodingRequestDto encodingRequest) {
-    RecordDto dtoIn = encodingRequest.getRecord();
+    RecordEncoder recordEncoder = getEncoder(encodingRequest.getEncodingId());
+    return encode(recordEncoder, encodingRequest.getEncodingId(), encodingRequest.getRecord(),
+      encodingRequest.getRecordSecret());
+  }
+
+  /**
+   * Encodes the records of the request. Requests with more than {@link EncodingConfig#getChunkSize()} records
+   * are split into chunks that are encoded in parallel. The result is in the order of the request.
+   */
+  public List<RecordDto> encode(MultiRecordEncodingRequestDto request) {
+    final EncodingIdDto encodingId = request.getEncodingId();
+    final List<RecordDto> records = request.getRecords();
+    final RecordEncoder recordEncoder = getEncoder(encodingId);
+    if (encodingExecutor == null || records.size() <= chunkSize) {
+      return encodeChunk(recordEncoder, encodingId, records, new AtomicInteger(), records.size());
+    }
+
+    final AtomicInteger progress = new AtomicInteger();
+    final List<Future<List<RecordDto>>> chunks = new ArrayList<>();
+    for (int from = 0; from < records.size(); from += chunkSize) {
+      List<RecordDto> chunk = records.subList(from, Math.min(from + chunkSize, records.size()));
+      chunks.add(encodingExecutor.submit(() ->
+        encodeChunk(recordEncoder, encodingId, chunk, progress, records.size())));
+    }
+    final List<RecordDto> encodedRecords = new ArrayList<>(records.size());
+    try {
+      for (Future<List<RecordDto>> chunk : chunks) {
+        encodedRecords.addAll(chunk.get());
+      }
+    } catch (InterruptedException e) {
+      chunks.forEach(c -> c.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while encoding records", e);
+    } catch (ExecutionException e) {
+      chunks.forEach(c -> c.cancel(true));
+      throw new RuntimeException("Failed to encode records", e.getCause());
+    }
+    return encodedRecords;
+  }
+
+  private List<RecordDto> encodeChunk(RecordEncoder recordEncoder, EncodingIdDto encodingId,
+    List<RecordDto> records, AtomicInteger progress, int numRecords) {
+    final List<RecordDto> encodedRecords = new ArrayList<>(records.size());
+    for (RecordDto curRecord : records) {
+      encodedRecords.add(encode(recordEncoder, encodingId, curRecord, null));
+      int i = progress.incrementAndGet();
+      if (i % 10000 == 0) {
+        log.info("Encoding record " + i + "/" + numRecords);
+      }
+    }
+    return encodedRecords;
+  }
+
+  /**
+   * Initializes the encoder and encodes the given record once, so that lazily loaded resources like
+   * frequency lookups and derived secrets are available before the first request. A failure to encode
+   * the record is only logged, since the record may not contain the attributes the encoder expects.
+   * The warm-up record is not counted as an encoded record.
+   *
+   * @param encodingId id of the encoder
+   * @param probe      plain record to encode, it is modified by the encoding
+   */
+  public void warmUp(EncodingIdDto encodingId, RecordDto probe) {
+    RecordEncoder recordEncoder = getEncoder(encodingId);
+    try {
+      convertAndEncode(recordEncoder, encodingId, probe, null);
+    } catch (RuntimeException e) {
+      log.warn("Encoder {} is initialised, but encoding the warm-up record failed: {}", encodingId,
+        e.getMessage());
+    }
+  }
+
+  public RecordDto encode(EncodingIdDto encodingId, Record in) {
+    RecordEncoder recordEncoder = getEncoder(encodingId);
+    MetricsService.counter("enc.counter").increment();
+    return encode(recordEncoder, encodingId, in);
+  }
+
+  private RecordDto encode(RecordEncoder recordEncoder, EncodingIdDto encodingId, RecordDto dtoIn,
+    String recordSecret) {
+    MetricsService.counter("enc.counter").increment();
+    return convertAndEncode(recordEncoder, encodingId, dtoIn, recordSecret);
+  }
+
+  private RecordDto convertAndEncode(RecordEncoder recordEncoder, EncodingIdDto encodingId, RecordDto dtoIn,
+    String recordSecret) {
     RecordIdDto idIn = dtoIn.getId().duplicate();
     long datasetIdIn = dtoIn.getDatasetId();
     addDummyLocalIdIfMissing(dtoIn);
 
     Record in = dtoInConverter.toRecord(dtoIn);
-    if (encodingRequest.getRecordSecret() != null) {
+    if (recordSecret != null) {
       in.setAttribute(
         KeyExtractor.KEY_ATTRIBUTE_NAME,
-        AttributeFactory.getAttribute(encodingRequest.getRecordSecret())
+        AttributeFactory.getAttribute(recordSecret)
       );
     }
-    RecordDto out = encode(encodingRequest.getEncodingId(), in);
+    RecordDto out = encode(recordEncoder, encodingId, in);
     out.setId(idIn);
     out.setDatasetId(datasetIdIn);
     return out;
   }
 
-  public List<RecordDto> encode(MultiRecordEncodingRequestDto request) {
-    int i = 0;
-    long numRecords = request.getRecords().size();
-    final List<RecordDto> encodedRecords = new ArrayList<>();
-    for (RecordDto curRecord : request.getRecords()) {
-      RecordDto encodedRecord = encode(
-        EncodingRequestDto.builder()
-          .encodingId(request.getEncodingId())
-          .record(curRecord)
-          .build()
-      );
-      encodedRecords.add(encodedRecord);
-      i++;
-      if (i % 10000 == 0) {
-        log.info("Encoding record " + i + "/" + numRecords);
-      }
-    }
-    return encodedRecords;
-  }
-
-  public RecordDto encode(EncodingIdDto encodingId, Record in) {
-    Record out = innerEncode(encodingId, in);
+  private RecordDto encode(RecordEncoder recordEncoder, EncodingIdDto encodingId, Record in) {
+    //TODO Optionally validate record and reject if crucial attributes are missing / unplausible
+    Record out = recordEncoder.encode(in);
     RecordDto outDto = dtoOutConverter.fromRecord(out);
     outDto.setEncodingId(encodingId);
     return outDto;
   }
 
-  private Record innerEncode(EncodingIdDto encodingDto, Record in) {
-    //TODO Optionally validate record and reject if crucial attributes are missing / unplausible
-    MetricsService.counter("enc.counter").increment();
-    setupKeyStore(encodingDto.getProject());
-    initEncoderIfNotPresent(encodingDto);
-    return encoder.get(encodingDto).encode(in);
-  }
-
-  private void setupKeyStore(String project) {
-    Optional<KeyStore> optionalKeyStore = secretManagerService.getKeyStore(project);
-    if (optionalKeyStore.isEmpty()) {
+  private KeyContext getKeyContext(String project) {
+    Optional<KeyContext> optionalKeyContext = secretManagerService.getKeyContext(project);
+    if (optionalKeyContext.isEmpty()) {
       throw new RuntimeException(
         "Abort encoding as no keystore is registered for project: " + project);
     }
-    if (!KeyManager.getKeyStore().equals(optionalKeyStore.get())) {
-      log.info("Activating keystore of project: " + project);
-      KeyManager.setKeyStore(optionalKeyStore.get());
-    }
+    return optionalKeyContext.get();
   }
 
-  private void initEncoderIfNotPresent(EncodingIdDto encodingIdDto) {
-    if (!encoder.containsKey(encodingIdDto)) {
-      log.info("Initialising encoder with id: " + encodingIdDto);
-      RecordEncoder curEncoder = encoderProviderService.getEncoder(encodingIdDto);
-      encoder.put(encodingIdDto, curEncoder);
+  /**
+   * Returns the encoder bound to the key context of its project. As the encoders do not use the global
+   * keystore, requests of different projects can be encoded concurrently.
+   */
+  private RecordEncoder getEncoder(EncodingIdDto encodingIdDto) {
+    final KeyContext keyContext = getKeyContext(encodingIdDto.getProject());
+    CompletableFuture<RecordEncoder> future = encoder.get(encodingIdDto);
+    if (future == null) {
+      CompletableFuture<RecordEncoder> created = new CompletableFuture<>();
+      future = encoder.putIfAbsent(encodingIdDto, created);
+      if (future == null) {
+        future = created;
+        log.info("Initialising encoder with id: " + encodingIdDto);
+        try {
+          RecordEncoder recordEncoder = encoderProviderService.getEncoder(encodingIdDto);
+          KeyContextAware.bind(recordEncoder, keyContext);
+          created.complete(recordEncoder);
+        } catch (RuntimeException e) {
+          encoder.remove(encodingIdDto, created);
+          created.completeExceptionally(e);
+          throw e;
+        }
+      }
+    }
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException re ? re : e;
     }
   }
 
@@ -0,0 +1,132 @@
+package de.unileipzig.dbs.pprl.service.dataowner.services;
+
+import de.unileipzig.dbs.pprl.service.common.data.dto.EncodingDto;
+import de.unileipzig.dbs.pprl.service.common.data.dto.EncodingIdDto;
+import de.unileipzig.dbs.pprl.service.common.services.ExampleRecordGeneratorService;
+import de.unileipzig.dbs.pprl.service.common.services.MetricsService;
+import de.unileipzig.dbs.pprl.service.dataowner.config.EncodingConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Initializes the encoders of all projects with a registered keystore once the application has started,
+ * so that the first encoding requests do not have to parse configs, load frequency lookups or derive secrets.
+ * Until the warm-up is finished the application refuses traffic, which is reported by the readiness probe.
+ * The health endpoint stays UP and shows the progress of the warm-up.
+ */
+@Service
+@Slf4j
+public class EncoderWarmUpService implements HealthIndicator {
+
+  public enum State {PENDING, RUNNING, FINISHED, DISABLED}
+
+  private final EncoderService encoderService;
+
+  private final EncoderProviderService encoderProviderService;
+
+  private final SecretManagerService secretManagerService;
+
+  private final ExampleRecordGeneratorService exampleRecordGeneratorService;
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  private volatile State state;
+
+  private volatile long durationMs = -1;
+
+  private final Set<String> initialisedEncoders = ConcurrentHashMap.newKeySet();
+
+  private final Map<String, String> failedEncoders = new ConcurrentHashMap<>();
+
+  public EncoderWarmUpService(EncoderService encoderService, EncoderProviderService encoderProviderService,
+    SecretManagerService secretManagerService, ExampleRecordGeneratorService exampleRecordGeneratorService,
+    EncodingConfig encodingConfig, ApplicationEventPublisher eventPublisher) {
+    this.encoderService = encoderService;
+    this.encoderProviderService = encoderProviderService;
+    this.secretManagerService = secretManagerService;
+    this.exampleRecordGeneratorService = exampleRecordGeneratorService;
+    this.eventPublisher = eventPublisher;
+    this.state = encodingConfig.isWarmUp() ? State.PENDING : State.DISABLED;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    if (state != State.PENDING) {
+      return;
+    }
+    state = State.RUNNING;
+    AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+    final long start = System.nanoTime();
+    final Collection<EncodingIdDto> encodingIds = getActiveEncodings();
+    log.info("Warming up {} encoders", encodingIds.size());
+    for (EncodingIdDto encodingId : encodingIds) {
+      try {
+        encoderService.warmUp(encodingId, exampleRecordGeneratorService.getPlainRecord(true));
+        initialisedEncoders.add(encodingId.toString());
+      } catch (RuntimeException e) {
+        log.error("Failed to initialise encoder {}: {}", encodingId, e.getMessage());
+        failedEncoders.put(encodingId.toString(), String.valueOf(e.getMessage()));
+      }
+    }
+    final long duration = System.nanoTime() - start;
+    MetricsService.timer("enc.warmup").record(duration, TimeUnit.NANOSECONDS);
+    durationMs = Duration.ofNanos(duration).toMillis();
+    state = State.FINISHED;
+    AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+    log.info("Warmed up {} encoders in {} ms ({} failed)", initialisedEncoders.size(), durationMs,
+      failedEncoders.size());
+  }
+
+  /**
+   * Get the ids of all encoders that can be requested for the projects with a registered keystore.
+   * Project independent configs are initialised for every such project.
+   */
+  private Collection<EncodingIdDto> getActiveEncodings() {
+    final List<String> projects = secretManagerService.getProjects();
+    final List<EncodingIdDto> configIds = encoderProviderService.getAvailableEncodings().stream()
+      .map(EncodingDto::getId)
+      .toList();
+    final Set<EncodingIdDto> encodingIds = new LinkedHashSet<>();
+    configIds.stream()
+      .filter(id -> id.getProject() != null && projects.contains(id.getProject()))
+      .forEach(encodingIds::add);
+    configIds.stream()
+      .filter(id -> id.getProject() == null)
+      .forEach(id -> projects.forEach(project -> encodingIds.add(new EncodingIdDto(id.getMethod(), project))));
+    return encodingIds;
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  @Override
+  public Health health() {
+    final Health.Builder builder = Health.up()
+      .withDetail("state", state)
+      .withDetail("encoders", initialisedEncoders.size());
+    if (durationMs >= 0) {
+      builder.withDetail("durationMs", durationMs);
+    }
+    if (!failedEncoders.isEmpty()) {
+      builder.withDetail("failed", failedEncoders);
+    }
+    return builder.build();
+  }
+}
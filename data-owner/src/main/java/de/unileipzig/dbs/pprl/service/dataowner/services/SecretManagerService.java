@@ -1,6 +1,7 @@
 package de.unileipzig.dbs.pprl.service.dataowner.services;
 
 import de.unileipzig.dbs.pprl.core.encoder.KeyManager;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContext;
 import de.unileipzig.dbs.pprl.service.dataowner.config.KeyStoreConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -10,10 +11,10 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.io.FileInputStream;
 import java.security.KeyStore;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static de.unileipzig.dbs.pprl.service.common.Constants.DUMMY_LINKAGE_PROJECT;
@@ -30,10 +31,16 @@ public class SecretManagerService {
    */
   private final Map<String, KeyStore> keyStores;
 
+  /**
+   * [Project name] -> key context with the secrets derived from the project's keystore
+   */
+  private final Map<String, KeyContext> keyContexts;
+
   private final KeyStoreConfig config;
 
   public SecretManagerService(KeyStoreConfig config) {
-    keyStores = new HashMap<>();
+    keyStores = new ConcurrentHashMap<>();
+    keyContexts = new ConcurrentHashMap<>();
     this.config = config;
   }
 
@@ -54,12 +61,14 @@ public class SecretManagerService {
     KeyStore keyStore = addProjectIfMissing(project);
     KeyManager
       .addSecret(keyStore, KeyManager.BASE_KEY_NAME, secret.getEncoded(), KeyManager.SECRET_PWD_ARRAY);
+    closeKeyContext(project);
   }
 
   public void removeSecret(String project) {
     if (keyStores.containsKey(project)) {
       log.debug("Removing secret of project: " + project);
       keyStores.remove(project);
+      closeKeyContext(project);
     } else {
       String message = "No secret to remove for project: " + project;
       log.debug(message);
@@ -71,6 +80,29 @@ public class SecretManagerService {
     return Optional.ofNullable(keyStores.get(project));
   }
 
+  /**
+   * Returns the key context of the project. It caches the secrets derived from the project's keystore
+   * until the secret of the project changes.
+   */
+  public Optional<KeyContext> getKeyContext(String project) {
+    KeyStore keyStore = keyStores.get(project);
+    if (keyStore == null) {
+      return Optional.empty();
+    }
+    return Optional.of(keyContexts.computeIfAbsent(project, p -> new KeyContext(keyStore)));
+  }
+
+  /**
+   * Removes the key context of the project and clears its cached secrets. Encoders still bound to the
+   * context derive the secrets again on their next use.
+   */
+  private void closeKeyContext(String project) {
+    KeyContext keyContext = keyContexts.remove(project);
+    if (keyContext != null) {
+      keyContext.close();
+    }
+  }
+
   public List<String> getProjects() {
     log.debug("Fetching available projects");
     return keyStores.keySet().stream().sorted().collect(Collectors.toList());
@@ -81,10 +113,9 @@ public class SecretManagerService {
   }
 
   private KeyStore addProjectIfMissing(String project) {
-    if (!keyStores.containsKey(project)) {
+    return keyStores.computeIfAbsent(project, p -> {
       log.debug("Creating new empty keystore for project: " + project);
-      keyStores.put(project, KeyManager.initEmptyKeyStore());
-    }
-    return keyStores.get(project);
+      return KeyManager.initEmptyKeyStore();
+    });
   }
 }
@@ -0,0 +1,123 @@
+package de.unileipzig.dbs.pprl.service.dataowner.services;
+
+import de.unileipzig.dbs.pprl.service.common.data.dto.EncodingDto;
+import de.unileipzig.dbs.pprl.service.common.data.dto.EncodingIdDto;
+import de.unileipzig.dbs.pprl.service.common.data.dto.RecordDto;
+import de.unileipzig.dbs.pprl.service.common.services.ExampleRecordGeneratorService;
+import de.unileipzig.dbs.pprl.service.dataowner.config.EncodingConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EncoderWarmUpServiceTest {
+
+  private static final EncodingIdDto PROJECT_ENCODING = new EncodingIdDto("method-a", "project");
+
+  private static final EncodingIdDto SHARED_ENCODING = new EncodingIdDto("method-b", null);
+
+  private EncoderService encoderService;
+
+  private EncoderProviderService encoderProviderService;
+
+  private SecretManagerService secretManagerService;
+
+  private ExampleRecordGeneratorService exampleRecordGeneratorService;
+
+  private List<ReadinessState> readinessStates;
+
+  @BeforeEach
+  void setUp() {
+    encoderService = mock(EncoderService.class);
+    encoderProviderService = mock(EncoderProviderService.class);
+    secretManagerService = mock(SecretManagerService.class);
+    exampleRecordGeneratorService = mock(ExampleRecordGeneratorService.class);
+    when(secretManagerService.getProjects()).thenReturn(List.of("project"));
+    when(encoderProviderService.getAvailableEncodings()).thenReturn(List.of(
+      EncodingDto.builder().id(PROJECT_ENCODING).build(),
+      EncodingDto.builder().id(SHARED_ENCODING).build()
+    ));
+    when(exampleRecordGeneratorService.getPlainRecord(true)).thenReturn(new RecordDto());
+    readinessStates = new ArrayList<>();
+  }
+
+  private EncoderWarmUpService createService(boolean warmUp) {
+    final EncodingConfig config = new EncodingConfig();
+    config.setWarmUp(warmUp);
+    return new EncoderWarmUpService(encoderService, encoderProviderService, secretManagerService,
+      exampleRecordGeneratorService, config, event -> {
+      if (event instanceof AvailabilityChangeEvent<?> availabilityEvent
+        && availabilityEvent.getState() instanceof ReadinessState readinessState) {
+        readinessStates.add(readinessState);
+      }
+    });
+  }
+
+  @Test
+  void refusesTrafficWhileRunning() {
+    final EncoderWarmUpService service = createService(true);
+    assertEquals(EncoderWarmUpService.State.PENDING, service.getState());
+    assertEquals(Status.UP, service.health().getStatus());
+
+    final List<EncoderWarmUpService.State> statesDuringWarmUp = new ArrayList<>();
+    final List<Status> healthDuringWarmUp = new ArrayList<>();
+    doAnswer(invocation -> {
+      statesDuringWarmUp.add(service.getState());
+      healthDuringWarmUp.add(service.health().getStatus());
+      assertEquals(List.of(ReadinessState.REFUSING_TRAFFIC), readinessStates);
+      return null;
+    }).when(encoderService).warmUp(any(), any());
+
+    service.warmUp();
+
+    assertEquals(List.of(EncoderWarmUpService.State.RUNNING, EncoderWarmUpService.State.RUNNING),
+      statesDuringWarmUp);
+    assertEquals(List.of(Status.UP, Status.UP), healthDuringWarmUp);
+    assertEquals(List.of(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC), readinessStates);
+    assertEquals(EncoderWarmUpService.State.FINISHED, service.getState());
+    verify(encoderService).warmUp(eq(PROJECT_ENCODING), any());
+    verify(encoderService).warmUp(eq(new EncodingIdDto("method-b", "project")), any());
+  }
+
+  @Test
+  void healthShowsProgress() {
+    doThrow(new RuntimeException("broken config")).when(encoderService).warmUp(eq(PROJECT_ENCODING), any());
+    final EncoderWarmUpService service = createService(true);
+    service.warmUp();
+
+    final Health health = service.health();
+    assertEquals(Status.UP, health.getStatus());
+    assertEquals(EncoderWarmUpService.State.FINISHED, health.getDetails().get("state"));
+    assertEquals(1, health.getDetails().get("encoders"));
+    assertTrue(health.getDetails().containsKey("durationMs"));
+    assertEquals(Map.of(PROJECT_ENCODING.toString(), "broken config"), health.getDetails().get("failed"));
+  }
+
+  @Test
+  void disabled() {
+    final EncoderWarmUpService service = createService(false);
+    service.warmUp();
+
+    assertEquals(EncoderWarmUpService.State.DISABLED, service.getState());
+    assertEquals(Status.UP, service.health().getStatus());
+    assertTrue(readinessStates.isEmpty());
+    verify(encoderService, never()).warmUp(any(), any());
+  }
+}
@@ -0,0 +1,36 @@
+package de.unileipzig.dbs.pprl.service.linkageunit.data.mongo;
+
+import de.unileipzig.dbs.pprl.core.common.model.impl.MatchGrade;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Compact history entry of a record pair whose classification was changed in place by a reclassification.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+public class RecordPairReclassification {
+
+  @Id
+  private ObjectId id;
+
+  @Indexed
+  private ObjectId projectId;
+
+  private String pairId;
+
+  private MatchGrade previousClassification;
+
+  private MatchGrade classification;
+
+  private Date date;
+}
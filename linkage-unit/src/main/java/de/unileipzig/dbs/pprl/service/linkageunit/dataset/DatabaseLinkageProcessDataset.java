@@ -12,6 +12,7 @@ import de.unileipzig.dbs.pprl.service.common.dataset.DatabaseBlockedDataSet;
 import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoRecordPair;
 import de.unileipzig.dbs.pprl.service.linkageunit.config.LinkageUnitReportingConfig;
 import de.unileipzig.dbs.pprl.service.linkageunit.services.ProjectService;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Collection;
@@ -21,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 public class DatabaseLinkageProcessDataset extends DatabaseBlockedDataSet implements LinkageProcessDataSet {
@@ -29,6 +31,12 @@ public class DatabaseLinkageProcessDataset extends DatabaseBlockedDataSet implem
 
   private final LinkageUnitReportingConfig linkageUnitReportingConfig;
 
+  /**
+   * Whether in-place reclassifications are recorded, see {@link ProjectService#CONFIG_RECLASSIFICATION_HISTORY}
+   */
+  @Setter
+  private boolean reclassificationHistory;
+
   public DatabaseLinkageProcessDataset(ProjectService projectService, LinkageUnitReportingConfig linkageUnitReportingConfig) {
     super(projectService.getDatasetService());
     this.projectService = projectService;
@@ -69,6 +77,21 @@ public class DatabaseLinkageProcessDataset extends DatabaseBlockedDataSet implem
   }
 
 
+  @Override
+  public Map<String, Collection<BlockingKey>> getBlockingKeys(Collection<String> uniqueIds) {
+    return projectService.getDatasetService().getBlockingKeys(projectId, uniqueIds);
+  }
+
+  @Override
+  public void addBlockingKeys(Map<String, Collection<BlockingKey>> blockingKeys) {
+    projectService.getDatasetService().addBlockingKeys(projectId, blockingKeys);
+  }
+
+  @Override
+  public void deleteBlockingKeys() {
+    projectService.getDatasetService().deleteBlockingKeys(projectId);
+  }
+
   @Override
   public void addRecordPair(RecordPair recordPair) {
     MongoRecordPair mongoRecordPair = toMongoRecordPair(recordPair);
@@ -118,6 +141,27 @@ public class DatabaseLinkageProcessDataset extends DatabaseBlockedDataSet implem
     projectService.addRecordPairs(projectId, rps);
   }
 
+  @Override
+  public Stream<RecordPair> streamActiveRecordPairs() {
+    return projectService.streamActiveRecordPairs(projectId);
+  }
+
+  @Override
+  public void updateRecordPairTags(Collection<RecordPair> recordPairs) {
+    projectService.updateRecordPairTags(projectId, recordPairs.stream()
+      .map(this::toMongoRecordPair)
+      .peek(DatabaseLinkageProcessDataset::updateActiveProperty)
+      .collect(Collectors.toList()));
+  }
+
+  @Override
+  public void updateRecordPairClassifications(Collection<RecordPair> recordPairs) {
+    projectService.updateRecordPairClassifications(projectId, recordPairs.stream()
+      .map(this::toMongoRecordPair)
+      .peek(DatabaseLinkageProcessDataset::updateActiveProperty)
+      .collect(Collectors.toList()), reclassificationHistory);
+  }
+
   @Override
   public void replaceRecordPairs(Collection<RecordPair> recordPairs) {
     List<MongoRecordPair> rps = recordPairs.stream()
@@ -142,6 +186,13 @@ public class DatabaseLinkageProcessDataset extends DatabaseBlockedDataSet implem
     projectService.addRecordCluster(projectId, mongoRecordCluster);
   }
 
+  @Override
+  public void addRecordClusters(Collection<RecordCluster> recordClusters) {
+    projectService.getDatasetService().addClusters(projectId, recordClusters.stream()
+      .map(this::toMongoRecordCluster)
+      .collect(Collectors.toList()));
+  }
+
   private MongoCluster toMongoRecordCluster(RecordCluster recordCluster) {
     if (recordCluster instanceof MongoCluster) {
       return (MongoCluster) recordCluster;
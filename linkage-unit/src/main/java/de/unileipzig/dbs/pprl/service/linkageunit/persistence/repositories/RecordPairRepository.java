@@ -11,17 +11,44 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface RecordPairRepository extends MongoRepository<MongoRecordPair, ObjectId> {
 
+  /**
+   * Projection of record pairs to the fields used by postprocessing and clustering, i.e. without attributes.
+   */
+  String PAIR_SUMMARY_FIELDS = "{ 'attributeSimilarities' : 0," +
+    "'leftRecord.stringAttributes' : 0, 'leftRecord.binaryAttributes' : 0," +
+    "'rightRecord.stringAttributes' : 0, 'rightRecord.binaryAttributes' : 0 }";
+
+  /**
+   * Projection of record pairs to the fields used by reclassification, i.e. with the attribute similarities.
+   */
+  String PAIR_CLASSIFICATION_FIELDS = "{" +
+    "'leftRecord.stringAttributes' : 0, 'leftRecord.binaryAttributes' : 0," +
+    "'rightRecord.stringAttributes' : 0, 'rightRecord.binaryAttributes' : 0 }";
+
   List<MongoRecordPair> findMongoRecordPairByClassification(MatchGrade classification);
 
   @Query(value = "{ 'projectId' : ?0 }", fields = "{" +
     "'leftRecord.datasetId' : 0, 'leftRecord.encodingId' : 0, 'leftRecord.stringAttributes' : 0," +
-    "'rightRecord.datasetId' : 0, 'rightRecord.encodingId' : 0, 'rightRecord.stringAttributes' : 0 }")
+    "'leftRecord.binaryAttributes' : 0," +
+    "'rightRecord.datasetId' : 0, 'rightRecord.encodingId' : 0, 'rightRecord.stringAttributes' : 0," +
+    "'rightRecord.binaryAttributes' : 0 }")
   List<RecordPair> findMongoRecordPairByProjectIdNoRecords(ObjectId projectId);
 
-//  Iterator<RecordPair> findMongoRecordPairByProjectIdAsIterator(ObjectId projectId);
+  @Query(value = "{ 'projectId' : ?0 , 'properties': { $all: ?1 } }", fields = PAIR_SUMMARY_FIELDS)
+  Stream<RecordPair> streamMongoRecordPairByProjectIdAndPropertiesAll(ObjectId projectId, Set<String> properties);
+
+  @Query(value = "{ 'projectId' : ?0 , 'properties' : { $ne : ?1 } }", fields = PAIR_CLASSIFICATION_FIELDS)
+  Stream<MongoRecordPair> streamMongoRecordPairByProjectIdAndPropertiesNotContains(ObjectId projectId,
+    String property);
+
+  @Query(value = "{ 'projectId' : ?0 , 'tags.tag' : ?1 , 'properties' : { $ne : ?2 } }",
+    fields = PAIR_SUMMARY_FIELDS)
+  Stream<MongoRecordPair> streamMongoRecordPairByProjectIdAndTagAndPropertiesNotContains(ObjectId projectId,
+    String tag, String property);
 
   @Query("{ 'projectId' : ?0 , 'properties': { $all: ?1 } }")
   List<RecordPair> findMongoRecordPairByProjectIdAndPropertiesAll(ObjectId projectId, Set<String> properties);
@@ -7,10 +7,13 @@ import de.unileipzig.dbs.pprl.core.matcher.matcher.DefaultBatchMatcher;
 import de.unileipzig.dbs.pprl.core.matcher.matcher.Matcher;
 import de.unileipzig.dbs.pprl.core.matcher.matcher.TwoStepBatchMatcher;
 import de.unileipzig.dbs.pprl.core.matcher.model.api.LinkageProcessDataSet;
+import de.unileipzig.dbs.pprl.service.common.config.MongoIndexConfig;
+import de.unileipzig.dbs.pprl.service.common.config.MongoRecordConfig;
 import de.unileipzig.dbs.pprl.service.common.data.converter.MongoRecordConverter;
 import de.unileipzig.dbs.pprl.service.common.data.dto.RecordEncodingWishDto;
 import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoRecord;
 import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoRecordPair;
+import de.unileipzig.dbs.pprl.service.common.services.MongoIndexService;
 import de.unileipzig.dbs.pprl.service.linkageunit.config.MatcherConfig;
 import de.unileipzig.dbs.pprl.service.linkageunit.data.converter.RecordPairDtoConverter;
 import de.unileipzig.dbs.pprl.service.linkageunit.data.dto.MatcherIdDto;
@@ -38,12 +41,19 @@ public class AsynchronousBatchMatcherService extends AbstractMatcherService {
   @Getter
   private final LinkImprovementService linkImprovementService;
 
+  private final MongoIndexService indexService;
+
+  private final MongoIndexConfig indexConfig;
+
   public AsynchronousBatchMatcherService(MatcherConfig config,
     MatcherProviderService matcherProviderService,
-    ProjectService projectService, LinkImprovementService linkImprovementService) {
-    super(new MongoRecordConverter(), config, matcherProviderService);
+    ProjectService projectService, LinkImprovementService linkImprovementService,
+    MongoIndexService indexService, MongoIndexConfig indexConfig, MongoRecordConfig recordConfig) {
+    super(new MongoRecordConverter(recordConfig.getAttributeStorage()), config, matcherProviderService);
     this.projectService = projectService;
     this.linkImprovementService = linkImprovementService;
+    this.indexService = indexService;
+    this.indexConfig = indexConfig;
   }
 
   public DatasetBasedBatchMatcher getMatcher(BatchMatchProject project) {
@@ -68,6 +78,7 @@ public class AsynchronousBatchMatcherService extends AbstractMatcherService {
       throw new IllegalArgumentException("Matcher is not a DatasetBasedBatchMatcher");
     }
     datasetBasedBatchMatcher.setDataSet(projectService.getDataset(project.getProjectId()));
+    projectService.invalidateBlockingKeys(project, datasetBasedBatchMatcher.getBlocker());
     return datasetBasedBatchMatcher;
   }
 
@@ -158,6 +169,9 @@ public class AsynchronousBatchMatcherService extends AbstractMatcherService {
       getMatcher(project).runAll();
     }
     projectService.save(project);
+    if (indexConfig.isCheckUsage()) {
+      indexService.checkIndexUsage();
+    }
     return project;
   }
 
@@ -1,25 +1,32 @@
 package de.unileipzig.dbs.pprl.service.linkageunit.services;
 
 import de.unileipzig.dbs.pprl.service.common.data.converter.AbstractRecordConverter;
+import de.unileipzig.dbs.pprl.service.common.config.MongoRecordConfig;
 import de.unileipzig.dbs.pprl.service.common.data.converter.MongoRecordConverter;
 import de.unileipzig.dbs.pprl.service.common.data.dto.RecordDto;
 import de.unileipzig.dbs.pprl.service.common.data.dto.RecordIdDto;
+import de.unileipzig.dbs.pprl.service.common.services.DatasetChangedEvent;
 import de.unileipzig.dbs.pprl.service.common.services.DatasetMongoService;
 import de.unileipzig.dbs.pprl.service.common.services.MetricsService;
 import de.unileipzig.dbs.pprl.service.linkageunit.config.MatcherConfig;
 import de.unileipzig.dbs.pprl.service.linkageunit.data.dto.MatcherIdDto;
 import de.unileipzig.dbs.pprl.service.linkageunit.data.dto.SearchResultDto;
 import de.unileipzig.dbs.pprl.service.linkageunit.data.dto.SearchResultEntryDto;
+import de.unileipzig.dbs.pprl.core.common.model.api.BlockedDataSet;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordId;
 import de.unileipzig.dbs.pprl.core.matcher.matcher.IncrementalMatcher;
 import de.unileipzig.dbs.pprl.core.matcher.model.api.SearchResult;
 import de.unileipzig.dbs.pprl.core.matcher.model.api.SearchResultEntry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Service
 @Slf4j
 public class IncrementalMatcherService extends AbstractMatcherService {
@@ -28,10 +35,30 @@ public class IncrementalMatcherService extends AbstractMatcherService {
 
   private DatasetMongoService datasetService;
 
+  /**
+   * Maximum number of datasets whose in-memory indices are kept by the matcher
+   */
+  public static final int MAX_CACHED_DATA_SETS = 16;
+
+  /**
+   * Datasets are reused across requests, so that in-memory indices of the matcher stay valid.
+   * The least recently used dataset is evicted, changed datasets are dropped.
+   */
+  private final Map<Long, BlockedDataSet> dataSets = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Long, BlockedDataSet> eldest) {
+      if (size() > MAX_CACHED_DATA_SETS) {
+        matcher.removeDataSet(eldest.getValue());
+        return true;
+      }
+      return false;
+    }
+  };
+
   public IncrementalMatcherService(MatcherConfig config,
     MatcherProviderService matcherProviderService,
-    DatasetMongoService datasetService) {
-    super(new MongoRecordConverter(), config, matcherProviderService);
+    DatasetMongoService datasetService, MongoRecordConfig recordConfig) {
+    super(new MongoRecordConverter(recordConfig.getAttributeStorage()), config, matcherProviderService);
     this.datasetService = datasetService;
   }
 
@@ -47,7 +74,23 @@ public class IncrementalMatcherService extends AbstractMatcherService {
   }
 
   private void initMatcher(long datasetId) {
-    matcher.setDataSet(datasetService.getBlockedDataSet(datasetId));
+    BlockedDataSet dataSet;
+    synchronized (dataSets) {
+      dataSet = dataSets.computeIfAbsent(datasetId, datasetService::getBlockedDataSet);
+    }
+    matcher.setDataSet(dataSet);
+  }
+
+  @EventListener
+  public void onDatasetChanged(DatasetChangedEvent event) {
+    BlockedDataSet dataSet;
+    synchronized (dataSets) {
+      dataSet = dataSets.remove(event.datasetId());
+    }
+    if (dataSet != null && matcher != null) {
+      log.debug("Dropping in-memory index of changed dataset {}", event.datasetId());
+      matcher.removeDataSet(dataSet);
+    }
   }
 
   public RecordIdDto insert(RecordDto dtoIn) {
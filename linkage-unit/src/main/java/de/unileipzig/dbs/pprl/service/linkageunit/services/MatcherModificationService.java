@@ -37,6 +37,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static de.unileipzig.dbs.pprl.service.linkageunit.services.LinkImprovementService.PROPERTY_LINK_FROM_UPPER_LAYER;
 
@@ -46,6 +47,10 @@ public class MatcherModificationService {
 
   public static final String PROPERTY_METHOD_PPCR = "METHOD_PPCR";
   public static final String CONFIG_REPLACE_ONLY_CHANGED_PAIRS_ON_RECLASSIFICATION = "replaceOnlyChangedPairsOnReclassification";
+  /**
+   * If true, only pairs whose classification changed are updated in place instead of being replaced by copies
+   */
+  public static final String CONFIG_DELTA_RECLASSIFICATION = "deltaReclassification";
   private final MatcherProviderService matcherProviderService;
 
   private final AsynchronousBatchMatcherService matcherService;
@@ -218,24 +223,22 @@ public class MatcherModificationService {
   }
 
   public void reclassify(ObjectId projectId) {
+    BatchMatchProject project = projectService.getProject(projectId);
+    if (Boolean.parseBoolean(project.getConfigValue(CONFIG_DELTA_RECLASSIFICATION).orElse("false"))) {
+      reclassifyChangedPairs(project);
+      return;
+    }
+
     List<RecordPair> recordPairs = projectService.getRecordPairs(projectId);
     long paircount = recordPairs.size();
     recordPairs = recordPairs.stream()
       .map(rp -> (MongoRecordPair) rp)
       .filter(mrp -> !mrp.getProperties().contains(LinkImprovementService.PROPERTY_IMPROVED_LINK))
-      .peek(mrp -> {
-        mrp.addProperty(LinkageProcessDataSet.ACTIVE);
-        mrp.removeProperty(LinkageProcessDataSet.NEW);
-        mrp.getTags().remove(Tag.create(LinkageProcessDataSet.TAG_REMOVED_BY_CLASSIFIER));
-        mrp.getTags().remove(Tag.create(LinkageProcessDataSet.TAG_REMOVED_BY_POSTPROCESSING));
-//        mrp.getTags().remove(Tag.create(Classifier.Label.TRUE_MATCH.name()));
-//        mrp.getTags().remove(Tag.create(Classifier.Label.TRUE_NON_MATCH.name()));
-      })
+      .peek(MatcherModificationService::resetForReclassification)
       .collect(Collectors.toList());
     long withOutImprovedLinks = recordPairs.size();
     log.info("All: {}, Improved: {}", paircount, paircount - withOutImprovedLinks);
 
-    BatchMatchProject project = projectService.getProject(projectId);
     DatasetBasedBatchMatcher matcher = matcherService.getMatcher(project);
 
     String replaceOnlyChangedPairsOnReclassification = project.getConfigValue(
@@ -243,7 +246,43 @@ public class MatcherModificationService {
     log.info("Reclassifying {} pairs with classifier: {} (replaceOnlyChangedPairs={})", recordPairs.size(),
       ((DefaultLinker) matcher.getLinker()).getClassifier(), replaceOnlyChangedPairsOnReclassification
     );
-    matcher.reclassifyRecordPairs(recordPairs, Boolean.parseBoolean(replaceOnlyChangedPairsOnReclassification));
+    matcher.reclassifyRecordPairs(recordPairs, Boolean.parseBoolean(replaceOnlyChangedPairsOnReclassification),
+      MatcherModificationService::isReactivated);
+  }
+
+  /**
+   * Reclassify the record pairs from their stored similarities, reading them through a projected cursor.
+   * Only pairs whose classification changed or that were reactivated are updated in place, so the memory use
+   * and the amount of written data do not depend on the number of pairs.
+   */
+  private void reclassifyChangedPairs(BatchMatchProject project) {
+    DatasetBasedBatchMatcher matcher = matcherService.getMatcher(project);
+    log.info("Reclassifying changed pairs with classifier: {}",
+      ((DefaultLinker) matcher.getLinker()).getClassifier());
+    try (Stream<MongoRecordPair> recordPairs =
+           projectService.streamRecordPairsForReclassification(project.getProjectId())) {
+      matcher.reclassifyChangedRecordPairs(recordPairs
+        .filter(mrp -> !mrp.getProperties().contains(LinkImprovementService.PROPERTY_IMPROVED_LINK))
+        .peek(mrp -> mrp.setPreviousClassification(mrp.getClassification()))
+        .peek(MatcherModificationService::resetForReclassification)
+        .map(RecordPair.class::cast), MatcherModificationService::isReactivated);
+    }
+  }
+
+  private static void resetForReclassification(MongoRecordPair mrp) {
+    final Set<String> properties = new HashSet<>(mrp.getProperties());
+    final int tagCount = mrp.getTags().size();
+    mrp.addProperty(LinkageProcessDataSet.ACTIVE);
+    mrp.removeProperty(LinkageProcessDataSet.NEW);
+    mrp.getTags().remove(Tag.create(LinkageProcessDataSet.TAG_REMOVED_BY_CLASSIFIER));
+    mrp.getTags().remove(Tag.create(LinkageProcessDataSet.TAG_REMOVED_BY_POSTPROCESSING));
+//    mrp.getTags().remove(Tag.create(Classifier.Label.TRUE_MATCH.name()));
+//    mrp.getTags().remove(Tag.create(Classifier.Label.TRUE_NON_MATCH.name()));
+    mrp.setReactivated(!properties.equals(mrp.getProperties()) || tagCount != mrp.getTags().size());
+  }
+
+  private static boolean isReactivated(RecordPair pair) {
+    return pair instanceof MongoRecordPair mrp && mrp.isReactivated();
   }
 
   public MatchingDto trainWithGroundTruth(MatcherTrainingsRequest request) {
@@ -2,6 +2,8 @@ package de.unileipzig.dbs.pprl.service.linkageunit.services;
 
 import de.unileipzig.dbs.pprl.core.common.model.impl.MatchGrade;
 import de.unileipzig.dbs.pprl.core.common.monitoring.Tag;
+import de.unileipzig.dbs.pprl.core.matcher.MatcherSerialization;
+import de.unileipzig.dbs.pprl.core.matcher.blocking.Blocker;
 import de.unileipzig.dbs.pprl.core.matcher.model.api.LinkageProcessDataSet;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
 import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoCluster;
@@ -9,11 +11,13 @@ import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoGroundTruth;
 import de.unileipzig.dbs.pprl.core.matcher.evaluation.EvaluationUtils;
 import de.unileipzig.dbs.pprl.service.common.persistence.repositories.mongo.MongoClusterRepository;
 import de.unileipzig.dbs.pprl.service.common.services.DatasetMongoService;
+import de.unileipzig.dbs.pprl.service.common.services.MongoBulkWriter;
 import de.unileipzig.dbs.pprl.service.linkageunit.data.converter.BatchMatchProjectConverter;
 import de.unileipzig.dbs.pprl.service.linkageunit.data.dto.BatchMatchProjectDto;
 import de.unileipzig.dbs.pprl.service.linkageunit.data.mongo.BatchMatchProject;
 import de.unileipzig.dbs.pprl.service.common.data.mongo.MongoRecordPair;
 import de.unileipzig.dbs.pprl.service.linkageunit.data.mongo.ProjectState;
+import de.unileipzig.dbs.pprl.service.linkageunit.data.mongo.RecordPairReclassification;
 import de.unileipzig.dbs.pprl.service.linkageunit.dataset.DatabaseLinkageProcessDataset;
 import de.unileipzig.dbs.pprl.service.linkageunit.persistence.repositories.BatchMatchProjectRepository;
 import de.unileipzig.dbs.pprl.service.linkageunit.persistence.repositories.RecordPairRepository;
@@ -30,6 +34,7 @@ import org.springframework.stereotype.Service;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static de.unileipzig.dbs.pprl.core.matcher.model.api.LinkageProcessDataSet.*;
 import static de.unileipzig.dbs.pprl.service.linkageunit.services.LinkImprovementService.PROPERTY_IMPROVED_LINK;
@@ -47,6 +52,16 @@ public class ProjectService {
   public static final String TAG_IMPROVED_LINK_COUNT = "IMPROVED_LINK_COUNT";
 
   public static final String CONFIG_RECORD_PAIR_LIMIT = "RECORD_PAIR_LIMIT";
+
+  /**
+   * If true, in-place reclassifications store a {@link RecordPairReclassification} for each changed pair
+   */
+  public static final String CONFIG_RECLASSIFICATION_HISTORY = "reclassificationHistory";
+
+  /**
+   * Serialized blocker that generated the persisted blocking keys of the project
+   */
+  public static final String CONFIG_BLOCKER = "blocker";
   private DatasetMongoService datasetService;
 
   private BatchMatchProjectRepository batchMatchProjectRepository;
@@ -59,16 +74,19 @@ public class ProjectService {
 
   private ReportUpdater reportUpdater;
 
+  private MongoBulkWriter bulkWriter;
+
   public ProjectService(
     DatasetMongoService datasetService, BatchMatchProjectRepository batchMatchProjectRepository,
     RecordPairRepository recordPairRepository, MongoClusterRepository clusterRepository,
-    MongoTemplate mongoTemplate, ReportUpdater reportUpdater) {
+    MongoTemplate mongoTemplate, ReportUpdater reportUpdater, MongoBulkWriter bulkWriter) {
     this.batchMatchProjectRepository = batchMatchProjectRepository;
     this.datasetService = datasetService;
     this.clusterRepository = clusterRepository;
     this.recordPairRepository = recordPairRepository;
     this.mongoTemplate = mongoTemplate;
     this.reportUpdater = reportUpdater;
+    this.bulkWriter = bulkWriter;
   }
 
   public BatchMatchProject add(BatchMatchProjectDto projectDto) {
@@ -112,11 +130,31 @@ public class ProjectService {
   public DatabaseLinkageProcessDataset getDataset(ObjectId projectId) {
     DatabaseLinkageProcessDataset dataset =
       new DatabaseLinkageProcessDataset(this, reportUpdater.getReportingConfig());
+    BatchMatchProject project = getProject(projectId);
     dataset.setProjectId(projectId);
-    dataset.setDatasetId(getProject(projectId).getDatasetId());
+    dataset.setDatasetId(project.getDatasetId());
+    dataset.setReclassificationHistory(
+      Boolean.parseBoolean(project.getConfigValue(CONFIG_RECLASSIFICATION_HISTORY).orElse("false")));
     return dataset;
   }
 
+  /**
+   * Delete the persisted blocking keys of the project if they were generated by a different blocker,
+   * so that stale keys are not reused.
+   */
+  public void invalidateBlockingKeys(BatchMatchProject project, Blocker blocker) {
+    String serializedBlocker = MatcherSerialization.serializeJson(blocker);
+    if (serializedBlocker.equals(project.getConfig().get(CONFIG_BLOCKER))) {
+      return;
+    }
+    if (project.getConfig().containsKey(CONFIG_BLOCKER)) {
+      log.info("Blocker of project {} changed, deleting persisted blocking keys", project.getProjectId());
+    }
+    datasetService.deleteBlockingKeys(project.getProjectId());
+    project.getConfig().put(CONFIG_BLOCKER, serializedBlocker);
+    save(project);
+  }
+
   public BatchMatchProject reset(ObjectId projectId, ProjectState targetState) {
     BatchMatchProject project = getProject(projectId);
     if (project.getState().isAtMost(targetState)) {
@@ -128,6 +166,8 @@ public class ProjectService {
     switch (targetState) {
       case COLLECTING:
         deleteRecordPairs(projectId);
+        datasetService.deleteBlockingKeys(projectId);
+        project.getConfig().remove(CONFIG_BLOCKER);
         project.getPhases().remove(ProjectState.BLOCKING.name());
         project.getPhases().remove(ProjectState.LINKING.name());
         project.getPhases().remove(ProjectState.CLASSIFICATION.name());
@@ -135,17 +175,7 @@ public class ProjectService {
         project.getPhases().remove(ProjectState.CLUSTERING.name());
         break;
       case CLASSIFICATION:
-        List<MongoRecordPair> updatedRecordPairs = getRecordPairs(projectId).stream()
-          .map(rp -> (MongoRecordPair) rp)
-          .peek(rp -> {
-            if (rp.getTags().stream()
-              .anyMatch(t -> t.getTag().equals(LinkageProcessDataSet.TAG_REMOVED_BY_POSTPROCESSING))) {
-              rp.removeTag(LinkageProcessDataSet.TAG_REMOVED_BY_POSTPROCESSING);
-              rp.addTag(LinkageProcessDataSet.ACTIVE);
-            }
-          })
-          .collect(Collectors.toList());
-        addRecordPairs(projectId, updatedRecordPairs);
+        restorePostprocessedRecordPairs(projectId);
         project.getPhases().remove(ProjectState.POSTPROCESSING.name());
         project.getPhases().remove(ProjectState.CLUSTERING.name());
         break;
@@ -154,6 +184,37 @@ public class ProjectService {
     return project;
   }
 
+  /**
+   * Reactivate the record pairs removed by postprocessing. Only these pairs are streamed and their tags are
+   * updated in batches, so that the memory use does not depend on the number of pairs.
+   *
+   * @param projectId project id
+   */
+  private void restorePostprocessedRecordPairs(ObjectId projectId) {
+    final List<MongoRecordPair> batch = new ArrayList<>();
+    long restored = 0;
+    try (Stream<MongoRecordPair> recordPairs = recordPairRepository
+      .streamMongoRecordPairByProjectIdAndTagAndPropertiesNotContains(
+        projectId, LinkageProcessDataSet.TAG_REMOVED_BY_POSTPROCESSING, LinkageProcessDataSet.REPLACED)) {
+      Iterator<MongoRecordPair> iterator = recordPairs.iterator();
+      while (iterator.hasNext()) {
+        MongoRecordPair rp = iterator.next();
+        rp.removeTag(LinkageProcessDataSet.TAG_REMOVED_BY_POSTPROCESSING);
+        rp.addTag(LinkageProcessDataSet.ACTIVE);
+        DatabaseLinkageProcessDataset.updateActiveProperty(rp);
+        batch.add(rp);
+        if (batch.size() >= bulkWriter.getBatchSize()) {
+          restored += batch.size();
+          updateRecordPairTags(projectId, batch);
+          batch.clear();
+        }
+      }
+    }
+    restored += batch.size();
+    updateRecordPairTags(projectId, batch);
+    log.info("Restored {} record pairs removed by postprocessing", restored);
+  }
+
   public void updateProjectPhases(ObjectId projectId) {
     updateProjectPhases(getProject(projectId));
   }
@@ -172,11 +233,62 @@ public class ProjectService {
 
   public void deleteRecordPairs(ObjectId projectId) {
     recordPairRepository.deleteByProjectId(projectId);
+    mongoTemplate.remove(Query.query(Criteria.where("projectId").is(projectId)), RecordPairReclassification.class);
   }
 
   public void addRecordPairs(ObjectId projectId, Collection<MongoRecordPair> recordPairs) {
     recordPairs.forEach(rp -> rp.setProjectId(projectId));
-    recordPairRepository.saveAll(recordPairs);
+    bulkWriter.saveAll(MongoRecordPair.class, recordPairs);
+  }
+
+  /**
+   * Persist only the tags and properties of record pairs, e.g. of pairs read with a projection.
+   *
+   * @param projectId   project id
+   * @param recordPairs stored record pairs
+   */
+  public void updateRecordPairTags(ObjectId projectId, Collection<MongoRecordPair> recordPairs) {
+    recordPairs.forEach(rp -> rp.setProjectId(projectId));
+    bulkWriter.updateAll(MongoRecordPair.class, recordPairs,
+      List.of(MongoRecordPair.FIELD_TAGS, MongoRecordPair.FIELD_PROPERTIES));
+  }
+
+  /**
+   * Stream the record pairs that are not replaced for a reclassification, without record attributes.
+   * The stream has to be closed.
+   *
+   * @param projectId project id
+   * @return record pairs
+   */
+  public Stream<MongoRecordPair> streamRecordPairsForReclassification(ObjectId projectId) {
+    return recordPairRepository.streamMongoRecordPairByProjectIdAndPropertiesNotContains(projectId, REPLACED);
+  }
+
+  /**
+   * Update the classification, tags and properties of reclassified record pairs in place, instead of
+   * replacing them with new copies (see {@link #replaceRecordPairs(ObjectId, Collection)}).
+   *
+   * @param projectId   project id
+   * @param recordPairs stored record pairs whose classification, tags or properties changed
+   * @param history     if true, a {@link RecordPairReclassification} is added for each pair whose classification
+   *                    changed, see {@link #CONFIG_RECLASSIFICATION_HISTORY}
+   */
+  public void updateRecordPairClassifications(ObjectId projectId, Collection<MongoRecordPair> recordPairs,
+    boolean history) {
+    if (recordPairs.isEmpty()) {
+      return;
+    }
+    recordPairs.forEach(rp -> rp.setProjectId(projectId));
+    bulkWriter.updateAll(MongoRecordPair.class, recordPairs,
+      List.of(MongoRecordPair.FIELD_CLASSIFICATION, MongoRecordPair.FIELD_TAGS, MongoRecordPair.FIELD_PROPERTIES));
+    if (history) {
+      final Date date = new Date();
+      bulkWriter.saveAll(RecordPairReclassification.class, recordPairs.stream()
+        .filter(rp -> rp.getPreviousClassification() != rp.getClassification())
+        .map(rp -> new RecordPairReclassification(
+          null, projectId, rp.getPairId(), rp.getPreviousClassification(), rp.getClassification(), date))
+        .collect(Collectors.toList()));
+    }
   }
 
   public void addRecordPair(ObjectId projectId, MongoRecordPair recordPair) {
@@ -391,6 +503,17 @@ public class ProjectService {
     return removeReplacedRecordPairs(recordPairRepository.findMongoRecordPairByProjectIdAndPairIdIn(projectId, pairIds));
   }
 
+  /**
+   * Stream the active record pairs without record attributes. The stream has to be closed.
+   *
+   * @param projectId project id
+   * @return active record pairs that are not replaced
+   */
+  public Stream<RecordPair> streamActiveRecordPairs(ObjectId projectId) {
+    return recordPairRepository.streamMongoRecordPairByProjectIdAndPropertiesAll(projectId, Set.of(ACTIVE))
+      .filter(ProjectService::isNotReplaced);
+  }
+
   public List<RecordPair> getRecordPairsFilteredByProperties(ObjectId projectId, Set<String> properties) {
     if (properties != null && properties.contains("ALL")) {
       HashSet<String> newProperties = new HashSet<>(properties);
@@ -414,10 +537,14 @@ public class ProjectService {
 
   public static <T extends RecordPair> List<T> removeReplacedRecordPairs(Collection<T> recordPairs) {
     return recordPairs.stream()
-      .filter(rp -> !((MongoRecordPair) rp).getProperties().contains(LinkageProcessDataSet.REPLACED))
+      .filter(ProjectService::isNotReplaced)
       .collect(Collectors.toList());
   }
 
+  private static boolean isNotReplaced(RecordPair recordPair) {
+    return !((MongoRecordPair) recordPair).getProperties().contains(LinkageProcessDataSet.REPLACED);
+  }
+
   public DatasetMongoService getDatasetService() {
     return datasetService;
   }
@@ -433,6 +560,7 @@ public class ProjectService {
     clusterRepository.deleteByProjectId(projectId);
     batchMatchProjectRepository.deleteById(projectId);
     datasetService.deleteClusters(projectId);
+    datasetService.deleteBlockingKeys(projectId);
   }
 
   public void resetRecordPairs(ObjectId projectId) {
@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.benchmarks;
+
+import de.unileipzig.dbs.pprl.core.common.factories.AttributeFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordIdFactory;
+import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordId;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
+import de.unileipzig.dbs.pprl.core.common.model.impl.PersonalAttributeType;
+import de.unileipzig.dbs.pprl.core.common.model.impl.RecordClusterSimple;
+import de.unileipzig.dbs.pprl.core.common.model.impl.RecordPairSimple;
+import de.unileipzig.dbs.pprl.core.encoder.attribute.AttributeEncoder;
+import de.unileipzig.dbs.pprl.core.encoder.attribute.BitVectorEncoder;
+import de.unileipzig.dbs.pprl.core.encoder.feature.DoubleHashing;
+import de.unileipzig.dbs.pprl.core.encoder.feature.NGramTokenizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates reproducible synthetic person records for the benchmarks.
+ * Source "A" contains {@code size} records, source "B" contains a corrupted duplicate
+ * (one character substitution per attribute) for a share of them plus unrelated records.
+ */
+public class BenchmarkData {
+  public static final long DEFAULT_SEED = 42L;
+
+  public static final String SOURCE_A = "A";
+  public static final String SOURCE_B = "B";
+
+  public static final String[] ATTRIBUTE_NAMES = {
+    PersonalAttributeType.FIRSTNAME.name(),
+    PersonalAttributeType.LASTNAME.name(),
+    PersonalAttributeType.DATEOFBIRTH.name()
+  };
+
+  private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+  private final Random random;
+
+  public BenchmarkData() {
+    this(DEFAULT_SEED);
+  }
+
+  public BenchmarkData(long seed) {
+    this.random = new Random(seed);
+  }
+
+  public String randomName() {
+    int length = 4 + random.nextInt(7);
+    StringBuilder sb = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+    }
+    return sb.toString();
+  }
+
+  public String randomDateOfBirth() {
+    return String.format("%04d-%02d-%02d",
+      1930 + random.nextInt(90), 1 + random.nextInt(12), 1 + random.nextInt(28));
+  }
+
+  public String corrupt(String value) {
+    char[] chars = value.toCharArray();
+    int pos = random.nextInt(chars.length);
+    chars[pos] = Character.isDigit(chars[pos]) ?
+      (char) ('0' + random.nextInt(10)) : ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+    return new String(chars);
+  }
+
+  public List<String> randomNames(int count) {
+    List<String> names = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      names.add(randomName());
+    }
+    return names;
+  }
+
+  /**
+   * Plain records of source A
+   */
+  public List<Record> plainRecords(int size) {
+    List<Record> records = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Record record = emptyRecord(SOURCE_A, i);
+      record.setAttribute(ATTRIBUTE_NAMES[0], AttributeFactory.getAttribute(randomName()))
+        .setAttribute(ATTRIBUTE_NAMES[1], AttributeFactory.getAttribute(randomName()))
+        .setAttribute(ATTRIBUTE_NAMES[2], AttributeFactory.getAttribute(randomDateOfBirth()));
+      records.add(record);
+    }
+    return records;
+  }
+
+  /**
+   * Plain records of source B: corrupted duplicates for {@code overlap} share of the given records,
+   * filled up with random records to the same size
+   */
+  public List<Record> plainDuplicates(List<Record> originals, double overlap) {
+    List<Record> records = new ArrayList<>(originals.size());
+    int duplicates = (int) (originals.size() * overlap);
+    for (int i = 0; i < originals.size(); i++) {
+      Record record = emptyRecord(SOURCE_B, i);
+      for (String name : ATTRIBUTE_NAMES) {
+        String value = i < duplicates ?
+          corrupt(originals.get(i).getAttribute(name).orElseThrow().getAsString()) :
+          (name.equals(PersonalAttributeType.DATEOFBIRTH.name()) ? randomDateOfBirth() : randomName());
+        record.setAttribute(name, AttributeFactory.getAttribute(value));
+      }
+      records.add(record);
+    }
+    return records;
+  }
+
+  /**
+   * Bloom filter encoding of the given plain records (bigrams, double hashing)
+   */
+  public static List<Record> encode(List<Record> plainRecords, int bvLength, int numHashFunctions) {
+    AttributeEncoder<String, BitVector> encoder = getBitVectorEncoder(bvLength, numHashFunctions);
+    List<Record> records = new ArrayList<>(plainRecords.size());
+    for (Record plain : plainRecords) {
+      Record record = RecordFactory.getEmptyRecord(plain.getId());
+      for (String name : ATTRIBUTE_NAMES) {
+        plain.getAttribute(name).ifPresent(attribute ->
+          record.setAttribute(name, AttributeFactory.getAttribute(encoder.encode(attribute))));
+      }
+      records.add(record);
+    }
+    return records;
+  }
+
+  public static AttributeEncoder<String, BitVector> getBitVectorEncoder(int bvLength, int numHashFunctions) {
+    return new BitVectorEncoder<>("bench", new NGramTokenizer(2, true),
+      new DoubleHashing(numHashFunctions), bvLength);
+  }
+
+  /**
+   * Random pairs between the given records, with random similarities
+   */
+  public List<RecordPair> randomPairs(List<Record> left, List<Record> right, int count) {
+    List<RecordPair> pairs = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      pairs.add(new RecordPairSimple(
+        left.get(random.nextInt(left.size())),
+        right.get(random.nextInt(right.size())),
+        random.nextDouble()
+      ));
+    }
+    return pairs;
+  }
+
+  public static RecordCluster asCluster(List<Record> records) {
+    return new RecordClusterSimple(records);
+  }
+
+  private static Record emptyRecord(String source, int i) {
+    RecordId recordId = RecordIdFactory.get(source + "-" + i);
+    recordId.addId(RecordId.SOURCE_ID, source);
+    return RecordFactory.getEmptyRecord(recordId);
+  }
+}
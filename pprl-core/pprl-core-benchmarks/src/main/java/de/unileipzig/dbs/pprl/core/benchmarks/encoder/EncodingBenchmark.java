@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.benchmarks.encoder;
+
+import de.unileipzig.dbs.pprl.core.benchmarks.BenchmarkData;
+import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+import de.unileipzig.dbs.pprl.core.encoder.attribute.AttributeEncoder;
+import de.unileipzig.dbs.pprl.core.encoder.attribute.BitVectorEncoder;
+import de.unileipzig.dbs.pprl.core.encoder.feature.DoubleHashing;
+import de.unileipzig.dbs.pprl.core.encoder.feature.FeatureEncoder;
+import de.unileipzig.dbs.pprl.core.encoder.feature.NGramTokenizer;
+import de.unileipzig.dbs.pprl.core.encoder.feature.RandomHashing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding throughput. Each invocation encodes a single attribute value
+ * ({@link BitVectorEncoder}) or a single bigram ({@link FeatureEncoder}),
+ * so the reported ops/s are encodings per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EncodingBenchmark {
+
+  @Param({"10000"})
+  public int recordCount;
+
+  @Param({"1024"})
+  public int bvLength;
+
+  @Param({"20"})
+  public int numHashFunctions;
+
+  @Param({"false", "true"})
+  public boolean fastHashing;
+
+  private List<String> values;
+  private List<String> features;
+
+  private AttributeEncoder<String, BitVector> doubleHashingEncoder;
+  private AttributeEncoder<String, BitVector> randomHashingEncoder;
+  private FeatureEncoder<String, BitVector> doubleHashing;
+  private FeatureEncoder<String, BitVector> randomHashing;
+
+  private int valueCursor;
+  private int featureCursor;
+
+  @Setup
+  public void setup() {
+    BenchmarkData data = new BenchmarkData();
+    values = data.randomNames(recordCount);
+
+    NGramTokenizer tokenizer = new NGramTokenizer(2, true);
+    features = new ArrayList<>();
+    values.forEach(v -> features.addAll(tokenizer.extract(v)));
+
+    DoubleHashing dh = new DoubleHashing(numHashFunctions);
+    dh.setFastHashing(fastHashing);
+    doubleHashing = dh;
+    randomHashing = new RandomHashing(numHashFunctions, "benchmarkSalt");
+    doubleHashingEncoder = new BitVectorEncoder<>("dh", tokenizer, doubleHashing, bvLength);
+    randomHashingEncoder = new BitVectorEncoder<>("rh", tokenizer, randomHashing, bvLength);
+  }
+
+  @Benchmark
+  public BitVector bitVectorEncoderDoubleHashing() {
+    return doubleHashingEncoder.encode(nextValue());
+  }
+
+  @Benchmark
+  public BitVector bitVectorEncoderRandomHashing() {
+    return randomHashingEncoder.encode(nextValue());
+  }
+
+  @Benchmark
+  public BitVector doubleHashing() {
+    return doubleHashing.encode(bvLength, nextFeature());
+  }
+
+  @Benchmark
+  public BitVector randomHashing() {
+    return randomHashing.encode(bvLength, nextFeature());
+  }
+
+  private String nextValue() {
+    if (++valueCursor == values.size()) {
+      valueCursor = 0;
+    }
+    return values.get(valueCursor);
+  }
+
+  private String nextFeature() {
+    if (++featureCursor == features.size()) {
+      featureCursor = 0;
+    }
+    return features.get(featureCursor);
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.benchmarks.matcher;
+
+import de.unileipzig.dbs.pprl.core.benchmarks.BenchmarkData;
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
+import de.unileipzig.dbs.pprl.core.common.model.impl.MatchGrade;
+import de.unileipzig.dbs.pprl.core.common.model.impl.PersonalAttributeType;
+import de.unileipzig.dbs.pprl.core.encoder.blocking.Equality;
+import de.unileipzig.dbs.pprl.core.matcher.blocking.BlockingGroup;
+import de.unileipzig.dbs.pprl.core.matcher.blocking.CrossProduct;
+import de.unileipzig.dbs.pprl.core.matcher.blocking.StandardBlocking;
+import de.unileipzig.dbs.pprl.core.matcher.classification.SingleThresholdClassifier;
+import de.unileipzig.dbs.pprl.core.matcher.linking.DefaultLinker;
+import de.unileipzig.dbs.pprl.core.matcher.linking.Linker;
+import de.unileipzig.dbs.pprl.core.matcher.linking.MatchGradeBasedTester;
+import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.aggregation.DefaultSimilarityAggregator;
+import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.attribute.BitVectorSimilarityCalculator;
+import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.record.DefaultRecordSimilarityCalculator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking and pair generation throughput.
+ * Besides the invocation rate, the secondary counters report comparisons per second
+ * ({@link CrossProduct#blockTwo} and {@link CrossProduct#blockN} for the same two blocks, comparing and classifying
+ * each candidate pair with a {@link DefaultLinker})
+ * and blocked records per second ({@link StandardBlocking#block}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BlockingBenchmark {
+
+  @Param({"100", "1000"})
+  public int blockSize;
+
+  @Param({"10000"})
+  public int recordCount;
+
+  @Param({"1024"})
+  public int bvLength;
+
+  @Param({"20"})
+  public int numHashFunctions;
+
+  private List<Record> blockA;
+  private List<Record> blockB;
+  private List<RecordCluster> blocks;
+  private CrossProduct crossProduct;
+
+  private List<RecordCluster> sources;
+  private StandardBlocking standardBlocking;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class ComparisonCounter {
+    public long comparisons;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      comparisons = 0;
+    }
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class RecordCounter {
+    public long records;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      records = 0;
+    }
+  }
+
+  @Setup
+  public void setup() {
+    BenchmarkData data = new BenchmarkData();
+
+    List<Record> plainBlockA = data.plainRecords(blockSize);
+    blockA = BenchmarkData.encode(plainBlockA, bvLength, numHashFunctions);
+    blockB = BenchmarkData.encode(data.plainDuplicates(plainBlockA, 0.5), bvLength, numHashFunctions);
+    blocks = List.of(BenchmarkData.asCluster(blockA), BenchmarkData.asCluster(blockB));
+
+    Linker linker = new DefaultLinker(
+      new DefaultRecordSimilarityCalculator(
+        new BitVectorSimilarityCalculator(BitVectorSimilarityCalculator.SimilarityMethod.DICE),
+        new DefaultSimilarityAggregator(DefaultSimilarityAggregator.AggregationMethod.AVERAGE)
+      ),
+      new SingleThresholdClassifier(0.8),
+      new MatchGradeBasedTester(MatchGrade.POSSIBLE_MATCH)
+    );
+    crossProduct = new CrossProduct();
+    crossProduct.setFilter(pair -> linker.compareAndClassify(pair).isPresent());
+
+    List<Record> plainA = data.plainRecords(recordCount);
+    sources = List.of(
+      BenchmarkData.asCluster(plainA),
+      BenchmarkData.asCluster(data.plainDuplicates(plainA, 0.5))
+    );
+    standardBlocking = new StandardBlocking();
+    standardBlocking.addBlockingKeyExtractor(new Equality("eqLN", PersonalAttributeType.LASTNAME.name()));
+    standardBlocking.addBlockingKeyExtractor(new Equality("eqDOB", PersonalAttributeType.DATEOFBIRTH.name()));
+  }
+
+  @Benchmark
+  public Set<RecordPair> crossProductBlockTwo(ComparisonCounter counters) {
+    counters.comparisons += (long) blockA.size() * blockB.size();
+    return crossProduct.blockTwo(blockA, blockB);
+  }
+
+  @Benchmark
+  public Set<RecordPair> crossProductBlockN(ComparisonCounter counters) {
+    counters.comparisons += (long) blockA.size() * blockB.size();
+    return crossProduct.blockN(blocks);
+  }
+
+  @Benchmark
+  public Collection<BlockingGroup> standardBlocking(RecordCounter counters) {
+    counters.records += 2L * recordCount;
+    return standardBlocking.block(sources);
+  }
+}
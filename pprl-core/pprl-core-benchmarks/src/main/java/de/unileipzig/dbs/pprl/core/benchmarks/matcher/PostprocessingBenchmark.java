@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.benchmarks.matcher;
+
+import de.unileipzig.dbs.pprl.core.benchmarks.BenchmarkData;
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
+import de.unileipzig.dbs.pprl.core.matcher.clustering.ConnectedComponents;
+import de.unileipzig.dbs.pprl.core.matcher.postprocessing.MaxBoth;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Postprocessing and clustering throughput on random links between two sources.
+ * The secondary counter reports processed record pairs per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PostprocessingBenchmark {
+
+  @Param({"10000"})
+  public int recordCount;
+
+  @Param({"100000"})
+  public int pairCount;
+
+  private List<RecordPair> pairs;
+  private MaxBoth maxBothParallel;
+  private MaxBoth maxBothSequential;
+  private ConnectedComponents connectedComponents;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Counters {
+    public long pairs;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      pairs = 0;
+    }
+  }
+
+  @Setup
+  public void setup() {
+    BenchmarkData data = new BenchmarkData();
+    List<Record> left = data.plainRecords(recordCount);
+    List<Record> right = data.plainDuplicates(left, 0.5);
+    pairs = data.randomPairs(left, right, pairCount);
+
+    maxBothParallel = new MaxBoth(true);
+    maxBothSequential = new MaxBoth(false);
+    connectedComponents = new ConnectedComponents();
+  }
+
+  @Benchmark
+  public Collection<RecordPair> maxBothParallel(Counters counters) {
+    counters.pairs += pairs.size();
+    return maxBothParallel.clean(pairs);
+  }
+
+  @Benchmark
+  public Collection<RecordPair> maxBothSequential(Counters counters) {
+    counters.pairs += pairs.size();
+    return maxBothSequential.clean(pairs);
+  }
+
+  @Benchmark
+  public Set<RecordCluster> connectedComponents(Counters counters) {
+    counters.pairs += pairs.size();
+    return connectedComponents.cluster(pairs);
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.benchmarks.matcher;
+
+import de.unileipzig.dbs.pprl.core.benchmarks.BenchmarkData;
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
+import de.unileipzig.dbs.pprl.core.common.model.impl.AttributePair;
+import de.unileipzig.dbs.pprl.core.common.model.impl.RecordPairSimple;
+import de.unileipzig.dbs.pprl.core.common.model.impl.RecordSimple;
+import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.aggregation.DefaultSimilarityAggregator;
+import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.attribute.BitVectorSimilarityCalculator;
+import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.record.DefaultRecordSimilarityCalculator;
+import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.record.RecordSimilarityCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparison throughput. Each invocation compares a single pair of Bloom filters
+ * or a single record pair, so the reported ops/s are comparisons per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SimilarityBenchmark {
+
+  @Param({"10000"})
+  public int recordCount;
+
+  @Param({"1024"})
+  public int bvLength;
+
+  @Param({"20"})
+  public int numHashFunctions;
+
+  @Param({"DICE", "JACCARD", "DICE_BOTH"})
+  public BitVectorSimilarityCalculator.SimilarityMethod similarityMethod;
+
+  /**
+   * Whether the records are switched to the decoded mode, see {@link RecordSimple#decode()}
+   */
+  @Param({"false", "true"})
+  public boolean decoded;
+
+  private List<Record> left;
+  private List<Record> right;
+  private List<AttributePair> attributePairs;
+
+  private BitVectorSimilarityCalculator bitVectorSimilarityCalculator;
+  private RecordSimilarityCalculator recordSimilarityCalculator;
+
+  private int cursor;
+
+  @Setup
+  public void setup() {
+    BenchmarkData data = new BenchmarkData();
+    List<Record> plainA = data.plainRecords(recordCount);
+    List<Record> plainB = data.plainDuplicates(plainA, 0.5);
+    left = BenchmarkData.encode(plainA, bvLength, numHashFunctions);
+    right = BenchmarkData.encode(plainB, bvLength, numHashFunctions);
+    if (decoded) {
+      left.forEach(r -> ((RecordSimple) r).decode());
+      right.forEach(r -> ((RecordSimple) r).decode());
+    }
+
+    String attributeName = BenchmarkData.ATTRIBUTE_NAMES[1];
+    attributePairs = new ArrayList<>(recordCount);
+    for (int i = 0; i < recordCount; i++) {
+      attributePairs.add(new AttributePair(
+        left.get(i).getAttribute(attributeName).orElseThrow(),
+        right.get(i).getAttribute(attributeName).orElseThrow()
+      ));
+    }
+
+    bitVectorSimilarityCalculator = new BitVectorSimilarityCalculator(similarityMethod);
+    recordSimilarityCalculator = new DefaultRecordSimilarityCalculator(
+      bitVectorSimilarityCalculator,
+      new DefaultSimilarityAggregator(DefaultSimilarityAggregator.AggregationMethod.AVERAGE)
+    );
+  }
+
+  @Benchmark
+  public double bitVectorSimilarity() {
+    return bitVectorSimilarityCalculator.calculateSimilarity(attributePairs.get(next()));
+  }
+
+  @Benchmark
+  public RecordPair recordSimilarity() {
+    int i = next();
+    return recordSimilarityCalculator.addSimilarity(new RecordPairSimple(left.get(i), right.get(i)));
+  }
+
+  private int next() {
+    if (++cursor == recordCount) {
+      cursor = 0;
+    }
+    return cursor;
+  }
+}
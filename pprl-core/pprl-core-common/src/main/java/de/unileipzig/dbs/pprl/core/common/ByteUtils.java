@@ -33,6 +33,30 @@ public class ByteUtils {
     return byteBuffer.getInt();
   }
 
+  /**
+   * Interprets the last (up to) four bytes as big-endian int, which equals
+   * {@code new BigInteger(1, bytes).intValue()} without creating a {@link java.math.BigInteger}.
+   */
+  public static int intFromLastBytes(byte[] bytes) {
+    int value = 0;
+    for (int i = Math.max(0, bytes.length - Integer.BYTES); i < bytes.length; i++) {
+      value = (value << 8) | (bytes[i] & 0xFF);
+    }
+    return value;
+  }
+
+  /**
+   * Interprets the last (up to) eight bytes as big-endian long, which equals
+   * {@code new BigInteger(1, bytes).longValue()} without creating a {@link java.math.BigInteger}.
+   */
+  public static long longFromLastBytes(byte[] bytes) {
+    long value = 0;
+    for (int i = Math.max(0, bytes.length - Long.BYTES); i < bytes.length; i++) {
+      value = (value << 8) | (bytes[i] & 0xFF);
+    }
+    return value;
+  }
+
   public static byte[] concatByteArrays(byte[]... inputArrays) {
     ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
     try {
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.unileipzig.dbs.pprl.core.common;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Thread-local cache of {@link MessageDigest} and {@link Mac} instances.
+ * Provider lookup dominates the cost of hashing short features, so each thread keeps one digest
+ * and one MAC per algorithm. The MAC is initialized with the requested key on every call, so no
+ * more than the last used key stays in a thread. Keys that are used repeatedly are cached by the
+ * {@link MacCache} of their owner. Returned instances are reset and must only be used by the
+ * calling thread until its next call to this class.
+ */
+public final class HashProvider {
+
+  private static final ThreadLocal<Map<String, MessageDigest>> DIGESTS = ThreadLocal.withInitial(HashMap::new);
+
+  private static final ThreadLocal<Map<String, Mac>> MACS = ThreadLocal.withInitial(HashMap::new);
+
+  private HashProvider() {
+    throw new RuntimeException();
+  }
+
+  public static MessageDigest getDigest(String algorithm) {
+    final Map<String, MessageDigest> digests = DIGESTS.get();
+    MessageDigest md = digests.get(algorithm);
+    if (md == null) {
+      try {
+        md = MessageDigest.getInstance(algorithm);
+      } catch (NoSuchAlgorithmException e) {
+        throw new RuntimeException(e);
+      }
+      digests.put(algorithm, md);
+    } else {
+      md.reset();
+    }
+    return md;
+  }
+
+  public static Mac getMac(String algorithm, byte[] key) {
+    final Map<String, Mac> macs = MACS.get();
+    Mac mac = macs.get(algorithm);
+    if (mac == null) {
+      mac = newMac(algorithm, key);
+      macs.put(algorithm, mac);
+    } else {
+      init(mac, algorithm, key);
+    }
+    return mac;
+  }
+
+  static Mac newMac(String algorithm, byte[] key) {
+    final Mac mac;
+    try {
+      mac = Mac.getInstance(algorithm);
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+    init(mac, algorithm, key);
+    return mac;
+  }
+
+  private static void init(Mac mac, String algorithm, byte[] key) {
+    try {
+      mac.init(new SecretKeySpec(key, algorithm));
+    } catch (InvalidKeyException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -17,15 +17,10 @@
 package de.unileipzig.dbs.pprl.core.common;
 
 import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.math.BigInteger;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.BitSet;
 import java.util.Random;
 
-import static javax.xml.crypto.dsig.SignatureMethod.HMAC_SHA512;
-
 /**
  * Utility class for calculating hash values.
  *
@@ -44,15 +39,23 @@ public class HashUtils {
     return getHash(algorithm, input.getBytes());
   }
 
-  private static int getHash(String algorithm, byte[] bytes) {
-    try {
-      MessageDigest md = MessageDigest.getInstance(algorithm);
-      byte[] messageDigest = md.digest(bytes);
-      BigInteger number = new BigInteger(1, messageDigest);
-      return number.intValue();
-    } catch (NoSuchAlgorithmException e) {
-      throw new RuntimeException(e);
-    }
+  public static int getHash(String algorithm, byte[] bytes) {
+    return ByteUtils.intFromLastBytes(HashProvider.getDigest(algorithm).digest(bytes));
+  }
+
+  /**
+   * Calculates the hash of a part of a byte array without copying it.
+   *
+   * @param algorithm digest algorithm
+   * @param bytes     input array
+   * @param offset    start of the input
+   * @param length    number of bytes to hash
+   * @return the {@link int} representation of the last bytes of the hash value.
+   */
+  public static int getHash(String algorithm, byte[] bytes, int offset, int length) {
+    MessageDigest digest = HashProvider.getDigest(algorithm);
+    digest.update(bytes, offset, length);
+    return ByteUtils.intFromLastBytes(digest.digest());
   }
 
   /**
@@ -82,14 +85,7 @@ public class HashUtils {
    * @return the {@link int} representation of the MD5 hash value.
    */
   private static int getMD5(byte[] bytes) {
-    try {
-      MessageDigest md = MessageDigest.getInstance(MD5);
-      byte[] messageDigest = md.digest(bytes);
-      BigInteger number = new BigInteger(1, messageDigest);
-      return number.intValue();
-    } catch (NoSuchAlgorithmException e) {
-      throw new RuntimeException(e);
-    }
+    return getHash(MD5, bytes);
   }
 
   /**
@@ -119,14 +115,7 @@ public class HashUtils {
    * @return the {@link int} representation of the MDH5 hash value.
    */
   private static int getSHA(byte[] bytes) {
-    try {
-      MessageDigest md = MessageDigest.getInstance(SHA);
-      byte[] messageDigest = md.digest(bytes);
-      BigInteger number = new BigInteger(1, messageDigest);
-      return number.intValue();
-    } catch (NoSuchAlgorithmException e) {
-      throw new RuntimeException(e);
-    }
+    return getHash(SHA, bytes);
   }
 
   /**
@@ -136,39 +125,15 @@ public class HashUtils {
    * @return the {@link long} representation of the SHA hash value.
    */
   public static long getSHALongHash(String input) {
-    try {
-      MessageDigest md = MessageDigest.getInstance(SHA);
-      byte[] messageDigest = md.digest(input.getBytes());
-      BigInteger number = new BigInteger(1, messageDigest);
-      return number.longValue();
-    } catch (NoSuchAlgorithmException e) {
-      throw new RuntimeException(e);
-    }
+    return ByteUtils.longFromLastBytes(HashProvider.getDigest(SHA).digest(input.getBytes()));
   }
 
   public static byte[] getHMacBytes(String data, String salt) {
-    SecretKeySpec secretKeySpec = new SecretKeySpec(salt.getBytes(), HMAC_SHA512);
-    try {
-      Mac mac = Mac.getInstance(HMAC_ALGORITHM);
-      mac.init(secretKeySpec);
-      return mac.doFinal(data.getBytes());
-    } catch (Exception e) {
-      e.printStackTrace();
-      throw new RuntimeException();
-    }
+    return getMac(salt.getBytes()).doFinal(data.getBytes());
   }
 
   public static int getHMAC(String data, String key) {
-    SecretKeySpec secretKeySpec = new SecretKeySpec(key.getBytes(), HMAC_SHA512);
-    try {
-      Mac mac = Mac.getInstance(HMAC_ALGORITHM);
-      mac.init(secretKeySpec);
-      byte[] hash = mac.doFinal(data.getBytes());
-      return new BigInteger(1, hash).intValue();
-    } catch (Exception e) {
-      e.printStackTrace();
-      throw new RuntimeException("Failed to get Random instance for hashing");
-    }
+    return ByteUtils.intFromLastBytes(getMac(key.getBytes()).doFinal(data.getBytes()));
   }
 
   public static Random getRandom(String message, String salt) {
@@ -176,16 +141,46 @@ public class HashUtils {
   }
 
   public static Random getRandom(String message, byte[] salt) {
-    long seed;
+    return new Random(getSeed(message, salt));
+  }
+
+  /**
+   * Calculates the seed used by {@link #getRandom(String, byte[])}.
+   *
+   * @param message the message to authenticate.
+   * @param salt    the HMAC key.
+   * @return the last eight bytes of the HMAC value.
+   */
+  public static long getSeed(String message, byte[] salt) {
+    return getSeed(message, salt, null);
+  }
+
+  /**
+   * Creates a random generator seeded like {@link #getRandom(String, byte[])}, but with the MAC of the salt
+   * taken from the given cache.
+   *
+   * @param message the message to authenticate.
+   * @param salt    the HMAC key.
+   * @param macs    cache of the salt's owner, null to not cache the initialized MAC.
+   * @return random generator
+   */
+  public static Random getRandom(String message, byte[] salt, MacCache macs) {
+    return new Random(getSeed(message, salt, macs));
+  }
+
+  private static long getSeed(String message, byte[] salt, MacCache macs) {
+    return ByteUtils.longFromLastBytes(getMac(salt, macs).doFinal(message.getBytes()));
+  }
+
+  private static Mac getMac(byte[] key) {
+    return getMac(key, null);
+  }
+
+  private static Mac getMac(byte[] key, MacCache macs) {
     try {
-      Mac mac = Mac.getInstance(HMAC_ALGORITHM);
-      mac.init(new SecretKeySpec(salt, HMAC_ALGORITHM));
-      byte[] hash = mac.doFinal(message.getBytes());
-      seed = new BigInteger(hash).longValue();
-    } catch (Exception e) {
-      e.printStackTrace();
-      throw new RuntimeException("Failed to get Random instance for hashing");
+      return macs == null ? HashProvider.getMac(HMAC_ALGORITHM, key) : macs.getMac(HMAC_ALGORITHM, key);
+    } catch (RuntimeException e) {
+      throw new RuntimeException("Failed to initialize " + HMAC_ALGORITHM + " for hashing", e);
     }
-    return new Random(seed);
   }
-}
\ No newline at end of file
+}
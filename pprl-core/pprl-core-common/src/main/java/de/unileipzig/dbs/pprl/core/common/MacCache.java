@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.unileipzig.dbs.pprl.core.common;
+
+import javax.crypto.Mac;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of initialized {@link Mac} instances for the keys of a single owner, e.g. the key material
+ * of a project. Each thread keeps the MACs of its most recently used keys. Since the cache belongs
+ * to its owner, {@link #clear()} removes the keys from all threads once the owner is no longer used.
+ * Returned instances are reset and must only be used by the calling thread until its next call.
+ */
+public class MacCache {
+
+  /**
+   * Maximum number of initialized MAC keys kept per thread
+   */
+  public static final int MAC_CACHE_SIZE = 16;
+
+  private final Map<Long, Map<String, Map<ByteBuffer, Mac>>> threadCaches = new ConcurrentHashMap<>();
+
+  public Mac getMac(String algorithm, byte[] key) {
+    final Map<ByteBuffer, Mac> macs = threadCaches
+      .computeIfAbsent(Thread.currentThread().threadId(), t -> new LinkedHashMap<>())
+      .computeIfAbsent(algorithm, a -> newMacCache());
+    Mac mac = macs.get(ByteBuffer.wrap(key));
+    if (mac == null) {
+      mac = HashProvider.newMac(algorithm, key);
+      macs.put(ByteBuffer.wrap(key.clone()), mac);
+    } else {
+      mac.reset();
+    }
+    return mac;
+  }
+
+  /**
+   * Removes the initialized MACs of all threads.
+   */
+  public void clear() {
+    threadCaches.clear();
+  }
+
+  /**
+   * @return number of threads with cached MACs
+   */
+  public int size() {
+    return threadCaches.size();
+  }
+
+  private static Map<ByteBuffer, Mac> newMacCache() {
+    return new LinkedHashMap<>(MAC_CACHE_SIZE * 2, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<ByteBuffer, Mac> eldest) {
+        return size() > MAC_CACHE_SIZE;
+      }
+    };
+  }
+}
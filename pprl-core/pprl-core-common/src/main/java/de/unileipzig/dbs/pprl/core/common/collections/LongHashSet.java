@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.common.collections;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing hash set of primitive longs (linear probing), avoiding the boxing and per-entry objects
+ * of a {@link java.util.HashSet}. The key 0 is stored outside the table, since it marks free slots.
+ * Not thread-safe.
+ */
+public class LongHashSet {
+  private long[] keys;
+  private int mask;
+  private int maxFill;
+  private int size;
+  private boolean containsZero;
+
+  public LongHashSet() {
+    this(LongHashing.DEFAULT_EXPECTED_SIZE);
+  }
+
+  public LongHashSet(int expectedSize) {
+    allocate(LongHashing.capacity(expectedSize));
+  }
+
+  /**
+   * @return true if the key was not contained before
+   */
+  public boolean add(long key) {
+    if (key == 0) {
+      if (containsZero) {
+        return false;
+      }
+      containsZero = true;
+      size++;
+      return true;
+    }
+    int pos = LongHashing.mix(key) & mask;
+    long cur;
+    while ((cur = keys[pos]) != 0) {
+      if (cur == key) {
+        return false;
+      }
+      pos = (pos + 1) & mask;
+    }
+    keys[pos] = key;
+    if (++size >= maxFill) {
+      rehash(LongHashing.doubleCapacity(keys.length));
+    }
+    return true;
+  }
+
+  public boolean contains(long key) {
+    if (key == 0) {
+      return containsZero;
+    }
+    int pos = LongHashing.mix(key) & mask;
+    long cur;
+    while ((cur = keys[pos]) != 0) {
+      if (cur == key) {
+        return true;
+      }
+      pos = (pos + 1) & mask;
+    }
+    return false;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void forEach(LongConsumer action) {
+    if (containsZero) {
+      action.accept(0);
+    }
+    for (long key : keys) {
+      if (key != 0) {
+        action.accept(key);
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    mask = capacity - 1;
+    maxFill = LongHashing.maxFill(capacity);
+  }
+
+  private void rehash(int capacity) {
+    final long[] oldKeys = keys;
+    allocate(capacity);
+    for (long key : oldKeys) {
+      if (key != 0) {
+        int pos = LongHashing.mix(key) & mask;
+        while (keys[pos] != 0) {
+          pos = (pos + 1) & mask;
+        }
+        keys[pos] = key;
+      }
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.common.collections;
+
+/**
+ * Helper methods shared by the primitive long-keyed hash collections
+ */
+final class LongHashing {
+  static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+  static final int DEFAULT_EXPECTED_SIZE = 16;
+
+  /**
+   * Largest power of two table capacity, the next one does not fit into an int
+   */
+  static final int MAX_CAPACITY = 1 << 30;
+
+  private LongHashing() {
+  }
+
+  /**
+   * Finalisation step of MurmurHash3, spreads the bits of the key over the whole word
+   */
+  static int mix(long key) {
+    long h = key;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return (int) h;
+  }
+
+  /**
+   * Power of two table capacity for the expected number of elements
+   */
+  static int capacity(int expectedSize) {
+    long needed = (long) Math.ceil(Math.max(expectedSize, 2) / DEFAULT_LOAD_FACTOR);
+    if (needed > MAX_CAPACITY) {
+      throw new RuntimeException("Too many elements for a long hash table: " + expectedSize);
+    }
+    return Integer.highestOneBit((int) needed - 1) << 1;
+  }
+
+  /**
+   * Capacity of the table that replaces a full table of the given capacity
+   */
+  static int doubleCapacity(int capacity) {
+    if (capacity >= MAX_CAPACITY) {
+      throw new RuntimeException("Long hash table exceeds the maximum capacity of " + MAX_CAPACITY + " slots");
+    }
+    return capacity << 1;
+  }
+
+  static int maxFill(int capacity) {
+    return (int) Math.min(capacity - 1, Math.ceil(capacity * DEFAULT_LOAD_FACTOR));
+  }
+}
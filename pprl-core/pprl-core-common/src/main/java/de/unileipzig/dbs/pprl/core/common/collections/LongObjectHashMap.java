@@ -0,0 +1,182 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.common.collections;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Open-addressing hash map from primitive longs to objects (linear probing), avoiding the boxing and per-entry
+ * objects of a {@link java.util.HashMap}. The key 0 is stored outside the table, since it marks free slots.
+ * Not thread-safe.
+ *
+ * @param <V> value type
+ */
+public class LongObjectHashMap<V> {
+  private long[] keys;
+  private Object[] values;
+  private int mask;
+  private int maxFill;
+  private int size;
+  private boolean containsZero;
+  private V zeroValue;
+
+  public LongObjectHashMap() {
+    this(LongHashing.DEFAULT_EXPECTED_SIZE);
+  }
+
+  public LongObjectHashMap(int expectedSize) {
+    allocate(LongHashing.capacity(expectedSize));
+  }
+
+  public V get(long key) {
+    if (key == 0) {
+      return zeroValue;
+    }
+    int pos = find(key);
+    return pos < 0 ? null : value(pos);
+  }
+
+  public boolean containsKey(long key) {
+    return key == 0 ? containsZero : find(key) >= 0;
+  }
+
+  /**
+   * @return the previous value or null
+   */
+  public V put(long key, V value) {
+    if (key == 0) {
+      V previous = zeroValue;
+      if (!containsZero) {
+        containsZero = true;
+        size++;
+      }
+      zeroValue = value;
+      return previous;
+    }
+    int pos = LongHashing.mix(key) & mask;
+    long cur;
+    while ((cur = keys[pos]) != 0) {
+      if (cur == key) {
+        V previous = value(pos);
+        values[pos] = value;
+        return previous;
+      }
+      pos = (pos + 1) & mask;
+    }
+    keys[pos] = key;
+    values[pos] = value;
+    if (++size >= maxFill) {
+      rehash(LongHashing.doubleCapacity(keys.length));
+    }
+    return null;
+  }
+
+  /**
+   * @return true if the value was added, false if the key was already contained
+   */
+  public boolean putIfAbsent(long key, V value) {
+    if (containsKey(key)) {
+      return false;
+    }
+    put(key, value);
+    return true;
+  }
+
+  /**
+   * Same semantics as {@link java.util.Map#merge} except that null values are not supported
+   *
+   * @return the new value
+   */
+  public V merge(long key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+    V previous = get(key);
+    V next = previous == null ? value : remappingFunction.apply(previous, value);
+    put(key, next);
+    return next;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void forEach(LongObjectConsumer<? super V> action) {
+    if (containsZero) {
+      action.accept(0, zeroValue);
+    }
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != 0) {
+        action.accept(keys[i], value(i));
+      }
+    }
+  }
+
+  public List<V> values() {
+    final List<V> result = new ArrayList<>(size);
+    forEach((key, value) -> result.add(value));
+    return result;
+  }
+
+  @FunctionalInterface
+  public interface LongObjectConsumer<V> {
+    void accept(long key, V value);
+  }
+
+  private int find(long key) {
+    int pos = LongHashing.mix(key) & mask;
+    long cur;
+    while ((cur = keys[pos]) != 0) {
+      if (cur == key) {
+        return pos;
+      }
+      pos = (pos + 1) & mask;
+    }
+    return -1;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V value(int pos) {
+    return (V) values[pos];
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new Object[capacity];
+    mask = capacity - 1;
+    maxFill = LongHashing.maxFill(capacity);
+  }
+
+  private void rehash(int capacity) {
+    final long[] oldKeys = keys;
+    final Object[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0) {
+        int pos = LongHashing.mix(oldKeys[i]) & mask;
+        while (keys[pos] != 0) {
+          pos = (pos + 1) & mask;
+        }
+        keys[pos] = oldKeys[i];
+        values[pos] = oldValues[i];
+      }
+    }
+  }
+}
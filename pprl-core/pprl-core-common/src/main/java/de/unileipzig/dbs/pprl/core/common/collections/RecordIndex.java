@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.common.collections;
+
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense mapping of records to consecutive indices 0, 1, 2, ... based on their unique id.
+ * A pair of records can then be represented by a single long key (see {@link #getPairKey(RecordPair)})
+ * instead of the concatenated string of {@link RecordPair#getPairId()}.
+ * Adding records is not thread-safe, lookups in a completely built index are.
+ */
+public class RecordIndex {
+  private final Map<String, Integer> indices;
+  private final List<Record> records;
+
+  public RecordIndex() {
+    this.indices = new HashMap<>();
+    this.records = new ArrayList<>();
+  }
+
+  public RecordIndex(Collection<Record> records) {
+    this.indices = new HashMap<>(records.size() * 4 / 3 + 1);
+    this.records = new ArrayList<>(records.size());
+    records.forEach(this::add);
+  }
+
+  public static RecordIndex ofSources(Collection<RecordCluster> sources) {
+    final RecordIndex index = new RecordIndex();
+    sources.forEach(source -> source.getRecords().forEach(index::add));
+    return index;
+  }
+
+  /**
+   * @return index of the record, a new one if the record was not contained before
+   */
+  public int add(Record record) {
+    final String uniqueId = record.getId().getUniqueId();
+    Integer index = indices.get(uniqueId);
+    if (index == null) {
+      index = records.size();
+      indices.put(uniqueId, index);
+      records.add(record);
+    }
+    return index;
+  }
+
+  public int getIndex(Record record) {
+    final Integer index = indices.get(record.getId().getUniqueId());
+    if (index == null) {
+      throw new RuntimeException("Record is not indexed: " + record.getId());
+    }
+    return index;
+  }
+
+  public Record getRecord(int index) {
+    return records.get(index);
+  }
+
+  public int size() {
+    return records.size();
+  }
+
+  /**
+   * Order independent key of a record pair, i.e. (a, b) and (b, a) have the same key
+   */
+  public long getPairKey(Record left, Record right) {
+    return pairKey(getIndex(left), getIndex(right));
+  }
+
+  public long getPairKey(RecordPair recordPair) {
+    return getPairKey(recordPair.getLeftRecord(), recordPair.getRightRecord());
+  }
+
+  public static long pairKey(int index1, int index2) {
+    final int min = Math.min(index1, index2);
+    final int max = Math.max(index1, index2);
+    return ((long) min << 32) | (max & 0xFFFFFFFFL);
+  }
+}
@@ -26,7 +26,7 @@ import java.util.Map;
 import java.util.UUID;
 
 public class RecordFactory {
-  public enum RecordVariant {DEFAULT, LIGHT}
+  public enum RecordVariant {DEFAULT, LIGHT, DECODED}
 
   public static Record getEmptyRecord() {
     return getEmptyRecord(
@@ -42,6 +42,7 @@ public class RecordFactory {
     return switch (variant) {
       default -> new RecordSimple(recordId);
       case LIGHT -> new RecordLight(recordId);
+      case DECODED -> new RecordSimple(recordId).decode();
     };
   }
 
@@ -50,6 +51,7 @@ public class RecordFactory {
     return switch (variant) {
       default -> new RecordSimple(recordId, attributes);
       case LIGHT -> new RecordLight(recordId, attributes);
+      case DECODED -> new RecordSimple(recordId, attributes).decode();
     };
   }
 
@@ -1,7 +1,6 @@
 package de.unileipzig.dbs.pprl.core.common.frequencies;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class AttributeFrequencyLookup {
 
@@ -12,6 +11,21 @@ public class AttributeFrequencyLookup {
    */
   private final LinkedHashMap<String, Long> frequencies;
 
+  /**
+   * Attribute values in the order of {@link #frequencies}, i.e. the value with rank r is at index r - 1
+   */
+  private final String[] valuesByRank;
+
+  /**
+   * attribute value -> rank (starting with 1 for the most frequent value)
+   */
+  private final Map<String, Long> ranks;
+
+  /**
+   * Sum of the frequencies of all values up to and including the value at the same index of {@link #valuesByRank}
+   */
+  private final long[] cumulativeFrequencies;
+
   private long totalCount;
 
   private long uniqueCount;
@@ -28,6 +42,20 @@ public class AttributeFrequencyLookup {
     this.frequencies = reverseSortByValue(frequencies);
     this.totalCount = totalCount;
     this.uniqueCount = uniqueCount;
+
+    final int size = this.frequencies.size();
+    this.valuesByRank = new String[size];
+    this.ranks = new HashMap<>(2 * size);
+    this.cumulativeFrequencies = new long[size];
+    int idx = 0;
+    long cumulative = 0;
+    for (Map.Entry<String, Long> entry : this.frequencies.entrySet()) {
+      cumulative += Math.max(0, entry.getValue());
+      valuesByRank[idx] = entry.getKey();
+      ranks.put(entry.getKey(), idx + 1L);
+      cumulativeFrequencies[idx] = cumulative;
+      idx++;
+    }
   }
 
   public Optional<Long> getFrequency(String attributeValue) {
@@ -45,17 +73,7 @@ public class AttributeFrequencyLookup {
   }
 
   public Optional<Long> getAbsoluteRank(String attributeValue) {
-    if (!frequencies.containsKey(attributeValue)) {
-      return Optional.empty();
-    }
-    long rank = 1;
-    for (Map.Entry<String, Long> entry : frequencies.entrySet()) {
-      if (entry.getKey().equals(attributeValue)) {
-        return Optional.of(rank);
-      }
-      rank++;
-    }
-    throw new RuntimeException("Should not be reached");
+    return Optional.ofNullable(ranks.get(attributeValue));
   }
 
   public long getHighestFrequency() {
@@ -66,46 +84,50 @@ public class AttributeFrequencyLookup {
   }
 
   public long getLowestFrequency() {
-    Iterator<Map.Entry<String, Long>> iterator = frequencies.entrySet().iterator();
-    long lastValue = 1;
-    while (iterator.hasNext()) {
-      lastValue = iterator.next().getValue();
+    if (valuesByRank.length == 0) {
+      return 1;
     }
-    return lastValue;
+    return frequencies.get(valuesByRank[valuesByRank.length - 1]);
   }
 
   public List<String> getAttributesReverseSortedByFrequency() {
-    final List<String> values = new ArrayList<>();
-    frequencies.keySet().iterator()
-      .forEachRemaining(values::add);
-    return values;
+    return new ArrayList<>(Arrays.asList(valuesByRank));
   }
 
   public Optional<String> getAbsoluteTopValue(int n) {
-    Iterator<Map.Entry<String, Long>> iterator = frequencies.entrySet().iterator();
-    int i = 1;
-    while (iterator.hasNext()) {
-      String value = iterator.next().getKey();
-      if (i == n) {
-        return Optional.of(value);
-      }
-      i++;
+    if (n < 1 || n > valuesByRank.length) {
+      return Optional.empty();
     }
-    return Optional.empty();
+    return Optional.of(valuesByRank[n - 1]);
   }
 
+  /**
+   * Get the median of all occurrences, i.e. the value at the middle position (the lower one for an even
+   * number of occurrences) if every value is repeated according to its frequency.
+   *
+   * @return median value or empty if there are no occurrences
+   */
   public Optional<String> getMedianValue() {
-    List<String> list = frequencies.entrySet().stream()
-      .flatMap(v -> Collections.nCopies(v.getValue().intValue(), v.getKey()).stream())
-      .collect(Collectors.toList());
-    if (list.isEmpty()) {
+    if (valuesByRank.length == 0) {
       return Optional.empty();
     }
-    int pos = list.size() % 2 == 0 ?
-      list.size() / 2 - 1
-      : list.size() / 2;
-    String value = list.get(pos);
-    return Optional.of(value);
+    long size = cumulativeFrequencies[cumulativeFrequencies.length - 1];
+    if (size == 0) {
+      return Optional.empty();
+    }
+    long pos = size % 2 == 0 ? size / 2 - 1 : size / 2;
+    // first index whose cumulative frequency exceeds the position
+    int low = 0;
+    int high = cumulativeFrequencies.length - 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (cumulativeFrequencies[mid] > pos) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return Optional.of(valuesByRank[low]);
   }
 
   public long getTotalCount() {
@@ -124,6 +146,12 @@ public class AttributeFrequencyLookup {
     this.uniqueCount = uniqueCount;
   }
 
+  /**
+   * Get the frequencies reverse sorted by value. The map must not be modified since the rank index
+   * is built once on construction.
+   *
+   * @return frequencies
+   */
   public LinkedHashMap<String, Long> getFrequencies() {
     return frequencies;
   }
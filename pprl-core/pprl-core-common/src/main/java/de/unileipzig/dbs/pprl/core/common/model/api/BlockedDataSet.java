@@ -1,7 +1,9 @@
 package de.unileipzig.dbs.pprl.core.common.model.api;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 public interface BlockedDataSet extends DataSet {
@@ -20,5 +22,19 @@ public interface BlockedDataSet extends DataSet {
     return records;
   }
 
+  /**
+   * Get the records of several blocking keys, datasets backed by a database should use a single query.
+   *
+   * @param bks blocking keys
+   * @return records by blocking key, keys without records may be missing
+   */
+  default Map<BlockingKey, Collection<Record>> getRecordsPerBlockingKey(Collection<BlockingKey> bks) {
+    Map<BlockingKey, Collection<Record>> records = new HashMap<>();
+    for (BlockingKey bk : bks) {
+      records.put(bk, getRecordsByBlockingKey(bk));
+    }
+    return records;
+  }
+
   void addBlockedRecord(Record record, Collection<BlockingKey> blockingKeys);
 }
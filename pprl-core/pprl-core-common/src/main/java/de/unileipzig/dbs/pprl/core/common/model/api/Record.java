@@ -17,6 +17,7 @@
 package de.unileipzig.dbs.pprl.core.common.model.api;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import de.unileipzig.dbs.pprl.core.common.model.impl.AttributeLight;
 
 import java.util.HashSet;
 import java.util.Map;
@@ -53,6 +54,21 @@ public interface Record {
    */
   Record duplicate();
 
+  /**
+   * Keeps the decoded values of the current attributes materialized, see {@link AttributeLight#decode()}.
+   * Useful for records that are compared many times.
+   *
+   * @return this record
+   */
+  default Record decode() {
+    for (Attribute attribute : getAttributes().values()) {
+      if (attribute instanceof AttributeLight attributeLight) {
+        attributeLight.decode();
+      }
+    }
+    return this;
+  }
+
   @JsonIgnore
   RecordPair getPair(Record other);
 
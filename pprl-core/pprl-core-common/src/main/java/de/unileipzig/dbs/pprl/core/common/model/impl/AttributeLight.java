@@ -55,6 +55,11 @@ public class AttributeLight implements Attribute {
    */
   protected byte[] rawBytes;
 
+  /**
+   * Materialized value, only set after {@link #decode()} was called
+   */
+  protected transient volatile Object decodedValue;
+
   @Override
   public boolean isNull() {
     return rawBytes[0] == TYPE_NULL;
@@ -126,7 +131,26 @@ public class AttributeLight implements Attribute {
     return rawBytes[0] == TYPE_HASH;
   }
 
+  /**
+   * Decodes the value once and keeps it, so that subsequent calls of {@link #getObject()} return the same
+   * instance instead of decoding the raw bytes again. Bit vectors are materialized as {@link PackedBitVector}.
+   * The materialized value is shared by all callers and must not be modified.
+   * @return this attribute
+   */
+  public AttributeLight decode() {
+    if (decodedValue == null && !isNull()) {
+      decodedValue = isBitVector() ?
+        PackedBitVector.fromByteArray(rawBytes, OFFSET, rawBytes.length - OFFSET) :
+        getObject();
+    }
+    return this;
+  }
+
   public Object getObject() {
+    final Object decoded = decodedValue;
+    if (decoded != null) {
+      return decoded;
+    }
     if (isString()) {
       return getString();
     } else if (isInt()) {
@@ -217,6 +241,31 @@ public class AttributeLight implements Attribute {
     return new HashValue(getValueBytes());
   }
 
+  /**
+   * Get the type byte followed by the value bytes, e.g. to store the attribute in binary form.
+   * The array is not copied, so it must not be modified by the caller.
+   *
+   * @return raw bytes of the attribute
+   */
+  public byte[] getRawBytes() {
+    return rawBytes;
+  }
+
+  /**
+   * Create an attribute from the bytes returned by {@link #getRawBytes()}. The array is not copied.
+   *
+   * @param rawBytes type byte followed by the value bytes
+   * @return attribute
+   */
+  public static AttributeLight fromRawBytes(byte[] rawBytes) {
+    if (rawBytes == null || rawBytes.length == 0) {
+      throw new RuntimeException("Raw bytes of an attribute must contain at least the type");
+    }
+    AttributeLight attribute = new AttributeLight();
+    attribute.rawBytes = rawBytes;
+    return attribute;
+  }
+
   protected byte[] getValueBytes() {
     return Arrays.copyOfRange(rawBytes, OFFSET, rawBytes.length);
   }
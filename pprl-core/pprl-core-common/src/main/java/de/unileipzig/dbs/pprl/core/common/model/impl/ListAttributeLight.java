@@ -17,6 +17,7 @@
 package de.unileipzig.dbs.pprl.core.common.model.impl;
 
 import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
+import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
 import de.unileipzig.dbs.pprl.core.common.model.api.ListAttribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
 
@@ -25,6 +26,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -39,6 +41,41 @@ public class ListAttributeLight extends AttributeLight implements ListAttribute
     setList(values);
   }
 
+  private ListAttributeLight() {
+  }
+
+  /**
+   * Create a list attribute from the bytes returned by {@link #getRawBytes()}. The array is not copied.
+   *
+   * @param rawBytes element type byte followed by the serialized list
+   * @return list attribute
+   */
+  public static ListAttributeLight fromRawBytes(byte[] rawBytes) {
+    if (rawBytes == null || rawBytes.length == 0) {
+      throw new RuntimeException("Raw bytes of an attribute must contain at least the type");
+    }
+    ListAttributeLight attribute = new ListAttributeLight();
+    attribute.rawBytes = rawBytes;
+    return attribute;
+  }
+
+  /**
+   * Decodes the list once and keeps it, bit vector elements are materialized as {@link PackedBitVector}.
+   * The materialized list is unmodifiable and shared by all callers.
+   * @return this attribute
+   */
+  @Override
+  public ListAttributeLight decode() {
+    if (decodedValue == null && !isNull()) {
+      List<Object> values = new ArrayList<>();
+      for (Object value : getList()) {
+        values.add(value instanceof BitVector bitVector ? PackedBitVector.of(bitVector) : value);
+      }
+      decodedValue = Collections.unmodifiableList(values);
+    }
+    return this;
+  }
+
   @Override
   public Object getObject() {
     return getList();
@@ -81,6 +118,10 @@ public class ListAttributeLight extends AttributeLight implements ListAttribute
   }
 
   private List getList() {
+    final Object decoded = decodedValue;
+    if (decoded != null) {
+      return (List) decoded;
+    }
     ByteArrayInputStream bis = new ByteArrayInputStream(getValueBytes());
     try {
       ObjectInputStream ois = new ObjectInputStream(bis);
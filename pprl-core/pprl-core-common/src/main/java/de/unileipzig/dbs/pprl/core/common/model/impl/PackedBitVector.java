@@ -0,0 +1,313 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.common.model.impl;
+
+import de.unileipzig.dbs.pprl.core.common.BitSetUtils;
+import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Implementation of the {@link BitVector} interface that stores the bits in a fixed-length long array.
+ * Intersection and union cardinalities are computed word by word using {@link Long#bitCount(long)}
+ * without creating intermediate {@link BitSet} objects.
+ * The byte representation is compatible with {@link BitSetVector#toByteArray()}.
+ */
+public class PackedBitVector implements BitVector {
+  private static final int ADDRESS_BITS_PER_WORD = 6;
+  private static final int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+
+  private int length;
+  private long[] words;
+
+  public PackedBitVector(int length) {
+    this(length, new long[wordCount(length)]);
+  }
+
+  private PackedBitVector(int length, long[] words) {
+    this.length = length;
+    this.words = words;
+  }
+
+  private PackedBitVector() {
+  }
+
+  private static int wordCount(int length) {
+    return (length + BITS_PER_WORD - 1) >>> ADDRESS_BITS_PER_WORD;
+  }
+
+  @Override
+  public void set(int pos, boolean value) {
+    if (pos < 0 || pos >= length) {
+      throw new IndexOutOfBoundsException("Position " + pos + " out of range for length " + length);
+    }
+    if (value) {
+      words[pos >>> ADDRESS_BITS_PER_WORD] |= 1L << pos;
+    } else {
+      words[pos >>> ADDRESS_BITS_PER_WORD] &= ~(1L << pos);
+    }
+  }
+
+  public boolean get(int pos) {
+    if (pos < 0 || pos >= length) {
+      return false;
+    }
+    return (words[pos >>> ADDRESS_BITS_PER_WORD] & (1L << pos)) != 0;
+  }
+
+  @Override
+  public int getLength() {
+    return length;
+  }
+
+  @Override
+  public int getCardinality() {
+    int card = 0;
+    for (long word : words) {
+      card += Long.bitCount(word);
+    }
+    return card;
+  }
+
+  /**
+   * Number of positions set in both this and the other vector
+   *
+   * @param other second bitvector
+   * @return cardinality of the bitwise AND
+   */
+  public int getIntersectionCardinality(PackedBitVector other) {
+    final long[] a = this.words;
+    final long[] b = other.words;
+    final int n = Math.min(a.length, b.length);
+    int card = 0;
+    for (int i = 0; i < n; i++) {
+      card += Long.bitCount(a[i] & b[i]);
+    }
+    return card;
+  }
+
+  /**
+   * Number of positions set in this or the other vector
+   *
+   * @param other second bitvector
+   * @return cardinality of the bitwise OR
+   */
+  public int getUnionCardinality(PackedBitVector other) {
+    final long[] a = this.words.length >= other.words.length ? this.words : other.words;
+    final long[] b = this.words.length >= other.words.length ? other.words : this.words;
+    int card = 0;
+    for (int i = 0; i < b.length; i++) {
+      card += Long.bitCount(a[i] | b[i]);
+    }
+    for (int i = b.length; i < a.length; i++) {
+      card += Long.bitCount(a[i]);
+    }
+    return card;
+  }
+
+  @Override
+  public void and(BitVector bvOther) {
+    final long[] otherWords = wordsOf(bvOther);
+    ensureLength(bvOther.getLength());
+    for (int i = 0; i < words.length; i++) {
+      words[i] &= i < otherWords.length ? otherWords[i] : 0L;
+    }
+  }
+
+  @Override
+  public void or(BitVector bvOther) {
+    final long[] otherWords = wordsOf(bvOther);
+    ensureLength(bvOther.getLength());
+    if (otherWords.length > words.length) {
+      words = Arrays.copyOf(words, otherWords.length);
+    }
+    for (int i = 0; i < otherWords.length; i++) {
+      words[i] |= otherWords[i];
+    }
+  }
+
+  private void ensureLength(int otherLength) {
+    if (otherLength > length) {
+      length = otherLength;
+      if (wordCount(length) > words.length) {
+        words = Arrays.copyOf(words, wordCount(length));
+      }
+    }
+  }
+
+  private static long[] wordsOf(BitVector bv) {
+    if (bv instanceof PackedBitVector packed) {
+      return packed.words;
+    }
+    return bv.getBitSet().toLongArray();
+  }
+
+  /**
+   * Get the backing array of this vector. Bit i is stored in word i / 64 at position i % 64.
+   * The array is not copied, so it must not be modified by the caller.
+   *
+   * @return backing long array
+   */
+  public long[] getWords() {
+    return words;
+  }
+
+  /**
+   * Get a copy of this vector as {@link BitSet}.
+   * Modifications of the returned BitSet are not reflected in this vector.
+   *
+   * @return BitSet representation
+   */
+  @Override
+  public BitSet getBitSet() {
+    return BitSet.valueOf(words);
+  }
+
+  @Override
+  public String getBase64() {
+    return BitSetUtils.toBase64(getBitSet());
+  }
+
+  @Override
+  public String getBitString() {
+    final StringBuilder buffer = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      buffer.append(get(i) ? '1' : '0');
+    }
+    return buffer.toString();
+  }
+
+  @Override
+  public byte[] toByteArray() {
+    int lastWord = words.length - 1;
+    while (lastWord >= 0 && words[lastWord] == 0) {
+      lastWord--;
+    }
+    int valueBytes = 0;
+    if (lastWord >= 0) {
+      valueBytes = lastWord * Long.BYTES;
+      for (long w = words[lastWord]; w != 0; w >>>= 8) {
+        valueBytes++;
+      }
+    }
+    byte[] bytes = new byte[Integer.BYTES + valueBytes];
+    bytes[0] = (byte) (length >>> 24);
+    bytes[1] = (byte) (length >>> 16);
+    bytes[2] = (byte) (length >>> 8);
+    bytes[3] = (byte) length;
+    for (int i = 0; i < valueBytes; i++) {
+      bytes[Integer.BYTES + i] = (byte) (words[i >>> 3] >>> ((i & 7) << 3));
+    }
+    return bytes;
+  }
+
+  /**
+   * Create an instance from a byte array, that was generated using {@link BitVector#toByteArray()}
+   *
+   * @param bytes byte representation of a bitvector
+   * @return PackedBitVector object
+   */
+  public static PackedBitVector fromByteArray(byte[] bytes) {
+    return fromByteArray(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Create an instance from a range of a byte array, that was generated using {@link BitVector#toByteArray()}
+   *
+   * @param bytes  array containing the byte representation of a bitvector
+   * @param offset start of the byte representation
+   * @param len    number of bytes of the byte representation
+   * @return PackedBitVector object
+   */
+  public static PackedBitVector fromByteArray(byte[] bytes, int offset, int len) {
+    int length = ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) |
+      ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    int valueBytes = len - Integer.BYTES;
+    long[] words = new long[Math.max(wordCount(length), (valueBytes + Long.BYTES - 1) / Long.BYTES)];
+    for (int i = 0; i < valueBytes; i++) {
+      words[i >>> 3] |= (bytes[offset + Integer.BYTES + i] & 0xFFL) << ((i & 7) << 3);
+    }
+    return new PackedBitVector(length, words);
+  }
+
+  /**
+   * Create an instance from a {@link java.util.BitSet}
+   *
+   * @param bs     BitSet
+   * @param length length of the bitvector
+   * @return PackedBitVector object
+   */
+  public static PackedBitVector fromBitSet(BitSet bs, int length) {
+    long[] bsWords = bs.toLongArray();
+    return new PackedBitVector(length, Arrays.copyOf(bsWords, Math.max(wordCount(length), bsWords.length)));
+  }
+
+  /**
+   * Create a packed copy of any {@link BitVector}
+   *
+   * @param bv bitvector
+   * @return PackedBitVector object
+   */
+  public static PackedBitVector of(BitVector bv) {
+    if (bv instanceof PackedBitVector packed) {
+      return new PackedBitVector(packed.length, packed.words.clone());
+    }
+    return fromBitSet(bv.getBitSet(), bv.getLength());
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    PackedBitVector that = (PackedBitVector) o;
+    if (length != that.length) {
+      return false;
+    }
+    final int n = Math.max(words.length, that.words.length);
+    for (int i = 0; i < n; i++) {
+      long a = i < words.length ? words[i] : 0L;
+      long b = i < that.words.length ? that.words[i] : 0L;
+      if (a != b) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int lastWord = words.length - 1;
+    while (lastWord >= 0 && words[lastWord] == 0) {
+      lastWord--;
+    }
+    int result = length;
+    for (int i = 0; i <= lastWord; i++) {
+      result = 31 * result + Long.hashCode(words[i]);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "PackedBitVector{" + "length=" + length + ", cardinality=" + getCardinality() + '}';
+  }
+}
@@ -42,6 +42,11 @@ public class RecordSimple implements Record {
    */
   private Map<String, Attribute> attributes;
 
+  /**
+   * Whether attribute values are kept materialized, see {@link #decode()}
+   */
+  private transient boolean decoded;
+
   public RecordSimple(RecordId id) {
     this.id = id;
     this.attributes = new HashMap<>();
@@ -69,6 +74,9 @@ public class RecordSimple implements Record {
 
   @Override
   public Record setAttribute(String name, Attribute attribute) {
+    if (decoded) {
+      decode(attribute);
+    }
     attributes.put(name, attribute);
     return this;
   }
@@ -84,13 +92,37 @@ public class RecordSimple implements Record {
     return attributes;
   }
 
+  @Override
+  public int getNumberOfAttributes() {
+    return attributes.size();
+  }
+
   @Override
   public Record duplicate() {
-    return new RecordSimple(this.id.duplicate(), this.attributes.entrySet()
+    RecordSimple dup = new RecordSimple(this.id.duplicate(), this.attributes.entrySet()
       .stream()
       .collect(Collectors
         .toMap(Map.Entry::getKey, e -> e.getValue()
           .duplicate())));
+    return decoded ? dup.decode() : dup;
+  }
+
+  /**
+   * Switches the record to the decoded mode, in which all current and future attribute values are kept
+   * materialized (see {@link AttributeLight#decode()}). Useful for records that are compared many times.
+   * @return this record
+   */
+  @Override
+  public RecordSimple decode() {
+    this.decoded = true;
+    attributes.values().forEach(RecordSimple::decode);
+    return this;
+  }
+
+  private static void decode(Attribute attribute) {
+    if (attribute instanceof AttributeLight attributeLight) {
+      attributeLight.decode();
+    }
   }
 
   @Override
@@ -18,11 +18,16 @@ package de.unileipzig.dbs.pprl.core.common;
 
 import org.junit.jupiter.api.Test;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.security.MessageDigest;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -72,4 +77,22 @@ class HashUtilsTest {
 
     bins.forEach((blk, count) -> assertEquals((float) numberOfDays / outRange, count, 0.05 * (numberOfDays / outRange)));
   }
-}
\ No newline at end of file
+
+  @Test
+  void matchesBigIntegerConversion() throws Exception {
+    for (String input : Arrays.asList("", "a", "_ab", "19700101", "Müller")) {
+      byte[] md5 = MessageDigest.getInstance("MD5").digest(input.getBytes());
+      byte[] sha = MessageDigest.getInstance("SHA-256").digest(input.getBytes());
+      assertEquals(new BigInteger(1, md5).intValue(), HashUtils.getMD5(input));
+      assertEquals(new BigInteger(1, sha).intValue(), HashUtils.getSHA(input));
+      assertEquals(new BigInteger(1, sha).longValue(), HashUtils.getSHALongHash(input));
+
+      Mac mac = Mac.getInstance(HashUtils.HMAC_ALGORITHM);
+      mac.init(new SecretKeySpec("salt".getBytes(), HashUtils.HMAC_ALGORITHM));
+      byte[] hmac = mac.doFinal(input.getBytes());
+      assertEquals(new BigInteger(1, hmac).intValue(), HashUtils.getHMAC(input, "salt"));
+      assertEquals(new Random(new BigInteger(hmac).longValue()).nextLong(),
+        HashUtils.getRandom(input, "salt").nextLong());
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.common;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MacCacheTest {
+
+  private static final byte[] KEY = "secret".getBytes();
+
+  private static final byte[] OTHER_KEY = "other secret".getBytes();
+
+  @Test
+  void cachedMacsMatchUncached() {
+    final MacCache macs = new MacCache();
+    final byte[] expected = HashProvider.getMac(HashUtils.HMAC_ALGORITHM, KEY).doFinal("feature".getBytes());
+    final byte[] other = HashProvider.getMac(HashUtils.HMAC_ALGORITHM, OTHER_KEY).doFinal("feature".getBytes());
+
+    final Mac mac = macs.getMac(HashUtils.HMAC_ALGORITHM, KEY);
+    assertArrayEquals(expected, mac.doFinal("feature".getBytes()));
+    assertArrayEquals(other, macs.getMac(HashUtils.HMAC_ALGORITHM, OTHER_KEY).doFinal("feature".getBytes()));
+    assertSame(mac, macs.getMac(HashUtils.HMAC_ALGORITHM, KEY.clone()));
+    assertArrayEquals(expected, mac.doFinal("feature".getBytes()));
+    assertEquals(HashUtils.getRandom("feature", KEY).nextLong(),
+      HashUtils.getRandom("feature", KEY, macs).nextLong());
+  }
+
+  @Test
+  void clearRemovesAllThreads() {
+    final MacCache macs = new MacCache();
+    final Mac mac = macs.getMac(HashUtils.HMAC_ALGORITHM, KEY);
+    CompletableFuture.runAsync(() -> macs.getMac(HashUtils.HMAC_ALGORITHM, KEY)).join();
+    assertEquals(2, macs.size());
+
+    macs.clear();
+    assertEquals(0, macs.size());
+    assertNotSame(mac, macs.getMac(HashUtils.HMAC_ALGORITHM, KEY));
+  }
+}
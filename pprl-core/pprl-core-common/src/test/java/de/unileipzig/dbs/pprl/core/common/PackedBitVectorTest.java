@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.common;
+
+import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
+import de.unileipzig.dbs.pprl.core.common.model.impl.PackedBitVector;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PackedBitVectorTest {
+  private BitSet bitSet;
+  private PackedBitVector packedBitVector;
+
+  @BeforeEach
+  void setUp() {
+    bitSet = new BitSet();
+    bitSet.set(2);
+    bitSet.set(20, 25);
+    bitSet.set(70);
+    packedBitVector = PackedBitVector.fromBitSet(bitSet, 125);
+  }
+
+  @Test
+  void cardinality() {
+    assertEquals(7, packedBitVector.getCardinality());
+  }
+
+  @Test
+  void length() {
+    assertEquals(125, packedBitVector.getLength());
+  }
+
+  @Test
+  void byteArrayCompatibleWithBitSetVector() {
+    BitVector bitSetVector = BitSetVector.fromBitSet(bitSet, 125);
+    assertArrayEquals(bitSetVector.toByteArray(), packedBitVector.toByteArray());
+    assertEquals(packedBitVector, PackedBitVector.fromByteArray(bitSetVector.toByteArray()));
+    assertEquals(bitSetVector.getBase64(), packedBitVector.getBase64());
+    assertEquals(bitSetVector.getBitString(), packedBitVector.getBitString());
+  }
+
+  @Test
+  void intersectionAndUnion() {
+    BitSet other = new BitSet();
+    other.set(22, 30);
+    other.set(100);
+    PackedBitVector otherVector = PackedBitVector.fromBitSet(other, 125);
+
+    assertEquals(3, packedBitVector.getIntersectionCardinality(otherVector));
+    assertEquals(13, packedBitVector.getUnionCardinality(otherVector));
+
+    packedBitVector.and(otherVector);
+    assertEquals(3, packedBitVector.getCardinality());
+  }
+
+  @Test
+  void serialize() {
+    byte[] s = SerializationUtils.serialize(packedBitVector);
+    BitVector bvClone = SerializationUtils.deserialize(s);
+    assertEquals(packedBitVector, bvClone);
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.common.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongHashCollectionsTest {
+
+  @Test
+  void setBehavesLikeHashSet() {
+    Random random = new Random(42);
+    LongHashSet set = new LongHashSet(4);
+    Set<Long> expected = new HashSet<>();
+    for (int i = 0; i < 10000; i++) {
+      long key = random.nextInt(5000) - 10;
+      assertEquals(expected.add(key), set.add(key));
+    }
+    assertEquals(expected.size(), set.size());
+    for (long key = -20; key < 5100; key++) {
+      assertEquals(expected.contains(key), set.contains(key));
+    }
+
+    Set<Long> iterated = new HashSet<>();
+    set.forEach(iterated::add);
+    assertEquals(expected, iterated);
+  }
+
+  @Test
+  void capacityIsBounded() {
+    assertEquals(1 << 4, LongHashing.doubleCapacity(1 << 3));
+    assertEquals(LongHashing.MAX_CAPACITY, LongHashing.doubleCapacity(LongHashing.MAX_CAPACITY >> 1));
+    assertThrows(RuntimeException.class, () -> LongHashing.doubleCapacity(LongHashing.MAX_CAPACITY));
+    assertThrows(RuntimeException.class, () -> LongHashing.capacity(Integer.MAX_VALUE));
+  }
+
+  @Test
+  void mapWithZeroKey() {
+    LongObjectHashMap<String> map = new LongObjectHashMap<>();
+    assertNull(map.get(0));
+    assertNull(map.put(0, "zero"));
+    assertEquals("zero", map.put(0, "null"));
+    assertTrue(map.containsKey(0));
+
+    for (long key = 1; key <= 100; key++) {
+      assertTrue(map.putIfAbsent(key << 32, "v" + key));
+    }
+    assertFalse(map.putIfAbsent(1L << 32, "other"));
+    assertEquals("v1v1", map.merge(1L << 32, "v1", String::concat));
+
+    assertEquals(101, map.size());
+    assertEquals(101, map.values().size());
+    assertEquals("v50", map.get(50L << 32));
+    assertNull(map.get(101L << 32));
+  }
+
+  @Test
+  void pairKeyIsOrderIndependent() {
+    assertEquals(RecordIndex.pairKey(3, 7), RecordIndex.pairKey(7, 3));
+    assertFalse(RecordIndex.pairKey(3, 7) == RecordIndex.pairKey(3, 8));
+    assertEquals((3L << 32) | 7L, RecordIndex.pairKey(7, 3));
+  }
+}
@@ -72,4 +72,28 @@ class AttributeFrequencyLookupTest {
     assertTrue(relativeRank.isPresent());
     assertEquals(3.0/frequencies.size(), relativeRank.get());
   }
-}
\ No newline at end of file
+
+  @Test
+  void getMedianValueMatchesExpandedList() {
+    Map<String, Long> skewed = Map.of("A", 1000L, "B", 1L, "C", 0L, "D", 999L, "E", 3L);
+    AttributeFrequencyLookup afl = new AttributeFrequencyLookup(skewed);
+    // 2003 occurrences, position 1001 is the second occurrence of D
+    assertEquals("D", afl.getMedianValue().get());
+    assertFalse(new AttributeFrequencyLookup(Map.of()).getMedianValue().isPresent());
+  }
+
+  @Test
+  void getRanksOfAllValues() {
+    AttributeFrequencyLookup afl = new AttributeFrequencyLookup(frequencies);
+    long rank = 1;
+    for (String value : afl.getAttributesReverseSortedByFrequency()) {
+      assertEquals(rank, afl.getAbsoluteRank(value).get());
+      assertEquals(value, afl.getAbsoluteTopValue((int) rank).get());
+      rank++;
+    }
+    assertFalse(afl.getAbsoluteRank("UNKNOWN").isPresent());
+    assertFalse(afl.getAbsoluteTopValue(0).isPresent());
+    assertFalse(afl.getAbsoluteTopValue(frequencies.size() + 1).isPresent());
+    assertEquals(1, afl.getLowestFrequency());
+  }
+}
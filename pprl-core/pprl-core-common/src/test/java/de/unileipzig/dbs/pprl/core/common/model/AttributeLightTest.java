@@ -21,8 +21,12 @@ import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
 import de.unileipzig.dbs.pprl.core.common.model.impl.AttributeLight;
 import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
+import de.unileipzig.dbs.pprl.core.common.model.impl.ListAttributeLight;
+import de.unileipzig.dbs.pprl.core.common.model.impl.PackedBitVector;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class AttributeLightTest {
@@ -76,4 +80,33 @@ class AttributeLightTest {
     assertNotNull(strRepresentation);
     assertFalse(strRepresentation.isEmpty());
   }
-}
\ No newline at end of file
+
+  @Test
+  void decodedBitVector() {
+    AttributeLight attr = new AttributeLight(TEST_BITVECTOR).decode();
+    BitVector decoded = attr.getAs(BitVector.class);
+    assertInstanceOf(PackedBitVector.class, decoded);
+    assertSame(decoded, attr.getObject());
+    assertEquals(TEST_BITVECTOR.getBitString(), decoded.getBitString());
+    assertEquals(new AttributeLight(TEST_BITVECTOR), attr);
+  }
+
+  @Test
+  void decodedString() {
+    AttributeLight attr = new AttributeLight(TEST_STRING).decode();
+    assertEquals(TEST_STRING, attr.getObject());
+    assertSame(attr.getObject(), attr.getObject());
+  }
+
+  @Test
+  void rawBytesRoundTrip() {
+    for (Object value : new Object[]{null, TEST_STRING, TEST_INTEGER, TEST_BITVECTOR}) {
+      AttributeLight attr = new AttributeLight(value);
+      AttributeLight restored = AttributeLight.fromRawBytes(attr.getRawBytes());
+      assertEquals(attr, restored);
+      assertEquals(value, restored.getObject());
+    }
+    ListAttributeLight list = new ListAttributeLight(List.of("a", "b"));
+    assertEquals(List.of("a", "b"), ListAttributeLight.fromRawBytes(list.getRawBytes()).getListAs(String.class));
+  }
+}
@@ -21,6 +21,7 @@ import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
 import de.unileipzig.dbs.pprl.core.common.model.api.ListAttribute;
 import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
 import de.unileipzig.dbs.pprl.core.common.model.impl.ListAttributeLight;
+import de.unileipzig.dbs.pprl.core.common.model.impl.PackedBitVector;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -57,6 +58,18 @@ class ListAttributeLightTest {
     assertFalse(strRepresentation.isEmpty());
   }
 
+  @Test
+  void decodedBitVectors() {
+    ListAttributeLight attr = new ListAttributeLight(Arrays.asList(TEST_BITVECTOR, TEST_BITVECTOR_2)).decode();
+    List<BitVector> bitVectors = attr.getListAs(BitVector.class);
+    assertEquals(2, bitVectors.size());
+    assertInstanceOf(PackedBitVector.class, bitVectors.get(0));
+    assertEquals(TEST_BITVECTOR.getBitString(), bitVectors.get(0).getBitString());
+    assertEquals(TEST_BITVECTOR_2.getBitString(), bitVectors.get(1).getBitString());
+    assertSame(attr.getObject(), attr.getObject());
+    assertThrows(UnsupportedOperationException.class, () -> bitVectors.add(TEST_BITVECTOR));
+  }
+
   @Test
   void typeNullWithEmptyList() {
     ListAttribute attr = new ListAttributeLight(new ArrayList<String>());
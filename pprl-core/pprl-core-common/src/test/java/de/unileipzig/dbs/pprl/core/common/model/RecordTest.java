@@ -21,6 +21,7 @@ class RecordTest {
     records = new ArrayList<>();
     records.add(initRecord(RecordFactory.RecordVariant.DEFAULT));
     records.add(initRecord(RecordFactory.RecordVariant.LIGHT));
+    records.add(initRecord(RecordFactory.RecordVariant.DECODED));
   }
 
   private Record initRecord(RecordFactory.RecordVariant variant) {
@@ -47,9 +47,13 @@ public class KeyManager {
   }
 
   public static SecretKey getDerivedSecret(String keyName) {
+    return getDerivedSecret(getKeyStore(), keyName);
+  }
+
+  public static SecretKey getDerivedSecret(KeyStore keyStore, String keyName) {
     Key baseKey = null;
     try {
-      baseKey = getKeyStore().getKey(BASE_KEY_NAME, SECRET_PWD_ARRAY);
+      baseKey = keyStore.getKey(BASE_KEY_NAME, SECRET_PWD_ARRAY);
     } catch (KeyStoreException | NoSuchAlgorithmException | UnrecoverableKeyException e) {
       throw new RuntimeException(e.fillInStackTrace());
     }
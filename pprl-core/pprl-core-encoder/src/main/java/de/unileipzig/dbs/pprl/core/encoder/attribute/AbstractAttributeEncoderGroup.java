@@ -21,6 +21,8 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.ListAttribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContext;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContextAware;
 import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyExtractor;
 import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyedEncoderComponent;
 import de.unileipzig.dbs.pprl.core.encoder.hardening.Hardener;
@@ -34,7 +36,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 public abstract class AbstractAttributeEncoderGroup<T> implements AttributeEncoderGroup<T>,
-  KeyedEncoderComponent {
+  KeyedEncoderComponent, KeyContextAware {
   protected String id;
   protected RecordPreprocessor recordPreprocessor;
   protected List<Hardener<T>> hardeners;
@@ -65,6 +67,12 @@ public abstract class AbstractAttributeEncoderGroup<T> implements AttributeEncod
     this.key = key;
   }
 
+  @Override
+  public void setKeyContext(KeyContext keyContext) {
+    hardeners.forEach(h -> KeyContextAware.bind(h, keyContext));
+    keyedHardeners.forEach(h -> KeyContextAware.bind(h, keyContext));
+  }
+
   protected Record preprocess(Record record) {
     if (recordPreprocessor == null) {
       return record;
@@ -72,18 +80,32 @@ public abstract class AbstractAttributeEncoderGroup<T> implements AttributeEncod
     return recordPreprocessor.preprocess(record);
   }
 
-  protected T encodeAttribute(AttributeEncoder<?, T> encoder, Attribute attribute) {
-    if (encoder instanceof KeyedEncoderComponent) {
-      ((KeyedEncoderComponent) encoder).setKey(key);
+  /**
+   * Returns the key to encode the record with: a key set through {@link #setKey(String)} or
+   * otherwise the key attribute of the record (see {@link KeyExtractor}).
+   * Resolving the key per record keeps the group free of per-record state.
+   */
+  protected String getKey(Record record) {
+    if (key != null) {
+      return key;
     }
-    return encoder.encode(attribute);
+    return KeyExtractor.extractKey(record).orElse(null);
+  }
+
+  protected T encodeAttribute(AttributeEncoder<?, T> encoder, Attribute attribute) {
+    return encodeAttribute(encoder, attribute, key);
+  }
+
+  protected T encodeAttribute(AttributeEncoder<?, T> encoder, Attribute attribute, String key) {
+    return encoder.encode(attribute, key);
   }
 
   protected List<T> encodeListAttribute(AttributeEncoder<?, T> encoder, ListAttribute attribute) {
-    if (encoder instanceof KeyedEncoderComponent) {
-      ((KeyedEncoderComponent) encoder).setKey(key);
-    }
-    return encoder.encode(attribute);
+    return encodeListAttribute(encoder, attribute, key);
+  }
+
+  protected List<T> encodeListAttribute(AttributeEncoder<?, T> encoder, ListAttribute attribute, String key) {
+    return encoder.encode(attribute, key);
   }
 
   protected T harden(T value) {
@@ -43,6 +43,22 @@ public interface AttributeEncoder<I, O> {
     return encode(attrValue);
   }
 
+  /**
+   * Encodes the attribute using record specific key material.
+   * Encoders that do not use a key ignore it and must not keep per-record state,
+   * so that a single instance can encode records concurrently.
+   *
+   * @param attribute attribute to encode
+   * @param key       record specific key, may be null
+   */
+  default O encode(Attribute attribute, String key) {
+    return encode(attribute);
+  }
+
+  default List<O> encode(ListAttribute listAttribute, String key) {
+    return encode(listAttribute);
+  }
+
   @JsonIgnore
   default Attribute getEmptyInputAttribute() {
     if (getInputClass().equals(String.class)) {
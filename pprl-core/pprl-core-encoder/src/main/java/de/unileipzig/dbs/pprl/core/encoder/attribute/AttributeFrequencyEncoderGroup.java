@@ -13,6 +13,8 @@ import de.unileipzig.dbs.pprl.core.encoder.model.NamedAttribute;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -72,7 +74,7 @@ public class AttributeFrequencyEncoderGroup implements AttributeEncoderGroup<Str
           .ifPresent(relativeFrequency -> frequencyAttributes.add(
             new NamedAttribute(
               attributeName + SUFFIX_RELATIVE_FREQUENCY,
-              AttributeFactory.getAttribute(String.format(Locale.US, "%.3f", relativeFrequency))
+              AttributeFactory.getAttribute(formatShare(relativeFrequency))
             )));
       }
       Optional<Double> optionalRelativeRank =
@@ -82,7 +84,7 @@ public class AttributeFrequencyEncoderGroup implements AttributeEncoderGroup<Str
           .ifPresent(relativeRank -> frequencyAttributes.add(
             new NamedAttribute(
               attributeName + SUFFIX_RELATIVE_RANK,
-              AttributeFactory.getAttribute(String.format(Locale.US, "%.3f", relativeRank))
+              AttributeFactory.getAttribute(formatShare(relativeRank))
             )));
       }
       if (includeFrequencyLabel) {
@@ -96,6 +98,17 @@ public class AttributeFrequencyEncoderGroup implements AttributeEncoderGroup<Str
     return frequencyAttributes;
   }
 
+  /**
+   * Format the value with three decimal places, giving the same result as
+   * {@code String.format(Locale.US, "%.3f", value)} without parsing a format string per record.
+   */
+  static String formatShare(double value) {
+    if (!Double.isFinite(value)) {
+      return String.format(Locale.US, "%.3f", value);
+    }
+    return BigDecimal.valueOf(value).setScale(3, RoundingMode.HALF_UP).toPlainString();
+  }
+
   private static int getFrequencyLabel(Double relativeRank) {
     if (relativeRank < 0.01) {
       return 0; // Very frequent
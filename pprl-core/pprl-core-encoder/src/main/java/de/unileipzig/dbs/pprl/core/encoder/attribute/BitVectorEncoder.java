@@ -18,9 +18,15 @@ package de.unileipzig.dbs.pprl.core.encoder.attribute;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
+import de.unileipzig.dbs.pprl.core.common.model.api.ListAttribute;
 import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
 import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
 import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyedEncoderComponent;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContext;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContextAware;
+import de.unileipzig.dbs.pprl.core.encoder.feature.ByteWindowFeatureEncoder;
+import de.unileipzig.dbs.pprl.core.encoder.feature.ByteWindowFeatureExtractor;
 import de.unileipzig.dbs.pprl.core.encoder.feature.FeatureEncoder;
 import de.unileipzig.dbs.pprl.core.encoder.feature.FeatureExtractor;
 import de.unileipzig.dbs.pprl.core.common.preprocessing.AttributePreprocessor;
@@ -28,8 +34,10 @@ import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Metrics;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
-public class BitVectorEncoder<P, F> implements AttributeEncoder<String, BitVector>, KeyedEncoderComponent {
+public class BitVectorEncoder<P, F> implements AttributeEncoder<String, BitVector>, KeyedEncoderComponent, KeyContextAware {
   private String id;
   private int bvLength;
   private AttributePreprocessor<String, P> preprocessor;
@@ -54,21 +62,52 @@ public class BitVectorEncoder<P, F> implements AttributeEncoder<String, BitVecto
 
   @Override
   public BitVector encode(String attribute) {
+    return encodeValue(attribute, key);
+  }
+
+  @Override
+  public BitVector encode(Attribute attribute, String key) {
+    return encodeValue(attribute.getAs(String.class), key);
+  }
+
+  @Override
+  public List<BitVector> encode(ListAttribute listAttribute, String key) {
+    return listAttribute.getListAs(String.class).stream()
+      .map(value -> encodeValue(value, key))
+      .collect(Collectors.toList());
+  }
+
+  private BitVector encodeValue(String attribute, String key) {
     attributeLength.record(attribute.length());
 
-    if (featureEncoder instanceof KeyedEncoderComponent) {
-      ((KeyedEncoderComponent) featureEncoder).setKey(key);
-    }
     P processedAttributeValue = getPreprocessedAttributeValue(attribute);
-    Collection<F> features = featureExtractor.extract(processedAttributeValue);
     BitVector bv = new BitSetVector(bvLength);
 
-    for (F feature : features) {
-      bv.or(featureEncoder.encode(bvLength, feature));
+    if (!encodeWindows(bv, processedAttributeValue)) {
+      Collection<F> features = featureExtractor.extract(processedAttributeValue);
+      for (F feature : features) {
+        featureEncoder.encode(bv, feature, key);
+      }
     }
     return bv;
   }
 
+  /**
+   * Streams the features directly from the attribute value into the bit vector if both extractor and
+   * encoder support byte windows, which avoids creating an object per feature.
+   *
+   * @return true if the features have been encoded
+   */
+  @SuppressWarnings("unchecked")
+  private boolean encodeWindows(BitVector bv, P processedAttributeValue) {
+    if (featureExtractor instanceof ByteWindowFeatureExtractor<?> windowExtractor &&
+      featureEncoder instanceof ByteWindowFeatureEncoder windowEncoder) {
+      return ((ByteWindowFeatureExtractor<P>) windowExtractor).extractWindows(processedAttributeValue,
+        (bytes, offset, length) -> windowEncoder.encode(bv, bytes, offset, length));
+    }
+    return false;
+  }
+
   @Override
   public void setKey(String key) {
     this.key = key;
@@ -89,6 +128,11 @@ public class BitVectorEncoder<P, F> implements AttributeEncoder<String, BitVecto
     return out;
   }
 
+  @Override
+  public void setKeyContext(KeyContext keyContext) {
+    KeyContextAware.bind(featureEncoder, keyContext);
+  }
+
   @Override
   public String getId() {
     return id;
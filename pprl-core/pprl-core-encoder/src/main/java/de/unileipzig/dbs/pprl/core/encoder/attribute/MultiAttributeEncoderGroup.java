@@ -20,6 +20,8 @@ import de.unileipzig.dbs.pprl.core.common.factories.AttributeFactory;
 import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.ListAttribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContext;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContextAware;
 import de.unileipzig.dbs.pprl.core.encoder.hardening.Hardener;
 
 import java.util.Collections;
@@ -44,6 +46,7 @@ public class MultiAttributeEncoderGroup<T> extends AbstractAttributeEncoderGroup
 
   @Override
   public Attribute encodeToAttribute(Record record) {
+    String recordKey = getKey(record);
     Record pRecord = preprocess(record);
 
     final Map<String, List<T>> eAttributes = new HashMap<>();
@@ -52,10 +55,10 @@ public class MultiAttributeEncoderGroup<T> extends AbstractAttributeEncoderGroup
         .orElse(v.getEmptyInputAttribute());
 //        .orElseThrow(() -> new RuntimeException("Missing attribute: " + k));
       if (attribute instanceof ListAttribute) {
-        @SuppressWarnings("unchecked") List<T> resultValues = v.encode((ListAttribute) attribute);
+        @SuppressWarnings("unchecked") List<T> resultValues = v.encode((ListAttribute) attribute, recordKey);
         eAttributes.put(buildEncodedAttributeId(k, v.getId()), resultValues);
       } else {
-        T resultValue = encodeAttribute(v, attribute);
+        T resultValue = encodeAttribute(v, attribute, recordKey);
         eAttributes.put(buildEncodedAttributeId(k, v.getId()), Collections.singletonList(resultValue));
       }
     });
@@ -74,6 +77,12 @@ public class MultiAttributeEncoderGroup<T> extends AbstractAttributeEncoderGroup
     return AttributeFactory.getAttribute(mergedValues.getFirst());
   }
 
+  @Override
+  public void setKeyContext(KeyContext keyContext) {
+    super.setKeyContext(keyContext);
+    attributeEncoders.values().forEach(e -> KeyContextAware.bind(e, keyContext));
+  }
+
   @Override
   public MultiAttributeEncoderGroup<T> addAttributeEncoder(String attributeId,
     AttributeEncoder<?, T> attributeEncoder) {
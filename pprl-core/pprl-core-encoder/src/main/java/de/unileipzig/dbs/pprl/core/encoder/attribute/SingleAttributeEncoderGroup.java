@@ -20,6 +20,8 @@ import de.unileipzig.dbs.pprl.core.common.factories.AttributeFactory;
 import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.ListAttribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContext;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContextAware;
 
 import java.util.List;
 
@@ -39,23 +41,31 @@ public class SingleAttributeEncoderGroup<T> extends AbstractAttributeEncoderGrou
 
   @Override
   public Attribute encodeToAttribute(Record record) {
+    String recordKey = getKey(record);
     Record pRecord = preprocess(record);
     Attribute attribute = pRecord.getAttribute(attributeId)
       .orElse(attributeEncoder.getEmptyInputAttribute());
 //      .orElseThrow(() -> new RuntimeException("Missing attribute: " + attributeId));
 
     if (attribute instanceof ListAttribute) {
-      List<T> encodedAttributeParts = encodeListAttribute(attributeEncoder, (ListAttribute) attribute);
+      List<T> encodedAttributeParts = encodeListAttribute(attributeEncoder, (ListAttribute) attribute,
+        recordKey);
       encodedAttributeParts = hardenList(encodedAttributeParts);
       return AttributeFactory.getAttribute(encodedAttributeParts);
     }
 
-    T resultBitVector = encodeAttribute(attributeEncoder, attribute);
+    T resultBitVector = encodeAttribute(attributeEncoder, attribute, recordKey);
     resultBitVector = harden(resultBitVector);
     resultBitVector = keyedHarden(resultBitVector, pRecord);
     return AttributeFactory.getAttribute(resultBitVector);
   }
 
+  @Override
+  public void setKeyContext(KeyContext keyContext) {
+    super.setKeyContext(keyContext);
+    KeyContextAware.bind(attributeEncoder, keyContext);
+  }
+
   @Override
   public SingleAttributeEncoderGroup<T> addAttributeEncoder(String attributeId,
     AttributeEncoder<?, T> attributeEncoder) {
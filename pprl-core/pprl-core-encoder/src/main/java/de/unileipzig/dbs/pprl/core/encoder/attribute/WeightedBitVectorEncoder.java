@@ -24,6 +24,8 @@ import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
 import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
 import de.unileipzig.dbs.pprl.core.common.monitoring.Tag;
 import de.unileipzig.dbs.pprl.core.common.monitoring.TagProvider;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContext;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContextAware;
 import de.unileipzig.dbs.pprl.core.encoder.feature.FeatureEncoder;
 import de.unileipzig.dbs.pprl.core.encoder.feature.FeatureExtractor;
 import de.unileipzig.dbs.pprl.core.encoder.feature.NumHashFunctionsDependent;
@@ -38,7 +40,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
-public class WeightedBitVectorEncoder<P, F> implements AttributeEncoder<String, BitVector>, TagProvider {
+public class WeightedBitVectorEncoder<P, F> implements AttributeEncoder<String, BitVector>, TagProvider, KeyContextAware {
   private String id;
   private int bvLength;
   private AttributePreprocessor<String, P> preprocessor;
@@ -72,8 +74,12 @@ public class WeightedBitVectorEncoder<P, F> implements AttributeEncoder<String,
   private WeightedBitVectorEncoder() {
   }
 
+  /**
+   * Synchronized, because the number of hash functions of the feature encoder is scaled per attribute
+   * and the tags of the encoding are collected in a field.
+   */
   @Override
-  public BitVector encode(String attribute) {
+  public synchronized BitVector encode(String attribute) {
     tags.clear();
     attributeLength.record(attribute.length());
 
@@ -97,7 +103,7 @@ public class WeightedBitVectorEncoder<P, F> implements AttributeEncoder<String,
     tags.add(Tag.create("NUM_HASH_FUNCTIONS", String.valueOf(kNew), (double)kNew));
     ((NumHashFunctionsDependent) featureEncoder).setNumHashFunctions(kNew);
     for (F feature : features) {
-      bv.or(featureEncoder.encode(bvLength, feature));
+      featureEncoder.encode(bv, feature);
     }
     ((NumHashFunctionsDependent) featureEncoder).setNumHashFunctions(kBase);
     return bv;
@@ -140,6 +146,11 @@ public class WeightedBitVectorEncoder<P, F> implements AttributeEncoder<String,
     return out;
   }
 
+  @Override
+  public void setKeyContext(KeyContext keyContext) {
+    KeyContextAware.bind(featureEncoder, keyContext);
+  }
+
   @Override
   public String getId() {
     return id;
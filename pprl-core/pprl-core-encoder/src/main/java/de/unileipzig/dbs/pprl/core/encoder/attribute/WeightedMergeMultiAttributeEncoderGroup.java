@@ -21,6 +21,8 @@ import de.unileipzig.dbs.pprl.core.common.frequencies.WeightCalculator;
 import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.ListAttribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContext;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContextAware;
 import de.unileipzig.dbs.pprl.core.common.model.impl.RecordWithTags;
 import de.unileipzig.dbs.pprl.core.encoder.hardening.Hardener;
 import org.apache.commons.lang3.NotImplementedException;
@@ -50,10 +52,15 @@ public class WeightedMergeMultiAttributeEncoderGroup<T> extends AbstractAttribut
     this.attributeEncoders = new HashMap<>();
   }
 
+  /**
+   * Synchronized, because the plaintext values of the current record are handed to the
+   * weighted encoders and the merger through their setters.
+   */
   @Override
-  public Attribute encodeToAttribute(Record record) {
+  public synchronized Attribute encodeToAttribute(Record record) {
     setupWeightCalculators();
 
+    String recordKey = getKey(record);
     Record pRecord = preprocess(record);
 
     final Map<String, List<T>> eAttributes = new HashMap<>();
@@ -79,7 +86,7 @@ public class WeightedMergeMultiAttributeEncoderGroup<T> extends AbstractAttribut
         } else if (v instanceof WeightedTokenBitVectorEncoder) {
           ((WeightedTokenBitVectorEncoder<?, ?>) v).setAttributeName(k);
         }
-        T resultValue = encodeAttribute(v, attribute);
+        T resultValue = encodeAttribute(v, attribute, recordKey);
         eAttributes.put(buildEncodedAttributeId(k, v.getId()), Collections.singletonList(resultValue));
       }
     });
@@ -117,6 +124,12 @@ public class WeightedMergeMultiAttributeEncoderGroup<T> extends AbstractAttribut
     }
   }
 
+  @Override
+  public void setKeyContext(KeyContext keyContext) {
+    super.setKeyContext(keyContext);
+    attributeEncoders.values().forEach(e -> KeyContextAware.bind(e, keyContext));
+  }
+
   @Override
   public WeightedMergeMultiAttributeEncoderGroup<T> addAttributeEncoder(String attributeId,
     AttributeEncoder<?, T> attributeEncoder) {
@@ -22,6 +22,8 @@ import de.unileipzig.dbs.pprl.core.common.frequencies.WeightCalculator;
 import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
 import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContext;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContextAware;
 import de.unileipzig.dbs.pprl.core.encoder.feature.FeatureEncoder;
 import de.unileipzig.dbs.pprl.core.encoder.feature.FeatureExtractor;
 import de.unileipzig.dbs.pprl.core.encoder.feature.NumHashFunctionsDependent;
@@ -34,7 +36,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.Collection;
 
-public class WeightedTokenBitVectorEncoder<P, F> implements AttributeEncoder<String, BitVector> {
+public class WeightedTokenBitVectorEncoder<P, F> implements AttributeEncoder<String, BitVector>, KeyContextAware {
   private String id;
   private int bvLength;
   private AttributePreprocessor<String, P> preprocessor;
@@ -66,8 +68,11 @@ public class WeightedTokenBitVectorEncoder<P, F> implements AttributeEncoder<Str
   private WeightedTokenBitVectorEncoder() {
   }
 
+  /**
+   * Synchronized, because the number of hash functions of the feature encoder is scaled per feature.
+   */
   @Override
-  public BitVector encode(String attribute) {
+  public synchronized BitVector encode(String attribute) {
     attributeLength.record(attribute.length());
 
     P processedAttributeValue = getPreprocessedAttributeValue(attribute);
@@ -87,10 +92,10 @@ public class WeightedTokenBitVectorEncoder<P, F> implements AttributeEncoder<Str
         int kBase = ((NumHashFunctionsDependent) featureEncoder).getNumHashFunctions();
         int kNew = (int) (scale * kBase);
         ((NumHashFunctionsDependent) featureEncoder).setNumHashFunctions(kNew);
-        bv.or(featureEncoder.encode(bvLength, feature));
+        featureEncoder.encode(bv, feature);
         ((NumHashFunctionsDependent) featureEncoder).setNumHashFunctions(kBase);
       } else {
-        bv.or(featureEncoder.encode(bvLength, feature));
+        featureEncoder.encode(bv, feature);
       }
 
     }
@@ -120,6 +125,11 @@ public class WeightedTokenBitVectorEncoder<P, F> implements AttributeEncoder<Str
     return out;
   }
 
+  @Override
+  public void setKeyContext(KeyContext keyContext) {
+    KeyContextAware.bind(featureEncoder, keyContext);
+  }
+
   @Override
   public String getId() {
     return id;
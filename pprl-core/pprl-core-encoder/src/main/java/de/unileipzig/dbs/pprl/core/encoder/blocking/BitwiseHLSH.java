@@ -0,0 +1,217 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.unileipzig.dbs.pprl.core.encoder.blocking;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import de.unileipzig.dbs.pprl.core.common.factories.BlockingKeyFactory;
+import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
+import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+import de.unileipzig.dbs.pprl.core.common.model.api.BlockingKey;
+import de.unileipzig.dbs.pprl.core.common.model.impl.PackedBitVector;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * HLSH based blocking on bit vector attributes that packs the sampled bits of each key into a long
+ * and uses its hexadecimal representation as blocking key value. The bit positions are the same as
+ * for {@link HLSH} with equal parameters, the first sampled position being the most significant bit.
+ * <p>
+ * With a probe radius r &gt; 0 (multi-probe LSH) the candidates of a record are looked up with all values that
+ * differ from the sampled value in at most r bits, see {@link #getQueryKeys(BlockingKey)}. Only the exact value
+ * is extracted and stored, so a lookup finds the records whose sampled bits differ in at most r positions.
+ * This reaches the same recall with fewer keys per field.
+ */
+public class BitwiseHLSH extends SingleAttributeBlocker {
+  public static final int PROBE_RADIUS_DEFAULT = 0;
+
+  private long seed = HLSH.SEED_DEFAULT;
+
+  /**
+   * Number of keys per field
+   */
+  private int lshKeys = HLSH.LSH_KEYS_DEFAULT;
+
+  /**
+   * Number of hash functions per field, at most 64
+   */
+  private int lshHashes = HLSH.LSH_HASHES_DEFAULT;
+
+  private int bfSize;
+
+  /**
+   * Maximum number of flipped bits of the probed neighbouring keys
+   */
+  private int probeRadius = PROBE_RADIUS_DEFAULT;
+
+  private volatile int[][] positions;
+
+  public BitwiseHLSH(String id, String attributeKey, int bfSize, long seed, int lshKeys, int lshHashes,
+    int probeRadius) {
+    super(id, attributeKey);
+    if (lshHashes > Long.SIZE) {
+      throw new RuntimeException("At most " + Long.SIZE + " hash functions per key are supported");
+    }
+    if (probeRadius < 0 || probeRadius > lshHashes) {
+      throw new RuntimeException("Probe radius has to be between 0 and " + lshHashes);
+    }
+    this.bfSize = bfSize;
+    this.seed = seed;
+    this.lshKeys = lshKeys;
+    this.lshHashes = lshHashes;
+    this.probeRadius = probeRadius;
+  }
+
+  public BitwiseHLSH(String id, String attributeKey, int bfSize, long seed, int lshKeys, int lshHashes) {
+    this(id, attributeKey, bfSize, seed, lshKeys, lshHashes, PROBE_RADIUS_DEFAULT);
+  }
+
+  private BitwiseHLSH() {
+  }
+
+  @Override
+  public Collection<BlockingKey> extract(Attribute attribute) {
+    if (!attribute.isType(BitVector.class)) {
+      throw new RuntimeException("Failed to extract blockingkeys from non-bitvector attribute");
+    }
+    final long[] words = toWords((BitVector) attribute.getObject());
+    final int[][] keyPositions = getPositions();
+    final Set<BlockingKey> blockingKeys = new HashSet<>();
+    for (int keyIdx = 0; keyIdx < keyPositions.length; keyIdx++) {
+      final long value = extractBits(words, keyPositions[keyIdx]);
+      blockingKeys.add(BlockingKeyFactory.getBlockingKey(id + "_" + keyIdx, Long.toHexString(value)));
+    }
+    return blockingKeys;
+  }
+
+  @Override
+  public Collection<BlockingKey> getQueryKeys(BlockingKey key) {
+    if (probeRadius == 0 || !key.getId().startsWith(id + "_")) {
+      return Collections.singleton(key);
+    }
+    final Set<BlockingKey> probes = new HashSet<>();
+    addProbes(probes, key.getId(), Long.parseUnsignedLong(key.getValue(), 16), 0, probeRadius);
+    return probes;
+  }
+
+  /**
+   * Get the sampled bits of one key. The bit at the first position becomes the most significant bit.
+   *
+   * @param words     packed bit vector
+   * @param positions sampled positions in ascending order
+   * @return sampled bits
+   */
+  static long extractBits(long[] words, int[] positions) {
+    long value = 0L;
+    for (int pos : positions) {
+      final int wordIdx = pos >>> 6;
+      final long bit = wordIdx < words.length ? (words[wordIdx] >>> pos) & 1L : 0L;
+      value = (value << 1) | bit;
+    }
+    return value;
+  }
+
+  /**
+   * Add the key of the value and of all values that differ in at most radius bits at or above
+   * the given bit index. Every combination of flipped bits is visited exactly once.
+   */
+  private void addProbes(Set<BlockingKey> blockingKeys, String keyId, long value, int fromBit, int radius) {
+    blockingKeys.add(BlockingKeyFactory.getBlockingKey(keyId, Long.toHexString(value)));
+    if (radius == 0) {
+      return;
+    }
+    for (int bit = fromBit; bit < lshHashes; bit++) {
+      addProbes(blockingKeys, keyId, value ^ (1L << bit), bit + 1, radius - 1);
+    }
+  }
+
+  private int[][] getPositions() {
+    int[][] current = positions;
+    if (current == null) {
+      final List<BitSet> masks = HLSH.createMasks(bfSize, seed, lshKeys, lshHashes);
+      current = new int[masks.size()][];
+      for (int keyIdx = 0; keyIdx < masks.size(); keyIdx++) {
+        current[keyIdx] = masks.get(keyIdx).stream().toArray();
+      }
+      positions = current;
+    }
+    return current;
+  }
+
+  private static long[] toWords(BitVector bv) {
+    if (bv instanceof PackedBitVector packed) {
+      return packed.getWords();
+    }
+    return bv.getBitSet().toLongArray();
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public int getLshKeys() {
+    return lshKeys;
+  }
+
+  public int getLshHashes() {
+    return lshHashes;
+  }
+
+  public int getBfSize() {
+    return bfSize;
+  }
+
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+  public int getProbeRadius() {
+    return probeRadius;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    BitwiseHLSH that = (BitwiseHLSH) o;
+
+    return new EqualsBuilder().append(seed, that.seed)
+      .append(lshKeys, that.lshKeys)
+      .append(lshHashes, that.lshHashes)
+      .append(bfSize, that.bfSize)
+      .append(probeRadius, that.probeRadius)
+      .isEquals();
+  }
+
+  @Override
+  public int hashCode() {
+    return new HashCodeBuilder(17, 37).append(seed)
+      .append(lshKeys)
+      .append(lshHashes)
+      .append(bfSize)
+      .append(probeRadius)
+      .toHashCode();
+  }
+}
@@ -21,10 +21,22 @@ import de.unileipzig.dbs.pprl.core.common.model.api.BlockingKey;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
 
 import java.util.Collection;
+import java.util.Collections;
 
 @JsonTypeInfo(use = JsonTypeInfo.Id.MINIMAL_CLASS, property = "@class")
 public interface BlockingKeyExtractor {
 
   Collection<BlockingKey> extract(Record record);
 
+  /**
+   * Get the keys to look up the candidates of a record with the given extracted key, e.g. the neighbouring keys
+   * of multi-probe LSH. Only the extracted keys are stored, the probes are only generated for lookups.
+   *
+   * @param key key extracted from the querying record
+   * @return keys to look up, by default only the key itself
+   */
+  default Collection<BlockingKey> getQueryKeys(BlockingKey key) {
+    return Collections.singleton(key);
+  }
+
 }
@@ -108,26 +108,42 @@ public class HLSH extends SingleAttributeBlocker {
   }
 
   private void initMasks() {
-    bitSetMasks = new ArrayList<>();
-    for (int keyIdx = 0; keyIdx < this.lshKeys; keyIdx++) {
+    bitSetMasks = createMasks(bfSize, seed, lshKeys, lshHashes);
+  }
+
+  /**
+   * Create the bit sampling masks, one per key.
+   *
+   * @param bfSize    size of the bloom filters
+   * @param seed      seed of the pseudorandom generators
+   * @param lshKeys   number of keys
+   * @param lshHashes number of bit positions per key
+   * @return list of masks
+   */
+  static List<BitSet> createMasks(int bfSize, long seed, int lshKeys, int lshHashes) {
+    final List<BitSet> masks = new ArrayList<>();
+    for (int keyIdx = 0; keyIdx < lshKeys; keyIdx++) {
       final BitSet bs = new BitSet(bfSize);
-      final Random rnd = new Random(this.seed * keyIdx);
-      fillBitSet(bs, rnd);
-      bitSetMasks.add(bs);
+      final Random rnd = new Random(seed * keyIdx);
+      fillBitSet(bs, rnd, bfSize, lshHashes);
+      masks.add(bs);
     }
+    return masks;
   }
 
   /**
    * Set the bit positions in the bitset mask for a specific field / bitset.
    *
-   * @param bs  The bitset mask to fill
-   * @param rnd The pseudorandom generator
+   * @param bs        The bitset mask to fill
+   * @param rnd       The pseudorandom generator
+   * @param bfSize    size of the bloom filters
+   * @param lshHashes number of bit positions to set
    */
-  private void fillBitSet(BitSet bs, Random rnd) {
-    for (int hashIdx = 0; hashIdx < this.lshHashes; hashIdx++) {
+  private static void fillBitSet(BitSet bs, Random rnd, int bfSize, int lshHashes) {
+    for (int hashIdx = 0; hashIdx < lshHashes; hashIdx++) {
       int bitIdx;
       do {
-        bitIdx = getNextAllowedBitPosition(rnd);
+        bitIdx = getNextAllowedBitPosition(rnd, bfSize);
       } while (bs.get(bitIdx));
       bs.set(bitIdx);
     }
@@ -136,20 +152,20 @@ public class HLSH extends SingleAttributeBlocker {
   /**
    * Get a new random bit position for a specific field / bitset.
    *
-   * @param rnd The pseudorandom generator
+   * @param rnd    The pseudorandom generator
+   * @param bfSize size of the bloom filters
    * @return The selected bit position
    */
-  private int getNextAllowedBitPosition(Random rnd) {
-    final int chosenBitSetSize = this.bfSize;
+  private static int getNextAllowedBitPosition(Random rnd, int bfSize) {
     int bitIdx;
     int count = 0;
     do {
-      bitIdx = rnd.nextInt(chosenBitSetSize);
+      bitIdx = rnd.nextInt(bfSize);
       if (count > 100) {
         break;
       }
       count++;
-    } while (this.isFrequentBitPosition(bitIdx));
+    } while (isFrequentBitPosition(bitIdx));
     return bitIdx;
   }
 
@@ -158,7 +174,7 @@ public class HLSH extends SingleAttributeBlocker {
    *
    * @param position The bit position to check
    */
-  private boolean isFrequentBitPosition(int position) {
+  private static boolean isFrequentBitPosition(int position) {
     return false;
   }
 
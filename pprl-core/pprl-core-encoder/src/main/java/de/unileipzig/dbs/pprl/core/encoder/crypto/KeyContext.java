@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.unileipzig.dbs.pprl.core.encoder.crypto;
+
+import de.unileipzig.dbs.pprl.core.common.MacCache;
+import de.unileipzig.dbs.pprl.core.encoder.KeyManager;
+
+import javax.crypto.SecretKey;
+import java.security.KeyStore;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Key material of a single project: its keystore and the secrets derived from it.
+ * Derived secrets are cached, so the key derivation runs once per key name, and so are the MACs
+ * initialized with them. Closing the context removes both caches.
+ * Encoder components obtain the context through {@link KeyContextAware} instead of
+ * the global {@link KeyManager} keystore, so encoders of different projects can run concurrently.
+ */
+public class KeyContext implements AutoCloseable {
+
+  private final KeyStore keyStore;
+
+  private final Map<String, SecretKey> derivedSecrets = new ConcurrentHashMap<>();
+
+  private final MacCache macCache = new MacCache();
+
+  public KeyContext(KeyStore keyStore) {
+    this.keyStore = keyStore;
+  }
+
+  public SecretKey getDerivedSecret(String keyName) {
+    return derivedSecrets.computeIfAbsent(keyName, k -> KeyManager.getDerivedSecret(keyStore, k));
+  }
+
+  public KeyStore getKeyStore() {
+    return keyStore;
+  }
+
+  public MacCache getMacCache() {
+    return macCache;
+  }
+
+  @Override
+  public void close() {
+    derivedSecrets.clear();
+    macCache.clear();
+  }
+
+  @Override
+  public String toString() {
+    return "KeyContext{" + "derivedSecrets=" + derivedSecrets.keySet() + '}';
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.unileipzig.dbs.pprl.core.encoder.crypto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Encoder component that uses project specific key material or contains such components.
+ * Containers pass the {@link KeyContext} on to their children.
+ */
+public interface KeyContextAware {
+
+  @JsonIgnore
+  void setKeyContext(KeyContext keyContext);
+
+  /**
+   * Passes the context to the component if it is {@link KeyContextAware}.
+   */
+  static void bind(Object component, KeyContext keyContext) {
+    if (component instanceof KeyContextAware keyContextAware) {
+      keyContextAware.setKeyContext(keyContext);
+    }
+  }
+}
@@ -32,7 +32,10 @@ public class SecretDerivation {
     return deriveSecret(passwordChars, saltBytes);
   }
 
-  public SecretKey deriveSecret(char[] password, byte[] salt) {
+  /**
+   * Synchronized, as {@link SecretKeyFactory} instances are not thread-safe.
+   */
+  public synchronized SecretKey deriveSecret(char[] password, byte[] salt) {
     KeySpec keySpec = new PBEKeySpec(password, salt, ITERATION_COUNT, KEY_LENGTH);
     SecretKey secretKey = null;
     try {
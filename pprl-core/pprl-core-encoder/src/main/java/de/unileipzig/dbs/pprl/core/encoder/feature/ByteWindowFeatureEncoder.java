@@ -0,0 +1,36 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.unileipzig.dbs.pprl.core.encoder.feature;
+
+import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+
+/**
+ * {@link FeatureEncoder} that can encode a feature given as window over a byte array
+ * (see {@link ByteWindowFeatureExtractor}). The bits set must be the same as for encoding
+ * the String feature whose bytes are contained in the window.
+ */
+public interface ByteWindowFeatureEncoder {
+
+  /**
+   * Encodes the feature directly into the given target.
+   *
+   * @param target bit vector to set the bits of the feature in
+   * @param bytes  byte array containing the feature
+   * @param offset start of the feature in the array
+   * @param length number of bytes of the feature
+   */
+  void encode(BitVector target, byte[] bytes, int offset, int length);
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.unileipzig.dbs.pprl.core.encoder.feature;
+
+/**
+ * {@link FeatureExtractor} that can describe its features as windows over the (UTF-8) bytes of the
+ * attribute value instead of creating a String per feature. Each window contains exactly the bytes
+ * of {@code feature.getBytes()} for the corresponding feature of {@link FeatureExtractor#extract(Object)}.
+ * Features may be reported more than once.
+ *
+ * @param <A> type of the attribute
+ */
+public interface ByteWindowFeatureExtractor<A> {
+
+  /**
+   * Reports the byte window of every feature of the attribute value to the consumer.
+   *
+   * @param attributeValue attribute value
+   * @param consumer       consumer of the feature windows
+   * @return false if the value cannot be split into byte windows (nothing has been reported then)
+   */
+  boolean extractWindows(A attributeValue, WindowConsumer consumer);
+
+  @FunctionalInterface
+  interface WindowConsumer {
+    void accept(byte[] bytes, int offset, int length);
+  }
+}
@@ -13,31 +13,51 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package de.unileipzig.dbs.pprl.core.encoder.feature;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import de.unileipzig.dbs.pprl.core.common.HashUtils;
 import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
 import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+import org.apache.commons.codec.digest.MurmurHash3;
+
+import java.nio.charset.StandardCharsets;
 
 /**
  * Convert a String into {@link BitVector} by hashing it multiple times
  * using the Double Hashing scheme.
  * In contrast to {@link RandomHashing} no salting is supported by this method.
+ * <p>
+ * The two base hashes are computed once per feature, all k positions are derived
+ * arithmetically from them as {@code |h0 + i * h1| mod m}.
  */
-public class DoubleHashing implements FeatureEncoder<String, BitVector>, NumHashFunctionsDependent {
+public class DoubleHashing implements FeatureEncoder<String, BitVector>, ByteWindowFeatureEncoder,
+  NumHashFunctionsDependent {
+
+  public static final String DEFAULT_ALGORITHM0 = "MD5";
+  public static final String DEFAULT_ALGORITHM1 = "SHA-256";
+  public static final boolean DEFAULT_FAST_HASHING = false;
+
   /**
    * Number of hash functions to apply on each feature which is (ignoring collusion) the number of bits
    * to be set to 1 in the {@link BitVector}
    */
   private int numHashFunctions;
 
-  private String algorithm0;
+  private String algorithm0 = DEFAULT_ALGORITHM0;
 
-  private String algorithm1;
+  private String algorithm1 = DEFAULT_ALGORITHM1;
+
+  /**
+   * Derive both base hashes from a single non-cryptographic MurmurHash3 (x64, 128 bit) value
+   * instead of {@link #algorithm0} and {@link #algorithm1}. Intended for benchmarking only:
+   * the resulting encodings are not compatible with the default ones and offer no
+   * resistance against dictionary attacks.
+   */
+  private boolean fastHashing = DEFAULT_FAST_HASHING;
 
   public DoubleHashing(int numHashFunctions) {
-    this(numHashFunctions, "MD5", "SHA-256");
+    this(numHashFunctions, DEFAULT_ALGORITHM0, DEFAULT_ALGORITHM1);
   }
 
   public DoubleHashing(int numHashFunctions, String algorithm0, String algorithm1) {
@@ -52,11 +72,35 @@ public class DoubleHashing implements FeatureEncoder<String, BitVector>, NumHash
   @Override
   public BitVector encode(int bvLength, String feature) {
     final BitVector bv = new BitSetVector(bvLength);
+    encode(bv, feature);
+    return bv;
+  }
+
+  @Override
+  public void encode(BitVector target, String feature) {
+    final byte[] bytes = fastHashing ? feature.getBytes(StandardCharsets.UTF_8) : feature.getBytes();
+    encode(target, bytes, 0, bytes.length);
+  }
+
+  @Override
+  public void encode(BitVector target, byte[] bytes, int offset, int length) {
+    final int bvLength = target.getLength();
+    final int hash0;
+    final int hash1;
+    if (fastHashing) {
+      final long[] hash = MurmurHash3.hash128x64(bytes, offset, length, 0);
+      hash0 = Math.abs((int) hash[0]);
+      hash1 = Math.abs((int) hash[1]);
+    } else {
+      hash0 = Math.abs(HashUtils.getHash(algorithm0, bytes, offset, length));
+      hash1 = Math.abs(HashUtils.getHash(algorithm1, bytes, offset, length));
+    }
+    // overflowing int addition yields the same value as hash0 + i * hash1
+    int combined = hash0;
     for (int i = 0; i < numHashFunctions; i++) {
-      final int position = hash(feature, i, bvLength, algorithm0, algorithm1);
-      bv.set(position);
+      target.set(Math.abs(combined) % bvLength);
+      combined += hash1;
     }
-    return bv;
   }
 
   public static int hash(String element, int hashNumber, int bvLength, String algorithm0, String algorithm1) {
@@ -79,6 +123,31 @@ public class DoubleHashing implements FeatureEncoder<String, BitVector>, NumHash
     this.numHashFunctions = numHashFunctions;
   }
 
+  public String getAlgorithm0() {
+    return algorithm0;
+  }
+
+  public void setAlgorithm0(String algorithm0) {
+    this.algorithm0 = algorithm0;
+  }
+
+  public String getAlgorithm1() {
+    return algorithm1;
+  }
+
+  public void setAlgorithm1(String algorithm1) {
+    this.algorithm1 = algorithm1;
+  }
+
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+  public boolean isFastHashing() {
+    return fastHashing;
+  }
+
+  public void setFastHashing(boolean fastHashing) {
+    this.fastHashing = fastHashing;
+  }
+
   @Override
   public String toString() {
     return "DoubleHashing{" + "numHashFunctions=" + numHashFunctions + '}';
@@ -28,7 +28,34 @@ import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
 @JsonTypeInfo(use = JsonTypeInfo.Id.MINIMAL_CLASS, property = "@class")
 public interface FeatureEncoder<I, O> {
 
-  //TODO Replace parameter bvLength with BitVector to prevent BitVector creation for each feature
   O encode(int bvLength, I feature);
 
+  /**
+   * Encodes the feature directly into the given target instead of creating a new {@link BitVector}
+   * per feature. Implementations should override this when they can set the bits in place.
+   *
+   * @param target  bit vector to set the bits of the feature in
+   * @param feature feature to encode
+   */
+  default void encode(BitVector target, I feature) {
+    final O encoded = encode(target.getLength(), feature);
+    if (!(encoded instanceof BitVector)) {
+      throw new UnsupportedOperationException(getClass().getSimpleName() + " does not produce a BitVector");
+    }
+    target.or((BitVector) encoded);
+  }
+
+  /**
+   * Encodes the feature into the given target using record specific key material.
+   * Passing the key per call keeps shared encoder instances free of per-record state.
+   * Encoders that do not use a key ignore it.
+   *
+   * @param target  bit vector to set the bits of the feature in
+   * @param feature feature to encode
+   * @param key     record specific key, may be null
+   */
+  default void encode(BitVector target, I feature, String key) {
+    encode(target, feature);
+  }
+
 }
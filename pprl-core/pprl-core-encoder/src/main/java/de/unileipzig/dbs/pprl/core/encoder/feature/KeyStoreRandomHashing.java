@@ -19,12 +19,16 @@ package de.unileipzig.dbs.pprl.core.encoder.feature;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import de.unileipzig.dbs.pprl.core.common.ByteUtils;
 import de.unileipzig.dbs.pprl.core.common.HashUtils;
+import de.unileipzig.dbs.pprl.core.common.MacCache;
 import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
 import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
 import de.unileipzig.dbs.pprl.core.encoder.KeyManager;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContext;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContextAware;
 import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyedEncoderComponent;
 
 import java.security.Key;
+import java.util.Arrays;
 import java.util.Random;
 
 /**
@@ -32,7 +36,8 @@ import java.util.Random;
  * using the Random Hashing scheme.
  * Salting is used to create different encodings for the same String.
  */
-public class KeyStoreRandomHashing implements FeatureEncoder<String, BitVector>, KeyedEncoderComponent, NumHashFunctionsDependent {
+public class KeyStoreRandomHashing implements FeatureEncoder<String, BitVector>, KeyedEncoderComponent,
+  KeyContextAware, NumHashFunctionsDependent {
 
   /**
    * Number of hash functions to apply on each feature which is (ignoring collusion) the number of bits
@@ -48,6 +53,18 @@ public class KeyStoreRandomHashing implements FeatureEncoder<String, BitVector>,
   @JsonIgnore
   private byte[] additionalSecret = new byte[0];
 
+  /**
+   * Concatenation of {@link #secret} and {@link #additionalSecret}, reset whenever the key changes
+   */
+  @JsonIgnore
+  private volatile byte[] combinedSecret = null;
+
+  /**
+   * Source of the derived secret, falls back to the global {@link KeyManager} keystore if not set
+   */
+  @JsonIgnore
+  private KeyContext keyContext = null;
+
   public KeyStoreRandomHashing(int numHashFunctions, String keyName) {
     this.numHashFunctions = numHashFunctions;
     this.keyName = keyName;
@@ -58,29 +75,70 @@ public class KeyStoreRandomHashing implements FeatureEncoder<String, BitVector>,
 
   @Override
   public BitVector encode(int bvLength, String feature) {
-    if (secret == null) {
-      initSecret();
-    }
-    byte[] currentSecret = ByteUtils.concatByteArrays(secret, additionalSecret);
     final BitVector bv = new BitSetVector(bvLength);
-    final Random r = HashUtils.getRandom(feature, currentSecret);
+    encode(bv, feature);
+    return bv;
+  }
+
+  @Override
+  public void encode(BitVector target, String feature) {
+    byte[] currentSecret = combinedSecret;
+    if (currentSecret == null) {
+      currentSecret = ByteUtils.concatByteArrays(getSecret(), additionalSecret);
+      combinedSecret = currentSecret;
+    }
+    encode(target, feature, currentSecret, getMacCache());
+  }
+
+  /**
+   * Secrets combined with a record specific key are used for a single record, so their MACs are not cached.
+   */
+  @Override
+  public void encode(BitVector target, String feature, String key) {
+    if (key == null) {
+      encode(target, feature, getSecret(), getMacCache());
+    } else {
+      encode(target, feature, ByteUtils.concatByteArrays(getSecret(), key.getBytes()), null);
+    }
+  }
+
+  private void encode(BitVector target, String feature, byte[] currentSecret, MacCache macs) {
+    final int bvLength = target.getLength();
+    final Random r = HashUtils.getRandom(feature, currentSecret, macs);
     for (int i = 0; i < numHashFunctions; i++) {
-      bv.set(r.nextInt(bvLength));
+      target.set(r.nextInt(bvLength));
     }
-    return bv;
   }
 
   @Override
   public void setKey(String key) {
-    if (key == null) {
-      this.additionalSecret = new byte[0];
-      return;
+    final byte[] newSecret = key == null ? new byte[0] : key.getBytes();
+    if (!Arrays.equals(newSecret, additionalSecret)) {
+      additionalSecret = newSecret;
+      combinedSecret = null;
+    }
+  }
+
+  private MacCache getMacCache() {
+    return keyContext == null ? null : keyContext.getMacCache();
+  }
+
+  private byte[] getSecret() {
+    if (secret == null) {
+      initSecret();
     }
-    additionalSecret = key.getBytes();
+    return secret;
+  }
+
+  @Override
+  public void setKeyContext(KeyContext keyContext) {
+    this.keyContext = keyContext;
+    this.secret = null;
+    this.combinedSecret = null;
   }
 
   private void initSecret() {
-    Key key = KeyManager.getDerivedSecret(keyName);
+    Key key = keyContext == null ? KeyManager.getDerivedSecret(keyName) : keyContext.getDerivedSecret(keyName);
     secret = key.getEncoded();
   }
 
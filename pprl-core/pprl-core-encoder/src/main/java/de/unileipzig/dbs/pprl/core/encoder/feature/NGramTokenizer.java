@@ -16,6 +16,8 @@
 
 package de.unileipzig.dbs.pprl.core.encoder.feature;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -24,8 +26,9 @@ import java.util.Set;
  *
  * @author mfranke
  */
-public class NGramTokenizer implements FeatureExtractor<String, String> {
+public class NGramTokenizer implements FeatureExtractor<String, String>, ByteWindowFeatureExtractor<String> {
   private static final String PADDING_CHARACTER = "#";
+  private static final boolean DEFAULT_CHARSET_UTF8 = StandardCharsets.UTF_8.equals(Charset.defaultCharset());
 
   private int nGram;
   private boolean usePadding;
@@ -61,28 +64,69 @@ public class NGramTokenizer implements FeatureExtractor<String, String> {
       attributeValue = this.padString(attributeValue);
     }
 
-    String token = "";
-    char[] chars = attributeValue.toCharArray();
-
-    for (int i = 0; i <= chars.length - this.nGram; i++) {
-      for (int j = i; j < i + this.nGram; j++) {
-        token = token + chars[j];
-      }
-      tokens.add(token);
-      token = "";
+    for (int i = 0; i <= attributeValue.length() - this.nGram; i++) {
+      tokens.add(attributeValue.substring(i, i + this.nGram));
     }
 
     return tokens;
   }
 
-  private String padString(String value) {
-    String result = value;
+  /**
+   * Reports the n-grams as windows over the UTF-8 bytes of the (padded) attribute value, so no String
+   * is created per n-gram. Values containing surrogate pairs are not supported since the bytes of a
+   * split pair differ from the bytes of the n-gram String.
+   */
+  @Override
+  public boolean extractWindows(String attributeValue, WindowConsumer consumer) {
+    if (!DEFAULT_CHARSET_UTF8) {
+      return false;
+    }
+    if (attributeValue.isEmpty()) {
+      return true;
+    }
+    if (this.usePadding) {
+      attributeValue = this.padString(attributeValue);
+    }
 
-    for (int i = 1; i < this.nGram; i++) {
-      result = paddingCharacter + result + paddingCharacter;
+    final int numChars = attributeValue.length();
+    final byte[] bytes = attributeValue.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length == numChars) {
+      for (int i = 0; i <= numChars - this.nGram; i++) {
+        consumer.accept(bytes, i, this.nGram);
+      }
+      return true;
+    }
+
+    final int[] offsets = byteOffsets(attributeValue);
+    if (offsets == null) {
+      return false;
+    }
+    for (int i = 0; i <= numChars - this.nGram; i++) {
+      consumer.accept(bytes, offsets[i], offsets[i + this.nGram] - offsets[i]);
+    }
+    return true;
+  }
+
+  /**
+   * Calculates the UTF-8 byte offset of every char of the value.
+   *
+   * @return offsets (with the total byte length as last element) or null if the value contains surrogates
+   */
+  private static int[] byteOffsets(String value) {
+    final int[] offsets = new int[value.length() + 1];
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (Character.isSurrogate(c)) {
+        return null;
+      }
+      offsets[i + 1] = offsets[i] + (c < 0x80 ? 1 : c < 0x800 ? 2 : 3);
     }
+    return offsets;
+  }
 
-    return result;
+  private String padString(String value) {
+    final String padding = paddingCharacter.repeat(this.nGram - 1);
+    return padding + value + padding;
   }
 
   public int getnGram() {
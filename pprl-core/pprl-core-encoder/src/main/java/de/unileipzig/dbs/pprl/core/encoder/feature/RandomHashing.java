@@ -47,12 +47,18 @@ public class RandomHashing implements FeatureEncoder<String, BitVector>, NumHash
   @Override
   public BitVector encode(int bvLength, String feature) {
     final BitVector bv = new BitSetVector(bvLength);
+    encode(bv, feature);
+    return bv;
+  }
+
+  @Override
+  public void encode(BitVector target, String feature) {
+    final int bvLength = target.getLength();
     final Random r = HashUtils.getRandom(feature, salt);
 
     for (int i = 0; i < numHashFunctions; i++) {
-      bv.set(r.nextInt(bvLength));
+      target.set(r.nextInt(bvLength));
     }
-    return bv;
   }
 
   @Override
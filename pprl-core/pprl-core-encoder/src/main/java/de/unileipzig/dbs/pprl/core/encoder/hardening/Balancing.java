@@ -35,6 +35,8 @@ public class Balancing implements BitVectorHardener {
    */
   private long seed;
 
+  private transient volatile BitPermutation permutation;
+
   public Balancing(long seed) {
     this.seed = seed;
   }
@@ -45,14 +47,9 @@ public class Balancing implements BitVectorHardener {
   @Override
   public BitVector harden(BitVector original) {
     int len = original.getLength();
-    BitSet bsOrig = original.getBitSet();
-    BitVector result = new BitSetVector(2 * len);
-    for (int i = 0; i < original.getLength(); i++) {
-      result.set(i, bsOrig.get(i));
-      result.set(i + len, !bsOrig.get(i));
-    }
-    permute(result);
-    return result;
+    long[] balanced = complementAndConcat(BitPermutation.toWords(original), len);
+    long[] permuted = getPermutation(2 * len).apply(balanced);
+    return BitSetVector.fromBitSet(BitSet.valueOf(permuted), 2 * len);
   }
 
   public long getSeed() {
@@ -60,19 +57,45 @@ public class Balancing implements BitVectorHardener {
   }
 
   /**
-   * Permute the bitvector using the Fisher–Yates shuffle algorithm
+   * Append the complement of the first len bits to the bits themselves, word by word.
+   *
+   * @param words packed bits of the original bitvector
+   * @param len   length of the original bitvector
+   * @return packed bits of length 2 * len
+   */
+  static long[] complementAndConcat(long[] words, int len) {
+    int wordCount = BitPermutation.wordCount(len);
+    int shift = len & 63;
+    int base = len >>> 6;
+    long lastMask = shift == 0 ? -1L : -1L >>> (64 - shift);
+    long[] result = new long[BitPermutation.wordCount(2 * len)];
+    for (int w = 0; w < wordCount; w++) {
+      long word = w < words.length ? words[w] : 0L;
+      long mask = w == wordCount - 1 ? lastMask : -1L;
+      result[w] |= word & mask;
+      long complement = ~word & mask;
+      result[base + w] |= complement << shift;
+      if (shift != 0 && base + w + 1 < result.length) {
+        result[base + w + 1] |= complement >>> (64 - shift);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Get the permutation for the given length. It only depends on the seed and is therefore computed
+   * once and reused as long as the length does not change.
    *
-   * @param bv bitvector to permute
+   * @param length length of the balanced bitvector
+   * @return bit permutation
    */
-  private void permute(BitVector bv) {
-    Random r = new Random(seed);
-    for (int i = bv.getLength() - 1; i > 0; i--) {
-      int index = r.nextInt(i);
-      BitSet bs = bv.getBitSet();
-      boolean tmp = bs.get(index);
-      bv.set(index, bs.get(i));
-      bv.set(i, tmp);
+  private BitPermutation getPermutation(int length) {
+    BitPermutation current = permutation;
+    if (current == null || current.getLength() != length) {
+      current = BitPermutation.ofSwaps(length, new Random(seed));
+      permutation = current;
     }
+    return current;
   }
 
   @Override
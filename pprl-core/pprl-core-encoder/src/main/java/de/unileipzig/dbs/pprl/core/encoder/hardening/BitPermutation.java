@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.unileipzig.dbs.pprl.core.encoder.hardening;
+
+import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+import de.unileipzig.dbs.pprl.core.common.model.impl.PackedBitVector;
+
+import java.util.Random;
+
+/**
+ * Precomputed permutation of bit positions that is applied to packed {@code long[]} words.
+ * Only the set bits of the input are visited, each of them is moved to its target position
+ * with a single table lookup instead of swapping bits one by one.
+ */
+final class BitPermutation {
+  private static final int ADDRESS_BITS_PER_WORD = 6;
+
+  /**
+   * target[i] is the position bit i of the input is moved to
+   */
+  private final int[] target;
+
+  private BitPermutation(int[] source) {
+    this.target = new int[source.length];
+    for (int pos = 0; pos < source.length; pos++) {
+      target[source[pos]] = pos;
+    }
+  }
+
+  /**
+   * Create the permutation produced by {@link java.util.Collections#shuffle(java.util.List, Random)}
+   * on a list of the given length.
+   *
+   * @param length number of bits
+   * @param random random generator used for the shuffle
+   * @return bit permutation
+   */
+  static BitPermutation ofShuffle(int length, Random random) {
+    int[] source = identity(length);
+    for (int i = length; i > 1; i--) {
+      swap(source, i - 1, random.nextInt(i));
+    }
+    return new BitPermutation(source);
+  }
+
+  /**
+   * Create the permutation that swaps position i with a random position in [0, i) for i from
+   * length - 1 down to 1.
+   *
+   * @param length number of bits
+   * @param random random generator used for the swaps
+   * @return bit permutation
+   */
+  static BitPermutation ofSwaps(int length, Random random) {
+    int[] source = identity(length);
+    for (int i = length - 1; i > 0; i--) {
+      swap(source, random.nextInt(i), i);
+    }
+    return new BitPermutation(source);
+  }
+
+  int getLength() {
+    return target.length;
+  }
+
+  /**
+   * Permute the given words. Bits at positions greater or equal to the permutation length are ignored.
+   *
+   * @param words packed bits, bit i is stored in word i / 64 at position i % 64
+   * @return permuted words
+   */
+  long[] apply(long[] words) {
+    int length = target.length;
+    long[] result = new long[wordCount(length)];
+    int wordLimit = Math.min(words.length, result.length);
+    for (int w = 0; w < wordLimit; w++) {
+      long word = words[w];
+      int offset = w << ADDRESS_BITS_PER_WORD;
+      while (word != 0) {
+        int bit = offset + Long.numberOfTrailingZeros(word);
+        if (bit >= length) {
+          break;
+        }
+        int pos = target[bit];
+        result[pos >>> ADDRESS_BITS_PER_WORD] |= 1L << pos;
+        word &= word - 1;
+      }
+    }
+    return result;
+  }
+
+  static long[] toWords(BitVector bv) {
+    if (bv instanceof PackedBitVector packed) {
+      return packed.getWords();
+    }
+    return bv.getBitSet().toLongArray();
+  }
+
+  static int wordCount(int length) {
+    return (length + (1 << ADDRESS_BITS_PER_WORD) - 1) >>> ADDRESS_BITS_PER_WORD;
+  }
+
+  private static int[] identity(int length) {
+    int[] positions = new int[length];
+    for (int i = 0; i < length; i++) {
+      positions[i] = i;
+    }
+    return positions;
+  }
+
+  private static void swap(int[] positions, int i, int j) {
+    int tmp = positions[i];
+    positions[i] = positions[j];
+    positions[j] = tmp;
+  }
+}
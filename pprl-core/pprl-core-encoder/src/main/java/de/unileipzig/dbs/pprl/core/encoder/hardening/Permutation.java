@@ -1,46 +1,58 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
 package de.unileipzig.dbs.pprl.core.encoder.hardening;
 
 import de.unileipzig.dbs.pprl.core.common.HashUtils;
 import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
 import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
 
-import java.util.ArrayList;
 import java.util.BitSet;
-import java.util.Collections;
-import java.util.List;
 
+/**
+ * Harden a {@link BitVector} by permuting its bits
+ * in an order derived from a record specific key
+ */
 public class Permutation implements KeyedHardener<BitVector> {
 
+  /**
+   * The key is specific to each record, so the permutation table is derived for every call.
+   */
   @Override
   public BitVector harden(BitVector original, String key) {
     return permuteBitVector(original, key);
   }
 
+  /**
+   * Permute the bits of the given bitvector. The order is the same as shuffling the list of bits
+   * with a random generator seeded by the key.
+   *
+   * @param original bitvector
+   * @param key      permutation key
+   * @return permuted bitvector
+   */
   public static BitVector permuteBitVector(BitVector original, String key) {
-    BitSet bitSet = original.getBitSet();
-    int bvLength = original.getLength();
-
-    final List<Boolean> bits = toBitList(bitSet, bvLength);
-    Collections.shuffle(bits, HashUtils.getRandom(key, key));
-    BitSet newBitSet = toBitSet(bits, bvLength);
-    return BitSetVector.fromBitSet(newBitSet, bvLength);
+    return permute(original, createTable(key, original.getLength()));
   }
 
-  private static List<Boolean> toBitList(BitSet bitSet, int bvLength) {
-    final ArrayList<Boolean> bits = new ArrayList<>();
-    for (int i = 0; i < bvLength; i++) {
-      bits.add(bitSet.get(i));
-    }
-    return bits;
+  private static BitPermutation createTable(String key, int bvLength) {
+    return BitPermutation.ofShuffle(bvLength, HashUtils.getRandom(key, key));
   }
 
-  private static BitSet toBitSet(List<Boolean> bits, int bvLength) {
-    BitSet newBitSet = new BitSet(bvLength);
-    for (int i = 0; i < bvLength; i++) {
-      if (bits.get(i)) {
-        newBitSet.set(i);
-      }
-    }
-    return newBitSet;
+  private static BitVector permute(BitVector original, BitPermutation table) {
+    long[] permuted = table.apply(BitPermutation.toWords(original));
+    return BitSetVector.fromBitSet(BitSet.valueOf(permuted), table.getLength());
   }
 }
@@ -16,6 +16,7 @@
 
 package de.unileipzig.dbs.pprl.core.encoder.record;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import de.unileipzig.dbs.pprl.core.common.factories.RecordFactory;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
@@ -24,33 +25,63 @@ import de.unileipzig.dbs.pprl.core.common.monitoring.TagProvider;
 import de.unileipzig.dbs.pprl.core.common.monitoring.TagTable;
 import de.unileipzig.dbs.pprl.core.encoder.attribute.AttributeEncoderGroup;
 import de.unileipzig.dbs.pprl.core.encoder.blocking.BlockingKeyExtractor;
-import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyExtractor;
-import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyedEncoderComponent;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContext;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContextAware;
 import de.unileipzig.dbs.pprl.core.encoder.model.NamedAttribute;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
-public class DefaultRecordEncoder implements RecordEncoder, TagProvider {
+/**
+ * Encodes records with a set of {@link AttributeEncoderGroup}s.
+ * The record key is resolved per record by the groups, so a single instance can encode records concurrently.
+ */
+public class DefaultRecordEncoder implements RecordEncoder, TagProvider, KeyContextAware {
+
+  public static final int DEFAULT_PARALLELISM = 1;
 
   protected final Set<AttributeEncoderGroup> encoderGroups = new HashSet<>();
   protected final Set<BlockingKeyExtractor> blockingKeyExtractors = new HashSet<>();
 
-  private TagTable tagTable = new TagTable();
+  private final TagTable tagTable = new TagTable();
+
+  /**
+   * Number of threads used by {@link #encode(Collection)}.
+   * 1 encodes the records sequentially, values smaller than 1 use all available processors.
+   */
+  private int parallelism = DEFAULT_PARALLELISM;
 
   @Override
   public Record encode(Record record) {
+    TagTable recordTags = new TagTable();
+    Record encodedRecord = encode(record, recordTags);
+    appendTags(recordTags);
+    return encodedRecord;
+  }
+
+  /**
+   * Encodes the record and collects the tags of the encoding in the given table.
+   *
+   * @param record     plaintext record
+   * @param recordTags tag table of this record only
+   * @return the encoded record
+   */
+  protected Record encode(Record record, TagTable recordTags) {
     RecordWithTags workingRecord = new RecordWithTags(
-      RecordFactory.getRecordDuplicate(RecordFactory.RecordVariant.DEFAULT, record)
+      RecordFactory.getRecordDuplicate(RecordFactory.RecordVariant.DEFAULT, record),
+      recordTags
     );
     //TODO Add Record-based preprocessor
     Record encodedRecord = RecordFactory.getEmptyRecord(workingRecord.getId());
 
     for (AttributeEncoderGroup aeg : encoderGroups) {
-      if (aeg instanceof KeyedEncoderComponent) {
-        ((KeyedEncoderComponent) aeg).setKey(KeyExtractor.extractKey(record).orElse(null));
-      }
       List<NamedAttribute> encodedAttributes = aeg.encode(workingRecord);
       for (NamedAttribute encodedAttribute : encodedAttributes) {
         encodedRecord.setAttribute(encodedAttribute.getId(), encodedAttribute.getAttribute());
@@ -61,17 +92,64 @@ public class DefaultRecordEncoder implements RecordEncoder, TagProvider {
 //      Collection<BlockingKey> bkvs = bk.extract(workingRecord);
 //      bkvs.forEach(encodedRecord::addBlockingKey);
 //    }
-    tagTable.append(workingRecord.getTagTable());
     return encodedRecord;
   }
 
+  /**
+   * Encodes the records on a dedicated fork-join pool with {@link #getParallelism()} threads. The result and the
+   * collected tags are in the order of the input, so they are identical to those of sequential encoding.
+   */
+  @Override
+  public Collection<Record> encode(Collection<Record> records) {
+    final int threads = parallelism < 1 ? Runtime.getRuntime().availableProcessors() : parallelism;
+    if (threads == 1 || records.size() < 2) {
+      return RecordEncoder.super.encode(records);
+    }
+    final List<Record> input = new ArrayList<>(records);
+    final Record[] encodedRecords = new Record[input.size()];
+    final TagTable[] recordTags = new TagTable[input.size()];
+
+    final ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      pool.submit(() -> IntStream.range(0, input.size()).parallel().forEach(i -> {
+        recordTags[i] = new TagTable();
+        encodedRecords[i] = encode(input.get(i), recordTags[i]);
+      })).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while encoding records", e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to encode records", e.getCause());
+    } finally {
+      pool.shutdown();
+    }
+
+    for (TagTable tags : recordTags) {
+      appendTags(tags);
+    }
+    return Arrays.asList(encodedRecords);
+  }
+
+  @Override
+  public void setKeyContext(KeyContext keyContext) {
+    encoderGroups.forEach(aeg -> KeyContextAware.bind(aeg, keyContext));
+  }
+
+  private void appendTags(TagTable recordTags) {
+    synchronized (tagTable) {
+      tagTable.append(recordTags);
+    }
+  }
+
   @Override
   public TagTable provideTagTable() {
     return tagTable;
   }
 
   public void clearTags() {
-    tagTable.clear();
+    synchronized (tagTable) {
+      tagTable.clear();
+    }
   }
 
   public DefaultRecordEncoder addAttributeEncoderGroup(AttributeEncoderGroup attributeEncoderGroup) {
@@ -93,6 +171,15 @@ public class DefaultRecordEncoder implements RecordEncoder, TagProvider {
     return blockingKeyExtractors;
   }
 
+  @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
   @Override
   public String toString() {
     return "DefaultRecordEncoder{" + "encoderGroups=" + encoderGroups + ", blockingKeyExtractors=" +
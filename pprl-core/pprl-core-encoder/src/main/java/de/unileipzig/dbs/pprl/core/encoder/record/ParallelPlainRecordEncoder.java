@@ -17,6 +17,7 @@
 package de.unileipzig.dbs.pprl.core.encoder.record;
 
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.monitoring.TagTable;
 import de.unileipzig.dbs.pprl.core.common.preprocessing.DateSplitter;
 import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyExtractor;
 
@@ -25,8 +26,8 @@ public class ParallelPlainRecordEncoder extends DefaultRecordEncoder {
   public static final String SUFFIX_PLAIN_RECORD = "_DEV";
 
   @Override
-  public Record encode(Record record) {
-    Record encodedRecord = super.encode(record);
+  protected Record encode(Record record, TagTable recordTags) {
+    Record encodedRecord = super.encode(record, recordTags);
     DateSplitter dateSplitter = new DateSplitter(true);
     Record preprocessedPlain = dateSplitter.preprocess(record);
     preprocessedPlain.getAttributes().forEach(
@@ -5,15 +5,21 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.unileipzig.dbs.pprl.core.common.exceptions.PprlException;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContext;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContextAware;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static de.unileipzig.dbs.pprl.core.common.HelperUtils.computeJsonDiff;
 import static de.unileipzig.dbs.pprl.core.encoder.RecordEncoderSerialization.serializeJson;
 
-public class SourceSpecificEncoder implements RecordEncoder {
+public class SourceSpecificEncoder implements RecordEncoder, KeyContextAware {
 
   private Map<String, RecordEncoder> encoders;
 
@@ -34,6 +40,39 @@ public class SourceSpecificEncoder implements RecordEncoder {
     return encoder.encode(record);
   }
 
+  /**
+   * Hands the records of each source to the {@link RecordEncoder#encode(Collection)} of its encoder
+   * and restores the input order afterwards.
+   */
+  @Override
+  public Collection<Record> encode(Collection<Record> records) {
+    final List<Record> input = new ArrayList<>(records);
+    final Map<String, List<Integer>> positionsBySource = new LinkedHashMap<>();
+    for (int i = 0; i < input.size(); i++) {
+      positionsBySource.computeIfAbsent(input.get(i).getId().getSourceId(), k -> new ArrayList<>()).add(i);
+    }
+    final Record[] encodedRecords = new Record[input.size()];
+    positionsBySource.forEach((sourceId, positions) -> {
+      RecordEncoder encoder = encoders.get(sourceId);
+      if (encoder == null) {
+        throw new PprlException("Could not find encoder for source " + sourceId);
+      }
+      List<Record> sourceRecords = positions.stream()
+        .map(input::get)
+        .collect(Collectors.toList());
+      List<Record> encodedSourceRecords = new ArrayList<>(encoder.encode(sourceRecords));
+      for (int i = 0; i < positions.size(); i++) {
+        encodedRecords[positions.get(i)] = encodedSourceRecords.get(i);
+      }
+    });
+    return Arrays.asList(encodedRecords);
+  }
+
+  @Override
+  public void setKeyContext(KeyContext keyContext) {
+    encoders.values().forEach(e -> KeyContextAware.bind(e, keyContext));
+  }
+
   public Map<String, RecordEncoder> getEncoders() {
     return encoders;
   }
@@ -19,6 +19,7 @@ package de.unileipzig.dbs.pprl.core.encoder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
 import de.unileipzig.dbs.pprl.core.encoder.blocking.BlockingKeyExtractor;
+import de.unileipzig.dbs.pprl.core.encoder.blocking.BitwiseHLSH;
 import de.unileipzig.dbs.pprl.core.encoder.blocking.ColognePhonetic;
 import de.unileipzig.dbs.pprl.core.encoder.blocking.Equality;
 import de.unileipzig.dbs.pprl.core.encoder.blocking.EqualityMulti;
@@ -73,6 +74,7 @@ class RecordEncoderSerializationTest extends TestBase {
     bkes.add(new Equality("eq", "FIRSTNAME"));
     bkes.add(new EqualityMulti("eqM", "FIRSTNAME", "LASTNAME"));
     bkes.add(new HLSH("hslh", "FIRSTNAME", 512, 1357L, 7, 23));
+    bkes.add(new BitwiseHLSH("bhslh", "FIRSTNAME", 512, 1357L, 4, 20, 1));
     bkes.add(new Soundex("soundex", "FIRSTNAME"));
     bkes.add(new ColognePhonetic("soundex", "FIRSTNAME"));
 
@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.encoder.attribute;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AttributeFrequencyEncoderGroupTest {
+
+  @Test
+  void formatShareAtBoundaries() {
+    double[] values = {0d, 1d, 0.5, 0.0005, 0.0015, 0.0025, 0.0035, 0.1235, 0.1245, 0.9994, 0.9995, 0.9999,
+      0.001, 0.999, 1e-9, 0.12345, Double.MIN_VALUE};
+    for (double value : values) {
+      assertFormattedLikeStringFormat(value);
+    }
+  }
+
+  @Test
+  void formatShareOfRatios() {
+    for (int total = 1; total <= 1000; total++) {
+      for (int count = 0; count <= total; count++) {
+        assertFormattedLikeStringFormat((double) count / total);
+      }
+    }
+  }
+
+  @Test
+  void formatShareOfRandomValues() {
+    Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      assertFormattedLikeStringFormat(random.nextDouble());
+      // values with exactly four decimal places are the most likely to hit a rounding boundary
+      assertFormattedLikeStringFormat(random.nextInt(10001) / 10000d);
+    }
+  }
+
+  @Test
+  void formatShareOfNonFiniteValues() {
+    assertFormattedLikeStringFormat(Double.NaN);
+    assertFormattedLikeStringFormat(Double.POSITIVE_INFINITY);
+  }
+
+  private static void assertFormattedLikeStringFormat(double value) {
+    assertEquals(String.format(Locale.US, "%.3f", value), AttributeFrequencyEncoderGroup.formatShare(value),
+      "value " + value);
+  }
+}
@@ -19,6 +19,7 @@ package de.unileipzig.dbs.pprl.core.encoder.attribute;
 import de.unileipzig.dbs.pprl.core.common.factories.AttributeFactory;
 import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
 import de.unileipzig.dbs.pprl.core.encoder.feature.DateTokenizer;
 import de.unileipzig.dbs.pprl.core.encoder.feature.DoubleHashing;
 import de.unileipzig.dbs.pprl.core.encoder.feature.FeatureEncoder;
@@ -47,4 +48,20 @@ class BitVectorEncoderTest {
     assertEquals(128, bv1.getLength());
     assertEquals(128, bv2.getLength());
   }
-}
\ No newline at end of file
+
+  @Test
+  void encodeMatchesFeatureWiseEncoding() {
+    for (boolean fastHashing : new boolean[]{false, true}) {
+      NGramTokenizer tokenizer = new NGramTokenizer(2, true);
+      DoubleHashing featureEncoder = new DoubleHashing(10);
+      featureEncoder.setFastHashing(fastHashing);
+      AttributeEncoder<String, BitVector> attributeEncoder = new BitVectorEncoder<>("id1", tokenizer,
+        featureEncoder, 500);
+      for (String value : new String[]{"", "a", "peter", "Müller-Lüdenscheidt", "日本語", "a\uD83D\uDE00b"}) {
+        BitVector expected = new BitSetVector(500);
+        tokenizer.extract(value).forEach(feature -> featureEncoder.encode(expected, feature));
+        assertEquals(expected, attributeEncoder.encode(AttributeFactory.getAttribute(value)));
+      }
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.encoder.blocking;
+
+import de.unileipzig.dbs.pprl.core.common.BitSetUtils;
+import de.unileipzig.dbs.pprl.core.common.factories.AttributeFactory;
+import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
+import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+import de.unileipzig.dbs.pprl.core.common.model.api.BlockingKey;
+import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitwiseHLSHTest {
+
+  @Test
+  void extractMatchesHLSH() {
+    int length = 500;
+    BitSet bs = BitSetUtils.generateRandomBitSet(length, length / 3);
+    Attribute attr = AttributeFactory.getAttribute(new BitSetVector(length, bs));
+
+    Set<String> expected = new HLSH("lsh", "vorname", length, 1357, 7, 64).extract(attr).stream()
+      .map(key -> key.getId() + "=" + Long.toHexString(Long.parseUnsignedLong(key.getValue(), 2)))
+      .collect(Collectors.toSet());
+    Set<String> actual = new BitwiseHLSH("lsh", "vorname", length, 1357, 7, 64).extract(attr).stream()
+      .map(key -> key.getId() + "=" + key.getValue())
+      .collect(Collectors.toSet());
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  void queryKeysWithProbes() {
+    int length = 256;
+    BitVector bv = new BitSetVector(length, BitSetUtils.generateRandomBitSet(length, length / 4));
+    BitVector bvDiff = new BitSetVector(length, bv.getBitSet());
+    bvDiff.set(bv.getBitSet().nextSetBit(0), false);
+    bvDiff.set(bv.getBitSet().nextClearBit(0), true);
+    Attribute attr = AttributeFactory.getAttribute(bv);
+
+    BitwiseHLSH blocker = new BitwiseHLSH("lsh", "vorname", length, 1357, 5, 12, 2);
+    Collection<BlockingKey> keys = blocker.extract(attr);
+    // Only the exact key per table is extracted
+    assertEquals(5, keys.size());
+    Set<String> probedKeys = new HashSet<>();
+    for (BlockingKey key : keys) {
+      Collection<BlockingKey> queryKeys = blocker.getQueryKeys(key);
+      // 1 + 12 + 66 keys per table
+      assertEquals(79, queryKeys.size());
+      assertTrue(queryKeys.contains(key));
+      queryKeys.stream().map(BlockingKey::getKey).forEach(probedKeys::add);
+    }
+
+    Set<String> exactKeys = blocker.extract(AttributeFactory.getAttribute(bvDiff)).stream()
+      .map(BlockingKey::getKey)
+      .collect(Collectors.toSet());
+    assertTrue(probedKeys.containsAll(exactKeys));
+  }
+}
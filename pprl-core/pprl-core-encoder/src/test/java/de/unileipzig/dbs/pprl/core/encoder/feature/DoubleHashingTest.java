@@ -17,26 +17,69 @@
 package de.unileipzig.dbs.pprl.core.encoder.feature;
 
 import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class DoubleHashingTest {
 
+  private static final List<String> FEATURES = Arrays.asList("ab", "bc", "cd", "de", "_m", "er", "r_");
+
   @Test
   void encode() {
-    List<String> features = Arrays.asList("ab", "bc", "cd", "de");
-
     FeatureEncoder<String, BitVector> featureEncoder1 = new DoubleHashing(4);
     FeatureEncoder<String, BitVector> featureEncoder2 = new DoubleHashing(10);
-    for (String feature : features) {
+    for (String feature : FEATURES) {
       BitVector bv1 = featureEncoder1.encode(64, feature);
       assertTrue(bv1.getCardinality() < featureEncoder2.encode(64, feature)
         .getCardinality());
     }
   }
 
-}
\ No newline at end of file
+  @Test
+  void encodeMatchesPerPositionHash() {
+    int k = 20;
+    int bvLength = 1000;
+    DoubleHashing doubleHashing = new DoubleHashing(k);
+    for (String feature : FEATURES) {
+      BitVector expected = new BitSetVector(bvLength);
+      for (int i = 0; i < k; i++) {
+        expected.set(DoubleHashing.hash(feature, i, bvLength, DoubleHashing.DEFAULT_ALGORITHM0,
+          DoubleHashing.DEFAULT_ALGORITHM1));
+      }
+      assertEquals(expected.getBitString(), doubleHashing.encode(bvLength, feature).getBitString());
+    }
+  }
+
+  @Test
+  void encodeIntoTarget() {
+    DoubleHashing doubleHashing = new DoubleHashing(10);
+    BitVector expected = new BitSetVector(256);
+    BitVector target = new BitSetVector(256);
+    for (String feature : FEATURES) {
+      expected.or(doubleHashing.encode(256, feature));
+      doubleHashing.encode(target, feature);
+    }
+    assertEquals(expected.getBitString(), target.getBitString());
+  }
+
+  @Test
+  void fastHashing() {
+    DoubleHashing doubleHashing = new DoubleHashing(10);
+    DoubleHashing fastHashing = new DoubleHashing(10);
+    fastHashing.setFastHashing(true);
+    for (String feature : FEATURES) {
+      BitVector bv = fastHashing.encode(1024, feature);
+      assertTrue(bv.getCardinality() > 0 && bv.getCardinality() <= 10);
+      assertEquals(bv.getBitString(), fastHashing.encode(1024, feature).getBitString());
+      assertNotEquals(doubleHashing.encode(1024, feature).getBitString(), bv.getBitString());
+    }
+  }
+
+}
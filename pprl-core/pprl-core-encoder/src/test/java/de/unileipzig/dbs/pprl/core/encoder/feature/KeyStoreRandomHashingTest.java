@@ -1,10 +1,13 @@
 package de.unileipzig.dbs.pprl.core.encoder.feature;
 
 import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
 import de.unileipzig.dbs.pprl.core.encoder.KeyManager;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyContext;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.security.KeyStore;
 import java.util.Arrays;
 import java.util.List;
 
@@ -53,6 +56,64 @@ class KeyStoreRandomHashingTest {
     }
   }
 
+  @Test
+  void encodeWithKeyPerCall() {
+    prepareKeyStore();
+
+    List<String> features = Arrays.asList("ab", "bc", "cd", "de");
+    KeyStoreRandomHashing encoder1 = new KeyStoreRandomHashing(16, KEYNAME1);
+    encoder1.setKey("RECORD-SPECIFIC-KEY_1");
+    KeyStoreRandomHashing encoder2 = new KeyStoreRandomHashing(16, KEYNAME1);
+    KeyStoreRandomHashing encoder3 = new KeyStoreRandomHashing(16, KEYNAME1);
+
+    for (String feature : features) {
+      BitVector bv2 = new BitSetVector(64);
+      encoder2.encode(bv2, feature, "RECORD-SPECIFIC-KEY_1");
+      BitVector bv3 = new BitSetVector(64);
+      encoder2.encode(bv3, feature, null);
+      Assertions.assertEquals(encoder1.encode(64, feature).getBitSet(), bv2.getBitSet());
+      Assertions.assertEquals(encoder3.encode(64, feature).getBitSet(), bv3.getBitSet());
+    }
+  }
+
+  @Test
+  void encodeWithKeyContext() {
+    prepareKeyStore();
+    KeyStore keyStore1 = KeyManager.initEmptyKeyStore();
+    KeyManager.addSecret(keyStore1, KeyManager.BASE_KEY_NAME, BASEKEY, KeyManager.SECRET_PWD_ARRAY);
+    KeyStore keyStore2 = KeyManager.initEmptyKeyStore();
+    KeyManager.addSecret(keyStore2, KeyManager.BASE_KEY_NAME, "other-base-secret".getBytes(),
+      KeyManager.SECRET_PWD_ARRAY);
+
+    List<String> features = Arrays.asList("ab", "bc", "cd", "de");
+    KeyStoreRandomHashing globalEncoder = new KeyStoreRandomHashing(16, KEYNAME1);
+    KeyStoreRandomHashing encoder1 = new KeyStoreRandomHashing(16, KEYNAME1);
+    encoder1.setKeyContext(new KeyContext(keyStore1));
+    KeyStoreRandomHashing encoder2 = new KeyStoreRandomHashing(16, KEYNAME1);
+    encoder2.setKeyContext(new KeyContext(keyStore2));
+
+    for (String feature : features) {
+      BitVector bv1 = encoder1.encode(64, feature);
+      Assertions.assertEquals(globalEncoder.encode(64, feature).getBitSet(), bv1.getBitSet());
+      Assertions.assertNotEquals(bv1.getBitSet(), encoder2.encode(64, feature).getBitSet());
+    }
+  }
+
+  @Test
+  void closeKeyContext() {
+    KeyStore keyStore = KeyManager.initEmptyKeyStore();
+    KeyManager.addSecret(keyStore, KeyManager.BASE_KEY_NAME, BASEKEY, KeyManager.SECRET_PWD_ARRAY);
+    KeyContext keyContext = new KeyContext(keyStore);
+    KeyStoreRandomHashing encoder = new KeyStoreRandomHashing(16, KEYNAME1);
+    encoder.setKeyContext(keyContext);
+
+    BitVector bv = encoder.encode(64, "ab");
+    Assertions.assertTrue(keyContext.getMacCache().size() > 0);
+    keyContext.close();
+    Assertions.assertEquals(0, keyContext.getMacCache().size());
+    Assertions.assertEquals(bv.getBitSet(), encoder.encode(64, "ab").getBitSet());
+  }
+
   private void prepareKeyStore() {
     KeyManager.addSecret(KeyManager.BASE_KEY_NAME, BASEKEY, KeyManager.SECRET_PWD_ARRAY);
   }
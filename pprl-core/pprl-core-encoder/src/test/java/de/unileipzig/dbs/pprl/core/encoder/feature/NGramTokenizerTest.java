@@ -20,6 +20,8 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -46,4 +48,15 @@ class NGramTokenizerTest {
     assertEquals(7, features.size());
     features.forEach(feature -> assertTrue(expectedQgrams.contains(feature)));
   }
-}
\ No newline at end of file
+
+  @Test
+  void extractWindowsMatchesExtract() {
+    NGramTokenizer featureExtractor = new NGramTokenizer(3, true);
+    for (String value : new String[]{"ab", "abcdef", "Jörg", "Ἀθῆναι"}) {
+      Set<String> windows = new HashSet<>();
+      assertTrue(featureExtractor.extractWindows(value,
+        (bytes, offset, length) -> windows.add(new String(bytes, offset, length))));
+      assertEquals(featureExtractor.extract(value), windows);
+    }
+  }
+}
@@ -22,6 +22,7 @@ import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
 import org.junit.jupiter.api.Test;
 
 import java.util.BitSet;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -48,4 +49,30 @@ class BalancingTest {
     assertEquals(bvH, bvHS);
     assertNotEquals(bvH, bvHD);
   }
-}
\ No newline at end of file
+
+  @Test
+  void hardenMatchesBitwiseBalancing() {
+    for (int len : new int[]{1, 63, 64, 100, 1000, 1024}) {
+      BitSet bs = BitSetUtils.generateRandomBitSet(len, len / 3);
+      BitVector bv = new BitSetVector(len, bs);
+      assertEquals(bitwiseBalancing(bv, 42), new Balancing(42).harden(bv));
+    }
+  }
+
+  private static BitVector bitwiseBalancing(BitVector original, long seed) {
+    int len = original.getLength();
+    BitVector result = new BitSetVector(2 * len);
+    for (int i = 0; i < len; i++) {
+      result.set(i, original.getBitSet().get(i));
+      result.set(i + len, !original.getBitSet().get(i));
+    }
+    Random r = new Random(seed);
+    for (int i = result.getLength() - 1; i > 0; i--) {
+      int index = r.nextInt(i);
+      boolean tmp = result.getBitSet().get(index);
+      result.set(index, result.getBitSet().get(i));
+      result.set(i, tmp);
+    }
+    return result;
+  }
+}
@@ -1,11 +1,15 @@
 package de.unileipzig.dbs.pprl.core.encoder.hardening;
 
 import de.unileipzig.dbs.pprl.core.common.BitSetUtils;
+import de.unileipzig.dbs.pprl.core.common.HashUtils;
 import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
 import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -28,4 +32,30 @@ class PermutationTest {
 //    System.out.println(hbv0.getBitString());
 //    System.out.println(hbv1.getBitString());
   }
-}
\ No newline at end of file
+
+  @Test
+  void hardenMatchesShuffledBitList() {
+    Permutation hardener = new Permutation();
+    for (int len : new int[]{50, 64, 500, 1000, 1024}) {
+      BitSet bs = BitSetUtils.generateRandomBitSet(len, len / 4);
+      BitVector bv = BitSetVector.fromBitSet(bs, len);
+      BitVector expected = shuffledBitList(bv, "key" + len);
+      assertEquals(expected, hardener.harden(bv, "key" + len));
+      assertEquals(expected, hardener.harden(bv, "key" + len));
+      assertEquals(expected, Permutation.permuteBitVector(bv, "key" + len));
+    }
+  }
+
+  private static BitVector shuffledBitList(BitVector original, String key) {
+    List<Boolean> bits = new ArrayList<>();
+    for (int i = 0; i < original.getLength(); i++) {
+      bits.add(original.getBitSet().get(i));
+    }
+    Collections.shuffle(bits, HashUtils.getRandom(key, key));
+    BitSet result = new BitSet(bits.size());
+    for (int i = 0; i < bits.size(); i++) {
+      result.set(i, bits.get(i));
+    }
+    return BitSetVector.fromBitSet(result, bits.size());
+  }
+}
@@ -16,12 +16,24 @@
 
 package de.unileipzig.dbs.pprl.core.encoder.record;
 
+import de.unileipzig.dbs.pprl.core.common.factories.RecordFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordIdFactory;
 import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.impl.AttributeLight;
+import de.unileipzig.dbs.pprl.core.common.model.impl.PersonalAttributeType;
+import de.unileipzig.dbs.pprl.core.encoder.KeyManager;
 import de.unileipzig.dbs.pprl.core.encoder.TestBase;
+import de.unileipzig.dbs.pprl.core.encoder.attribute.BitVectorEncoder;
+import de.unileipzig.dbs.pprl.core.encoder.attribute.SingleAttributeEncoderGroup;
+import de.unileipzig.dbs.pprl.core.encoder.crypto.KeyExtractor;
+import de.unileipzig.dbs.pprl.core.encoder.feature.KeyStoreRandomHashing;
+import de.unileipzig.dbs.pprl.core.encoder.feature.NGramTokenizer;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -63,5 +75,49 @@ class DefaultRecordEncoderTest extends TestBase {
     assertTrue(bv2.getCardinality() > bv1.getCardinality());
   }
 
+  @Test
+  void parallelEncodingMatchesSequentialEncoding() {
+    KeyManager.addSecret(KeyManager.BASE_KEY_NAME, "SUPER-base-secret".getBytes(), KeyManager.SECRET_PWD_ARRAY);
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      records.add(RecordFactory.getEmptyRecord(RecordIdFactory.get("record" + i))
+        .setAttribute(PersonalAttributeType.FIRSTNAME.toString(), new AttributeLight("Peter" + i % 17))
+        .setAttribute(PersonalAttributeType.LASTNAME.toString(), new AttributeLight("Pan" + i % 31))
+        .setAttribute(PersonalAttributeType.DATEOFBIRTH.toString(), new AttributeLight("29.01.19" + i % 100))
+        .setAttribute(KeyExtractor.KEY_ATTRIBUTE_NAME, new AttributeLight("key" + i % 7)));
+    }
+
+    DefaultRecordEncoder sequentialEncoder = getKeyedRecordEncoder();
+    List<String> expected = new ArrayList<>();
+    for (Record record : records) {
+      expected.add(toString(sequentialEncoder.encode(record)));
+    }
+
+    DefaultRecordEncoder parallelEncoder = getKeyedRecordEncoder();
+    assertEquals(1, parallelEncoder.getParallelism());
+    parallelEncoder.setParallelism(4);
+    List<String> actual = new ArrayList<>();
+    for (Record record : parallelEncoder.encode(records)) {
+      actual.add(toString(record));
+    }
+    assertEquals(expected, actual);
+  }
 
-}
\ No newline at end of file
+  private DefaultRecordEncoder getKeyedRecordEncoder() {
+    DefaultRecordEncoder recordEncoder = (DefaultRecordEncoder) getFullFeaturedRecordEncoder();
+    return recordEncoder.addAttributeEncoderGroup(new SingleAttributeEncoderGroup<>(
+      "aeg3",
+      PersonalAttributeType.LASTNAME.toString(),
+      new BitVectorEncoder<>("ae3", new NGramTokenizer(2, false), new KeyStoreRandomHashing(10, "bf-seed1"), 128)
+    ));
+  }
+
+  private static String toString(Record record) {
+    StringBuilder sb = new StringBuilder(record.getId().getUniqueId());
+    record.getAttributeNames().stream()
+      .sorted()
+      .forEach(name -> sb.append(';').append(name).append('=')
+        .append(((BitVector) record.getAttribute(name).get().getObject()).getBase64()));
+    return sb.toString();
+  }
+}
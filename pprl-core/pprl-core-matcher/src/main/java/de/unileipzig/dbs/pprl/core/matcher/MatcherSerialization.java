@@ -21,6 +21,7 @@ import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import de.unileipzig.dbs.pprl.core.matcher.blocking.Blocker;
 import de.unileipzig.dbs.pprl.core.matcher.matcher.BatchMatcher;
 import de.unileipzig.dbs.pprl.core.matcher.matcher.IncrementalMatcher;
 import de.unileipzig.dbs.pprl.core.matcher.matcher.Matcher;
@@ -52,4 +53,15 @@ public class MatcherSerialization {
       throw new RuntimeException("Failed to serialize " + matcher + ": " + e);
     }
   }
+
+  /**
+   * Serialize a blocker, e.g. to detect changes of the blocking configuration
+   */
+  public static String serializeJson(Blocker blocker) {
+    try {
+      return om.writeValueAsString(blocker);
+    } catch (JsonProcessingException e) {
+      throw new RuntimeException("Failed to serialize " + blocker + ": " + e);
+    }
+  }
 }
@@ -22,6 +22,7 @@ import de.unileipzig.dbs.pprl.core.common.model.api.Record;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
 
 import java.util.Collection;
+import java.util.function.Function;
 
 /**
  * Create groups of records that share a common blocking key.
@@ -32,6 +33,29 @@ public interface Blocker {
 
   Collection<BlockingKey> generateKeys(Record record);
 
+  /**
+   * Get the keys to look up the candidates of a record with the given generated keys.
+   *
+   * @param keys generated keys of the querying record
+   * @return keys to look up, by default the generated keys
+   */
+  default Collection<BlockingKey> getQueryKeys(Collection<BlockingKey> keys) {
+    return keys;
+  }
+
   Collection<BlockingGroup> block(Collection<RecordCluster> sources);
 
+  /**
+   * Block the sources using the given keys instead of generating them, e.g. keys that have been persisted by a
+   * previous run. Blockers that do not rely on blocking keys ignore the key provider.
+   *
+   * @param sources     record sources
+   * @param keyProvider blocking keys of a record
+   * @return blocking groups
+   */
+  default Collection<BlockingGroup> block(Collection<RecordCluster> sources,
+    Function<Record, Collection<BlockingKey>> keyProvider) {
+    return block(sources);
+  }
+
 }
@@ -26,4 +26,18 @@ public interface BlockingGroup {
   BlockingKey getBlockingKey();
 
   Collection<RecordCluster> getGroups();
+
+  /**
+   * Number of record pairs between the groups, i.e. the comparisons done by {@link CrossProduct}
+   */
+  default long getComparisonCount() {
+    long comparisons = 0;
+    long previousRecords = 0;
+    for (RecordCluster group : getGroups()) {
+      final int records = group.getRecords().size();
+      comparisons += previousRecords * records;
+      previousRecords += records;
+    }
+    return comparisons;
+  }
 }
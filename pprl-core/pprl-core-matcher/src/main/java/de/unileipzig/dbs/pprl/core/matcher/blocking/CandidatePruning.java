@@ -0,0 +1,287 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.unileipzig.dbs.pprl.core.matcher.blocking;
+
+import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
+import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.impl.PackedBitVector;
+import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.attribute.BitVectorSimilarityCalculator.SimilarityMethod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Candidate generation for {@link CrossProduct} that skips record pairs whose bit vectors cannot reach the
+ * similarity threshold. The length filter only uses the cardinalities, e.g. dice &lt;= 2 min(|a|, |b|) / (|a| + |b|),
+ * and looks up the viable partners in the records sorted by cardinality. The optional prefix filter (PPJoin)
+ * additionally requires viable pairs to share a set bit within the prefixes of their bits ordered by frequency,
+ * including the positional upper bound of the overlap.
+ * The pruning is only lossless if the record similarity equals the similarity of the configured attribute and the
+ * threshold is not higher than the one of the classifier. Records without the attribute are never pruned.
+ */
+public class CandidatePruning {
+
+  private static final double EPSILON = 1e-9;
+
+  private String attributeName;
+
+  private double threshold;
+
+  private SimilarityMethod similarityMethod = SimilarityMethod.DICE;
+
+  private boolean prefixFilter = false;
+
+  public CandidatePruning(String attributeName, double threshold, SimilarityMethod similarityMethod,
+    boolean prefixFilter) {
+    this.attributeName = attributeName;
+    this.threshold = threshold;
+    this.similarityMethod = similarityMethod;
+    this.prefixFilter = prefixFilter;
+  }
+
+  private CandidatePruning() {
+  }
+
+  /**
+   * Pass all viable pairs between the left and the right records to the consumer
+   */
+  public void generate(Collection<Record> left, Collection<Record> right, BiConsumer<Record, Record> pairConsumer) {
+    if (similarityMethod != SimilarityMethod.DICE && similarityMethod != SimilarityMethod.JACCARD) {
+      throw new RuntimeException("Candidate pruning does not support similarity method " + similarityMethod);
+    }
+    if (threshold <= 0) {
+      left.forEach(l -> right.forEach(r -> pairConsumer.accept(l, r)));
+      return;
+    }
+    final List<Entry> leftEntries = new ArrayList<>(left.size());
+    final List<Record> leftUnprunable = new ArrayList<>();
+    split(left, leftEntries, leftUnprunable);
+    final List<Entry> rightEntries = new ArrayList<>(right.size());
+    final List<Record> rightUnprunable = new ArrayList<>();
+    split(right, rightEntries, rightUnprunable);
+
+    for (Record l : leftUnprunable) {
+      right.forEach(r -> pairConsumer.accept(l, r));
+    }
+    for (Record r : rightUnprunable) {
+      leftEntries.forEach(l -> pairConsumer.accept(l.record, r));
+    }
+    if (leftEntries.isEmpty() || rightEntries.isEmpty()) {
+      return;
+    }
+    rightEntries.sort(Comparator.comparingInt(e -> e.cardinality));
+    if (prefixFilter) {
+      generateWithPrefixFilter(leftEntries, rightEntries, pairConsumer);
+    } else {
+      final int[] cardinalities = rightEntries.stream().mapToInt(e -> e.cardinality).toArray();
+      for (Entry l : leftEntries) {
+        final int from = lowerBound(cardinalities, getMinCardinality(l.cardinality));
+        final int maxCardinality = getMaxCardinality(l.cardinality);
+        for (int i = from; i < cardinalities.length && cardinalities[i] <= maxCardinality; i++) {
+          pairConsumer.accept(l.record, rightEntries.get(i).record);
+        }
+      }
+    }
+  }
+
+  private void generateWithPrefixFilter(List<Entry> leftEntries, List<Entry> rightEntries,
+    BiConsumer<Record, Record> pairConsumer) {
+    // Order bits by their frequency so that the prefixes consist of rare bits
+    final Map<Integer, Integer> frequencies = new HashMap<>();
+    leftEntries.forEach(e -> e.countBits(frequencies));
+    rightEntries.forEach(e -> e.countBits(frequencies));
+    final Comparator<Integer> order = Comparator.<Integer>comparingInt(frequencies::get).thenComparingInt(b -> b);
+    leftEntries.forEach(e -> e.sortBits(order));
+    rightEntries.forEach(e -> e.sortBits(order));
+
+    // Inverted index of the prefix bits of the right records: bit -> (record, position)
+    final Map<Integer, List<int[]>> index = new HashMap<>();
+    for (int r = 0; r < rightEntries.size(); r++) {
+      final Entry entry = rightEntries.get(r);
+      final int prefixLength = getPrefixLength(entry.cardinality);
+      for (int pos = 0; pos < prefixLength; pos++) {
+        index.computeIfAbsent(entry.bits[pos], b -> new ArrayList<>()).add(new int[]{r, pos});
+      }
+    }
+
+    final int[] overlaps = new int[rightEntries.size()];
+    final List<Integer> touched = new ArrayList<>();
+    for (Entry l : leftEntries) {
+      final int minCardinality = getMinCardinality(l.cardinality);
+      final int maxCardinality = getMaxCardinality(l.cardinality);
+      final int prefixLength = getPrefixLength(l.cardinality);
+      for (int pos = 0; pos < prefixLength; pos++) {
+        final List<int[]> postings = index.get(l.bits[pos]);
+        if (postings == null) {
+          continue;
+        }
+        for (int[] posting : postings) {
+          final int r = posting[0];
+          final int rightCardinality = rightEntries.get(r).cardinality;
+          if (overlaps[r] < 0 || rightCardinality < minCardinality || rightCardinality > maxCardinality) {
+            continue;
+          }
+          if (overlaps[r] == 0) {
+            touched.add(r);
+          }
+          final int upperBound =
+            overlaps[r] + Math.min(l.cardinality - pos, rightCardinality - posting[1]);
+          overlaps[r] = upperBound >= getMinOverlap(l.cardinality, rightCardinality) ? overlaps[r] + 1 : -1;
+        }
+      }
+      for (int r : touched) {
+        if (overlaps[r] > 0) {
+          pairConsumer.accept(l.record, rightEntries.get(r).record);
+        }
+        overlaps[r] = 0;
+      }
+      touched.clear();
+    }
+  }
+
+  private void split(Collection<Record> records, List<Entry> entries, List<Record> unprunable) {
+    for (Record record : records) {
+      final Optional<BitVector> bitVector = record.getAttribute(attributeName)
+        .filter(a -> a.isType(BitVector.class) && !a.isEmpty())
+        .map(a -> a.getAs(BitVector.class));
+      if (bitVector.isPresent()) {
+        entries.add(new Entry(record, bitVector.get()));
+      } else {
+        unprunable.add(record);
+      }
+    }
+  }
+
+  /**
+   * @return index of the first value &gt;= key
+   */
+  private static int lowerBound(int[] values, int key) {
+    int low = 0;
+    int high = values.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (values[mid] < key) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  int getMinCardinality(int cardinality) {
+    final double factor = similarityMethod == SimilarityMethod.JACCARD ? threshold : threshold / (2 - threshold);
+    return (int) Math.ceil(cardinality * factor - EPSILON);
+  }
+
+  int getMaxCardinality(int cardinality) {
+    if (threshold <= 0) {
+      return Integer.MAX_VALUE;
+    }
+    final double factor = similarityMethod == SimilarityMethod.JACCARD ? 1 / threshold : (2 - threshold) / threshold;
+    return (int) Math.floor(cardinality * factor + EPSILON);
+  }
+
+  /**
+   * @return minimal number of common bits to reach the threshold
+   */
+  int getMinOverlap(int cardinality1, int cardinality2) {
+    final double overlap = similarityMethod == SimilarityMethod.JACCARD ?
+      threshold / (1 + threshold) * (cardinality1 + cardinality2) :
+      threshold / 2 * (cardinality1 + cardinality2);
+    return (int) Math.ceil(overlap - EPSILON);
+  }
+
+  /**
+   * @return number of leading bits that have to contain a common bit with any viable partner
+   */
+  int getPrefixLength(int cardinality) {
+    final int minOverlap = Math.max(1, getMinOverlap(cardinality, getMinCardinality(cardinality)));
+    return Math.min(cardinality, cardinality - minOverlap + 1);
+  }
+
+  public String getAttributeName() {
+    return attributeName;
+  }
+
+  public void setAttributeName(String attributeName) {
+    this.attributeName = attributeName;
+  }
+
+  public double getThreshold() {
+    return threshold;
+  }
+
+  public void setThreshold(double threshold) {
+    this.threshold = threshold;
+  }
+
+  public SimilarityMethod getSimilarityMethod() {
+    return similarityMethod;
+  }
+
+  public void setSimilarityMethod(SimilarityMethod similarityMethod) {
+    this.similarityMethod = similarityMethod;
+  }
+
+  public boolean isPrefixFilter() {
+    return prefixFilter;
+  }
+
+  public void setPrefixFilter(boolean prefixFilter) {
+    this.prefixFilter = prefixFilter;
+  }
+
+  private static class Entry {
+    private final Record record;
+    private final int cardinality;
+    private final PackedBitVector bitVector;
+    private int[] bits;
+
+    private Entry(Record record, BitVector bitVector) {
+      this.record = record;
+      this.bitVector = PackedBitVector.of(bitVector);
+      this.cardinality = this.bitVector.getCardinality();
+    }
+
+    private void countBits(Map<Integer, Integer> frequencies) {
+      bits = new int[cardinality];
+      final long[] words = bitVector.getWords();
+      int n = 0;
+      for (int w = 0; w < words.length; w++) {
+        long word = words[w];
+        while (word != 0) {
+          final int bit = w * Long.SIZE + Long.numberOfTrailingZeros(word);
+          bits[n++] = bit;
+          frequencies.merge(bit, 1, Integer::sum);
+          word &= word - 1;
+        }
+      }
+    }
+
+    private void sortBits(Comparator<Integer> order) {
+      bits = Arrays.stream(bits).boxed().sorted(order).mapToInt(Integer::intValue).toArray();
+    }
+  }
+}
@@ -43,9 +43,31 @@ public class CrossProduct {
 
   private Predicate<RecordPair> filter = (recordPair -> true);
 
+  /**
+   * Optional pruning of pairs that cannot reach the similarity threshold
+   */
+  private CandidatePruning pruning;
+
   private final static Logger logger = LogManager.getLogger(CrossProduct.class);
   
-  //TODO Benchmark blockTwo vs blockN(2)
+  public CrossProduct() {
+  }
+
+  public CrossProduct(CandidatePruning pruning) {
+    this.pruning = pruning;
+  }
+
+  /**
+   * Cross product that applies the {@link CandidatePruning} of the blocker, if it has one configured
+   */
+  public static CrossProduct of(Blocker blocker) {
+    if (blocker instanceof StandardBlocking) {
+      return new CrossProduct(((StandardBlocking) blocker).getCandidatePruning());
+    }
+    return new CrossProduct();
+  }
+
+  // Two sources use blockTwo, BlockingBenchmark compares it with blockN for the same blocks
   public Set<RecordPair> block(Collection<RecordCluster> sources) {
 //		if (sources.size() == 1) {
 //			return blockOne(new ArrayList<>(sources).get(0).getRecords());
@@ -77,7 +99,12 @@ public class CrossProduct {
     long curPair = 0;
     long pairs = (long) sizeA * sizeB;
     if (pairs > 10000000) {
-      logger.warn("Skipping blocking of current group, too many pairs: " + pairs);
+      logger.warn("Blocking group with " + pairs + " pairs, " +
+        "configure an OversizedBlockStrategy in the blocker to split such groups.");
+    }
+    if (pruning != null) {
+      pruning.generate(smallerDataset, biggerDataset,
+        (recA, recB) -> getRecordPair(recA, recB).ifPresent(recordPairs::add));
       return recordPairs;
     }
     for (final Record recA : smallerDataset) {
@@ -101,7 +128,10 @@ public class CrossProduct {
     final Collection<Record> stack = new ArrayList<>();
     int i = 0;
     for (RecordCluster source : sources) {
-      if (i > 0) {
+      if (i > 0 && pruning != null) {
+        pruning.generate(stack, source.getRecords(),
+          (recA, recB) -> getRecordPair(recA, recB).ifPresent(recordPairs::add));
+      } else if (i > 0) {
         for (final Record recA : stack) {
           for (final Record recB : source.getRecords()) {
             getRecordPair(recA, recB).ifPresent(recordPairs::add);
@@ -118,6 +148,14 @@ public class CrossProduct {
     this.filter = filter;
   }
 
+  public CandidatePruning getPruning() {
+    return pruning;
+  }
+
+  public void setPruning(CandidatePruning pruning) {
+    this.pruning = pruning;
+  }
+
   private Optional<RecordPair> getRecordPair(Record recA, Record recB) {
     final RecordPair p = recA.getPair(recB);
     return Optional.ofNullable(filter.test(p) ? p : null);
@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.matcher.blocking;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.util.Collection;
+
+/**
+ * Handles blocking groups that would require too many comparisons, e.g. the group of a frequent surname.
+ * Instead of dropping such a group, it is split into smaller groups that are compared separately.
+ *
+ * @see StandardBlocking#setMaxBlockComparisons(long)
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.MINIMAL_CLASS, property = "@class")
+public interface OversizedBlockStrategy {
+
+  /**
+   * Split an oversized blocking group
+   *
+   * @param blockingGroup  group with more than maxComparisons comparisons
+   * @param maxComparisons upper bound of comparisons per resulting group
+   * @return smaller groups, that keep the blocking key id of the original group
+   */
+  Collection<BlockingGroup> split(BlockingGroup blockingGroup, long maxComparisons);
+}
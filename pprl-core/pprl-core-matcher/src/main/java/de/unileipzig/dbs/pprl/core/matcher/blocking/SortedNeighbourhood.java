@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.matcher.blocking;
+
+import de.unileipzig.dbs.pprl.core.common.factories.BlockingKeyFactory;
+import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
+import de.unileipzig.dbs.pprl.core.common.model.api.BlockingKey;
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
+import de.unileipzig.dbs.pprl.core.common.model.impl.RecordClusterSimple;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Splits an oversized blocking group with the sorted neighbourhood method: the records of all sources are sorted
+ * by an attribute and only records within a sliding window are compared. Consecutive windows overlap by half of
+ * the window size, so that each record is compared with at least its next windowSize / 2 neighbours.
+ * Without a configured window size, the largest window that does not exceed the comparison bound is used.
+ */
+public class SortedNeighbourhood implements OversizedBlockStrategy {
+  public static final String WINDOW_KEY_PREFIX = "SN";
+
+  /**
+   * Attribute used for sorting, required. Records with equal values are ordered by their unique id.
+   */
+  private String sortingAttribute;
+
+  /**
+   * Number of records per window, 0 derives it from the comparison bound
+   */
+  private int windowSize;
+
+  public SortedNeighbourhood() {
+  }
+
+  public SortedNeighbourhood(String sortingAttribute, int windowSize) {
+    this.sortingAttribute = sortingAttribute;
+    this.windowSize = windowSize;
+  }
+
+  @Override
+  public Collection<BlockingGroup> split(BlockingGroup blockingGroup, long maxComparisons) {
+    if (sortingAttribute == null || sortingAttribute.isEmpty()) {
+      throw new IllegalArgumentException("Sorted neighbourhood requires a sorting attribute");
+    }
+    final List<RecordCluster> sources = new ArrayList<>(blockingGroup.getGroups());
+    final List<SourceRecord> records = new ArrayList<>();
+    for (int s = 0; s < sources.size(); s++) {
+      for (Record record : sources.get(s).getRecords()) {
+        records.add(new SourceRecord(s, record, getSortingKey(record), record.getId().getUniqueId()));
+      }
+    }
+    records.sort(Comparator.comparing(SourceRecord::sortingKey).thenComparing(SourceRecord::uniqueId));
+
+    final BlockingKey parentKey = blockingGroup.getBlockingKey();
+    final int window = getWindowSize(maxComparisons);
+    final int step = Math.max(1, window / 2);
+    final List<BlockingGroup> result = new ArrayList<>();
+    for (int start = 0; start < records.size(); start += step) {
+      final int end = Math.min(start + window, records.size());
+      final RecordCluster[] clusters = new RecordCluster[sources.size()];
+      for (SourceRecord sourceRecord : records.subList(start, end)) {
+        if (clusters[sourceRecord.source()] == null) {
+          clusters[sourceRecord.source()] = new RecordClusterSimple();
+        }
+        clusters[sourceRecord.source()].addRecord(sourceRecord.record());
+      }
+      final List<RecordCluster> groups = new ArrayList<>();
+      for (RecordCluster cluster : clusters) {
+        if (cluster != null) {
+          groups.add(cluster);
+        }
+      }
+      final BlockingKey windowKey = BlockingKeyFactory.getBlockingKey(parentKey.getId(),
+        parentKey.getValue() + BlockingKey.SEPARATOR + WINDOW_KEY_PREFIX + start);
+      result.add(new BlockingGroupInMemory(windowKey, groups));
+      if (end == records.size()) {
+        break;
+      }
+    }
+    return result;
+  }
+
+  private String getSortingKey(Record record) {
+    return record.getAttribute(sortingAttribute).map(Attribute::getAsString).orElse("");
+  }
+
+  /**
+   * Configured window size or the largest w with w * (w - 1) / 2 <= maxComparisons
+   */
+  private int getWindowSize(long maxComparisons) {
+    if (windowSize > 1) {
+      return windowSize;
+    }
+    final long w = (long) Math.floor((1 + Math.sqrt(1 + 8.0 * maxComparisons)) / 2);
+    return (int) Math.max(2, Math.min(w, Integer.MAX_VALUE));
+  }
+
+  private record SourceRecord(int source, Record record, String sortingKey, String uniqueId) {
+  }
+
+  public String getSortingAttribute() {
+    return sortingAttribute;
+  }
+
+  public void setSortingAttribute(String sortingAttribute) {
+    this.sortingAttribute = sortingAttribute;
+  }
+
+  public int getWindowSize() {
+    return windowSize;
+  }
+
+  public void setWindowSize(int windowSize) {
+    this.windowSize = windowSize;
+  }
+
+  @Override
+  public String toString() {
+    return "SortedNeighbourhood(" + sortingAttribute + ")";
+  }
+}
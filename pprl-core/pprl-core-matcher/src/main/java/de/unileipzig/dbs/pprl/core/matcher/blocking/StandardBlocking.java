@@ -16,27 +16,60 @@
 
 package de.unileipzig.dbs.pprl.core.matcher.blocking;
 
-
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import de.unileipzig.dbs.pprl.core.common.model.api.BlockingKey;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
 import de.unileipzig.dbs.pprl.core.encoder.blocking.BlockingKeyExtractor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Generate blocking keys according to the used {@link BlockingKeyExtractor}s
  * and create {@link BlockingGroup}s of records, that are share a blocking key.
+ * Groups with more than maxBlockComparisons comparisons are reported and split by the {@link OversizedBlockStrategy},
+ * if one is configured. Both are disabled by default, so that all pairs of a group are compared.
+ * Records of the first source are grouped by their generated keys, records of the other sources by their
+ * query keys, see {@link BlockingKeyExtractor#getQueryKeys(BlockingKey)}.
  */
 public class StandardBlocking implements Blocker {
+  public static final long DEFAULT_MAX_BLOCK_COMPARISONS = 0;
+
+  private final static Logger logger = LogManager.getLogger(StandardBlocking.class);
+
   private Collection<BlockingKeyExtractor> blockingKeyExtractors;
 
+  /**
+   * Blocking groups with more comparisons are oversized, 0 disables the check
+   */
+  private long maxBlockComparisons = DEFAULT_MAX_BLOCK_COMPARISONS;
+
+  /**
+   * Applied to oversized blocking groups, these are kept unchanged if set to null
+   */
+  private OversizedBlockStrategy oversizedBlockStrategy;
+
+  /**
+   * Optional pruning of the pairs within the blocking groups, applied by {@link CrossProduct#of(Blocker)}
+   */
+  private CandidatePruning candidatePruning;
+
+  /**
+   * Oversized blocking groups found by the last call of {@link #block(Collection)}
+   */
+  @JsonIgnore
+  private List<OversizedBlock> oversizedBlocks = new ArrayList<>();
+
   public StandardBlocking() {
     blockingKeyExtractors = new ArrayList<>();
   }
@@ -50,13 +83,34 @@ public class StandardBlocking implements Blocker {
     return bks;
   }
 
+  @Override
+  public Collection<BlockingKey> getQueryKeys(Collection<BlockingKey> keys) {
+    Set<BlockingKey> queryKeys = new HashSet<>();
+    for (BlockingKey key : keys) {
+      for (BlockingKeyExtractor bke : blockingKeyExtractors) {
+        queryKeys.addAll(bke.getQueryKeys(key));
+      }
+    }
+    return queryKeys;
+  }
+
   @Override
   public Collection<BlockingGroup> block(Collection<RecordCluster> sources) {
+    return block(sources, this::generateKeys);
+  }
+
+  @Override
+  public Collection<BlockingGroup> block(Collection<RecordCluster> sources,
+    Function<Record, Collection<BlockingKey>> keyProvider) {
     final Map<BlockingKey, List<RecordCluster>> allRecordCluster = new HashMap<>();
+    boolean querySource = false;
     for (RecordCluster source : sources) {
       Map<BlockingKey, RecordCluster> curRecordCluster = new HashMap<>();
       for (Record record : source.getRecords()) {
-        Collection<BlockingKey> bks = generateKeys(record);
+        Collection<BlockingKey> bks = keyProvider.apply(record);
+        if (querySource) {
+          bks = getQueryKeys(bks);
+        }
         for (BlockingKey bk : bks) {
           if (!curRecordCluster.containsKey(bk)) {
             curRecordCluster.put(bk, record.getCluster());
@@ -70,15 +124,78 @@ public class StandardBlocking implements Blocker {
         }
         allRecordCluster.get(group.getKey()).add(group.getValue());
       }
+      querySource = true;
     }
     final Collection<BlockingGroup> blockingGroups = new HashSet<>();
+    final List<OversizedBlock> oversized = new ArrayList<>();
     for (Map.Entry<BlockingKey, List<RecordCluster>> blockingKeyListEntry : allRecordCluster.entrySet()) {
-      blockingGroups.add(new BlockingGroupInMemory(blockingKeyListEntry.getKey(),
-        blockingKeyListEntry.getValue()));
+      BlockingGroup blockingGroup = new BlockingGroupInMemory(blockingKeyListEntry.getKey(),
+        blockingKeyListEntry.getValue());
+      long comparisons = maxBlockComparisons > 0 ? blockingGroup.getComparisonCount() : 0;
+      if (comparisons > maxBlockComparisons) {
+        Collection<BlockingGroup> splitGroups = oversizedBlockStrategy == null ?
+          Collections.singletonList(blockingGroup) : oversizedBlockStrategy.split(blockingGroup, maxBlockComparisons);
+        OversizedBlock report = new OversizedBlock(blockingGroup.getBlockingKey(), comparisons,
+          String.valueOf(oversizedBlockStrategy), splitGroups.size(),
+          splitGroups.stream().mapToLong(BlockingGroup::getComparisonCount).sum());
+        logger.warn("Oversized blocking group: " + report);
+        oversized.add(report);
+        blockingGroups.addAll(splitGroups);
+      } else {
+        blockingGroups.add(blockingGroup);
+      }
     }
+    this.oversizedBlocks = oversized;
     return blockingGroups;
   }
 
+  /**
+   * Report of an oversized blocking group
+   *
+   * @param blockingKey          key of the group
+   * @param comparisons          comparisons of the group
+   * @param strategy             applied {@link OversizedBlockStrategy}
+   * @param resultingGroups      number of groups after applying the strategy
+   * @param resultingComparisons comparisons of all resulting groups
+   */
+  public record OversizedBlock(BlockingKey blockingKey, long comparisons, String strategy, int resultingGroups,
+    long resultingComparisons) {
+    @Override
+    public String toString() {
+      return "key=" + blockingKey.getKey() + ", comparisons=" + comparisons + ", strategy=" + strategy +
+        ", resultingGroups=" + resultingGroups + ", resultingComparisons=" + resultingComparisons;
+    }
+  }
+
+  @JsonIgnore
+  public List<OversizedBlock> getOversizedBlocks() {
+    return oversizedBlocks;
+  }
+
+  public long getMaxBlockComparisons() {
+    return maxBlockComparisons;
+  }
+
+  public void setMaxBlockComparisons(long maxBlockComparisons) {
+    this.maxBlockComparisons = maxBlockComparisons;
+  }
+
+  public OversizedBlockStrategy getOversizedBlockStrategy() {
+    return oversizedBlockStrategy;
+  }
+
+  public void setOversizedBlockStrategy(OversizedBlockStrategy oversizedBlockStrategy) {
+    this.oversizedBlockStrategy = oversizedBlockStrategy;
+  }
+
+  public CandidatePruning getCandidatePruning() {
+    return candidatePruning;
+  }
+
+  public void setCandidatePruning(CandidatePruning candidatePruning) {
+    this.candidatePruning = candidatePruning;
+  }
+
   public Collection<BlockingKeyExtractor> getBlockingKeyExtractors() {
     return blockingKeyExtractors;
   }
@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.matcher.blocking;
+
+import de.unileipzig.dbs.pprl.core.common.factories.BlockingKeyFactory;
+import de.unileipzig.dbs.pprl.core.common.model.api.BlockingKey;
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
+import de.unileipzig.dbs.pprl.core.common.model.impl.RecordClusterSimple;
+import de.unileipzig.dbs.pprl.core.encoder.blocking.BlockingKeyExtractor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits an oversized blocking group by a secondary blocking key. Sub groups that are still oversized are split
+ * recursively by the next secondary key. When all keys are used up, the optional fallback strategy is applied.
+ * Records without a secondary key are kept in a separate sub group.
+ */
+public class SubBlocking implements OversizedBlockStrategy {
+  public static final String MISSING_KEY = "MISSING";
+
+  private List<BlockingKeyExtractor> blockingKeyExtractors;
+
+  private OversizedBlockStrategy fallback;
+
+  public SubBlocking() {
+    this.blockingKeyExtractors = new ArrayList<>();
+  }
+
+  public SubBlocking(List<BlockingKeyExtractor> blockingKeyExtractors, OversizedBlockStrategy fallback) {
+    this.blockingKeyExtractors = blockingKeyExtractors;
+    this.fallback = fallback;
+  }
+
+  @Override
+  public Collection<BlockingGroup> split(BlockingGroup blockingGroup, long maxComparisons) {
+    return split(blockingGroup, maxComparisons, 0);
+  }
+
+  private Collection<BlockingGroup> split(BlockingGroup blockingGroup, long maxComparisons, int level) {
+    if (blockingGroup.getComparisonCount() <= maxComparisons) {
+      return Collections.singletonList(blockingGroup);
+    }
+    if (level >= blockingKeyExtractors.size()) {
+      return fallback == null ?
+        Collections.singletonList(blockingGroup) : fallback.split(blockingGroup, maxComparisons);
+    }
+
+    final BlockingKeyExtractor extractor = blockingKeyExtractors.get(level);
+    final BlockingKey parentKey = blockingGroup.getBlockingKey();
+    final List<RecordCluster> sources = new ArrayList<>(blockingGroup.getGroups());
+    final Map<String, RecordCluster[]> subGroups = new LinkedHashMap<>();
+    for (int s = 0; s < sources.size(); s++) {
+      for (Record record : sources.get(s).getRecords()) {
+        Collection<BlockingKey> keys = extractor.extract(record);
+        if (keys.isEmpty()) {
+          addRecord(subGroups, MISSING_KEY, sources.size(), s, record);
+        }
+        for (BlockingKey key : keys) {
+          addRecord(subGroups, key.getKey(), sources.size(), s, record);
+        }
+      }
+    }
+
+    final List<BlockingGroup> result = new ArrayList<>();
+    for (Map.Entry<String, RecordCluster[]> subGroup : subGroups.entrySet()) {
+      final List<RecordCluster> groups = new ArrayList<>();
+      for (RecordCluster cluster : subGroup.getValue()) {
+        if (cluster != null) {
+          groups.add(cluster);
+        }
+      }
+      final BlockingKey subKey = BlockingKeyFactory.getBlockingKey(parentKey.getId(),
+        parentKey.getValue() + BlockingKey.SEPARATOR + subGroup.getKey());
+      result.addAll(split(new BlockingGroupInMemory(subKey, groups), maxComparisons, level + 1));
+    }
+    return result;
+  }
+
+  private static void addRecord(Map<String, RecordCluster[]> subGroups, String key, int sources, int source,
+    Record record) {
+    final RecordCluster[] clusters = subGroups.computeIfAbsent(key, k -> new RecordCluster[sources]);
+    if (clusters[source] == null) {
+      clusters[source] = new RecordClusterSimple();
+    }
+    clusters[source].addRecord(record);
+  }
+
+  public List<BlockingKeyExtractor> getBlockingKeyExtractors() {
+    return blockingKeyExtractors;
+  }
+
+  public void setBlockingKeyExtractors(List<BlockingKeyExtractor> blockingKeyExtractors) {
+    this.blockingKeyExtractors = blockingKeyExtractors;
+  }
+
+  public OversizedBlockStrategy getFallback() {
+    return fallback;
+  }
+
+  public void setFallback(OversizedBlockStrategy fallback) {
+    this.fallback = fallback;
+  }
+
+  @Override
+  public String toString() {
+    return "SubBlocking" + (fallback == null ? "" : " (fallback: " + fallback + ")");
+  }
+}
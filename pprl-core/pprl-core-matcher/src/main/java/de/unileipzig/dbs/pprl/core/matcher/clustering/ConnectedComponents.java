@@ -16,6 +16,7 @@
 
 package de.unileipzig.dbs.pprl.core.matcher.clustering;
 
+import de.unileipzig.dbs.pprl.core.common.collections.RecordIndex;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
 import de.unileipzig.dbs.pprl.core.common.model.impl.RecordClusterSimple;
@@ -26,11 +27,18 @@ import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.graph.builder.GraphTypeBuilder;
 import org.jgrapht.util.SupplierUtil;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-public class ConnectedComponents implements Clusterer {
+public class ConnectedComponents implements StreamingClusterer {
 
   @Override
   public <P extends RecordPair> Set<RecordCluster> cluster(Collection<P> recordPairs) {
@@ -51,4 +59,50 @@ public class ConnectedComponents implements Clusterer {
       inspector.connectedSets().stream().map(RecordClusterSimple::new).collect(Collectors.toSet());
     return recordCluster;
   }
+
+  /**
+   * Computes the connected components with a union-find over the record ids,
+   * so memory grows with the number of records instead of the number of pairs.
+   */
+  @Override
+  public Set<RecordCluster> cluster(Stream<? extends RecordPair> recordPairs) {
+    final RecordIndex recordIndex = new RecordIndex();
+    final int[][] parents = {new int[0]};
+    recordPairs.forEach(rp -> {
+      final int left = recordIndex.add(rp.getLeftRecord());
+      final int right = recordIndex.add(rp.getRightRecord());
+      if (parents[0].length < recordIndex.size()) {
+        final int oldLength = parents[0].length;
+        parents[0] = Arrays.copyOf(parents[0], Math.max(oldLength * 2, 1024));
+        for (int i = oldLength; i < parents[0].length; i++) {
+          parents[0][i] = i;
+        }
+      }
+      union(parents[0], left, right);
+    });
+
+    final Map<Integer, List<Record>> components = new HashMap<>();
+    for (int i = 0; i < recordIndex.size(); i++) {
+      components.computeIfAbsent(find(parents[0], i), root -> new ArrayList<>()).add(recordIndex.getRecord(i));
+    }
+    final Set<RecordCluster> recordCluster = new HashSet<>();
+    components.values().forEach(records -> recordCluster.add(new RecordClusterSimple(records)));
+    return recordCluster;
+  }
+
+  private static void union(int[] parents, int a, int b) {
+    final int rootA = find(parents, a);
+    final int rootB = find(parents, b);
+    if (rootA != rootB) {
+      parents[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+    }
+  }
+
+  private static int find(int[] parents, int i) {
+    while (parents[i] != i) {
+      parents[i] = parents[parents[i]];
+      i = parents[i];
+    }
+    return i;
+  }
 }
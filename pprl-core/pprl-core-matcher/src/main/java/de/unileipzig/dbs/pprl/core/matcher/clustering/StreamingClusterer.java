@@ -0,0 +1,33 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.matcher.clustering;
+
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
+
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Clusterer that consumes the record pairs in a single pass over a stream,
+ * so that only the records but not the pairs have to be held in memory.
+ */
+public interface StreamingClusterer extends Clusterer {
+
+  Set<RecordCluster> cluster(Stream<? extends RecordPair> recordPairs);
+
+}
@@ -17,31 +17,42 @@
 package de.unileipzig.dbs.pprl.core.matcher.matcher;
 
 import de.unileipzig.dbs.pprl.core.common.RecordUtils;
+import de.unileipzig.dbs.pprl.core.common.collections.LongHashSet;
+import de.unileipzig.dbs.pprl.core.common.collections.RecordIndex;
 import de.unileipzig.dbs.pprl.core.common.model.api.BlockingKey;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
+import de.unileipzig.dbs.pprl.core.common.model.impl.MatchGrade;
 import de.unileipzig.dbs.pprl.core.common.monitoring.Tag;
 import de.unileipzig.dbs.pprl.core.matcher.blocking.Blocker;
 import de.unileipzig.dbs.pprl.core.matcher.blocking.BlockingGroup;
 import de.unileipzig.dbs.pprl.core.matcher.blocking.CrossProduct;
 import de.unileipzig.dbs.pprl.core.matcher.classification.Classifier;
 import de.unileipzig.dbs.pprl.core.matcher.clustering.Clusterer;
+import de.unileipzig.dbs.pprl.core.matcher.clustering.StreamingClusterer;
 import de.unileipzig.dbs.pprl.core.matcher.linking.Linker;
 import de.unileipzig.dbs.pprl.core.matcher.model.api.LinkageProcessDataSet;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
 import de.unileipzig.dbs.pprl.core.matcher.postprocessing.LinksPostprocessor;
+import de.unileipzig.dbs.pprl.core.matcher.postprocessing.StreamingLinksPostprocessor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static de.unileipzig.dbs.pprl.core.matcher.model.api.LinkageProcessDataSet.*;
 
@@ -55,6 +66,17 @@ import static de.unileipzig.dbs.pprl.core.matcher.model.api.LinkageProcessDataSe
 public class DatasetBasedBatchMatcher implements BatchMatcher {
 
   public static final String CHANGED_BY_RECLASSIFICATION = "CHANGED_BY_RECLASSIFICATION";
+
+  /**
+   * Number of records whose generated blocking keys are persisted at once
+   */
+  public static final int BLOCKING_KEY_BATCH_SIZE = 10000;
+
+  /**
+   * Number of changed record pairs that are persisted at once when streaming over the stored record pairs
+   */
+  public static final int RECORD_PAIR_BATCH_SIZE = 1000;
+
   private Blocker blocker;
   private Linker linker;
   private LinksPostprocessor linksPostprocessor;
@@ -62,6 +84,12 @@ public class DatasetBasedBatchMatcher implements BatchMatcher {
 
   private LinkageProcessDataSet dataSet;
 
+  /**
+   * Whether the attribute values of the records are decoded once before blocking, see {@link Record#decode()}.
+   * Avoids decoding them again for every comparison at the cost of keeping the decoded values in memory.
+   */
+  private boolean decodeRecords;
+
   private final static Logger logger = LogManager.getLogger(DatasetBasedBatchMatcher.class);
 
   public DatasetBasedBatchMatcher(Blocker blocker, Linker linker,
@@ -84,17 +112,17 @@ public class DatasetBasedBatchMatcher implements BatchMatcher {
     runClustering();
   }
 
+  /**
+   * Block all records of the dataset and add the resulting record pairs without comparing them, so that they can be
+   * compared and classified in a subsequent phase ({@link #compareAndClassifyActiveRecordPairs()}).
+   */
   public void runBlocking() {
-    logger.info("Running blocking");
     final Collection<Record> records = dataSet.getAllRecords();
-    logger.info("Blocking {} records", records.size());
-
-    // Compute blockingKeys
-    Set<BlockingKey> blockingKeys = records.parallelStream()
-      .flatMap(r -> blocker.generateKeys(r).stream())
-      .collect(Collectors.toSet());
-    throw new RuntimeException("Not implemented yet");
-    // TODO Persist blockingKeys
+    if (records.isEmpty()) {
+      logger.warn("Running blocking on an empty dataset");
+    }
+    logger.info("Running blocking on {} records", records.size());
+    addBlockedRecordPairs(records, CrossProduct.of(blocker));
   }
 
   public void runBlockedLinking() {
@@ -107,33 +135,27 @@ public class DatasetBasedBatchMatcher implements BatchMatcher {
 
   public void runBlockedLinking(Collection<Record> records) {
     logger.info("Running blocked linking on {} records", records.size());
+    final CrossProduct crossProduct = CrossProduct.of(blocker);
+    crossProduct.setFilter(pair -> linker.compareAndClassify(pair).isPresent());
+    addBlockedRecordPairs(records, crossProduct);
+  }
 
-    logger.info("Blocking {} records", records.size());
-    final List<RecordCluster> sourceGroups = RecordUtils.getSourceGroups(records);
-    final Collection<BlockingGroup> blockingGroups = blocker.block(sourceGroups);
+  private void addBlockedRecordPairs(Collection<Record> records, CrossProduct crossProduct) {
+    if (decodeRecords) {
+      records.forEach(Record::decode);
+    }
+    final Collection<BlockingGroup> blockingGroups = block(records);
     logger.info("Number of blocking groups: " + blockingGroups.size());
     dataSet.addBlockingGroups(blockingGroups);
 
-    final CrossProduct crossProduct = new CrossProduct();
-    crossProduct.setFilter(pair -> linker.compareAndClassify(pair).isPresent());
-
-    final Set<String> recordIdPairs = new HashSet<>();
+    final RecordIndex recordIndex = new RecordIndex(records);
+    final LongHashSet pairKeys = new LongHashSet();
     long c = 0;
     long all = blockingGroups.size();
     for (BlockingGroup blockingGroup : blockingGroups) {
-      if (blockingGroup.getGroups().size() == 2) {
-        List<RecordCluster> sourcesAsList = new ArrayList<>(blockingGroup.getGroups());
-        if ((sourcesAsList.get(0).getRecords().size() * sourcesAsList.get(1).getRecords().size()) > 1000000) {
-          logger.warn(
-            "Skipping blocking group with more than 1 million pairs: " + blockingGroup.getBlockingKey());
-          continue;
-        }
-      }
       Set<RecordPair> pairs = new HashSet<>();
       crossProduct.block(blockingGroup.getGroups()).forEach(rp -> {
-        String rpId = rp.getPairId();
-        if (!recordIdPairs.contains(rpId)) {
-          recordIdPairs.add(rpId);
+        if (pairKeys.add(recordIndex.getPairKey(rp))) {
           pairs.add(rp);
         }
       });
@@ -147,6 +169,39 @@ public class DatasetBasedBatchMatcher implements BatchMatcher {
     dataSet.cleanRecordPairs();
   }
 
+  /**
+   * Block the records using the blocking keys persisted in the dataset. Keys are only generated for records
+   * without persisted keys and are persisted batch-wise, so that reruns do not generate them again.
+   * Persisted keys are looked up in batches of {@link #BLOCKING_KEY_BATCH_SIZE} records.
+   *
+   * @param records records to block
+   * @return blocking groups
+   */
+  public Collection<BlockingGroup> block(Collection<Record> records) {
+    final List<String> uniqueIds = records.stream().map(r -> r.getId().getUniqueId()).collect(Collectors.toList());
+    final Map<String, Collection<BlockingKey>> blockingKeys = new HashMap<>();
+    for (int from = 0; from < uniqueIds.size(); from += BLOCKING_KEY_BATCH_SIZE) {
+      blockingKeys.putAll(dataSet.getBlockingKeys(
+        uniqueIds.subList(from, Math.min(from + BLOCKING_KEY_BATCH_SIZE, uniqueIds.size()))));
+    }
+    final List<Record> unkeyedRecords = records.stream()
+      .filter(r -> !blockingKeys.containsKey(r.getId().getUniqueId()))
+      .collect(Collectors.toList());
+    logger.info("Reusing persisted blocking keys of {} records, generating blocking keys of {} records",
+      records.size() - unkeyedRecords.size(), unkeyedRecords.size());
+    for (int from = 0; from < unkeyedRecords.size(); from += BLOCKING_KEY_BATCH_SIZE) {
+      final List<Record> batch =
+        unkeyedRecords.subList(from, Math.min(from + BLOCKING_KEY_BATCH_SIZE, unkeyedRecords.size()));
+      final Map<String, Collection<BlockingKey>> batchKeys = batch.parallelStream()
+        .collect(Collectors.toMap(r -> r.getId().getUniqueId(), blocker::generateKeys, (a, b) -> a));
+      dataSet.addBlockingKeys(batchKeys);
+      blockingKeys.putAll(batchKeys);
+    }
+    final List<RecordCluster> sourceGroups = RecordUtils.getSourceGroups(records);
+    return blocker.block(sourceGroups,
+      r -> blockingKeys.getOrDefault(r.getId().getUniqueId(), Collections.emptyList()));
+  }
+
   public void compareRecordPairs(Collection<RecordPair> pairs) {
     pairs = pairs.stream().map(linker::compare).collect(Collectors.toList());
     dataSet.updateRecordPairs(pairs);
@@ -165,18 +220,24 @@ public class DatasetBasedBatchMatcher implements BatchMatcher {
   }
 
   public void reclassifyRecordPairs(Collection<RecordPair> recordPairs, boolean replaceOnlyChanged) {
+    reclassifyRecordPairs(recordPairs, replaceOnlyChanged, pair -> false);
+  }
+
+  /**
+   * @param modified pairs whose tags or properties were modified before the reclassification, these are
+   *                 replaced even if only changed pairs are replaced
+   */
+  public void reclassifyRecordPairs(Collection<RecordPair> recordPairs, boolean replaceOnlyChanged,
+    Predicate<RecordPair> modified) {
     AtomicInteger changeCounter = new AtomicInteger();
     Collection<RecordPair> reclassified = recordPairs.stream()
             .filter(pair -> {
-              String previousOutcome = getOutComeFingerPrint(pair);
-              pair = linker.classify(pair);
-              String newOutcome = getOutComeFingerPrint(pair);
-              boolean changed = !previousOutcome.equals(newOutcome);
+              boolean changed = reclassifyRecordPair(pair);
               if (changed) {
                 pair.getTags().add(Tag.create(CHANGED_BY_RECLASSIFICATION, "true", 1.0));
                 changeCounter.incrementAndGet();
               }
-              if (replaceOnlyChanged) return changed;
+              if (replaceOnlyChanged) return changed || modified.test(pair);
               return true;
             })
             .toList();
@@ -189,10 +250,72 @@ public class DatasetBasedBatchMatcher implements BatchMatcher {
     dataSet.replaceRecordPairs(reclassified);
   }
 
-  private static String getOutComeFingerPrint(RecordPair pair) {
-    return pair.getClassification() +
-      pair.getTags().stream().filter(tag -> tag.getTag().equals(Classifier.TAG_PROBABILITY))
-        .map(Tag::getStringValue).findFirst().orElse("NaN");
+  /**
+   * Reclassify the record pairs from their stored similarities and persist only the pairs whose classification
+   * changed, in batches of {@link #RECORD_PAIR_BATCH_SIZE} via
+   * {@link LinkageProcessDataSet#updateRecordPairClassifications(Collection)}.
+   *
+   * @param recordPairs record pairs, e.g. read with a projection
+   * @return number of changed record pairs
+   */
+  public long reclassifyChangedRecordPairs(Stream<RecordPair> recordPairs) {
+    return reclassifyChangedRecordPairs(recordPairs, pair -> false);
+  }
+
+  /**
+   * @param recordPairs record pairs, e.g. read with a projection
+   * @param modified    pairs whose tags or properties were modified before the reclassification, these are
+   *                    persisted even if their classification did not change
+   * @return number of changed record pairs
+   */
+  public long reclassifyChangedRecordPairs(Stream<RecordPair> recordPairs, Predicate<RecordPair> modified) {
+    long changeCount = 0;
+    long updateCount = 0;
+    List<RecordPair> updated = new ArrayList<>();
+    final Iterator<RecordPair> iterator = recordPairs.iterator();
+    while (iterator.hasNext()) {
+      final RecordPair pair = iterator.next();
+      final boolean changed = reclassifyRecordPair(pair);
+      if (changed) {
+        pair.getTags().add(Tag.create(CHANGED_BY_RECLASSIFICATION, "true", 1.0));
+        changeCount++;
+      }
+      if (changed || modified.test(pair)) {
+        updated.add(pair);
+        if (updated.size() >= RECORD_PAIR_BATCH_SIZE) {
+          updateCount += updated.size();
+          dataSet.updateRecordPairClassifications(updated);
+          updated = new ArrayList<>();
+        }
+      }
+    }
+    updateCount += updated.size();
+    dataSet.updateRecordPairClassifications(updated);
+    logger.info("{} pairs changed by reclassification, {} pairs are updated.", changeCount, updateCount);
+    return changeCount;
+  }
+
+  /**
+   * Reclassify a record pair from its stored similarities.
+   *
+   * @param pair record pair
+   * @return true, if the classification or the classification probability changed
+   */
+  public boolean reclassifyRecordPair(RecordPair pair) {
+    final MatchGrade previousClassification = pair.getClassification();
+    final String previousProbability = getProbability(pair);
+    linker.classify(pair);
+    return previousClassification != pair.getClassification() ||
+      !Objects.equals(previousProbability, getProbability(pair));
+  }
+
+  private static String getProbability(RecordPair pair) {
+    for (Tag tag : pair.getTags()) {
+      if (tag.getTag().equals(Classifier.TAG_PROBABILITY)) {
+        return tag.getStringValue();
+      }
+    }
+    return null;
   }
 
   private void compareAndClassify(Collection<RecordPair> inputPairs) {
@@ -213,9 +336,19 @@ public class DatasetBasedBatchMatcher implements BatchMatcher {
 
   public void runPostProcessing() {
     logger.info("Running postprocessing");
-    Collection<RecordPair> recordPairs = dataSet.getActiveRecordPairs().stream()
-      .peek(rp -> rp.addTag(TAG_REMOVED_BY_POSTPROCESSING))
-      .collect(Collectors.toList());
+    if (linksPostprocessor == null) {
+      return;
+    }
+    if (linksPostprocessor instanceof StreamingLinksPostprocessor streamingPostprocessor) {
+      runStreamingPostProcessing(streamingPostprocessor);
+      return;
+    }
+    final Collection<RecordPair> recordPairs;
+    try (Stream<RecordPair> activePairs = dataSet.streamActiveRecordPairs()) {
+      recordPairs = activePairs
+        .peek(rp -> rp.addTag(TAG_REMOVED_BY_POSTPROCESSING))
+        .collect(Collectors.toList());
+    }
     Collection<RecordPair> cleanedPairs =
       DefaultBatchMatcher.postprocess(linksPostprocessor, recordPairs).stream()
         .peek(rp -> rp.removeTag(TAG_REMOVED_BY_POSTPROCESSING))
@@ -223,11 +356,61 @@ public class DatasetBasedBatchMatcher implements BatchMatcher {
     logger.info("Removed {} record pairs by postprocessing ({} - {})",
       recordPairs.size() - cleanedPairs.size(), recordPairs.size(), cleanedPairs.size()
     );
-    dataSet.updateRecordPairs(recordPairs);
+    // Kept pairs are unchanged, as their tag has been added and removed again
+    dataSet.updateRecordPairTags(recordPairs.stream()
+      .filter(rp -> rp.getTags().stream().anyMatch(t -> t.getTag().equals(TAG_REMOVED_BY_POSTPROCESSING)))
+      .collect(Collectors.toList()));
+  }
+
+  /**
+   * Postprocess in two passes over the active record pairs, so that only the statistics of the postprocessor
+   * but not the pairs are held in memory. Removed pairs are persisted in batches of
+   * {@link #RECORD_PAIR_BATCH_SIZE}.
+   */
+  private void runStreamingPostProcessing(StreamingLinksPostprocessor postprocessor) {
+    final Predicate<RecordPair> filter;
+    try (Stream<RecordPair> activePairs = dataSet.streamActiveRecordPairs()) {
+      filter = postprocessor.createFilter(activePairs);
+    }
+    long pairCount = 0;
+    long removedCount = 0;
+    List<RecordPair> removed = new ArrayList<>();
+    try (Stream<RecordPair> activePairs = dataSet.streamActiveRecordPairs()) {
+      final Iterator<RecordPair> iterator = activePairs.iterator();
+      while (iterator.hasNext()) {
+        final RecordPair pair = iterator.next();
+        pairCount++;
+        if (!filter.test(pair)) {
+          pair.addTag(TAG_REMOVED_BY_POSTPROCESSING);
+          removed.add(pair);
+          if (removed.size() >= RECORD_PAIR_BATCH_SIZE) {
+            removedCount += removed.size();
+            dataSet.updateRecordPairTags(removed);
+            removed = new ArrayList<>();
+          }
+        }
+      }
+    }
+    removedCount += removed.size();
+    dataSet.updateRecordPairTags(removed);
+    logger.info("Removed {} record pairs by postprocessing ({} - {})",
+      removedCount, pairCount, pairCount - removedCount
+    );
   }
 
   public void runClustering() {
-    Set<RecordCluster> clusters = clusterer.cluster(dataSet.getActiveRecordPairs());
+    final Set<RecordCluster> clusters;
+    if (clusterer instanceof StreamingClusterer streamingClusterer) {
+      try (Stream<RecordPair> pairs = dataSet.streamActiveRecordPairs()) {
+        clusters = streamingClusterer.cluster(pairs);
+      }
+    } else {
+      final Collection<RecordPair> activePairs;
+      try (Stream<RecordPair> pairs = dataSet.streamActiveRecordPairs()) {
+        activePairs = pairs.collect(Collectors.toList());
+      }
+      clusters = clusterer.cluster(activePairs);
+    }
     dataSet.addRecordClusters(clusters);
   }
 
@@ -284,4 +467,12 @@ public class DatasetBasedBatchMatcher implements BatchMatcher {
   public void setClusterer(Clusterer clusterer) {
     this.clusterer = clusterer;
   }
+
+  public boolean isDecodeRecords() {
+    return decodeRecords;
+  }
+
+  public void setDecodeRecords(boolean decodeRecords) {
+    this.decodeRecords = decodeRecords;
+  }
 }
@@ -16,6 +16,9 @@
 
 package de.unileipzig.dbs.pprl.core.matcher.matcher;
 
+import de.unileipzig.dbs.pprl.core.common.collections.LongHashSet;
+import de.unileipzig.dbs.pprl.core.common.collections.LongObjectHashMap;
+import de.unileipzig.dbs.pprl.core.common.collections.RecordIndex;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
 import de.unileipzig.dbs.pprl.core.matcher.blocking.Blocker;
@@ -28,10 +31,16 @@ import de.unileipzig.dbs.pprl.core.matcher.postprocessing.LinksPostprocessor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Batch matcher that includes the following phases:
@@ -42,11 +51,25 @@ import java.util.Set;
  */
 public class DefaultBatchMatcher implements BatchMatcher {
 
+  public static final int DEFAULT_PARALLELISM = 1;
+
   private Blocker blocker;
   private Linker linker;
   private LinksPostprocessor linksPostprocessor;
   protected Clusterer clusterer;
 
+  /**
+   * Number of threads used to process the blocking groups.
+   * 1 processes them sequentially, values smaller than 1 use all available processors.
+   */
+  private int parallelism = DEFAULT_PARALLELISM;
+
+  /**
+   * Whether the attribute values of the records are decoded once before blocking, see {@link Record#decode()}.
+   * Avoids decoding them again for every comparison at the cost of keeping the decoded values in memory.
+   */
+  private boolean decodeRecords;
+
   private final static Logger logger = LogManager.getLogger(DefaultBatchMatcher.class);
 
   public DefaultBatchMatcher(Blocker blocker, Linker linker,
@@ -61,26 +84,41 @@ public class DefaultBatchMatcher implements BatchMatcher {
 
   @Override
   public Collection<RecordPair> matchSources(Collection<RecordCluster> sources) {
+    if (decodeRecords) {
+      sources.forEach(source -> source.getRecords().forEach(Record::decode));
+    }
     final Collection<BlockingGroup> blockingGroups = blocker.block(sources);
     logger.info("Number of blocking groups: " + blockingGroups.size());
 
-    final CrossProduct crossProduct = new CrossProduct();
+    final CrossProduct crossProduct = CrossProduct.of(blocker);
     crossProduct.setFilter(pair -> linker.compareAndClassify(pair).isPresent());
 
-    final Map<String, RecordPair> recordPairs = new HashMap<>();
+    final RecordIndex recordIndex = RecordIndex.ofSources(sources);
+    final int threads = parallelism < 1 ? Runtime.getRuntime().availableProcessors() : parallelism;
+    final Collection<RecordPair> recordPairs = threads == 1 ?
+      linkGroups(blockingGroups, crossProduct, recordIndex) :
+      linkGroupsParallel(blockingGroups, crossProduct, recordIndex, threads);
+    logger.info("Number of pairs after blocking: " + recordPairs.size());
+
+    return postprocess(recordPairs);
+  }
+
+  private Collection<RecordPair> linkGroups(Collection<BlockingGroup> blockingGroups, CrossProduct crossProduct,
+    RecordIndex recordIndex) {
+    final LongHashSet pairKeys = new LongHashSet();
+    final List<RecordPair> recordPairs = new ArrayList<>();
     long c = 0;
     long all = blockingGroups.size();
     for (BlockingGroup blockingGroup : blockingGroups) {
       if (c > 0) {
-        int numberOfRecordPairs = getNumberOfRecordsPairs(blockingGroup);
+        long numberOfRecordPairs = blockingGroup.getComparisonCount();
         if (numberOfRecordPairs > 100000) {
           logger.debug(c + ": " + numberOfRecordPairs);
         }
       }
       crossProduct.block(blockingGroup.getGroups()).forEach(rp -> {
-        String rpId = rp.getPairId();
-        if (!recordPairs.containsKey(rpId)) {
-          recordPairs.put(rpId, rp);
+        if (pairKeys.add(recordIndex.getPairKey(rp))) {
+          recordPairs.add(rp);
         }
       });
       c++;
@@ -89,14 +127,60 @@ public class DefaultBatchMatcher implements BatchMatcher {
         logger.debug("RecordPair map size " + recordPairs.size());
       }
     }
-    logger.info("Number of pairs after blocking: " + recordPairs.size());
+    return recordPairs;
+  }
+
+  /**
+   * Process the blocking groups on a dedicated fork-join pool. Pairs are deduplicated in lock-striped shards.
+   * Like in the sequential variant, a pair that occurs in several groups is taken from the first of these groups.
+   * The result is ordered by pair key, so it does not depend on the thread scheduling.
+   */
+  private Collection<RecordPair> linkGroupsParallel(Collection<BlockingGroup> blockingGroups,
+    CrossProduct crossProduct, RecordIndex recordIndex, int threads) {
+    final List<BlockingGroup> groups = new ArrayList<>(blockingGroups);
+    final int shardMask = (Integer.highestOneBit(threads * 4 - 1) << 1) - 1;
+    final List<LongObjectHashMap<GroupRecordPair>> shards = new ArrayList<>(shardMask + 1);
+    for (int i = 0; i <= shardMask; i++) {
+      shards.add(new LongObjectHashMap<>());
+    }
+    final AtomicLong processedGroups = new AtomicLong();
+    final int all = groups.size();
 
-    return postprocess(recordPairs.values());
+    final ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      pool.submit(() -> IntStream.range(0, all).parallel().forEach(i -> {
+        crossProduct.block(groups.get(i).getGroups()).forEach(rp -> {
+          final long pairKey = recordIndex.getPairKey(rp);
+          final LongObjectHashMap<GroupRecordPair> shard = shards.get(Long.hashCode(pairKey) & shardMask);
+          synchronized (shard) {
+            shard.merge(pairKey, new GroupRecordPair(pairKey, i, rp), GroupRecordPair::first);
+          }
+        });
+        long c = processedGroups.incrementAndGet();
+        if (c % 1000 == 0) {
+          logger.debug("Processed blocking groups: " + c + "/" + all);
+        }
+      })).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while processing blocking groups", e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to process blocking groups", e.getCause());
+    } finally {
+      pool.shutdown();
+    }
+
+    return shards.stream()
+      .flatMap(shard -> shard.values().stream())
+      .sorted(Comparator.comparingLong(GroupRecordPair::pairKey))
+      .map(GroupRecordPair::recordPair)
+      .collect(Collectors.toList());
   }
 
-  private int getNumberOfRecordsPairs(BlockingGroup blockingGroup) {
-    return blockingGroup.getGroups().stream().map(group -> group.getRecords().size()).mapToInt(i -> i)
-      .reduce((a, b) -> a * b).getAsInt();
+  private record GroupRecordPair(long pairKey, int group, RecordPair recordPair) {
+    GroupRecordPair first(GroupRecordPair other) {
+      return group <= other.group ? this : other;
+    }
   }
 
   public Collection<RecordPair> postprocess(Collection<RecordPair> pairs) {
@@ -146,6 +230,22 @@ public class DefaultBatchMatcher implements BatchMatcher {
     this.linksPostprocessor = linksPostprocessor;
   }
 
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public boolean isDecodeRecords() {
+    return decodeRecords;
+  }
+
+  public void setDecodeRecords(boolean decodeRecords) {
+    this.decodeRecords = decodeRecords;
+  }
+
   public Clusterer getClusterer() {
     return clusterer;
   }
@@ -13,6 +13,12 @@ public interface IncrementalMatcher extends Matcher {
   @JsonIgnore
   void setDataSet(BlockedDataSet dataSet);
 
+  /**
+   * Drop the in-memory state kept for a dataset, e.g. after it has been changed or is no longer used
+   */
+  default void removeDataSet(BlockedDataSet dataSet) {
+  }
+
   SearchResult search(Record query);
 
   RecordId insert(Record query);
@@ -27,6 +27,7 @@ import de.unileipzig.dbs.pprl.core.matcher.model.api.SearchResult;
 import de.unileipzig.dbs.pprl.core.matcher.model.api.SearchResultEntry;
 import de.unileipzig.dbs.pprl.core.matcher.model.impl.BasicSearchResult;
 import de.unileipzig.dbs.pprl.core.matcher.model.impl.BasicSearchResultEntry;
+import de.unileipzig.dbs.pprl.core.matcher.model.impl.IndexedBlockedDataSet;
 import de.unileipzig.dbs.pprl.core.common.model.impl.RecordPairSimple;
 import io.micrometer.core.instrument.Metrics;
 import org.apache.logging.log4j.LogManager;
@@ -35,8 +36,10 @@ import org.apache.logging.log4j.Logger;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -45,12 +48,21 @@ import java.util.stream.Collectors;
  */
 public class SingletonIncrementalMatcher implements IncrementalMatcher {
 
+  public static final int DEFAULT_CANDIDATE_CACHE_SIZE = 0;
+
   private Blocker blocker;
 
   private Linker linker;
 
   private BlockedDataSet dataSet;
 
+  /**
+   * Maximum number of candidate records kept in memory per dataset, 0 disables the in-memory blocking index
+   */
+  private int candidateCacheSize = DEFAULT_CANDIDATE_CACHE_SIZE;
+
+  private final Map<BlockedDataSet, IndexedBlockedDataSet> indexedDataSets = new ConcurrentHashMap<>();
+
   private final static Logger logger = LogManager.getLogger(SingletonIncrementalMatcher.class);
 
   public SingletonIncrementalMatcher(Blocker blocker, Linker linker) {
@@ -61,14 +73,29 @@ public class SingletonIncrementalMatcher implements IncrementalMatcher {
   private SingletonIncrementalMatcher() {
   }
 
+  /**
+   * Set the dataset to search in and to insert into. If a candidate cache size is configured, lookups are served
+   * by an {@link IndexedBlockedDataSet} that is kept per dataset instance, so the same instance should be passed
+   * for subsequent requests.
+   */
   @Override
   public void setDataSet(BlockedDataSet dataSet) {
-    this.dataSet = dataSet;
+    if (candidateCacheSize > 0 && !(dataSet instanceof IndexedBlockedDataSet)) {
+      this.dataSet = indexedDataSets.computeIfAbsent(dataSet,
+        d -> new IndexedBlockedDataSet(d, candidateCacheSize));
+    } else {
+      this.dataSet = dataSet;
+    }
+  }
+
+  @Override
+  public void removeDataSet(BlockedDataSet dataSet) {
+    indexedDataSets.remove(dataSet);
   }
 
   @Override
   public SearchResult search(Record query) {
-    return search(query, blocker.generateKeys(query));
+    return search(query, blocker.getQueryKeys(blocker.generateKeys(query)));
   }
 
   @Override
@@ -76,7 +103,8 @@ public class SingletonIncrementalMatcher implements IncrementalMatcher {
     Collection<BlockingKey> blockingKeys = Metrics.timer("generate.blockingkeys.time")
       .record(() -> blocker.generateKeys(query));
 
-    SearchResult searchResult = Metrics.timer("search.time").record(()->search(query, blockingKeys));
+    SearchResult searchResult = Metrics.timer("search.time")
+      .record(() -> search(query, blocker.getQueryKeys(blockingKeys)));
 
     RecordId recordId = Metrics.timer("assign.time").record(()->assignRecordId(query, blockingKeys,
       searchResult));
@@ -144,6 +172,15 @@ public class SingletonIncrementalMatcher implements IncrementalMatcher {
     this.blocker = blocker;
   }
 
+  public int getCandidateCacheSize() {
+    return candidateCacheSize;
+  }
+
+  public void setCandidateCacheSize(int candidateCacheSize) {
+    this.candidateCacheSize = candidateCacheSize;
+    indexedDataSets.clear();
+  }
+
   public Linker getLinker() {
     return linker;
   }
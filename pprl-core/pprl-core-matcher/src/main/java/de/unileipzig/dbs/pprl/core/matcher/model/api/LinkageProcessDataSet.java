@@ -1,12 +1,16 @@
 package de.unileipzig.dbs.pprl.core.matcher.model.api;
 
 import de.unileipzig.dbs.pprl.core.common.model.api.BlockedDataSet;
+import de.unileipzig.dbs.pprl.core.common.model.api.BlockingKey;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
 import de.unileipzig.dbs.pprl.core.matcher.blocking.BlockingGroup;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Dataset that not only contains records, but also blocking keys and record links
@@ -23,6 +27,30 @@ public interface LinkageProcessDataSet extends BlockedDataSet {
 
   void addBlockingGroups(Collection<BlockingGroup> blockingGroups);
 
+  /**
+   * Get the persisted blocking keys of the given records. Records without persisted keys are not contained.
+   *
+   * @param uniqueIds unique ids of the records
+   * @return blocking keys by unique record id
+   */
+  default Map<String, Collection<BlockingKey>> getBlockingKeys(Collection<String> uniqueIds) {
+    return Collections.emptyMap();
+  }
+
+  /**
+   * Persist the blocking keys of records, i.e. the postings from blocking keys to records.
+   *
+   * @param blockingKeys blocking keys by unique record id
+   */
+  default void addBlockingKeys(Map<String, Collection<BlockingKey>> blockingKeys) {
+  }
+
+  /**
+   * Remove all persisted blocking keys, e.g. after the blocking configuration changed.
+   */
+  default void deleteBlockingKeys() {
+  }
+
   void addRecordPair(RecordPair recordPair);
 
   default void addRecordPairs(Collection<RecordPair> recordPairs) {
@@ -48,6 +76,17 @@ public interface LinkageProcessDataSet extends BlockedDataSet {
     return getRecordPairsFilteredByProperty(ACTIVE);
   }
 
+  /**
+   * Stream the active record pairs for passes over all of them, e.g. postprocessing and clustering. The pairs may
+   * only carry the record ids, similarity, classification and tags, so changes have to be persisted with
+   * {@link #updateRecordPairTags(Collection)}. The stream has to be closed.
+   *
+   * @return active record pairs
+   */
+  default Stream<RecordPair> streamActiveRecordPairs() {
+    return getActiveRecordPairs().stream();
+  }
+
   void addRecordCluster(RecordCluster recordCluster);
 
   default void addRecordClusters(Collection<RecordCluster> recordClusters) {
@@ -56,6 +95,24 @@ public interface LinkageProcessDataSet extends BlockedDataSet {
 
   void updateRecordPairs(Collection<RecordPair> recordPairs);
 
+  /**
+   * Persist the new classification of reclassified record pairs together with their tags and properties.
+   *
+   * @param recordPairs record pairs whose classification changed
+   */
+  default void updateRecordPairClassifications(Collection<RecordPair> recordPairs) {
+    updateRecordPairs(recordPairs);
+  }
+
+  /**
+   * Persist the changed tags of record pairs, e.g. of pairs from {@link #streamActiveRecordPairs()}.
+   *
+   * @param recordPairs changed record pairs
+   */
+  default void updateRecordPairTags(Collection<RecordPair> recordPairs) {
+    updateRecordPairs(recordPairs);
+  }
+
   void replaceRecordPairs(Collection<RecordPair> recordPairs);
 
 }
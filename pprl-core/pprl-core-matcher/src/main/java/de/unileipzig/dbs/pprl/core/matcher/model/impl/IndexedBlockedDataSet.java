@@ -0,0 +1,239 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.unileipzig.dbs.pprl.core.matcher.model.impl;
+
+import de.unileipzig.dbs.pprl.core.common.model.api.BlockedDataSet;
+import de.unileipzig.dbs.pprl.core.common.model.api.BlockingKey;
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordId;
+import de.unileipzig.dbs.pprl.core.common.monitoring.TagTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * {@link BlockedDataSet} that answers blocking key lookups from an in-memory inverted index (blocking key to
+ * record indices) and a LRU cache of decoded records. The wrapped dataset remains the durable store: inserted
+ * records are written through, and a blocking key is fetched from the wrapped dataset only if it was not looked up
+ * before or one of its records has been evicted from the cache. Missing keys of a lookup are fetched together in
+ * batches of {@link #KEY_BATCH_SIZE} keys. The index is dropped when records are added without blocking keys or by
+ * {@link #invalidate()}, e.g. after the wrapped dataset has been changed by others.
+ */
+public class IndexedBlockedDataSet implements BlockedDataSet {
+
+  public static final int DEFAULT_CACHE_SIZE = 100000;
+
+  public static final int KEY_BATCH_SIZE = 1000;
+
+  private final BlockedDataSet dataSet;
+
+  private final Map<String, Integer> indices = new HashMap<>();
+
+  private final Map<BlockingKey, Posting> postings = new HashMap<>();
+
+  private final LinkedHashMap<Integer, Record> cache;
+
+  public IndexedBlockedDataSet(BlockedDataSet dataSet) {
+    this(dataSet, DEFAULT_CACHE_SIZE);
+  }
+
+  public IndexedBlockedDataSet(BlockedDataSet dataSet, int cacheSize) {
+    this.dataSet = dataSet;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, Record> eldest) {
+        return size() > cacheSize;
+      }
+    };
+  }
+
+  @Override
+  public Collection<Record> getRecordsByBlockingKey(BlockingKey bk) {
+    return getRecordsByBlockingKeys(List.of(bk));
+  }
+
+  @Override
+  public Collection<Record> getRecordsByBlockingKeys(Collection<BlockingKey> bks) {
+    if (bks.isEmpty()) {
+      return dataSet.getRecordsByBlockingKeys(bks);
+    }
+    final Map<Integer, Record> result = new LinkedHashMap<>();
+    final List<BlockingKey> missingKeys = new ArrayList<>();
+    synchronized (this) {
+      for (BlockingKey bk : bks) {
+        final Posting posting = postings.get(bk);
+        if (posting == null || !posting.complete || !collect(posting, result)) {
+          missingKeys.add(bk);
+        }
+      }
+    }
+    for (int from = 0; from < missingKeys.size(); from += KEY_BATCH_SIZE) {
+      final List<BlockingKey> batch = missingKeys.subList(from, Math.min(from + KEY_BATCH_SIZE, missingKeys.size()));
+      final Map<BlockingKey, Collection<Record>> recordsByKey = dataSet.getRecordsPerBlockingKey(batch);
+      recordsByKey.values().forEach(records -> records.forEach(Record::decode));
+      synchronized (this) {
+        for (BlockingKey bk : batch) {
+          index(bk, recordsByKey.getOrDefault(bk, List.of()), result);
+        }
+      }
+    }
+    return result.values();
+  }
+
+  private void index(BlockingKey bk, Collection<Record> records, Map<Integer, Record> result) {
+    final Posting posting = postings.computeIfAbsent(bk, k -> new Posting());
+    final Set<Integer> contained = posting.toSet();
+    for (Record record : records) {
+      final int index = getIndex(record);
+      cache.put(index, record);
+      result.putIfAbsent(index, record);
+      if (contained.add(index)) {
+        posting.add(index);
+      }
+    }
+    posting.complete = true;
+  }
+
+  /**
+   * Drop the index and the cached records, so that all blocking keys are fetched again
+   */
+  public synchronized void invalidate() {
+    postings.clear();
+    cache.clear();
+    indices.clear();
+  }
+
+  /**
+   * @return false if a record of the posting is not cached
+   */
+  private boolean collect(Posting posting, Map<Integer, Record> result) {
+    for (int i = 0; i < posting.size; i++) {
+      final Record record = cache.get(posting.indices[i]);
+      if (record == null) {
+        return false;
+      }
+      result.putIfAbsent(posting.indices[i], record);
+    }
+    return true;
+  }
+
+  @Override
+  public void addBlockedRecord(Record record, Collection<BlockingKey> blockingKeys) {
+    dataSet.addBlockedRecord(record, blockingKeys);
+    // deserialize all attributes upfront so that cached records are only read by concurrent lookups
+    record.decode();
+    synchronized (this) {
+      final int index = getIndex(record);
+      cache.put(index, record);
+      for (BlockingKey bk : blockingKeys) {
+        postings.computeIfAbsent(bk, k -> new Posting()).add(index);
+      }
+    }
+  }
+
+  private int getIndex(Record record) {
+    return indices.computeIfAbsent(record.getId().getUniqueId(), id -> indices.size());
+  }
+
+  /**
+   * @return number of blocking keys in the index
+   */
+  public synchronized int getIndexedKeyCount() {
+    return postings.size();
+  }
+
+  /**
+   * @return number of cached records
+   */
+  public synchronized int getCachedRecordCount() {
+    return cache.size();
+  }
+
+  @Override
+  public void addRecord(Record record) {
+    dataSet.addRecord(record);
+    invalidate();
+  }
+
+  @Override
+  public void addRecords(Collection<Record> records) {
+    dataSet.addRecords(records);
+    invalidate();
+  }
+
+  @Override
+  public Optional<Record> getRecord(RecordId id) {
+    return dataSet.getRecord(id);
+  }
+
+  @Override
+  public Collection<Record> getAllRecords() {
+    return dataSet.getAllRecords();
+  }
+
+  @Override
+  public Collection<Record> getRecordsBySource(String sourceName) {
+    return dataSet.getRecordsBySource(sourceName);
+  }
+
+  @Override
+  public long size() {
+    return dataSet.size();
+  }
+
+  @Override
+  public void setTagTable(TagTable tagTable) {
+    dataSet.setTagTable(tagTable);
+  }
+
+  @Override
+  public Optional<TagTable> getTagTable() {
+    return dataSet.getTagTable();
+  }
+
+  /**
+   * Indices of the records sharing a blocking key. Postings created by inserts are incomplete until the key has
+   * been fetched from the wrapped dataset once.
+   */
+  private static class Posting {
+    private int[] indices = new int[4];
+    private int size;
+    private boolean complete;
+
+    private void add(int index) {
+      if (size == indices.length) {
+        indices = Arrays.copyOf(indices, size * 2);
+      }
+      indices[size++] = index;
+    }
+
+    private Set<Integer> toSet() {
+      final Set<Integer> set = new HashSet<>(size * 4 / 3 + 1);
+      for (int i = 0; i < size; i++) {
+        set.add(indices[i]);
+      }
+      return set;
+    }
+  }
+}
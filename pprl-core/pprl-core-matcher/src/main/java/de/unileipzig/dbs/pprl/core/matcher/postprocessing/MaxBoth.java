@@ -16,20 +16,30 @@
 
 package de.unileipzig.dbs.pprl.core.matcher.postprocessing;
 
-import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.collections.RecordIndex;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
+ * Keeps a link only if it is the link with the highest similarity for both of its records.
+ * Records are mapped to dense indices, so the best link per record is tracked in arrays instead of maps.
+ * If several links of a record have the same similarity, the first one is kept.
+ * The streaming variant only keeps the best similarity per record and breaks ties by the smallest pair id,
+ * since the order of a stream is not guaranteed to be the same in both passes.
+ *
  * @author mfranke
  */
-public final class MaxBoth implements LinksPostprocessor {
+public final class MaxBoth implements StreamingLinksPostprocessor {
   public static final boolean DEFAULT_PARALLEL_EXECUTION = true;
 
   private boolean parallelExecution = DEFAULT_PARALLEL_EXECUTION;
@@ -43,62 +53,96 @@ public final class MaxBoth implements LinksPostprocessor {
 
   @Override
   public <P extends RecordPair> Collection<P> clean(Collection<P> recordPairs) {
-    recordPairs = recordPairs.stream().peek(RecordPair::sortRecordsBySource).collect(Collectors.toList());
+    final List<P> pairs = recordPairs.stream().peek(RecordPair::sortRecordsBySource).collect(Collectors.toList());
+
+    final RecordIndex recordIndex = new RecordIndex();
+    final int[] leftIndices = new int[pairs.size()];
+    final int[] rightIndices = new int[pairs.size()];
+    for (int i = 0; i < pairs.size(); i++) {
+      leftIndices[i] = recordIndex.add(pairs.get(i).getLeftRecord());
+      rightIndices[i] = recordIndex.add(pairs.get(i).getRightRecord());
+    }
 
-    final Set<P> cleanedMatches =
-      this.parallelExecution ? this.cleanParallel(recordPairs) : this.cleanSequential(recordPairs);
-    return cleanedMatches;
-  }
+    final int[] bestLeft = getBestPairs(pairs, leftIndices, recordIndex.size());
+    final int[] bestRight = getBestPairs(pairs, rightIndices, recordIndex.size());
 
-  private <P extends RecordPair> Set<P> cleanParallel(Collection<P> classifiedMatches) {
-    final CandidatePairGrouper<P> grouper = new CandidatePairGrouper<>(classifiedMatches);
-    final Map<Record, P> leftNodes = grouper.groupLeftAndGetMaxParallel();
-    final Map<Record, P> rightNodes = grouper.groupRightAndGetMaxParallel();
-    final Set<P> cleanedMatches = this.intersectionParallel(leftNodes, rightNodes);
-    return cleanedMatches;
+    IntStream positions = IntStream.range(0, pairs.size());
+    if (parallelExecution) {
+      positions = positions.parallel();
+    }
+    return positions
+      .filter(i -> bestLeft[leftIndices[i]] == i && bestRight[rightIndices[i]] == i)
+      .mapToObj(pairs::get)
+      .collect(Collectors.toList());
   }
 
-  private <P extends RecordPair> Set<P> cleanSequential(Collection<P> classifiedMatches) {
-    final CandidatePairGrouper<P> grouper = new CandidatePairGrouper<>(classifiedMatches);
-    final Map<String, P> leftNodes = grouper.groupLeftAndGetMaxSequential();
-    final Map<String, P> rightNodes = grouper.groupRightAndGetMaxSequential();
-    final Set<P> cleanedMatches = this.intersectionSequential(leftNodes, rightNodes);
-    return cleanedMatches;
+  @Override
+  public Predicate<RecordPair> createFilter(Stream<? extends RecordPair> recordPairs) {
+    final Map<String, BestLink> bestLeft = new HashMap<>();
+    final Map<String, BestLink> bestRight = new HashMap<>();
+    recordPairs.map(RecordPair::sortRecordsBySource).forEach(pair -> {
+      final BestLink link = new BestLink(pair.getSimilarity(), pair.getPairId());
+      bestLeft.merge(pair.getLeftRecord().getId().getUniqueId(), link, BestLink::max);
+      bestRight.merge(pair.getRightRecord().getId().getUniqueId(), link, BestLink::max);
+    });
+    return pair -> {
+      RecordPair.sortRecordsBySource(pair);
+      final String pairId = pair.getPairId();
+      final BestLink left = bestLeft.get(pair.getLeftRecord().getId().getUniqueId());
+      final BestLink right = bestRight.get(pair.getRightRecord().getId().getUniqueId());
+      return left != null && right != null && left.pairId().equals(pairId) && right.pairId().equals(pairId);
+    };
   }
 
+  /**
+   * @return for each record index the position of its best pair, -1 for records without pair on this side
+   */
+  private <P extends RecordPair> int[] getBestPairs(List<P> pairs, int[] recordIndices, int recordCount) {
+    final int[] best = new int[recordCount];
+    Arrays.fill(best, -1);
+    if (!parallelExecution) {
+      for (int i = 0; i < pairs.size(); i++) {
+        final int record = recordIndices[i];
+        if (best[record] == -1 || isBetter(pairs, i, best[record])) {
+          best[record] = i;
+        }
+      }
+      return best;
+    }
+
+    // Positions are stored incremented by one, since the array is initialised with 0
+    final AtomicIntegerArray bestPositions = new AtomicIntegerArray(recordCount);
+    IntStream.range(0, pairs.size()).parallel().forEach(i -> {
+      final int record = recordIndices[i];
+      int current;
+      do {
+        current = bestPositions.get(record);
+        if (current != 0 && !isBetter(pairs, i, current - 1)) {
+          return;
+        }
+      } while (!bestPositions.compareAndSet(record, current, i + 1));
+    });
+    for (int record = 0; record < recordCount; record++) {
+      best[record] = bestPositions.get(record) - 1;
+    }
+    return best;
+  }
 
-  private <P extends RecordPair> Set<P> intersectionParallel(Map<Record, P> leftNodes,
-    Map<Record, P> rightNodes) {
-    final Set<P> merged = leftNodes.entrySet()
-//				.stream()
-      .parallelStream().map(Entry::getValue).filter(i -> {
-        final P maxCandForRight = rightNodes.get(i.getRightRecord());
-        return maxCandForRight.getLeftRecord().equals(i.getLeftRecord());
-      }).collect(Collectors.toCollection(HashSet::new));
-//    System.out.println("Merged " + merged.size());
-    return merged;
+  private static <P extends RecordPair> boolean isBetter(List<P> pairs, int candidate, int current) {
+    final int cmp = Double.compare(pairs.get(candidate).getSimilarity(), pairs.get(current).getSimilarity());
+    return cmp > 0 || (cmp == 0 && candidate < current);
   }
 
-  private <P extends RecordPair> Set<P> intersectionSequential(Map<String, P> leftNodes,
-    Map<String, P> rightNodes) {
-    final Collection<P> left = leftNodes.values();
-    final Set<P> result = new HashSet<>();
-
-    for (P cand : left) {
-      final String rightRecordId = cand.getRightRecord().getId().getUniqueId();
-//			if (rightNodes.containsKey(rightRecordId)){
-      final String leftRecordId = rightNodes.get(rightRecordId).getLeftRecord().getId().getUniqueId();
-      if (cand.getLeftRecord().getId().equals(leftRecordId)) {
-        result.add(cand);
-      }
+  private record BestLink(double similarity, String pairId) {
+
+    static BestLink max(BestLink a, BestLink b) {
+      final int cmp = Double.compare(a.similarity, b.similarity);
+      return cmp > 0 || (cmp == 0 && a.pairId.compareTo(b.pairId) <= 0) ? a : b;
     }
-//		}			
-    System.out.println("Merged " + result.size());
-    return result;
   }
 
   @Override
   public String toString() {
     return "Max1-both (Symetric Best Match)";
   }
-}
\ No newline at end of file
+}
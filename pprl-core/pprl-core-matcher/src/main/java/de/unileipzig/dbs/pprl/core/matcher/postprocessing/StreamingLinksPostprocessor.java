@@ -0,0 +1,37 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.matcher.postprocessing;
+
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
+
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Postprocessor that decides about the record pairs in two passes over a stream of the pairs,
+ * so that the pairs do not have to be held in memory at once.
+ */
+public interface StreamingLinksPostprocessor extends LinksPostprocessor {
+
+  /**
+   * Collect the statistics needed for the decision in a first pass over all record pairs.
+   *
+   * @return filter accepting the pairs to keep, to be applied in a second pass over the same pairs
+   */
+  Predicate<RecordPair> createFilter(Stream<? extends RecordPair> recordPairs);
+
+}
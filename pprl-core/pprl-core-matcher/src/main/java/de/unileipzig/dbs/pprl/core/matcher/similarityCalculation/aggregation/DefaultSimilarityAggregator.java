@@ -16,12 +16,6 @@
 
 package de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.aggregation;
 
-import de.unileipzig.dbs.pprl.core.matcher.model.AttributePairWithSimilarity;
-import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.missing.MissingSimilarityStrategy;
-
-import java.util.Collection;
-import java.util.stream.Stream;
-
 /**
  * Basic aggregator for multiple similarity scores to a single value
  * Supported methods: MIN, MAX, AVERAGE
@@ -40,15 +34,28 @@ public class DefaultSimilarityAggregator implements SimilarityAggregator {
   }
 
   @Override
-  public Double aggregate(Collection<AttributePairWithSimilarity> candidatePairWithSimilarities) {
-    Stream<Double> similarities =
-      candidatePairWithSimilarities.stream()
-        .map(AttributePairWithSimilarity::getSimilarity)
-        .filter(sim -> !sim.equals(MissingSimilarityStrategy.MISSING_SIMILARITY));
+  public double aggregate(String[] names, double[] similarities, int length) {
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    double sum = 0;
+    int count = 0;
+    for (int i = 0; i < length; i++) {
+      final double sim = similarities[i];
+      if (Double.isNaN(sim)) {
+        continue;
+      }
+      min = Math.min(min, sim);
+      max = Math.max(max, sim);
+      sum += sim;
+      count++;
+    }
+    if (count == 0) {
+      return 0d;
+    }
     return switch (aggregationMethod) {
-      case MIN -> similarities.min(Double::compareTo).orElse(0d);
-      case MAX -> similarities.max(Double::compareTo).orElse(0d);
-      case AVERAGE -> similarities.mapToDouble(d -> d).average().orElse(0d);
+      case MIN -> min;
+      case MAX -> max;
+      case AVERAGE -> sum / count;
     };
   }
 
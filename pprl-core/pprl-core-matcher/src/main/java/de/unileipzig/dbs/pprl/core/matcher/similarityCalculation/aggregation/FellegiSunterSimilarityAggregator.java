@@ -17,12 +17,9 @@
 package de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.aggregation;
 
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
-import de.unileipzig.dbs.pprl.core.matcher.model.AttributePairWithSimilarity;
-import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.missing.MissingSimilarityStrategy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -53,20 +50,22 @@ public class FellegiSunterSimilarityAggregator implements SimilarityAggregator {
    * The final score is normalized between 0 and 1 based on the min/max possible totals.
    */
   @Override
-  public Double aggregate(Collection<AttributePairWithSimilarity> pairs) {
+  public double aggregate(String[] names, double[] similarities, int length) {
     double score = 0.0;
     double minScore = 0.0;
     double maxScore = 0.0;
+    final double mAverage = getAverageWeight(mWeights);
+    final double uAverage = getAverageWeight(uWeights);
 
-    for (AttributePairWithSimilarity pair : pairs) {
-      Double similarity = pair.getSimilarity();
-      if (similarity.equals(MissingSimilarityStrategy.MISSING_SIMILARITY)) {
+    for (int i = 0; i < length; i++) {
+      final double similarity = similarities[i];
+      if (Double.isNaN(similarity)) {
         continue;
       }
 
-      String attr = pair.getName();
-      double m = mWeights.getOrDefault(attr, getAverageWeight(mWeights));
-      double u = uWeights.getOrDefault(attr, getAverageWeight(uWeights));
+      String attr = names[i];
+      double m = mWeights.getOrDefault(attr, mAverage);
+      double u = uWeights.getOrDefault(attr, uAverage);
 
       // Interpolate linearly between disagreement (u) and agreement (m)
       double combined = u + similarity * (m - u);
@@ -19,6 +19,7 @@ package de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.aggregation;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import de.unileipzig.dbs.pprl.core.matcher.model.AttributePairWithSimilarity;
+import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.missing.MissingSimilarityStrategy;
 
 import java.util.Collection;
 
@@ -31,6 +32,21 @@ import java.util.Collection;
 @JsonPropertyOrder(alphabetic=true)
 public interface SimilarityAggregator {
 
-  Double aggregate(Collection<AttributePairWithSimilarity> similarities);
+  default Double aggregate(Collection<AttributePairWithSimilarity> similarities) {
+    final String[] names = new String[similarities.size()];
+    final double[] values = new double[similarities.size()];
+    int i = 0;
+    for (AttributePairWithSimilarity pair : similarities) {
+      names[i] = pair.getName();
+      values[i++] = pair.getSimilarity();
+    }
+    return aggregate(names, values, i);
+  }
+
+  /**
+   * Aggregate the first {@code length} similarities of the given attributes without attribute pair objects.
+   * Missing similarities are {@link MissingSimilarityStrategy#MISSING_SIMILARITY}.
+   */
+  double aggregate(String[] names, double[] similarities, int length);
 
 }
@@ -17,12 +17,9 @@
 package de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.aggregation;
 
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
-import de.unileipzig.dbs.pprl.core.matcher.model.AttributePairWithSimilarity;
-import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.missing.MissingSimilarityStrategy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -47,16 +44,15 @@ public class WeightedSimilarityAggregator implements SimilarityAggregator {
   }
 
   @Override
-  public Double aggregate(Collection<AttributePairWithSimilarity> pairs) {
+  public double aggregate(String[] names, double[] similarities, int length) {
     double nom = 0.0;
     double div = 0.0;
-    for (AttributePairWithSimilarity pair : pairs) {
-      Double similarity = pair.getSimilarity();
-      if (similarity.equals(MissingSimilarityStrategy.MISSING_SIMILARITY)) {
+    for (int i = 0; i < length; i++) {
+      final double similarity = similarities[i];
+      if (Double.isNaN(similarity)) {
         continue;
       }
-      final String attrName = pair.getName();
-      final double w = getWeight(attrName);
+      final double w = getWeight(names[i]);
       nom += w * similarity;
       div += w;
     }
@@ -20,6 +20,7 @@ import de.unileipzig.dbs.pprl.core.common.BitSetUtils;
 import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
 import de.unileipzig.dbs.pprl.core.common.model.impl.AttributePair;
+import de.unileipzig.dbs.pprl.core.common.model.impl.PackedBitVector;
 import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.missing.MissingSimilarityStrategy;
 
 import java.util.BitSet;
@@ -47,23 +48,45 @@ public final class BitVectorSimilarityCalculator implements AttributeSimilarityC
     final BitVector rightBitVector = getAttributeValue(rightAttribute, BitVector.class);
     final int len = leftBitVector.getLength();
 
-    double sim = getSimilarity(leftBitVector.getBitSet(), rightBitVector.getBitSet(), len);
+    int card1 = 0;
+    int card2 = 0;
+    int and = 0;
+    if (leftBitVector instanceof PackedBitVector leftPacked && rightBitVector instanceof PackedBitVector rightPacked) {
+      // Single pass over both word arrays without intermediate objects
+      final long[] a = leftPacked.getWords();
+      final long[] b = rightPacked.getWords();
+      final int n = Math.min(a.length, b.length);
+      for (int i = 0; i < n; i++) {
+        card1 += Long.bitCount(a[i]);
+        card2 += Long.bitCount(b[i]);
+        and += Long.bitCount(a[i] & b[i]);
+      }
+      for (int i = n; i < a.length; i++) {
+        card1 += Long.bitCount(a[i]);
+      }
+      for (int i = n; i < b.length; i++) {
+        card2 += Long.bitCount(b[i]);
+      }
+    } else {
+      final BitSet leftBitSet = leftBitVector.getBitSet();
+      final BitSet rightBitSet = rightBitVector.getBitSet();
+      card1 = leftBitSet.cardinality();
+      card2 = rightBitSet.cardinality();
+      and = BitSetUtils.and(leftBitSet, rightBitSet).cardinality();
+    }
+
+    double sim = getSimilarity(card1, card2, and, len);
 
     if (similarityMethod.toString().contains("BOTH")) {
-      double isim = getSimilarity(
-        BitSetUtils.invert(leftBitVector.getBitSet(), leftBitVector.getLength()),
-        BitSetUtils.invert(rightBitVector.getBitSet(), rightBitVector.getLength()), len
-      );
+      // Cardinalities of the inverted bitvectors (both vectors are expected to have the same length):
+      // |~a| = len - |a| and |~a & ~b| = len - |a | b|
+      double isim = getSimilarity(len - card1, len - card2, len - (card1 + card2 - and), len);
       sim = (sim + isim) / 2;
     }
     return sim;
   }
 
-  private double getSimilarity(BitSet leftBitSet, BitSet rightBitSet, int len) {
-    final int card1 = leftBitSet.cardinality();
-    final int card2 = rightBitSet.cardinality();
-    final int and = BitSetUtils.and(leftBitSet, rightBitSet).cardinality();
-
+  private double getSimilarity(int card1, int card2, int and, int len) {
     if (card1 == 0 || card2 == 0) {
       return MissingSimilarityStrategy.MISSING_SIMILARITY;
     }
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.record;
+
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Attribute names of a record schema that are compared, resolved once instead of for every record pair.
+ * Names matching one of the ignore patterns are excluded.
+ */
+final class AttributeComparisonPlan {
+
+  private final String[] names;
+
+  /**
+   * Names of the schema that are not compared, used together with the attribute count to detect a different schema
+   */
+  private final String[] ignoredNames;
+
+  /**
+   * Number of attributes of the schema including ignored ones, used to detect a different schema
+   */
+  private final int attributeCount;
+
+  private AttributeComparisonPlan(String[] names, String[] ignoredNames, int attributeCount) {
+    this.names = names;
+    this.ignoredNames = ignoredNames;
+    this.attributeCount = attributeCount;
+  }
+
+  static AttributeComparisonPlan compile(Record record, List<String> ignorePatterns) {
+    final Collection<String> attributeNames = record.getAttributeNames();
+    final String[] names = attributeNames.stream()
+      .filter(name -> ignorePatterns.stream().noneMatch(name::contains))
+      .sorted()
+      .toArray(String[]::new);
+    final String[] ignoredNames = attributeNames.stream()
+      .filter(name -> ignorePatterns.stream().anyMatch(name::contains))
+      .toArray(String[]::new);
+    return new AttributeComparisonPlan(names, ignoredNames, attributeNames.size());
+  }
+
+  /**
+   * @return true if the record has the same number of attributes and all ignored attributes of the compiled
+   * schema; together with the lookup of every compared attribute this detects schema changes
+   */
+  boolean matches(Record record) {
+    if (record.getNumberOfAttributes() != attributeCount) {
+      return false;
+    }
+    for (String ignoredName : ignoredNames) {
+      if (record.getAttribute(ignoredName).isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  int size() {
+    return names.length;
+  }
+
+  String getName(int index) {
+    return names[index];
+  }
+}
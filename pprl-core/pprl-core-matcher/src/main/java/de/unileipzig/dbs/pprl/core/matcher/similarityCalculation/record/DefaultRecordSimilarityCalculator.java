@@ -19,12 +19,10 @@ package de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.record;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
 import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.impl.AttributePair;
 import de.unileipzig.dbs.pprl.core.encoder.attribute.AttributeFrequencyEncoderGroup;
 import de.unileipzig.dbs.pprl.core.encoder.record.ParallelPlainRecordEncoder;
-import de.unileipzig.dbs.pprl.core.matcher.model.AttributePairWithSimilarity;
-import de.unileipzig.dbs.pprl.core.matcher.model.NamedAttributePair;
 import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
-import de.unileipzig.dbs.pprl.core.common.model.impl.RecordPairSimple;
 import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.aggregation.SimilarityAggregator;
 import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.attribute.AttributeSimilarityCalculator;
 import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.missing.MissingSimilarityStrategy;
@@ -32,13 +30,10 @@ import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.missing.NoModif
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.Collection;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @JsonPropertyOrder({"missingSimilarityStrategy", "similarityCalculator", "similarityAggregator"})
 public class DefaultRecordSimilarityCalculator implements RecordSimilarityCalculator {
@@ -53,6 +48,8 @@ public class DefaultRecordSimilarityCalculator implements RecordSimilarityCalcul
   private MissingSimilarityStrategy missingSimilarityStrategy = new NoModification();
   private SimilarityAggregator similarityAggregator;
 
+  private final ThreadLocal<Comparison> comparisons = ThreadLocal.withInitial(Comparison::new);
+
   protected static Logger logger = LogManager.getLogger(DefaultRecordSimilarityCalculator.class);
 
   public DefaultRecordSimilarityCalculator(
@@ -74,58 +71,75 @@ public class DefaultRecordSimilarityCalculator implements RecordSimilarityCalcul
 
   @Override
   public double calculateSimilarity(RecordPair recordPair) {
-    //TODO Warum diese Kopie? Wird das Paar modifziert?
-    RecordPair rpCopy = new RecordPairSimple(recordPair.getLeftRecord(), recordPair.getRightRecord());
-    rpCopy = addSimilarity(rpCopy);
-    return rpCopy.getSimilarity();
+    final Comparison comparison = compare(recordPair.getLeftRecord(), recordPair.getRightRecord());
+    return comparison.aggregate(similarityAggregator);
   }
 
   @Override
   public RecordPair addSimilarity(RecordPair recordPair) {
-    Set<NamedAttributePair> attrPairs = getAttributePairs(recordPair);
-    Set<AttributePairWithSimilarity> attrSimilarities = getAttributePairWithSimilarities(attrPairs);
-    Double sim = similarityAggregator.aggregate(attrSimilarities);
-    return buildRecordPairSimilarities(recordPair, sim, attrSimilarities);
-  }
-
-  protected Set<AttributePairWithSimilarity> getAttributePairWithSimilarities(
-    Set<NamedAttributePair> attrPairs) {
-    return attrPairs.stream()
-      .map(similarityCalculator::addSimilarity)
-      .map(missingSimilarityStrategy::modify)
-      .collect(Collectors.toSet());
-  }
-
-  protected RecordPair buildRecordPairSimilarities(
-    RecordPair recordPair,
-    Double sim,
-    Set<AttributePairWithSimilarity> attrSimilarities) {
-
-    Map<String, Double> attrSimMap = attrSimilarities.stream().collect(
-      Collectors.toMap(AttributePairWithSimilarity::getName, AttributePairWithSimilarity::getSimilarity));
-
+    final Comparison comparison = compare(recordPair.getLeftRecord(), recordPair.getRightRecord());
+    final double sim = comparison.aggregate(similarityAggregator);
+    final Map<String, Double> attrSimMap = new HashMap<>(comparison.size * 4 / 3 + 1);
+    for (int i = 0; i < comparison.size; i++) {
+      attrSimMap.put(comparison.names[i], comparison.similarities[i]);
+    }
     return recordPair
       .setSimilarity(sim)
       .setAttributeSimilarities(attrSimMap);
   }
 
-  protected Set<NamedAttributePair> getAttributePairs(RecordPair recordPair) {
-    Set<NamedAttributePair> attrPairs = new HashSet<>();
-    Record leftRecord = recordPair.getLeftRecord();
-    Record rightRecord = recordPair.getRightRecord();
-    Collection<String> rightAttrNames = rightRecord.getAttributeNames();
-    for (String rightAttrName : rightAttrNames) {
-      if (ATTRIBUTE_IGNORE_NAME_PATTERNS.stream().anyMatch(rightAttrName::contains)) {
-        continue;
+  /**
+   * Compare all attributes of the right record that the left record has as well, using the plan of the
+   * previous comparison of this thread if the schema did not change.
+   * The returned buffer is reused by the next comparison of the same thread.
+   */
+  private Comparison compare(Record leftRecord, Record rightRecord) {
+    final Comparison comparison = comparisons.get();
+    if (comparison.plan == null || !comparison.plan.matches(rightRecord)) {
+      comparison.setPlan(AttributeComparisonPlan.compile(rightRecord, ATTRIBUTE_IGNORE_NAME_PATTERNS));
+    }
+    final AttributeComparisonPlan plan = comparison.plan;
+    comparison.size = 0;
+    for (int i = 0; i < plan.size(); i++) {
+      final String name = plan.getName(i);
+      final Optional<Attribute> rightAttribute = rightRecord.getAttribute(name);
+      if (rightAttribute.isEmpty()) {
+        // Same number of attributes, but a different schema
+        comparison.setPlan(AttributeComparisonPlan.compile(rightRecord, ATTRIBUTE_IGNORE_NAME_PATTERNS));
+        return compare(leftRecord, rightRecord);
       }
-      Optional<Attribute> optionalLeftAttribute = leftRecord.getAttribute(rightAttrName);
-      if (optionalLeftAttribute.isPresent()) {
-        Attribute leftAttr = optionalLeftAttribute.get();
-        Attribute rightAttr = rightRecord.getAttribute(rightAttrName).get();
-        attrPairs.add(new NamedAttributePair(rightAttrName, leftAttr, rightAttr));
+      final Optional<Attribute> leftAttribute = leftRecord.getAttribute(name);
+      if (leftAttribute.isPresent()) {
+        final double sim = similarityCalculator.calculateSimilarity(
+          new AttributePair(leftAttribute.get(), rightAttribute.get()));
+        comparison.names[comparison.size] = name;
+        comparison.similarities[comparison.size] = missingSimilarityStrategy.modify(sim, name);
+        comparison.size++;
       }
     }
-    return attrPairs;
+    return comparison;
+  }
+
+  /**
+   * Reusable buffer of the attribute similarities of one record pair
+   */
+  private static final class Comparison {
+    private AttributeComparisonPlan plan;
+    private String[] names = new String[0];
+    private double[] similarities = new double[0];
+    private int size;
+
+    private void setPlan(AttributeComparisonPlan plan) {
+      this.plan = plan;
+      if (names.length < plan.size()) {
+        names = new String[plan.size()];
+        similarities = new double[plan.size()];
+      }
+    }
+
+    private double aggregate(SimilarityAggregator aggregator) {
+      return aggregator.aggregate(names, similarities, size);
+    }
   }
 
   public AttributeSimilarityCalculator getSimilarityCalculator() {
@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.unileipzig.dbs.pprl.core.matcher.blocking;
+
+import de.unileipzig.dbs.pprl.core.common.factories.AttributeFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordIdFactory;
+import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordId;
+import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
+import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.attribute.BitVectorSimilarityCalculator.SimilarityMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CandidatePruningTest {
+  private static final String ATTRIBUTE = "rbf";
+  private static final int LENGTH = 256;
+
+  @Test
+  void boundsDice() {
+    CandidatePruning pruning = new CandidatePruning(ATTRIBUTE, 0.8, SimilarityMethod.DICE, false);
+    // 2 * 60 / (60 + 90) = 0.8
+    assertEquals(60, pruning.getMinCardinality(90));
+    assertEquals(90, pruning.getMaxCardinality(60));
+    assertEquals(60, pruning.getMinOverlap(60, 90));
+  }
+
+  @Test
+  void boundsJaccard() {
+    CandidatePruning pruning = new CandidatePruning(ATTRIBUTE, 0.5, SimilarityMethod.JACCARD, false);
+    assertEquals(50, pruning.getMinCardinality(100));
+    assertEquals(200, pruning.getMaxCardinality(100));
+    // 50 / (100 + 50 - 50) = 0.5
+    assertEquals(50, pruning.getMinOverlap(100, 50));
+  }
+
+  @Test
+  void pruningIsLossless() {
+    Random random = new Random(42);
+    List<Record> left = new ArrayList<>();
+    List<Record> right = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      BitSet bits = randomBits(random, 20 + random.nextInt(100));
+      left.add(getRecord("L" + i, bits));
+      BitSet similar = (BitSet) bits.clone();
+      for (int j = 0; j < random.nextInt(30); j++) {
+        similar.flip(random.nextInt(LENGTH));
+      }
+      right.add(getRecord("R" + i, similar));
+    }
+    left.add(RecordFactory.getEmptyRecord(RecordIdFactory.get("missing")));
+
+    for (SimilarityMethod method : List.of(SimilarityMethod.DICE, SimilarityMethod.JACCARD)) {
+      for (double threshold : new double[]{0.6, 0.8, 0.9}) {
+        Set<String> expected = new HashSet<>();
+        for (Record l : left) {
+          for (Record r : right) {
+            if (l.getAttribute(ATTRIBUTE).isEmpty() || getSimilarity(l, r, method) >= threshold) {
+              expected.add(l.getId().getLocalId() + "-" + r.getId().getLocalId());
+            }
+          }
+        }
+        Set<String> lengthFiltered = generate(new CandidatePruning(ATTRIBUTE, threshold, method, false), left, right);
+        Set<String> prefixFiltered = generate(new CandidatePruning(ATTRIBUTE, threshold, method, true), left, right);
+        assertTrue(lengthFiltered.containsAll(expected), method + " " + threshold);
+        assertTrue(prefixFiltered.containsAll(expected), method + " " + threshold);
+        assertTrue(lengthFiltered.size() < left.size() * right.size());
+        assertTrue(prefixFiltered.size() <= lengthFiltered.size());
+      }
+    }
+  }
+
+  @Test
+  void crossProductUsesPruning() {
+    List<Record> left = List.of(getRecord("a", bits(0, 10)), getRecord("b", bits(0, 40)));
+    List<Record> right = List.of(getRecord("c", bits(0, 11)), getRecord("d", bits(0, 39)));
+    CrossProduct crossProduct = new CrossProduct(new CandidatePruning(ATTRIBUTE, 0.9, SimilarityMethod.DICE, true));
+    assertEquals(2, crossProduct.blockTwo(left, right).size());
+    assertEquals(4, new CrossProduct().blockTwo(left, right).size());
+  }
+
+  private static Set<String> generate(CandidatePruning pruning, List<Record> left, List<Record> right) {
+    Set<String> pairs = new HashSet<>();
+    pruning.generate(left, right, (l, r) -> pairs.add(l.getId().getLocalId() + "-" + r.getId().getLocalId()));
+    return pairs;
+  }
+
+  private static double getSimilarity(Record l, Record r, SimilarityMethod method) {
+    BitSet a = l.getAttribute(ATTRIBUTE).get().getAs(BitVector.class).getBitSet();
+    BitSet b = r.getAttribute(ATTRIBUTE).get().getAs(BitVector.class).getBitSet();
+    BitSet and = (BitSet) a.clone();
+    and.and(b);
+    int overlap = and.cardinality();
+    return method == SimilarityMethod.JACCARD ?
+      (double) overlap / (a.cardinality() + b.cardinality() - overlap) :
+      2.0 * overlap / (a.cardinality() + b.cardinality());
+  }
+
+  private static BitSet randomBits(Random random, int cardinality) {
+    BitSet bits = new BitSet(LENGTH);
+    while (bits.cardinality() < cardinality) {
+      bits.set(random.nextInt(LENGTH));
+    }
+    return bits;
+  }
+
+  private static BitSet bits(int from, int to) {
+    BitSet bits = new BitSet(LENGTH);
+    bits.set(from, to);
+    return bits;
+  }
+
+  private static Record getRecord(String id, BitSet bits) {
+    RecordId recordId = RecordIdFactory.get(id);
+    return RecordFactory.getEmptyRecord(recordId)
+      .setAttribute(ATTRIBUTE, AttributeFactory.getAttribute(BitSetVector.fromBitSet(bits, LENGTH)));
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.matcher.blocking;
+
+import de.unileipzig.dbs.pprl.core.common.BitSetUtils;
+import de.unileipzig.dbs.pprl.core.common.factories.AttributeFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordIdFactory;
+import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordId;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
+import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
+import de.unileipzig.dbs.pprl.core.common.model.impl.PersonalAttributeType;
+import de.unileipzig.dbs.pprl.core.common.model.impl.RecordClusterSimple;
+import de.unileipzig.dbs.pprl.core.encoder.blocking.BitwiseHLSH;
+import de.unileipzig.dbs.pprl.core.encoder.blocking.Equality;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StandardBlockingTest {
+  private static final String FN = PersonalAttributeType.FIRSTNAME.name();
+  private static final String LN = PersonalAttributeType.LASTNAME.name();
+  private static final int RECORDS_PER_SOURCE = 50;
+  private static final long MAX_COMPARISONS = 200;
+
+  private List<RecordCluster> sources;
+
+  @BeforeEach
+  void setUp() {
+    sources = List.of(generateRecordCluster("A"), generateRecordCluster("B"));
+  }
+
+  @Test
+  void oversizedBlockWithoutStrategy() {
+    StandardBlocking blocking = getBlocking(null);
+    Collection<BlockingGroup> groups = blocking.block(sources);
+
+    assertEquals(1, groups.size());
+    assertEquals(1, blocking.getOversizedBlocks().size());
+    assertEquals(RECORDS_PER_SOURCE * RECORDS_PER_SOURCE, blocking.getOversizedBlocks().get(0).comparisons());
+  }
+
+  @Test
+  void subBlocking() {
+    StandardBlocking blocking = getBlocking(new SubBlocking(List.of(new Equality("eqFN", FN)), null));
+    Collection<BlockingGroup> groups = blocking.block(sources);
+
+    assertEquals(10, groups.size());
+    assertEquals(1, blocking.getOversizedBlocks().size());
+    assertEquals(10, blocking.getOversizedBlocks().get(0).resultingGroups());
+    for (BlockingGroup group : groups) {
+      assertEquals("eqLN", group.getBlockingKey().getId());
+      assertTrue(group.getComparisonCount() <= MAX_COMPARISONS);
+    }
+    assertTrue(getPairIds(groups).containsAll(getDuplicatePairIds()));
+  }
+
+  @Test
+  void sortedNeighbourhood() {
+    StandardBlocking blocking = getBlocking(new SortedNeighbourhood(FN, 0));
+    Collection<BlockingGroup> groups = blocking.block(sources);
+
+    assertEquals(1, blocking.getOversizedBlocks().size());
+    for (BlockingGroup group : groups) {
+      assertTrue(group.getComparisonCount() <= MAX_COMPARISONS);
+    }
+    assertTrue(getPairIds(groups).containsAll(getDuplicatePairIds()));
+  }
+
+  @Test
+  void oversizedBlockDefaults() {
+    StandardBlocking blocking = new StandardBlocking();
+    assertEquals(0, blocking.getMaxBlockComparisons());
+    assertNull(blocking.getOversizedBlockStrategy());
+
+    blocking.addBlockingKeyExtractor(new Equality("eqLN", LN));
+    Collection<BlockingGroup> groups = blocking.block(sources);
+    assertEquals(1, groups.size());
+    assertTrue(blocking.getOversizedBlocks().isEmpty());
+
+    blocking.setMaxBlockComparisons(MAX_COMPARISONS);
+    groups = blocking.block(sources);
+    assertEquals(1, groups.size());
+    assertEquals(1, blocking.getOversizedBlocks().size());
+  }
+
+  @Test
+  void sortedNeighbourhoodRequiresSortingAttribute() {
+    StandardBlocking blocking = getBlocking(new SortedNeighbourhood());
+    assertThrows(IllegalArgumentException.class, () -> blocking.block(sources));
+  }
+
+  @Test
+  void probesOnlyForQueryingSources() {
+    int length = 256;
+    BitVector bv = new BitSetVector(length, BitSetUtils.generateRandomBitSet(length, length / 4));
+    BitVector bvDiff = new BitSetVector(length, bv.getBitSet());
+    bvDiff.set(bv.getBitSet().nextSetBit(0), false);
+    Record left = getBitVectorRecord("A", bv);
+    Record right = getBitVectorRecord("B", bvDiff);
+
+    StandardBlocking blocking = new StandardBlocking();
+    BitwiseHLSH hlsh = new BitwiseHLSH("lsh", FN, length, 1357, 5, 12, 1);
+    blocking.addBlockingKeyExtractor(hlsh);
+    assertEquals(5, blocking.generateKeys(right).size());
+
+    Collection<BlockingGroup> groups = blocking.block(List.of(
+      new RecordClusterSimple(List.of(left)), new RecordClusterSimple(List.of(right))));
+    assertTrue(getPairIds(groups).contains(left.getPair(right).getPairId()));
+  }
+
+  private static Record getBitVectorRecord(String source, BitVector bv) {
+    RecordId recordId = RecordIdFactory.get("1");
+    recordId.addId(RecordId.SOURCE_ID, source);
+    Record record = RecordFactory.getEmptyRecord(recordId);
+    record.setAttribute(FN, AttributeFactory.getAttribute(bv));
+    return record;
+  }
+
+  private StandardBlocking getBlocking(OversizedBlockStrategy strategy) {
+    StandardBlocking blocking = new StandardBlocking();
+    blocking.addBlockingKeyExtractor(new Equality("eqLN", LN));
+    blocking.setMaxBlockComparisons(MAX_COMPARISONS);
+    blocking.setOversizedBlockStrategy(strategy);
+    return blocking;
+  }
+
+  private static Set<String> getPairIds(Collection<BlockingGroup> groups) {
+    Set<String> pairIds = new HashSet<>();
+    CrossProduct crossProduct = new CrossProduct();
+    for (BlockingGroup group : groups) {
+      crossProduct.block(group.getGroups()).stream().map(RecordPair::getPairId).forEach(pairIds::add);
+    }
+    return pairIds;
+  }
+
+  private Set<String> getDuplicatePairIds() {
+    Set<String> pairIds = new HashSet<>();
+    List<Record> left = new ArrayList<>(sources.get(0).getRecords());
+    for (Record record : left) {
+      String localId = record.getId().getLocalId();
+      Record duplicate = sources.get(1).getRecords().stream()
+        .filter(r -> r.getId().getLocalId().equals(localId))
+        .findFirst().orElseThrow();
+      pairIds.add(record.getPair(duplicate).getPairId());
+    }
+    return pairIds;
+  }
+
+  private RecordCluster generateRecordCluster(String source) {
+    Collection<Record> records = new ArrayList<>();
+    for (int i = 0; i < RECORDS_PER_SOURCE; i++) {
+      RecordId recordId = RecordIdFactory.get(String.valueOf(i));
+      recordId.addId(RecordId.SOURCE_ID, source);
+      Record record = RecordFactory.getEmptyRecord(recordId);
+      record.setAttribute(FN, AttributeFactory.getAttribute("name" + (i % 10)));
+      record.setAttribute(LN, AttributeFactory.getAttribute("mueller"));
+      records.add(record);
+    }
+    return new RecordClusterSimple(records);
+  }
+}
@@ -28,6 +28,7 @@ import org.junit.jupiter.api.Test;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -67,6 +68,19 @@ class ConnectedComponentsTest {
     }
   }
 
+  @Test
+  void clusterStream() {
+    ConnectedComponents cc = new ConnectedComponents();
+    Set<Set<String>> expected = toIds(cc.cluster(recordPairs));
+    assertEquals(expected, toIds(cc.cluster(recordPairs.stream())));
+  }
+
+  private static Set<Set<String>> toIds(Collection<RecordCluster> clusters) {
+    return clusters.stream()
+      .map(c -> c.getRecords().stream().map(r -> r.getId().getUniqueId()).collect(Collectors.toSet()))
+      .collect(Collectors.toSet());
+  }
+
   private RecordPair getPair(String left, String right, Double sim, String leftSrc) {
 //		int rnd = new Random().nextInt(2);
 //		String leftSrc = rnd > 0? "org" : "dup";
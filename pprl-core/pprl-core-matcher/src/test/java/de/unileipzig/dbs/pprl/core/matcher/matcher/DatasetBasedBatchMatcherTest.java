@@ -0,0 +1,284 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.unileipzig.dbs.pprl.core.matcher.matcher;
+
+import de.unileipzig.dbs.pprl.core.common.factories.AttributeFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordIdFactory;
+import de.unileipzig.dbs.pprl.core.common.model.api.BlockingKey;
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordCluster;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordId;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
+import de.unileipzig.dbs.pprl.core.common.model.impl.MatchGrade;
+import de.unileipzig.dbs.pprl.core.common.model.impl.PersonalAttributeType;
+import de.unileipzig.dbs.pprl.core.common.monitoring.TagTable;
+import de.unileipzig.dbs.pprl.core.encoder.blocking.Equality;
+import de.unileipzig.dbs.pprl.core.matcher.MatcherTestBase;
+import de.unileipzig.dbs.pprl.core.matcher.blocking.BlockingGroup;
+import de.unileipzig.dbs.pprl.core.matcher.blocking.StandardBlocking;
+import de.unileipzig.dbs.pprl.core.matcher.model.api.LinkageProcessDataSet;
+import de.unileipzig.dbs.pprl.core.matcher.postprocessing.MaxBoth;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatasetBasedBatchMatcherTest extends MatcherTestBase {
+  private static final String[] FIRST_NAMES = {"peter", "petra", "paul", "anna"};
+  private static final String[] LAST_NAMES = {"mueller", "miller", "schmidt"};
+
+  private InMemoryDataSet dataSet;
+
+  private AtomicInteger generatedKeys;
+
+  private DatasetBasedBatchMatcher matcher;
+
+  @BeforeEach
+  void setUp() {
+    dataSet = new InMemoryDataSet();
+    for (String source : new String[]{"A", "B"}) {
+      int i = 0;
+      for (String fn : FIRST_NAMES) {
+        for (String ln : LAST_NAMES) {
+          RecordId recordId = RecordIdFactory.get(source + "-" + i++);
+          recordId.addId(RecordId.SOURCE_ID, source);
+          Record record = RecordFactory.getEmptyRecord(recordId);
+          record.setAttribute(PersonalAttributeType.FIRSTNAME.name(), AttributeFactory.getAttribute(fn));
+          record.setAttribute(PersonalAttributeType.LASTNAME.name(), AttributeFactory.getAttribute(ln));
+          dataSet.addRecord(record);
+        }
+      }
+    }
+    generatedKeys = new AtomicInteger();
+    StandardBlocking blocker = new StandardBlocking() {
+      @Override
+      public Collection<BlockingKey> generateKeys(Record record) {
+        generatedKeys.incrementAndGet();
+        return super.generateKeys(record);
+      }
+    };
+    blocker.addBlockingKeyExtractor(new Equality("eqFN", PersonalAttributeType.FIRSTNAME.name()));
+    blocker.addBlockingKeyExtractor(new Equality("eqLN", PersonalAttributeType.LASTNAME.name()));
+    DefaultBatchMatcher defaultMatcher = (DefaultBatchMatcher) getExamplePlainMatcher();
+    matcher = new DatasetBasedBatchMatcher(blocker, defaultMatcher.getLinker(), defaultMatcher.getClusterer());
+    matcher.setDataSet(dataSet);
+  }
+
+  @Test
+  void runBlockingPersistsAndReusesBlockingKeys() {
+    matcher.runBlocking();
+    assertEquals(dataSet.size(), generatedKeys.get());
+    assertEquals(dataSet.size(), dataSet.blockingKeys.size());
+    // records of both sources sharing first or last name
+    assertEquals(FIRST_NAMES.length * LAST_NAMES.length * (LAST_NAMES.length + FIRST_NAMES.length - 1),
+      dataSet.getRecordPairCount());
+    Set<String> pairIds = getPairIds();
+
+    dataSet.recordPairs.clear();
+    matcher.runBlocking();
+    assertEquals(dataSet.size(), generatedKeys.get());
+    assertEquals(pairIds, getPairIds());
+  }
+
+  @Test
+  void runBlockingGeneratesKeysOfNewRecordsOnly() {
+    matcher.runBlocking();
+    RecordId recordId = RecordIdFactory.get("B-new");
+    recordId.addId(RecordId.SOURCE_ID, "B");
+    Record record = RecordFactory.getEmptyRecord(recordId);
+    record.setAttribute(PersonalAttributeType.FIRSTNAME.name(), AttributeFactory.getAttribute("peter"));
+    record.setAttribute(PersonalAttributeType.LASTNAME.name(), AttributeFactory.getAttribute("schulze"));
+    dataSet.addRecord(record);
+
+    dataSet.recordPairs.clear();
+    matcher.runBlocking();
+    assertEquals(dataSet.size(), generatedKeys.get());
+    assertFalse(dataSet.recordPairs.stream()
+      .filter(rp -> rp.getRightRecord() == record || rp.getLeftRecord() == record)
+      .toList().isEmpty());
+  }
+
+  @Test
+  void compareAndClassifyBlockedPairs() {
+    matcher.runBlocking();
+    matcher.compareAndClassifyActiveRecordPairs();
+    assertEquals(getPairIds(), dataSet.updatedPairs.stream().map(RecordPair::getPairId).collect(Collectors.toSet()));
+  }
+
+  @Test
+  void postprocessingUpdatesRemovedPairsOnly() {
+    matcher.runBlocking();
+    matcher.compareAndClassifyActiveRecordPairs();
+    dataSet.updatedPairs.clear();
+    matcher.setLinksPostprocessor(new MaxBoth(false));
+    matcher.runPostProcessing();
+
+    assertFalse(dataSet.updatedPairs.isEmpty());
+    Set<String> updatedIds = dataSet.updatedPairs.stream().map(RecordPair::getPairId).collect(Collectors.toSet());
+    for (RecordPair pair : dataSet.recordPairs) {
+      boolean removed = pair.getTags().stream().anyMatch(t -> t.getTag().equals(LinkageProcessDataSet.TAG_REMOVED_BY_POSTPROCESSING));
+      assertEquals(removed, updatedIds.contains(pair.getPairId()));
+    }
+  }
+
+  @Test
+  void reclassificationUpdatesChangedPairsOnly() {
+    matcher.runBlocking();
+    matcher.compareAndClassifyActiveRecordPairs();
+    dataSet.updatedPairs.clear();
+    assertEquals(0, matcher.reclassifyChangedRecordPairs(dataSet.recordPairs.stream()));
+    assertTrue(dataSet.updatedPairs.isEmpty());
+
+    RecordPair pair = dataSet.recordPairs.get(0);
+    MatchGrade classification = pair.getClassification();
+    pair.setClassification(classification == MatchGrade.NON_MATCH ? MatchGrade.CERTAIN_MATCH : MatchGrade.NON_MATCH);
+    assertEquals(1, matcher.reclassifyChangedRecordPairs(dataSet.recordPairs.stream()));
+    assertEquals(List.of(pair), dataSet.updatedPairs);
+    assertEquals(classification, pair.getClassification());
+  }
+
+  @Test
+  void reclassificationUpdatesModifiedPairs() {
+    matcher.runBlocking();
+    matcher.compareAndClassifyActiveRecordPairs();
+    dataSet.updatedPairs.clear();
+
+    RecordPair modified = dataSet.recordPairs.get(0);
+    assertEquals(0, matcher.reclassifyChangedRecordPairs(dataSet.recordPairs.stream(), pair -> pair == modified));
+    assertEquals(List.of(modified), dataSet.updatedPairs);
+  }
+
+  private Set<String> getPairIds() {
+    return dataSet.recordPairs.stream().map(RecordPair::getPairId).collect(Collectors.toSet());
+  }
+
+  private static class InMemoryDataSet implements LinkageProcessDataSet {
+    private final List<Record> records = new ArrayList<>();
+    private final List<RecordPair> recordPairs = new ArrayList<>();
+    private final List<RecordPair> updatedPairs = new ArrayList<>();
+    private final Map<String, Collection<BlockingKey>> blockingKeys = new HashMap<>();
+
+    @Override
+    public Map<String, Collection<BlockingKey>> getBlockingKeys(Collection<String> uniqueIds) {
+      return uniqueIds.stream().filter(blockingKeys::containsKey)
+        .collect(Collectors.toMap(id -> id, blockingKeys::get));
+    }
+
+    @Override
+    public void addBlockingKeys(Map<String, Collection<BlockingKey>> blockingKeys) {
+      this.blockingKeys.putAll(blockingKeys);
+    }
+
+    @Override
+    public void addBlockingGroups(Collection<BlockingGroup> blockingGroups) {
+    }
+
+    @Override
+    public void addRecordPair(RecordPair recordPair) {
+      recordPairs.add(recordPair);
+    }
+
+    @Override
+    public long getRecordPairCount() {
+      return recordPairs.size();
+    }
+
+    @Override
+    public Collection<RecordPair> getRecordPairs() {
+      return recordPairs;
+    }
+
+    @Override
+    public Collection<RecordPair> getClassifiedRecordPairs() {
+      return updatedPairs;
+    }
+
+    @Override
+    public Collection<RecordPair> getRecordPairsFilteredByProperties(Set<String> properties) {
+      return new ArrayList<>(recordPairs);
+    }
+
+    @Override
+    public void addRecordCluster(RecordCluster recordCluster) {
+    }
+
+    @Override
+    public void updateRecordPairs(Collection<RecordPair> recordPairs) {
+      updatedPairs.addAll(recordPairs);
+    }
+
+    @Override
+    public void replaceRecordPairs(Collection<RecordPair> recordPairs) {
+    }
+
+    @Override
+    public Collection<Record> getRecordsByBlockingKey(BlockingKey bk) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addBlockedRecord(Record record, Collection<BlockingKey> blockingKeys) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addRecord(Record record) {
+      records.add(record);
+    }
+
+    @Override
+    public void addRecords(Collection<Record> records) {
+      this.records.addAll(records);
+    }
+
+    @Override
+    public Optional<Record> getRecord(RecordId id) {
+      return records.stream().filter(r -> r.getId().equals(id)).findFirst();
+    }
+
+    @Override
+    public Collection<Record> getAllRecords() {
+      return new ArrayList<>(records);
+    }
+
+    @Override
+    public Collection<Record> getRecordsBySource(String sourceName) {
+      return records.stream().filter(r -> r.getId().getSourceId().equals(sourceName)).collect(Collectors.toList());
+    }
+
+    @Override
+    public void setTagTable(TagTable tagTable) {
+    }
+
+    @Override
+    public Optional<TagTable> getTagTable() {
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.matcher.matcher;
+
+import de.unileipzig.dbs.pprl.core.common.factories.AttributeFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordIdFactory;
+import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordId;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
+import de.unileipzig.dbs.pprl.core.common.model.impl.PersonalAttributeType;
+import de.unileipzig.dbs.pprl.core.matcher.MatcherTestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DefaultBatchMatcherTest extends MatcherTestBase {
+  private static final String[] FIRST_NAMES = {"peter", "petra", "paul", "anna", "anne"};
+  private static final String[] LAST_NAMES = {"mueller", "miller", "schmidt", "schmitt"};
+  private static final String[] PLZ = {"04109", "04103"};
+
+  private List<Record> records;
+
+  @BeforeEach
+  void setUp() {
+    records = new ArrayList<>();
+    for (String source : new String[]{"A", "B"}) {
+      int i = 0;
+      for (String fn : FIRST_NAMES) {
+        for (String ln : LAST_NAMES) {
+          for (String plz : PLZ) {
+            RecordId recordId = RecordIdFactory.get(source + "-" + i++);
+            recordId.addId(RecordId.SOURCE_ID, source);
+            Record record = RecordFactory.getEmptyRecord(recordId);
+            record.setAttribute(PersonalAttributeType.FIRSTNAME.name(), AttributeFactory.getAttribute(fn));
+            record.setAttribute(PersonalAttributeType.LASTNAME.name(), AttributeFactory.getAttribute(ln));
+            record.setAttribute(PersonalAttributeType.PLZ.name(), AttributeFactory.getAttribute(plz));
+            records.add(record);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void parallelMatchesSequential() {
+    DefaultBatchMatcher matcher = (DefaultBatchMatcher) getExamplePlainMatcher();
+    Map<String, Double> sequential = toSimilarityMap(matcher.matchRecords(records));
+    assertFalse(sequential.isEmpty());
+
+    matcher.setParallelism(4);
+    Collection<RecordPair> parallel = matcher.matchRecords(records);
+    assertEquals(sequential, toSimilarityMap(parallel));
+
+    List<String> order = parallel.stream().map(RecordPair::getPairId).collect(Collectors.toList());
+    List<String> secondOrder = matcher.matchRecords(records).stream()
+      .map(RecordPair::getPairId)
+      .collect(Collectors.toList());
+    assertEquals(order, secondOrder);
+  }
+
+  @Test
+  void matchingDecodesRecordsIfEnabled() {
+    DefaultBatchMatcher matcher = (DefaultBatchMatcher) getExamplePlainMatcher();
+    Attribute attribute = records.get(0).getAttribute(PersonalAttributeType.FIRSTNAME.name()).orElseThrow();
+    assertNotSame(attribute.getObject(), attribute.getObject());
+
+    assertFalse(matcher.matchRecords(records).isEmpty());
+    assertNotSame(attribute.getObject(), attribute.getObject());
+
+    matcher.setDecodeRecords(true);
+    assertFalse(matcher.matchRecords(records).isEmpty());
+    assertSame(attribute.getObject(), attribute.getObject());
+  }
+
+  private static Map<String, Double> toSimilarityMap(Collection<RecordPair> pairs) {
+    return pairs.stream().collect(Collectors.toMap(RecordPair::getPairId, RecordPair::getSimilarity));
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.unileipzig.dbs.pprl.core.matcher.model.impl;
+
+import de.unileipzig.dbs.pprl.core.common.factories.AttributeFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.BlockingKeyFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordIdFactory;
+import de.unileipzig.dbs.pprl.core.common.model.api.BlockedDataSet;
+import de.unileipzig.dbs.pprl.core.common.model.api.BlockingKey;
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordId;
+import de.unileipzig.dbs.pprl.core.common.model.impl.PersonalAttributeType;
+import de.unileipzig.dbs.pprl.core.common.monitoring.TagTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndexedBlockedDataSetTest {
+  private static final BlockingKey KEY_A = BlockingKeyFactory.getBlockingKey("fn", "a");
+  private static final BlockingKey KEY_B = BlockingKeyFactory.getBlockingKey("fn", "b");
+
+  private CountingDataSet durable;
+
+  @BeforeEach
+  void setUp() {
+    durable = new CountingDataSet();
+    durable.addBlockedRecord(getRecord("1"), List.of(KEY_A));
+    durable.addBlockedRecord(getRecord("2"), List.of(KEY_A, KEY_B));
+    durable.addBlockedRecord(getRecord("3"), List.of(KEY_B));
+  }
+
+  @Test
+  void lookupsAreServedFromMemory() {
+    IndexedBlockedDataSet dataSet = new IndexedBlockedDataSet(durable);
+    assertEquals(Set.of("1", "2", "3"), getLocalIds(dataSet.getRecordsByBlockingKeys(List.of(KEY_A, KEY_B))));
+    // both keys are fetched with a single lookup
+    assertEquals(1, durable.lookups);
+
+    assertEquals(Set.of("1", "2"), getLocalIds(dataSet.getRecordsByBlockingKey(KEY_A)));
+    assertEquals(Set.of("2", "3"), getLocalIds(dataSet.getRecordsByBlockingKey(KEY_B)));
+    assertEquals(1, durable.lookups);
+    assertEquals(2, dataSet.getIndexedKeyCount());
+  }
+
+  @Test
+  void insertedRecordsAreIndexed() {
+    IndexedBlockedDataSet dataSet = new IndexedBlockedDataSet(durable);
+    dataSet.getRecordsByBlockingKey(KEY_A);
+    dataSet.addBlockedRecord(getRecord("4"), List.of(KEY_A));
+    assertEquals(Set.of("1", "2", "4"), getLocalIds(dataSet.getRecordsByBlockingKey(KEY_A)));
+    assertEquals(1, durable.lookups);
+
+    // key B has only been written, so it is fetched once including the inserted record
+    dataSet.addBlockedRecord(getRecord("5"), List.of(KEY_B));
+    assertEquals(Set.of("2", "3", "5"), getLocalIds(dataSet.getRecordsByBlockingKey(KEY_B)));
+    assertEquals(Set.of("2", "3", "5"), getLocalIds(dataSet.getRecordsByBlockingKey(KEY_B)));
+    assertEquals(2, durable.lookups);
+  }
+
+  @Test
+  void evictedRecordsAreFetchedAgain() {
+    IndexedBlockedDataSet dataSet = new IndexedBlockedDataSet(durable, 2);
+    dataSet.getRecordsByBlockingKey(KEY_A);
+    dataSet.getRecordsByBlockingKey(KEY_B);
+    assertEquals(2, dataSet.getCachedRecordCount());
+    assertEquals(Set.of("1", "2"), getLocalIds(dataSet.getRecordsByBlockingKey(KEY_A)));
+    assertEquals(3, durable.lookups);
+  }
+
+  @Test
+  void invalidatedKeysAreFetchedAgain() {
+    IndexedBlockedDataSet dataSet = new IndexedBlockedDataSet(durable);
+    dataSet.getRecordsByBlockingKey(KEY_A);
+    durable.addBlockedRecord(getRecord("4"), List.of(KEY_A));
+    assertEquals(Set.of("1", "2"), getLocalIds(dataSet.getRecordsByBlockingKey(KEY_A)));
+
+    dataSet.invalidate();
+    assertEquals(0, dataSet.getIndexedKeyCount());
+    assertEquals(Set.of("1", "2", "4"), getLocalIds(dataSet.getRecordsByBlockingKey(KEY_A)));
+    assertEquals(2, durable.lookups);
+  }
+
+  private static Record getRecord(String id) {
+    RecordId recordId = RecordIdFactory.get(id);
+    return RecordFactory.getEmptyRecord(recordId)
+      .setAttribute(PersonalAttributeType.FIRSTNAME.name(), AttributeFactory.getAttribute("name" + id));
+  }
+
+  private static Set<String> getLocalIds(Collection<Record> records) {
+    return records.stream().map(r -> r.getId().getLocalId()).collect(Collectors.toSet());
+  }
+
+  private static class CountingDataSet implements BlockedDataSet {
+    private final Map<BlockingKey, List<Record>> recordsByKey = new HashMap<>();
+    private int lookups;
+
+    @Override
+    public Collection<Record> getRecordsByBlockingKey(BlockingKey bk) {
+      lookups++;
+      return new ArrayList<>(recordsByKey.getOrDefault(bk, List.of()));
+    }
+
+    @Override
+    public Map<BlockingKey, Collection<Record>> getRecordsPerBlockingKey(Collection<BlockingKey> bks) {
+      lookups++;
+      return bks.stream().collect(Collectors.toMap(bk -> bk, bk -> new ArrayList<>(
+        recordsByKey.getOrDefault(bk, List.of()))));
+    }
+
+    @Override
+    public void addBlockedRecord(Record record, Collection<BlockingKey> blockingKeys) {
+      blockingKeys.forEach(bk -> recordsByKey.computeIfAbsent(bk, k -> new ArrayList<>()).add(record));
+    }
+
+    @Override
+    public void addRecord(Record record) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<Record> getRecord(RecordId id) {
+      return Optional.empty();
+    }
+
+    @Override
+    public Collection<Record> getAllRecords() {
+      return recordsByKey.values().stream().flatMap(Collection::stream).distinct().collect(Collectors.toList());
+    }
+
+    @Override
+    public Collection<Record> getRecordsBySource(String sourceName) {
+      return getAllRecords();
+    }
+
+    @Override
+    public void setTagTable(TagTable tagTable) {
+    }
+
+    @Override
+    public Optional<TagTable> getTagTable() {
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.unileipzig.dbs.pprl.core.matcher.postprocessing;
+
+import de.unileipzig.dbs.pprl.core.common.factories.RecordFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordIdFactory;
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordId;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
+import de.unileipzig.dbs.pprl.core.common.model.impl.RecordPairSimple;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MaxBothTest {
+
+  @Test
+  void clean() {
+    Record a1 = getRecord("A", "1");
+    Record a2 = getRecord("A", "2");
+    Record b1 = getRecord("B", "1");
+    Record b2 = getRecord("B", "2");
+    Record b3 = getRecord("B", "3");
+
+    for (boolean parallel : new boolean[]{false, true}) {
+      List<RecordPair> pairs = List.of(
+        new RecordPairSimple(a1, b1, 0.9),
+        new RecordPairSimple(a1, b2, 0.8),
+        new RecordPairSimple(b2, a2, 0.85),
+        new RecordPairSimple(a2, b3, 0.95),
+        new RecordPairSimple(a2, b1, 0.7)
+      );
+      Set<String> links = new MaxBoth(parallel).clean(pairs).stream()
+        .map(RecordPair::getPairId)
+        .collect(Collectors.toSet());
+      assertEquals(new HashSet<>(List.of(pairs.get(0).getPairId(), pairs.get(3).getPairId())), links);
+    }
+  }
+
+  @Test
+  void createFilter() {
+    Record a1 = getRecord("A", "1");
+    Record a2 = getRecord("A", "2");
+    Record b1 = getRecord("B", "1");
+    Record b2 = getRecord("B", "2");
+    Record b3 = getRecord("B", "3");
+
+    List<RecordPair> pairs = List.of(
+      new RecordPairSimple(a1, b1, 0.9),
+      new RecordPairSimple(a1, b2, 0.8),
+      new RecordPairSimple(b2, a2, 0.85),
+      new RecordPairSimple(a2, b3, 0.95),
+      new RecordPairSimple(a2, b1, 0.7)
+    );
+    Predicate<RecordPair> filter = new MaxBoth().createFilter(pairs.stream());
+    Set<String> links = pairs.stream()
+      .filter(filter)
+      .map(RecordPair::getPairId)
+      .collect(Collectors.toSet());
+    assertEquals(new HashSet<>(List.of(pairs.get(0).getPairId(), pairs.get(3).getPairId())), links);
+  }
+
+  @Test
+  void createFilterBreaksTiesIndependentOfOrder() {
+    Record a1 = getRecord("A", "1");
+    Record b1 = getRecord("B", "1");
+    Record b2 = getRecord("B", "2");
+
+    List<RecordPair> pairs = List.of(new RecordPairSimple(a1, b2, 0.9), new RecordPairSimple(a1, b1, 0.9));
+    Predicate<RecordPair> filter = new MaxBoth().createFilter(pairs.stream());
+    Predicate<RecordPair> reversedFilter = new MaxBoth().createFilter(pairs.reversed().stream());
+    for (RecordPair pair : pairs) {
+      assertEquals(filter.test(pair), reversedFilter.test(pair));
+    }
+    assertEquals(1, pairs.stream().filter(filter).count());
+  }
+
+  private static Record getRecord(String source, String localId) {
+    RecordId recordId = RecordIdFactory.get(source + "-" + localId);
+    recordId.addId(RecordId.SOURCE_ID, source);
+    return RecordFactory.getEmptyRecord(recordId);
+  }
+}
@@ -18,7 +18,9 @@ package de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.attribute;
 
 import de.unileipzig.dbs.pprl.core.common.factories.AttributeFactory;
 import de.unileipzig.dbs.pprl.core.common.model.api.Attribute;
+import de.unileipzig.dbs.pprl.core.common.model.api.BitVector;
 import de.unileipzig.dbs.pprl.core.common.model.impl.BitSetVector;
+import de.unileipzig.dbs.pprl.core.common.model.impl.PackedBitVector;
 import de.unileipzig.dbs.pprl.core.matcher.MatcherTestBase;
 import de.unileipzig.dbs.pprl.core.common.model.impl.AttributePair;
 import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.missing.MissingSimilarityStrategy;
@@ -58,4 +60,40 @@ class BitVectorSimilarityCalculatorTest extends MatcherTestBase {
     );
   }
 
-}
\ No newline at end of file
+  @Test
+  void packedBitVectorMatchesBitSetVector() {
+    BitVector left = getRandomBitVector(200);
+    BitVector right = getRandomBitVector(200);
+    AttributePair bitSetPair = new AttributePair(
+      AttributeFactory.getAttribute(left), AttributeFactory.getAttribute(right));
+    AttributePair packedPair = new AttributePair(
+      new PackedAttribute(PackedBitVector.of(left)), new PackedAttribute(PackedBitVector.of(right)));
+
+    for (BitVectorSimilarityCalculator.SimilarityMethod method : BitVectorSimilarityCalculator.SimilarityMethod.values()) {
+      BitVectorSimilarityCalculator similarityCalculator = new BitVectorSimilarityCalculator(method);
+      assertEquals(similarityCalculator.calculateSimilarity(bitSetPair),
+        similarityCalculator.calculateSimilarity(packedPair), 0.00001, method.name());
+      similarityCalculator.useWeightCurve = true;
+      assertEquals(similarityCalculator.calculateSimilarity(bitSetPair),
+        similarityCalculator.calculateSimilarity(packedPair), 0.00001, method.name());
+    }
+  }
+
+  private record PackedAttribute(PackedBitVector bitVector) implements Attribute {
+    @Override
+    public Type getType() {
+      return Type.BITVECTOR;
+    }
+
+    @Override
+    public Object getObject() {
+      return bitVector;
+    }
+
+    @Override
+    public Attribute duplicate() {
+      return new PackedAttribute(PackedBitVector.of(bitVector));
+    }
+  }
+
+}
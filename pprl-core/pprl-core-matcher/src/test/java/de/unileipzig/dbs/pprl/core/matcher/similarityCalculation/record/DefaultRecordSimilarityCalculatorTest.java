@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2018 - 2021 Leipzig University (Database Research Group)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.record;
+
+import de.unileipzig.dbs.pprl.core.common.factories.AttributeFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordFactory;
+import de.unileipzig.dbs.pprl.core.common.factories.RecordIdFactory;
+import de.unileipzig.dbs.pprl.core.common.model.api.Record;
+import de.unileipzig.dbs.pprl.core.common.model.api.RecordPair;
+import de.unileipzig.dbs.pprl.core.common.model.impl.RecordPairSimple;
+import de.unileipzig.dbs.pprl.core.encoder.record.ParallelPlainRecordEncoder;
+import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.aggregation.DefaultSimilarityAggregator;
+import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.aggregation.WeightedSimilarityAggregator;
+import de.unileipzig.dbs.pprl.core.matcher.similarityCalculation.attribute.EqualityTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DefaultRecordSimilarityCalculatorTest {
+
+  @Test
+  void addSimilarity() {
+    DefaultRecordSimilarityCalculator calculator = new DefaultRecordSimilarityCalculator(new EqualityTest(),
+      new DefaultSimilarityAggregator(DefaultSimilarityAggregator.AggregationMethod.AVERAGE));
+    Record left = getRecord("l", "FN", "peter", "LN", "mueller", "CITY", "leipzig");
+    Record right = getRecord("r", "FN", "peter", "LN", "miller", "DOB", "2000",
+      "FN" + ParallelPlainRecordEncoder.SUFFIX_PLAIN_RECORD, "peter");
+
+    RecordPair pair = calculator.addSimilarity(new RecordPairSimple(left, right));
+    assertEquals(0.5, pair.getSimilarity(), 0.00001);
+    assertEquals(Optional.of(Map.of("FN", 1.0, "LN", 0.0)), pair.getAttributeSimilarities());
+    assertEquals(0.5, calculator.calculateSimilarity(new RecordPairSimple(left, right)), 0.00001);
+  }
+
+  @Test
+  void schemaChanges() {
+    DefaultRecordSimilarityCalculator calculator = new DefaultRecordSimilarityCalculator(new EqualityTest(),
+      new WeightedSimilarityAggregator(Map.of("FN", 3.0, "LN", 1.0, "DOB", 1.0)));
+    Record left = getRecord("l", "FN", "peter", "LN", "mueller", "DOB", "2000");
+    Record sameSize = getRecord("r1", "FN", "peter", "DOB", "1999");
+    Record otherSchema = getRecord("r2", "LN", "mueller", "DOB", "2000");
+    Record larger = getRecord("r3", "FN", "paul", "LN", "mueller", "DOB", "2000");
+
+    assertEquals(0.75, calculator.calculateSimilarity(new RecordPairSimple(left, sameSize)), 0.00001);
+    assertEquals(1.0, calculator.calculateSimilarity(new RecordPairSimple(left, otherSchema)), 0.00001);
+    assertEquals(0.4, calculator.calculateSimilarity(new RecordPairSimple(left, larger)), 0.00001);
+    assertEquals(0.75, calculator.calculateSimilarity(new RecordPairSimple(left, sameSize)), 0.00001);
+
+    Record withIgnored = getRecord("r4", "FN", "peter", "FN" + ParallelPlainRecordEncoder.SUFFIX_PLAIN_RECORD, "peter");
+    Record withCompared = getRecord("r5", "FN", "peter", "LN", "miller");
+    assertEquals(1.0, calculator.calculateSimilarity(new RecordPairSimple(left, withIgnored)), 0.00001);
+    assertEquals(0.75, calculator.calculateSimilarity(new RecordPairSimple(left, withCompared)), 0.00001);
+  }
+
+  private static Record getRecord(String id, String... nameValues) {
+    Record record = RecordFactory.getEmptyRecord(RecordIdFactory.get(id));
+    for (int i = 0; i < nameValues.length; i += 2) {
+      record.setAttribute(nameValues[i], AttributeFactory.getAttribute(nameValues[i + 1]));
+    }
+    return record;
+  }
+}